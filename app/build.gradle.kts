@@ -32,6 +32,8 @@ android {
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
+        // java.time en minSdk 25 (DateUtils)
+        isCoreLibraryDesugaringEnabled = true
     }
 }
 
@@ -58,6 +60,12 @@ dependencies {
     // RecyclerView para listas
     implementation("androidx.recyclerview:recyclerview:1.3.2")
 
+    // Desbloqueo con huella o PIN para reanudar la sesión
+    implementation("androidx.biometric:biometric:1.1.0")
+
+    // java.time para API < 26
+    coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.1.5")
+
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
@@ -0,0 +1,155 @@
+package com.example.proyectoandroid.repository;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.proyectoandroid.model.RegistroAtencion;
+import com.example.proyectoandroid.util.RutUtils;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Verifica contra el emulador de Firestore la carga en bloque de atenciones: que escribe
+ * miles por minuto y que volver a cargar los mismos registros no duplica documentos.
+ *
+ * Requiere el emulador corriendo: firebase emulators:start --only firestore
+ */
+@RunWith(AndroidJUnit4.class)
+public class AtencionesBatchEmulatorTest {
+    private static final int PACIENTES = 20;
+    private static final int ATENCIONES = 2000;
+    // "Miles por minuto": con menos que esto la migración de una clínica tomaría horas
+    private static final int MINIMO_POR_MINUTO = 2000;
+
+    // 10.0.2.2 es el host de la máquina vista desde el emulador de Android
+    private static final String HOST_EMULADOR = "10.0.2.2";
+    private static final int PUERTO_EMULADOR = 8080;
+    private static FirebaseFirestore db;
+
+    @BeforeClass
+    public static void configurarEmulador() {
+        db = FirebaseFirestore.getInstance();
+        try {
+            db.useEmulator(HOST_EMULADOR, PUERTO_EMULADOR);
+        } catch (IllegalStateException e) {
+            // Firestore ya se usó en este proceso: solo se sigue si ya apuntaba al emulador
+        }
+        // Nunca sembrar miles de documentos en el proyecto real
+        assumeTrue("Firestore no apunta al emulador: " + db.getFirestoreSettings().getHost(),
+                apuntaAlEmulador());
+    }
+
+    private static boolean apuntaAlEmulador() {
+        return (HOST_EMULADOR + ":" + PUERTO_EMULADOR).equals(db.getFirestoreSettings().getHost());
+    }
+
+    @Test
+    public void escribeMilesPorMinutoSinDuplicarAlReintentar() throws Exception {
+        String prefijo = "lote-" + UUID.randomUUID();
+        List<String> ruts = sembrarPacientes(prefijo);
+        List<RegistroAtencion> registros = new ArrayList<>();
+        for (int i = 0; i < ATENCIONES; i++) {
+            registros.add(new RegistroAtencion(ruts.get(i % PACIENTES), new Date(), "Control " + i,
+                    "Dr. García", "", ""));
+        }
+
+        long inicio = System.nanoTime();
+        Resumen resumen = cargar(registros);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertEquals(Collections.emptyMap(), resumen.rechazadas);
+        assertEquals(Collections.emptyMap(), resumen.fallidas);
+        assertEquals(ATENCIONES, resumen.escritas);
+        long porMinuto = ATENCIONES * 60_000L / Math.max(1, ms);
+        assertTrue("Atenciones por minuto: " + porMinuto + " (" + ms + " ms)", porMinuto >= MINIMO_POR_MINUTO);
+        assertEquals(ATENCIONES, contarAtenciones(prefijo));
+
+        // Los ids quedaron en los registros: cargarlos de nuevo reescribe los mismos documentos
+        Resumen reintento = cargar(registros);
+        assertEquals(ATENCIONES, reintento.escritas);
+        assertEquals(ATENCIONES, contarAtenciones(prefijo));
+    }
+
+    private static final class Resumen {
+        int escritas;
+        Map<Integer, String> rechazadas;
+        Map<Integer, String> fallidas;
+    }
+
+    /**
+     * Llama a registrarAtencionesBatch desde el hilo principal y espera el resumen final
+     */
+    private static Resumen cargar(List<RegistroAtencion> registros) throws Exception {
+        Resumen resumen = new Resumen();
+        CountDownLatch fin = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                PacienteRepository.getInstance().registrarAtencionesBatch(registros,
+                        new PacienteRepository.AtencionesBatchCallback() {
+                            @Override
+                            public void onProgreso(int procesadas, int total) {
+                            }
+
+                            @Override
+                            public void onLoteFallido(Map<Integer, String> atenciones, String error) {
+                            }
+
+                            @Override
+                            public void onTerminado(int escritas, Map<Integer, String> rechazadas,
+                                                    Map<Integer, String> fallidas) {
+                                resumen.escritas = escritas;
+                                resumen.rechazadas = rechazadas;
+                                resumen.fallidas = fallidas;
+                                fin.countDown();
+                            }
+                        }));
+        assertTrue("La carga no terminó a tiempo", fin.await(5, TimeUnit.MINUTES));
+        return resumen;
+    }
+
+    /**
+     * Crea PACIENTES entradas en rut_index con RUT válidos y emails únicos de esta ejecución
+     */
+    private static List<String> sembrarPacientes(String prefijo) throws Exception {
+        assertTrue("Firestore no apunta al emulador", apuntaAlEmulador());
+        List<String> ruts = new ArrayList<>();
+        WriteBatch batch = db.batch();
+        int base = 10_000_000 + (int) (Math.random() * 80_000_000);
+        for (int i = 0; i < PACIENTES; i++) {
+            String cuerpo = Integer.toString(base + i);
+            String rut = cuerpo + RutUtils.calcularDV(cuerpo);
+            ruts.add(rut);
+            batch.set(db.collection("rut_index").document(rut),
+                    Collections.singletonMap("email", prefijo + "-" + i + "@example.com"));
+        }
+        Tasks.await(batch.commit());
+        return ruts;
+    }
+
+    private static int contarAtenciones(String prefijo) throws Exception {
+        int total = 0;
+        for (int i = 0; i < PACIENTES; i++) {
+            total += Tasks.await(db.collection("atenciones")
+                    .whereEqualTo("emailPaciente", prefijo + "-" + i + "@example.com")
+                    .get(Source.SERVER)).size();
+        }
+        return total;
+    }
+}
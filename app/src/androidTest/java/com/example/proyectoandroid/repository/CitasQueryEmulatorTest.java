@@ -0,0 +1,123 @@
+package com.example.proyectoandroid.repository;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.proyectoandroid.util.CitasUtils;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Verifica contra el emulador de Firestore que la consulta de próximas citas
+ * lee a lo más "limite" documentos, sin importar el largo del historial.
+ *
+ * Requiere el emulador corriendo: firebase emulators:start --only firestore
+ */
+@RunWith(AndroidJUnit4.class)
+public class CitasQueryEmulatorTest {
+    private static final int LIMITE = 5;
+
+    // 10.0.2.2 es el host de la máquina vista desde el emulador de Android
+    private static final String HOST_EMULADOR = "10.0.2.2";
+    private static final int PUERTO_EMULADOR = 8080;
+    private static FirebaseFirestore db;
+
+    @BeforeClass
+    public static void configurarEmulador() {
+        db = FirebaseFirestore.getInstance();
+        try {
+            db.useEmulator(HOST_EMULADOR, PUERTO_EMULADOR);
+        } catch (IllegalStateException e) {
+            // Firestore ya se usó en este proceso: solo se sigue si ya apuntaba al emulador
+        }
+        // Nunca sembrar cientos de documentos en el proyecto real
+        assumeTrue("Firestore no apunta al emulador: " + db.getFirestoreSettings().getHost(),
+                apuntaAlEmulador());
+    }
+
+    private static boolean apuntaAlEmulador() {
+        return (HOST_EMULADOR + ":" + PUERTO_EMULADOR).equals(db.getFirestoreSettings().getHost());
+    }
+
+    @Test
+    public void lecturasDependenDelLimiteYNoDelHistorial() throws Exception {
+        for (int historial : new int[]{20, 400}) {
+            String email = "emulador-" + UUID.randomUUID() + "@example.com";
+            sembrarCitas(email, historial, 8);
+
+            Date inicioDeHoy = CitasUtils.inicioDelDia(new Date());
+            QuerySnapshot snapshot = Tasks.await(PacienteRepository
+                    .consultaProximasCitas(db, email, inicioDeHoy, LIMITE)
+                    .get(Source.SERVER));
+
+            // Cada documento devuelto es una lectura facturada
+            assertEquals("historial=" + historial, LIMITE, snapshot.size());
+            assertFalse(snapshot.getMetadata().isFromCache());
+
+            Date anterior = null;
+            for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                assertTrue(CitasUtils.ESTADOS_VIGENTES.contains(doc.getString("estado")));
+                Date fecha = doc.getTimestamp("fecha").toDate();
+                assertFalse(fecha.before(inicioDeHoy));
+                if (anterior != null) assertFalse(fecha.before(anterior));
+                anterior = fecha;
+            }
+        }
+    }
+
+    /**
+     * Crea "historial" citas pasadas o canceladas y "proximas" citas futuras vigentes
+     */
+    private static void sembrarCitas(String email, int historial, int proximas) throws Exception {
+        assertTrue("Firestore no apunta al emulador", apuntaAlEmulador());
+        WriteBatch batch = db.batch();
+        Calendar cal = Calendar.getInstance();
+        for (int i = 0; i < historial; i++) {
+            cal.setTime(new Date());
+            // Mitad pasadas, mitad futuras pero canceladas
+            cal.add(Calendar.DAY_OF_YEAR, i % 2 == 0 ? -(i + 1) : i + 1);
+            batch.set(db.collection("citas").document(), cita(email, cal.getTime(),
+                    i % 2 == 0 ? "confirmada" : "cancelada"));
+            if ((i + 1) % 400 == 0) {
+                Tasks.await(batch.commit());
+                batch = db.batch();
+            }
+        }
+        for (int i = 0; i < proximas; i++) {
+            cal.setTime(new Date());
+            cal.add(Calendar.DAY_OF_YEAR, i + 1);
+            batch.set(db.collection("citas").document(), cita(email, cal.getTime(),
+                    i % 2 == 0 ? "pendiente" : "confirmada"));
+        }
+        Tasks.await(batch.commit());
+    }
+
+    private static Map<String, Object> cita(String email, Date fecha, String estado) {
+        Map<String, Object> cita = new HashMap<>();
+        cita.put("emailPaciente", email);
+        cita.put("rutPaciente", "12345678K");
+        cita.put("fecha", fecha);
+        cita.put("hora", "10:30");
+        cita.put("motivo", "Control");
+        cita.put("medico", "Dr. García");
+        cita.put("tipo", "control");
+        cita.put("estado", estado);
+        return cita;
+    }
+}
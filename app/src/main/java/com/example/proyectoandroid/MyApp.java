@@ -1,14 +1,124 @@
 package com.example.proyectoandroid;
 
 import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
 
+import androidx.core.content.ContextCompat;
+
+import com.example.proyectoandroid.repository.OutboxRepository;
+import com.example.proyectoandroid.repository.RutResolver;
+import com.example.proyectoandroid.repository.local.LocalDatabase;
+import com.example.proyectoandroid.util.DateUtils;
 import com.example.proyectoandroid.util.LocationTracker;
+import com.example.proyectoandroid.util.StartupGraph;
+import com.example.proyectoandroid.util.StartupGraph.Modo;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MyApp extends Application {
+
+    // Nombres de los inicializadores (para cuandoEsteListo)
+    public static final String BASE_LOCAL = "baseLocal";
+    public static final String REGISTROS = "registros";
+    public static final String FIREBASE = "firebase";
+    public static final String DISCO_LOCAL = "discoLocal";
+    public static final String RUT_RESOLVER = "rutResolver";
+    public static final String BANDEJA_SALIDA = "bandejaSalida";
+    public static final String UBICACION = "ubicacion";
+    public static final String FORMATO_FECHAS = "formatoFechas";
+
+    // Si ninguna pantalla llega a dibujarse, los diferidos se liberan igual pasado este tiempo
+    private static final long ESPERA_MAXIMA_DIFERIDOS_MS = 5000;
+
+    private static StartupGraph arranque;
+
+    /**
+     * Grafo de arranque del proceso: hitos y espera de inicializadores
+     */
+    public static StartupGraph arranque() {
+        return arranque;
+    }
+
     @Override
     public void onCreate() {
         super.onCreate();
-        // Inicializa el tracker con contexto de aplicación (una sola vez)
-        LocationTracker.init(this);
+        Handler main = new Handler(Looper.getMainLooper());
+        // Ms desde que nació el proceso: los hitos son comparables entre arranques
+        long inicioProceso = Process.getStartElapsedRealtime();
+        arranque = new StartupGraph(main::post, crearHilosArranque(),
+                () -> SystemClock.elapsedRealtime() - inicioProceso);
+        arranque.marcar("application_onCreate");
+
+        // Antes de la primera pantalla solo lo barato: registrar contextos, sin tocar disco ni Firebase
+        arranque.agregar(BASE_LOCAL, Modo.INMEDIATO, () -> LocalDatabase.init(this));
+        arranque.agregar(REGISTROS, Modo.INMEDIATO, () -> {
+            RutResolver.init(this);
+            LocationTracker.init(this);
+        });
+
+        // En paralelo con el login: Firebase (Auth lee la sesión guardada, Firestore arma su
+        // cliente), abrir/migrar SQLite y cargar la caché de RUT desde disco
+        arranque.agregar(FIREBASE, Modo.FONDO, () -> {
+            FirebaseAuth.getInstance();
+            FirebaseFirestore.getInstance();
+        });
+        arranque.agregar(DISCO_LOCAL, Modo.FONDO, () -> LocalDatabase.get().getWritableDatabase(), BASE_LOCAL);
+        arranque.agregar(RUT_RESOLVER, Modo.FONDO, RutResolver::get, REGISTROS, FIREBASE);
+
+        // Después del primer frame (BaseActivity libera los diferidos; si no, ESPERA_MAXIMA_DIFERIDOS_MS)
+        // Envía lo que quedó en la bandeja de salida y queda atento a que vuelva la conexión
+        arranque.agregar(BANDEJA_SALIDA, Modo.DIFERIDO, () -> OutboxRepository.getInstance(this),
+                FIREBASE, DISCO_LOCAL);
+        arranque.agregar(UBICACION, Modo.DIFERIDO, LocationTracker::get, REGISTROS);
+        arranque.agregar(FORMATO_FECHAS, Modo.DIFERIDO, this::escucharCambiosDeFormato);
+
+        arranque.iniciar();
+        arranque.marcar("application_listo");
+        main.postDelayed(arranque::liberarDiferidos, ESPERA_MAXIMA_DIFERIDOS_MS);
+    }
+
+    /**
+     * DateUtils guarda en caché textos formateados con la zona horaria e idioma actuales
+     */
+    private void escucharCambiosDeFormato() {
+        IntentFilter cambiosDeFormato = new IntentFilter();
+        cambiosDeFormato.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        cambiosDeFormato.addAction(Intent.ACTION_LOCALE_CHANGED);
+        ContextCompat.registerReceiver(this, new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                DateUtils.reiniciarCache();
+            }
+        }, cambiosDeFormato, ContextCompat.RECEIVER_NOT_EXPORTED);
+    }
+
+    /**
+     * Dos hilos de baja prioridad que se cierran solos al terminar el arranque
+     */
+    private static ThreadPoolExecutor crearHilosArranque() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor hilos = new ThreadPoolExecutor(2, 2, 5, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), tarea -> {
+                    Thread hilo = new Thread(() -> {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        tarea.run();
+                    }, "arranque-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        hilos.allowCoreThreadTimeOut(true);
+        return hilos;
     }
 }
@@ -0,0 +1,188 @@
+package com.example.proyectoandroid.model;
+
+import java.util.Date;
+
+/**
+ * Escritura (cita o atención) guardada en la bandeja de salida local a la espera de
+ * enviarse a Firestore. El id es el del documento que se creará, generado en el
+ * dispositivo, así que reenviarla nunca duplica el registro.
+ */
+public class OperacionPendiente {
+    public static final String TIPO_CITA = "cita";
+    public static final String TIPO_ATENCION = "atencion";
+
+    public static final String ESTADO_PENDIENTE = "pendiente";
+    public static final String ESTADO_ENVIANDO = "enviando";
+    public static final String ESTADO_ERROR = "error"; // no se reintenta sola (p.ej. paciente no encontrado)
+
+    private String id;
+    private String tipo;
+    private String estado = ESTADO_PENDIENTE;
+    private int intentos;
+    private String error;
+    private long creada;
+
+    private String rutPaciente;
+    private Date fecha;
+    private String hora; // solo citas
+    private String motivo;
+    private String medico;
+    private String tipoCita; // solo citas
+    private String diagnostico; // solo atenciones
+    private String observaciones; // solo atenciones
+
+    public OperacionPendiente() {
+    }
+
+    /**
+     * Cita por agendar
+     */
+    public static OperacionPendiente cita(String id, String rutPaciente, Date fecha, String hora,
+                                          String motivo, String medico, String tipoCita) {
+        OperacionPendiente op = new OperacionPendiente();
+        op.id = id;
+        op.tipo = TIPO_CITA;
+        op.rutPaciente = rutPaciente;
+        op.fecha = fecha;
+        op.hora = hora;
+        op.motivo = motivo;
+        op.medico = medico;
+        op.tipoCita = tipoCita;
+        op.creada = System.currentTimeMillis();
+        return op;
+    }
+
+    /**
+     * Atención por registrar
+     */
+    public static OperacionPendiente atencion(String id, String rutPaciente, Date fecha, String motivo,
+                                              String medico, String diagnostico, String observaciones) {
+        OperacionPendiente op = new OperacionPendiente();
+        op.id = id;
+        op.tipo = TIPO_ATENCION;
+        op.rutPaciente = rutPaciente;
+        op.fecha = fecha;
+        op.motivo = motivo;
+        op.medico = medico;
+        op.diagnostico = diagnostico;
+        op.observaciones = observaciones;
+        op.creada = System.currentTimeMillis();
+        return op;
+    }
+
+    public boolean esCita() {
+        return TIPO_CITA.equals(tipo);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getCreada() {
+        return creada;
+    }
+
+    public void setCreada(long creada) {
+        this.creada = creada;
+    }
+
+    public String getRutPaciente() {
+        return rutPaciente;
+    }
+
+    public void setRutPaciente(String rutPaciente) {
+        this.rutPaciente = rutPaciente;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getHora() {
+        return hora;
+    }
+
+    public void setHora(String hora) {
+        this.hora = hora;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    public String getMedico() {
+        return medico;
+    }
+
+    public void setMedico(String medico) {
+        this.medico = medico;
+    }
+
+    public String getTipoCita() {
+        return tipoCita;
+    }
+
+    public void setTipoCita(String tipoCita) {
+        this.tipoCita = tipoCita;
+    }
+
+    public String getDiagnostico() {
+        return diagnostico;
+    }
+
+    public void setDiagnostico(String diagnostico) {
+        this.diagnostico = diagnostico;
+    }
+
+    public String getObservaciones() {
+        return observaciones;
+    }
+
+    public void setObservaciones(String observaciones) {
+        this.observaciones = observaciones;
+    }
+}
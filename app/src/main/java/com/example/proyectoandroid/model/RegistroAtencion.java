@@ -0,0 +1,88 @@
+package com.example.proyectoandroid.model;
+
+import java.util.Date;
+
+/**
+ * Atención por cargar en bloque (p.ej. migración de fichas en papel o de otro sistema),
+ * identificada por el RUT del paciente en vez de su email
+ */
+public class RegistroAtencion {
+    // Id del documento: si viene vacío se genera al cargar y queda aquí, así que volver a
+    // cargar el mismo registro (p.ej. tras un lote fallido) no duplica la atención
+    private String id;
+    private String rutPaciente;
+    private Date fecha;
+    private String motivo;
+    private String medico;
+    private String diagnostico;
+    private String observaciones;
+
+    public RegistroAtencion() {
+    }
+
+    public RegistroAtencion(String rutPaciente, Date fecha, String motivo, String medico,
+                            String diagnostico, String observaciones) {
+        this.rutPaciente = rutPaciente;
+        this.fecha = fecha;
+        this.motivo = motivo;
+        this.medico = medico;
+        this.diagnostico = diagnostico;
+        this.observaciones = observaciones;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRutPaciente() {
+        return rutPaciente;
+    }
+
+    public void setRutPaciente(String rutPaciente) {
+        this.rutPaciente = rutPaciente;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    public String getMedico() {
+        return medico;
+    }
+
+    public void setMedico(String medico) {
+        this.medico = medico;
+    }
+
+    public String getDiagnostico() {
+        return diagnostico;
+    }
+
+    public void setDiagnostico(String diagnostico) {
+        this.diagnostico = diagnostico;
+    }
+
+    public String getObservaciones() {
+        return observaciones;
+    }
+
+    public void setObservaciones(String observaciones) {
+        this.observaciones = observaciones;
+    }
+}
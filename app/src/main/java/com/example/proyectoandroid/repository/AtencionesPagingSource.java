@@ -0,0 +1,282 @@
+package com.example.proyectoandroid.repository;
+
+import com.example.proyectoandroid.model.Atencion;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Historial de atenciones paginado con cursores de Firestore: cada página continúa con
+ * startAfter(último documento de la página anterior), así que nunca se relee lo ya cargado
+ * y las lecturas crecen con lo que el usuario recorre, no con el tamaño del historial.
+ *
+ * En memoria solo hay una ventana de {@code maxPaginasEnVentana} páginas consecutivas: al
+ * avanzar se descarta la primera y al volver hacia arriba la última. De cada página recorrida
+ * se guarda únicamente su cursor (fecha e id del último documento), para volver a pedirla
+ * con el mismo rango exacto si el usuario regresa a ella. Al salir de la pantalla se
+ * conservan como máximo {@code maxPaginasEnCache} páginas del inicio.
+ *
+ * La consulta debe ordenar por el campo de orden y luego por id de documento, para que el
+ * cursor (fecha, id) sea único.
+ *
+ * No es thread-safe: debe usarse desde el hilo principal (donde llegan los callbacks de Firestore).
+ */
+public class AtencionesPagingSource {
+
+    public static final int TAMANO_PAGINA = 20;
+    public static final int DISTANCIA_PREFETCH = 5;
+    public static final int MAX_PAGINAS_EN_VENTANA = 5;
+    public static final int MAX_PAGINAS_EN_CACHE = 3;
+
+    public interface PaginasCallback {
+        /**
+         * Atenciones de la ventana actual (lista inmutable) y si quedan más por leer al final
+         */
+        void onResult(List<Atencion> atenciones, boolean hayMas);
+
+        void onError(String error);
+    }
+
+    /**
+     * Convierte un documento en atención (el mismo mapeo del resto del repositorio)
+     */
+    interface Mapeador {
+        Atencion mapear(DocumentSnapshot doc);
+    }
+
+    /**
+     * Valores del último documento de una página, en el orden de la consulta
+     */
+    private static final class Cursor {
+        final Object valorOrden;
+        final String id;
+
+        Cursor(Object valorOrden, String id) {
+            this.valorOrden = valorOrden;
+            this.id = id;
+        }
+    }
+
+    private final String email;
+    private final Query consulta;
+    private final String campoOrden;
+    private final Mapeador mapeador;
+    private final int tamanoPagina;
+    private final int distanciaPrefetch;
+    private final int maxPaginasEnVentana;
+    private final int maxPaginasEnCache;
+
+    // Páginas en memoria, consecutivas a partir de primeraPagina
+    private final List<List<Atencion>> ventana = new ArrayList<>();
+    private int primeraPagina;
+    // cursores.get(k): fin de la página k, para todas las páginas recorridas
+    private final List<Cursor> cursores = new ArrayList<>();
+    private boolean finAlcanzado;
+    private List<Atencion> cargadas = Collections.emptyList();
+    private boolean cargando;
+    // Se incrementa al invalidar para descartar respuestas de páginas pedidas antes
+    private int generacion;
+
+    AtencionesPagingSource(String email, Query consulta, String campoOrden, Mapeador mapeador,
+                           int tamanoPagina, int distanciaPrefetch,
+                           int maxPaginasEnVentana, int maxPaginasEnCache) {
+        this.email = email;
+        this.consulta = consulta;
+        this.campoOrden = campoOrden;
+        this.mapeador = mapeador;
+        this.tamanoPagina = tamanoPagina;
+        this.distanciaPrefetch = distanciaPrefetch;
+        this.maxPaginasEnVentana = maxPaginasEnVentana;
+        this.maxPaginasEnCache = maxPaginasEnCache;
+    }
+
+    String getEmail() {
+        return email;
+    }
+
+    /**
+     * Atenciones de la ventana en memoria, de la más reciente a la más antigua
+     */
+    public List<Atencion> getCargadas() {
+        return cargadas;
+    }
+
+    /**
+     * true si quedan páginas después de la ventana (ya recorridas o por leer)
+     */
+    public boolean hayMas() {
+        return !finAlcanzado || primeraPagina + ventana.size() < cursores.size();
+    }
+
+    /**
+     * true si se descartaron páginas antes de la ventana
+     */
+    public boolean hayAnteriores() {
+        return primeraPagina > 0;
+    }
+
+    public boolean isCargando() {
+        return cargando;
+    }
+
+    /**
+     * Pide la página siguiente a la ventana. No hace nada si ya hay una en curso o no quedan más.
+     */
+    public void cargarSiguiente(PaginasCallback callback) {
+        if (cargando || !hayMas()) {
+            return;
+        }
+        int indice = primeraPagina + ventana.size();
+        boolean nueva = indice == cursores.size();
+        cargar(indice, callback, docs -> {
+            if (nueva) {
+                if (!docs.isEmpty()) {
+                    cursores.add(cursorDe(docs.get(docs.size() - 1)));
+                }
+                // Una página incompleta significa que se llegó al final del historial
+                finAlcanzado = docs.size() < tamanoPagina;
+                if (docs.isEmpty()) {
+                    return;
+                }
+            }
+            ventana.add(mapear(docs));
+            if (ventana.size() > maxPaginasEnVentana) {
+                ventana.remove(0);
+                primeraPagina++;
+            }
+        });
+    }
+
+    /**
+     * Vuelve a pedir la página anterior a la ventana (descartada al avanzar)
+     */
+    public void cargarAnterior(PaginasCallback callback) {
+        if (cargando || primeraPagina == 0) {
+            return;
+        }
+        cargar(primeraPagina - 1, callback, docs -> {
+            ventana.add(0, mapear(docs));
+            primeraPagina--;
+            if (ventana.size() > maxPaginasEnVentana) {
+                ventana.remove(ventana.size() - 1);
+            }
+        });
+    }
+
+    private interface AlRecibir {
+        void aplicar(List<DocumentSnapshot> docs);
+    }
+
+    private void cargar(int indice, PaginasCallback callback, AlRecibir alRecibir) {
+        cargando = true;
+        int pedida = generacion;
+
+        ConsumoFirestore.consulta("PacienteRepository.historialAtenciones", consultaPagina(indice).get())
+                .addOnSuccessListener(queryDocumentSnapshots -> {
+                    if (pedida != generacion) {
+                        return;
+                    }
+                    cargando = false;
+                    alRecibir.aplicar(queryDocumentSnapshots.getDocuments());
+                    actualizarCargadas();
+                    callback.onResult(cargadas, hayMas());
+                })
+                .addOnFailureListener(e -> {
+                    if (pedida != generacion) {
+                        return;
+                    }
+                    cargando = false;
+                    android.util.Log.e("AtencionesPagingSource", "Error cargando página: " + e.getMessage());
+                    callback.onError(e.getMessage());
+                });
+    }
+
+    /**
+     * Consulta de la página "indice": una página ya recorrida se pide entre sus dos cursores
+     * (mismo rango exacto, sin duplicar ni saltar documentos con la página vecina)
+     */
+    private Query consultaPagina(int indice) {
+        Query pagina = consulta;
+        if (indice > 0) {
+            Cursor anterior = cursores.get(indice - 1);
+            pagina = pagina.startAfter(anterior.valorOrden, anterior.id);
+        }
+        if (indice < cursores.size()) {
+            Cursor fin = cursores.get(indice);
+            return pagina.endAt(fin.valorOrden, fin.id);
+        }
+        return pagina.limit(tamanoPagina);
+    }
+
+    private Cursor cursorDe(DocumentSnapshot doc) {
+        return new Cursor(doc.get(campoOrden), doc.getId());
+    }
+
+    private List<Atencion> mapear(List<DocumentSnapshot> docs) {
+        List<Atencion> atenciones = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            atenciones.add(mapeador.mapear(doc));
+        }
+        return atenciones;
+    }
+
+    /**
+     * true si con esta última posición visible hay que pedir la página siguiente
+     * (está a menos de la distancia de prefetch del final y no hay otra en curso)
+     */
+    public boolean debePrecargar(int posicion) {
+        return !cargando && hayMas() && posicion >= cargadas.size() - distanciaPrefetch;
+    }
+
+    /**
+     * true si con esta primera posición visible hay que volver a pedir la página anterior
+     */
+    public boolean debePrecargarAnterior(int posicion) {
+        return !cargando && primeraPagina > 0 && posicion < distanciaPrefetch;
+    }
+
+    /**
+     * Descarta todas las páginas (p.ej. porque se registró una atención nueva)
+     */
+    public void invalidar() {
+        generacion++;
+        ventana.clear();
+        cursores.clear();
+        primeraPagina = 0;
+        finAlcanzado = false;
+        cargadas = Collections.emptyList();
+        cargando = false;
+    }
+
+    /**
+     * Deja en memoria solo las primeras páginas del historial, para volver a la pantalla
+     * desde el inicio; las siguientes se vuelven a pedir desde sus cursores
+     */
+    public void recortar() {
+        generacion++;
+        cargando = false;
+        if (primeraPagina > 0) {
+            // La ventana quedó en medio del historial: se vuelve a pedir desde la primera página
+            ventana.clear();
+            primeraPagina = 0;
+        } else if (ventana.size() > maxPaginasEnCache) {
+            ventana.subList(maxPaginasEnCache, ventana.size()).clear();
+        }
+        actualizarCargadas();
+    }
+
+    /**
+     * Junta la ventana en una lista nueva para el adapter (nunca más de
+     * maxPaginasEnVentana páginas, así que el costo no crece con el scroll)
+     */
+    private void actualizarCargadas() {
+        List<Atencion> todas = new ArrayList<>(ventana.size() * tamanoPagina);
+        for (List<Atencion> pagina : ventana) {
+            todas.addAll(pagina);
+        }
+        cargadas = Collections.unmodifiableList(todas);
+    }
+}
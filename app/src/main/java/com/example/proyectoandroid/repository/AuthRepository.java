@@ -3,9 +3,9 @@ package com.example.proyectoandroid.repository;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import com.example.proyectoandroid.util.Tracer;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.FirebaseFirestore;
 
 /**
  * Repositorio para manejar autenticación y consultas de RUT
@@ -13,7 +13,6 @@ import com.google.firebase.firestore.FirebaseFirestore;
 public class AuthRepository {
     private static AuthRepository instance;
     private final FirebaseAuth auth;
-    private final FirebaseFirestore db;
 
     public interface EmailCallback {
         void onResult(String email);
@@ -25,7 +24,6 @@ public class AuthRepository {
 
     private AuthRepository() {
         auth = FirebaseAuth.getInstance();
-        db = FirebaseFirestore.getInstance();
     }
 
     public static synchronized AuthRepository getInstance() {
@@ -43,50 +41,21 @@ public class AuthRepository {
     }
 
     /**
-     * Busca el email asociado a un RUT usando callback
+     * Busca el email asociado a un RUT usando callback (con caché compartida, ver {@link RutResolver})
      */
     public void buscarEmailPorRut(String rutNormalizado, EmailCallback callback) {
-        // Asegurar que el RUT esté en mayúsculas
-        String rutBuscar = rutNormalizado != null ? rutNormalizado.toUpperCase() : "";
-        
-        // Intentar buscar con el RUT tal cual
-        db.collection("rut_index").document(rutBuscar).get()
-                .addOnSuccessListener(doc -> {
-                    if (doc != null && doc.exists()) {
-                        String email = doc.getString("email");
-                        if (email != null && !email.trim().isEmpty()) {
-                            callback.onResult(email.trim());
-                            return;
-                        }
-                    }
-                    // Si no se encontró, intentar en minúsculas (por si acaso)
-                    if (!rutBuscar.equals(rutNormalizado.toLowerCase())) {
-                        db.collection("rut_index").document(rutNormalizado.toLowerCase()).get()
-                                .addOnSuccessListener(doc2 -> {
-                                    if (doc2 != null && doc2.exists()) {
-                                        String email2 = doc2.getString("email");
-                                        if (email2 != null && !email2.trim().isEmpty()) {
-                                            callback.onResult(email2.trim());
-                                        } else {
-                                            callback.onResult(null);
-                                        }
-                                    } else {
-                                        callback.onResult(null);
-                                    }
-                                })
-                                .addOnFailureListener(e -> callback.onResult(null));
-                    } else {
-                        callback.onResult(null);
-                    }
-                })
-                .addOnFailureListener(e -> callback.onResult(null));
+        Tracer.Span span = Tracer.iniciar(Tracer.LOGIN, "buscarEmailPorRut");
+        RutResolver.get().resolver(rutNormalizado, email -> {
+            span.terminar(email != null ? null : "no_encontrado");
+            callback.onResult(email);
+        });
     }
 
     /**
      * Inicia sesión con email y contraseña usando callback
      */
     public void iniciarSesion(String email, String password, AuthCallback callback) {
-        auth.signInWithEmailAndPassword(email, password)
+        Tracer.medir(Tracer.LOGIN, "signInWithEmailAndPassword", auth.signInWithEmailAndPassword(email, password))
                 .addOnSuccessListener(authResult -> {
                     FirebaseUser user = authResult.getUser();
                     if (user != null) {
@@ -0,0 +1,47 @@
+package com.example.proyectoandroid.repository;
+
+import com.example.proyectoandroid.util.Codecs;
+import com.example.proyectoandroid.util.SortedListModel;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+/**
+ * Aplica los cambios de un snapshot (ADDED/MODIFIED/REMOVED) a un modelo ordenado,
+ * mapeando solo los documentos que cambiaron en vez de la consulta completa.
+ */
+final class CambiosSnapshot {
+
+    // Fechas de getData(): Firestore entrega Timestamp (Date si el valor aún es local)
+    static final Codecs.ConversorFecha FECHAS_FIRESTORE = valor -> valor instanceof Timestamp
+            ? ((Timestamp) valor).toDate() : Codecs.FECHAS_JAVA.aFecha(valor);
+
+    interface Mapeador<T> {
+        /**
+         * Convierte el documento al modelo; null si el documento no debe mostrarse
+         */
+        T mapear(DocumentSnapshot doc);
+    }
+
+    private CambiosSnapshot() {
+    }
+
+    static <T> void aplicar(QuerySnapshot snapshot, SortedListModel<T> modelo, Mapeador<T> mapeador) {
+        for (DocumentChange cambio : snapshot.getDocumentChanges()) {
+            DocumentSnapshot doc = cambio.getDocument();
+            if (cambio.getType() == DocumentChange.Type.REMOVED) {
+                modelo.eliminar(doc.getId());
+                continue;
+            }
+
+            // ADDED o MODIFIED: se crea un objeto nuevo para no mutar el que ya se entregó
+            T item = mapeador.mapear(doc);
+            if (item != null) {
+                modelo.insertarOActualizar(item);
+            } else {
+                modelo.eliminar(doc.getId());
+            }
+        }
+    }
+}
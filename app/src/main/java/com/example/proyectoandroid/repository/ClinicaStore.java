@@ -0,0 +1,279 @@
+package com.example.proyectoandroid.repository;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.model.Paciente;
+import com.example.proyectoandroid.util.ChangeSet;
+import com.example.proyectoandroid.util.CitasUtils;
+import com.example.proyectoandroid.util.SortedListModel;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copia única en memoria de los datos del paciente con sesión iniciada, compartida por
+ * todas las pantallas durante la vida de la app.
+ *
+ * - Atenciones, citas y medicamentos se guardan una sola vez, indexados por id. Los
+ *   repositorios escriben aquí lo que llega de disco y de los listeners de Firestore.
+ * - Las pantallas leen proyecciones (últimas N atenciones, próximas N citas, medicamentos
+ *   activos) que se recalculan al cambiar cualquier entidad.
+ * - Los registros hechos en el dispositivo (agendar cita, registrar atención, bandeja de
+ *   salida) se agregan de inmediato, sin esperar la respuesta del servidor.
+ *
+ * Debe usarse desde el hilo principal.
+ */
+public class ClinicaStore {
+    private static ClinicaStore instance;
+
+    private final MutableLiveData<Paciente> paciente = new MutableLiveData<>();
+    private SortedListModel<Atencion> atenciones = nuevasAtenciones();
+    private SortedListModel<Cita> citas = nuevasCitas();
+    private SortedListModel<Medicamento> medicamentos = nuevosMedicamentos();
+    // Las proyecciones no publican nada hasta que llega la primera carga de su entidad
+    private boolean atencionesCargadas;
+    private boolean citasCargadas;
+    private boolean medicamentosCargados;
+    // Registros hechos en el dispositivo que ningún listener ha entregado todavía: las cargas
+    // completas no los quitan (p.ej. una operación que sigue en la bandeja de salida)
+    private final Set<String> atencionesLocales = new HashSet<>();
+    private final Set<String> citasLocales = new HashSet<>();
+
+    // Proyecciones por límite (cada pantalla pide el suyo; normalmente hay uno o dos)
+    private final Map<Integer, MutableLiveData<List<Atencion>>> ultimasAtenciones = new HashMap<>();
+    private final Map<Integer, MutableLiveData<List<Cita>>> proximasCitas = new HashMap<>();
+    private final MutableLiveData<List<Medicamento>> todosMedicamentos = new MutableLiveData<>();
+    private final MutableLiveData<List<Medicamento>> medicamentosActivos = new MutableLiveData<>();
+
+    private ClinicaStore() {
+    }
+
+    public static synchronized ClinicaStore getInstance() {
+        if (instance == null) {
+            instance = new ClinicaStore();
+        }
+        return instance;
+    }
+
+    // ---------------- Lectura ----------------
+
+    public LiveData<Paciente> getPaciente() {
+        return paciente;
+    }
+
+    /**
+     * Las {@code limite} atenciones más recientes
+     */
+    public LiveData<List<Atencion>> getUltimasAtenciones(int limite) {
+        MutableLiveData<List<Atencion>> proyeccion = ultimasAtenciones.get(limite);
+        if (proyeccion == null) {
+            proyeccion = new MutableLiveData<>();
+            ultimasAtenciones.put(limite, proyeccion);
+            if (atencionesCargadas) {
+                proyeccion.setValue(primeras(atenciones, limite));
+            }
+        }
+        return proyeccion;
+    }
+
+    /**
+     * Las {@code limite} próximas citas vigentes (de hoy en adelante, pendientes o confirmadas)
+     */
+    public LiveData<List<Cita>> getProximasCitas(int limite) {
+        MutableLiveData<List<Cita>> proyeccion = proximasCitas.get(limite);
+        if (proyeccion == null) {
+            proyeccion = new MutableLiveData<>();
+            proximasCitas.put(limite, proyeccion);
+            if (citasCargadas) {
+                proyeccion.setValue(CitasUtils.filtrarProximas(todas(citas), new Date(), limite));
+            }
+        }
+        return proyeccion;
+    }
+
+    /**
+     * Todos los medicamentos, inicio más reciente primero
+     */
+    public LiveData<List<Medicamento>> getMedicamentos() {
+        return todosMedicamentos;
+    }
+
+    /**
+     * Solo los medicamentos dentro de su rango de fechas
+     */
+    public LiveData<List<Medicamento>> getMedicamentosActivos() {
+        return medicamentosActivos;
+    }
+
+    /**
+     * true si el registro es del paciente con sesión iniciada (por RUT o email)
+     */
+    public boolean esDelPacienteActual(String email, String rut) {
+        Paciente actual = paciente.getValue();
+        if (actual == null) return false;
+        return (rut != null && rut.equalsIgnoreCase(actual.getRut()))
+                || (email != null && email.equalsIgnoreCase(actual.getEmail()));
+    }
+
+    // ---------------- Escritura (repositorios) ----------------
+
+    void ponerPaciente(Paciente nuevo) {
+        paciente.setValue(nuevo);
+    }
+
+    void ponerAtenciones(ChangeSet<Atencion> cambios) {
+        aplicar(atenciones, cambios, atencionesLocales, Atencion::getId);
+        atencionesCargadas = true;
+        publicarAtenciones();
+    }
+
+    void ponerAtencion(Atencion atencion) {
+        atenciones.insertarOActualizar(atencion);
+        atencionesLocales.add(atencion.getId());
+        atencionesCargadas = true;
+        publicarAtenciones();
+    }
+
+    void quitarAtencion(String id) {
+        atenciones.eliminar(id);
+        atencionesLocales.remove(id);
+        publicarAtenciones();
+    }
+
+    void ponerCitas(ChangeSet<Cita> cambios) {
+        aplicar(citas, cambios, citasLocales, Cita::getId);
+        citasCargadas = true;
+        publicarCitas();
+    }
+
+    void ponerCita(Cita cita) {
+        citas.insertarOActualizar(cita);
+        citasLocales.add(cita.getId());
+        citasCargadas = true;
+        publicarCitas();
+    }
+
+    void quitarCita(String id) {
+        citas.eliminar(id);
+        citasLocales.remove(id);
+        publicarCitas();
+    }
+
+    void ponerMedicamentos(ChangeSet<Medicamento> cambios) {
+        aplicar(medicamentos, cambios, Collections.emptySet(), Medicamento::getId);
+        medicamentosCargados = true;
+        publicarMedicamentos();
+    }
+
+    /**
+     * Olvida todo (p.ej. al cerrar sesión). Las proyecciones quedan vacías hasta la próxima carga.
+     */
+    public void limpiar() {
+        atenciones = nuevasAtenciones();
+        citas = nuevasCitas();
+        medicamentos = nuevosMedicamentos();
+        atencionesCargadas = false;
+        citasCargadas = false;
+        medicamentosCargados = false;
+        atencionesLocales.clear();
+        citasLocales.clear();
+        paciente.setValue(null);
+        for (MutableLiveData<List<Atencion>> proyeccion : ultimasAtenciones.values()) {
+            proyeccion.setValue(null);
+        }
+        for (MutableLiveData<List<Cita>> proyeccion : proximasCitas.values()) {
+            proyeccion.setValue(null);
+        }
+        todosMedicamentos.setValue(null);
+        medicamentosActivos.setValue(null);
+    }
+
+    /**
+     * Una carga completa (disco, primera respuesta del listener o recorte al límite) reemplaza
+     * el contenido: lo que no viene se canceló, se borró o quedó fuera de la consulta, y ninguna
+     * proyección muestra más que el límite del listener. Solo se conservan los registros locales
+     * que el listener aún no entrega. Los demás snapshots llegan como cambios individuales.
+     */
+    private static <T> void aplicar(SortedListModel<T> modelo, ChangeSet<T> cambios,
+                                    Set<String> locales, SortedListModel.Identificador<T> identificador) {
+        if (cambios.isCompleto()) {
+            modelo.reemplazar(cambios.getItems(), locales);
+            for (T item : cambios.getItems()) {
+                locales.remove(identificador.idDe(item));
+            }
+            return;
+        }
+        for (ChangeSet.Cambio<T> cambio : cambios.getCambios()) {
+            locales.remove(cambio.getId());
+            if (cambio.getTipo() == ChangeSet.Tipo.ELIMINADO) {
+                modelo.eliminar(cambio.getId());
+            } else {
+                modelo.insertarOActualizar(cambio.getItem());
+            }
+        }
+    }
+
+    private void publicarAtenciones() {
+        if (!atencionesCargadas) return;
+        for (Map.Entry<Integer, MutableLiveData<List<Atencion>>> e : ultimasAtenciones.entrySet()) {
+            e.getValue().setValue(primeras(atenciones, e.getKey()));
+        }
+    }
+
+    private void publicarCitas() {
+        if (!citasCargadas) return;
+        List<Cita> lista = todas(citas);
+        Date ahora = new Date();
+        for (Map.Entry<Integer, MutableLiveData<List<Cita>>> e : proximasCitas.entrySet()) {
+            e.getValue().setValue(CitasUtils.filtrarProximas(lista, ahora, e.getKey()));
+        }
+    }
+
+    private void publicarMedicamentos() {
+        if (!medicamentosCargados) return;
+        List<Medicamento> lista = todas(medicamentos);
+        List<Medicamento> activos = new ArrayList<>();
+        for (Medicamento m : lista) {
+            if (m.isActivo()) {
+                activos.add(m);
+            }
+        }
+        todosMedicamentos.setValue(lista);
+        medicamentosActivos.setValue(activos);
+    }
+
+    private static <T> List<T> primeras(SortedListModel<T> modelo, int limite) {
+        int n = Math.min(limite, modelo.size());
+        List<T> lista = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            lista.add(modelo.get(i));
+        }
+        return lista;
+    }
+
+    private static <T> List<T> todas(SortedListModel<T> modelo) {
+        return primeras(modelo, modelo.size());
+    }
+
+    private static SortedListModel<Atencion> nuevasAtenciones() {
+        return new SortedListModel<>(PacienteRepository.ATENCIONES_RECIENTES_PRIMERO, Atencion::getId);
+    }
+
+    private static SortedListModel<Cita> nuevasCitas() {
+        return new SortedListModel<>(CitasUtils.POR_FECHA, Cita::getId);
+    }
+
+    private static SortedListModel<Medicamento> nuevosMedicamentos() {
+        return new SortedListModel<>(MedicamentoRepository.RECIENTES_PRIMERO, Medicamento::getId);
+    }
+}
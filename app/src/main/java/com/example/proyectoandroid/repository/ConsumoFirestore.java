@@ -0,0 +1,104 @@
+package com.example.proyectoandroid.repository;
+
+import com.example.proyectoandroid.util.FirestoreLedger;
+import com.example.proyectoandroid.util.Tracer;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+/**
+ * Envoltorios de las llamadas a Firestore de los repositorios: cada una queda en el
+ * {@link FirestoreLedger} (documentos, caché/servidor, latencia, pantalla) y como tramo del
+ * {@link Tracer}, con el mismo nombre de operación ("Repositorio.metodo").
+ */
+final class ConsumoFirestore {
+
+    private ConsumoFirestore() {}
+
+    /**
+     * Consulta puntual (get sobre una Query)
+     */
+    static Task<QuerySnapshot> consulta(String operacion, Task<QuerySnapshot> tarea) {
+        FirestoreLedger.Medicion medicion = FirestoreLedger.getInstance().iniciar(operacion);
+        Tracer.medir(operacion, tarea).addOnCompleteListener(t -> {
+            if (t.isSuccessful() && t.getResult() != null) {
+                QuerySnapshot snapshot = t.getResult();
+                medicion.lectura(snapshot.size(), snapshot.getMetadata().isFromCache());
+            } else {
+                medicion.error();
+            }
+        });
+        return tarea;
+    }
+
+    /**
+     * Lectura de un documento por clave (se cobra aunque no exista)
+     */
+    static Task<DocumentSnapshot> documento(String operacion, Task<DocumentSnapshot> tarea) {
+        FirestoreLedger.Medicion medicion = FirestoreLedger.getInstance().iniciar(operacion);
+        Tracer.medir(operacion, tarea).addOnCompleteListener(t -> {
+            if (t.isSuccessful() && t.getResult() != null) {
+                DocumentSnapshot doc = t.getResult();
+                medicion.lectura(doc.exists() ? 1 : 0, doc.getMetadata().isFromCache());
+            } else {
+                medicion.error();
+            }
+        });
+        return tarea;
+    }
+
+    /**
+     * Escritura (set, batch o transacción) de {@code documentos} documentos;
+     * {@code lecturas} son las lecturas hechas dentro de una transacción
+     */
+    static <T> Task<T> escritura(String operacion, int lecturas, int documentos, Task<T> tarea) {
+        FirestoreLedger.Medicion medicion = FirestoreLedger.getInstance().iniciar(operacion);
+        Tracer.medir(operacion, tarea).addOnCompleteListener(t -> {
+            if (t.isSuccessful()) {
+                if (lecturas > 0) {
+                    medicion.lectura(lecturas, false);
+                }
+                medicion.escritura(documentos);
+            } else {
+                medicion.error();
+            }
+        });
+        return tarea;
+    }
+
+    static <T> Task<T> escritura(String operacion, int documentos, Task<T> tarea) {
+        return escritura(operacion, 0, documentos, tarea);
+    }
+
+    /**
+     * Registra los snapshots de un listener; crear justo antes de addSnapshotListener
+     */
+    static Escucha escucha(String operacion) {
+        return new Escucha(operacion);
+    }
+
+    static final class Escucha {
+        private final FirestoreLedger.Medicion medicion;
+        // Hasta el primer snapshot (del caché o del servidor)
+        private final Tracer.Span primeraRespuesta;
+
+        private Escucha(String operacion) {
+            medicion = FirestoreLedger.getInstance().iniciar(operacion);
+            primeraRespuesta = Tracer.iniciar(Tracer.FIRESTORE, operacion);
+        }
+
+        /**
+         * Llamar al comienzo del callback del listener, con lo mismo que recibió
+         */
+        void snapshot(QuerySnapshot snapshot, Exception e) {
+            if (e != null || snapshot == null) {
+                primeraRespuesta.terminar("error");
+                medicion.error();
+                return;
+            }
+            boolean desdeCache = snapshot.getMetadata().isFromCache();
+            primeraRespuesta.terminar(desdeCache ? "cache" : null);
+            medicion.snapshot(snapshot.size(), snapshot.getDocumentChanges().size(), desdeCache);
+        }
+    }
+}
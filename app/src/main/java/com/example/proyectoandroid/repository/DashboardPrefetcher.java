@@ -0,0 +1,72 @@
+package com.example.proyectoandroid.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.proyectoandroid.util.SnapshotListenerRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precarga de los datos del panel apenas se autentica el usuario (login o reanudación),
+ * en paralelo con la creación de InformacionActivity.
+ *
+ * - Perfil: queda en {@link ClinicaStore}; si el panel lo pide mientras la consulta sigue
+ *   en curso, comparte esa consulta (ver {@link PacienteRepository#cargarPaciente}).
+ * - Atenciones, citas y medicamentos: se abren los mismos listeners compartidos que usan
+ *   las pantallas (mismas claves en los registros de los repositorios). Al suscribirse, la
+ *   pantalla reutiliza el listener ya abierto y recibe de inmediato el último valor.
+ *
+ * Los listeners precargados se sueltan tras {@link #RETENCION_MS}; para entonces las
+ * pantallas ya tienen los suyos. Debe usarse desde el hilo principal.
+ */
+public class DashboardPrefetcher {
+    // Mismos límites que usa el panel, para compartir el listener
+    public static final int LIMITE_ATENCIONES = 5;
+    public static final int LIMITE_CITAS = 5;
+    static final long RETENCION_MS = 60_000;
+
+    private static DashboardPrefetcher instance;
+    private final PacienteRepository pacienteRepository;
+    private final MedicamentoRepository medicamentoRepository;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final List<SnapshotListenerRegistry.Cancelable> retenidos = new ArrayList<>();
+    private final Runnable liberar = this::liberar;
+
+    private DashboardPrefetcher() {
+        pacienteRepository = PacienteRepository.getInstance();
+        medicamentoRepository = MedicamentoRepository.getInstance();
+    }
+
+    public static synchronized DashboardPrefetcher getInstance() {
+        if (instance == null) {
+            instance = new DashboardPrefetcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Dispara todas las consultas del panel para el usuario recién autenticado
+     */
+    public void iniciar() {
+        liberar();
+        pacienteRepository.cargarPaciente(paciente -> { });
+
+        retenidos.add(pacienteRepository.obtenerUltimasAtenciones(LIMITE_ATENCIONES, atenciones -> { }));
+        retenidos.add(pacienteRepository.obtenerProximasCitas(LIMITE_CITAS, citas -> { }));
+        retenidos.add(medicamentoRepository.obtenerMedicamentos(medicamentos -> { }));
+        main.postDelayed(liberar, RETENCION_MS);
+    }
+
+    /**
+     * Suelta los listeners precargados (p.ej. al cerrar sesión)
+     */
+    public void liberar() {
+        main.removeCallbacks(liberar);
+        for (SnapshotListenerRegistry.Cancelable c : retenidos) {
+            c.cancelar();
+        }
+        retenidos.clear();
+    }
+}
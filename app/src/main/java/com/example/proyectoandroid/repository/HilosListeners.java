@@ -0,0 +1,44 @@
+package com.example.proyectoandroid.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hilos de los listeners de Firestore: el mapeo de documentos, los filtros y el orden se
+ * hacen en un hilo de fondo dedicado, y solo el resultado vuelve al hilo principal.
+ */
+final class HilosListeners {
+
+    // Un solo hilo: cada SortedListModel se modifica siempre desde el mismo hilo y los
+    // snapshots de un listener se procesan en el orden en que llegan
+    static final Executor FONDO = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            tarea.run();
+        }, "listeners-firestore");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
+    private HilosListeners() {
+    }
+
+    /**
+     * Ejecuta la entrega en el hilo principal, salvo que el listener se haya cancelado antes
+     * (la cancelación también ocurre en el hilo principal, así que no hay carrera)
+     */
+    static void entregar(AtomicBoolean cancelado, Runnable entrega) {
+        MAIN.post(() -> {
+            if (!cancelado.get()) {
+                entrega.run();
+            }
+        });
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.proyectoandroid.repository;
 
 import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.repository.local.LocalDatabase;
+import com.example.proyectoandroid.util.ChangeSet;
+import com.example.proyectoandroid.util.MedicamentoCodec;
+import com.example.proyectoandroid.util.MedicamentosUtils;
+import com.example.proyectoandroid.util.SnapshotListenerRegistry;
+import com.example.proyectoandroid.util.SortedListModel;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Repositorio para manejar medicamentos desde Firebase con actualización en tiempo real
@@ -19,11 +26,24 @@ public class MedicamentoRepository {
     private static MedicamentoRepository instance;
     private final FirebaseFirestore db;
     private final FirebaseAuth auth;
-    private ListenerRegistration medicamentosListener;
+    private final LocalDatabase localDb;
+    private final MedicamentoCodec codec = new MedicamentoCodec(CambiosSnapshot.FECHAS_FIRESTORE);
+    // Un listener de Firestore por paciente, compartido por todos los que lo piden
+    private final SnapshotListenerRegistry<ChangeSet<Medicamento>> listenersMedicamentos =
+            new SnapshotListenerRegistry<>(ultimo -> ChangeSet.completo(ultimo.getItems()));
+
+    // Orden de los medicamentos: inicio más reciente primero, los que no tienen fecha al final
+    static final Comparator<Medicamento> RECIENTES_PRIMERO = (m1, m2) -> {
+        if (m1.getFechaInicio() == null && m2.getFechaInicio() == null) return 0;
+        if (m1.getFechaInicio() == null) return 1;
+        if (m2.getFechaInicio() == null) return -1;
+        return m2.getFechaInicio().compareTo(m1.getFechaInicio());
+    };
 
     private MedicamentoRepository() {
         db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
+        localDb = LocalDatabase.get();
     }
 
     public static synchronized MedicamentoRepository getInstance() {
@@ -34,84 +54,113 @@ public class MedicamentoRepository {
     }
 
     /**
-     * Obtiene los medicamentos del paciente con actualización en tiempo real
+     * Obtiene los medicamentos del paciente con actualización en tiempo real.
+     * Entrega primero los guardados en disco y luego se mantiene sincronizado con Firestore.
+     * Varias pantallas comparten un solo listener; cancelar la suscripción devuelta cuando
+     * ya no se necesite.
      */
-    public void obtenerMedicamentos(MedicamentosCallback callback) {
+    public SnapshotListenerRegistry.Cancelable obtenerMedicamentos(MedicamentosCallback callback) {
         FirebaseUser user = auth.getCurrentUser();
         if (user == null || user.getEmail() == null) {
             callback.onResult(new ArrayList<>());
-            return;
+            return () -> { };
         }
 
-        // Remover listener anterior si existe
-        if (medicamentosListener != null) {
-            medicamentosListener.remove();
+        String email = user.getEmail();
+        SnapshotListenerRegistry<ChangeSet<Medicamento>>.Suscripcion suscripcion = listenersMedicamentos.suscribir(
+                "medicamentos|" + email,
+                emisor -> escucharMedicamentos(email, emisor),
+                callback::onCambios);
+
+        // Responder de inmediato desde disco (si el listener compartido aún no entregó nada)
+        if (!suscripcion.recibioValor()) {
+            localDb.leerMedicamentos(email, locales -> {
+                if (suscripcion.isActiva() && !suscripcion.recibioValor()) {
+                    ClinicaStore.getInstance().ponerMedicamentos(ChangeSet.completo(locales));
+                    callback.onResult(locales);
+                }
+            });
         }
+        return suscripcion;
+    }
+
+    /**
+     * Abre el listener de Firestore de los medicamentos del paciente.
+     * Los snapshots se procesan en segundo plano y los cambios se entregan en el hilo principal.
+     */
+    private SnapshotListenerRegistry.Cancelable escucharMedicamentos(String email,
+                                                                     SnapshotListenerRegistry.Emisor<ChangeSet<Medicamento>> emisor) {
+        AtomicBoolean remotoEntregado = new AtomicBoolean(false);
+        AtomicBoolean cancelado = new AtomicBoolean(false);
+
+        // Modelo ordenado que se actualiza solo con los documentos que cambian
+        SortedListModel<Medicamento> modelo = new SortedListModel<>(RECIENTES_PRIMERO, Medicamento::getId);
 
         // Crear listener en tiempo real
-        medicamentosListener = db.collection("medicamentos")
-                .whereEqualTo("emailPaciente", user.getEmail())
+        ConsumoFirestore.Escucha escucha = ConsumoFirestore.escucha("MedicamentoRepository.medicamentos");
+        ListenerRegistration listener = db.collection("medicamentos")
+                .whereEqualTo("emailPaciente", email)
                 .orderBy("fechaInicio", com.google.firebase.firestore.Query.Direction.DESCENDING)
-                .addSnapshotListener((queryDocumentSnapshots, e) -> {
-                    if (e != null) {
-                        callback.onResult(new ArrayList<>());
+                .addSnapshotListener(HilosListeners.FONDO, (queryDocumentSnapshots, e) -> {
+                    escucha.snapshot(queryDocumentSnapshots, e);
+                    if (e != null || queryDocumentSnapshots == null) {
+                        // Mantener lo que ya se mostró desde disco
                         return;
                     }
 
-                    if (queryDocumentSnapshots == null) {
-                        callback.onResult(new ArrayList<>());
+                    boolean desdeCache = queryDocumentSnapshots.getMetadata().isFromCache();
+                    Date ahora = new Date();
+                    CambiosSnapshot.aplicar(queryDocumentSnapshots, modelo, doc -> mapearMedicamento(doc, ahora));
+                    if (desdeCache && modelo.size() == 0 && !remotoEntregado.get()) {
+                        // Caché de Firestore vacío (p.ej. sin conexión): no pisar los datos locales
                         return;
                     }
 
-                    List<Medicamento> medicamentos = new ArrayList<>();
-                    Date ahora = new Date();
-
-                    for (QueryDocumentSnapshot doc : queryDocumentSnapshots) {
-                        Medicamento medicamento = new Medicamento();
-                        medicamento.setId(doc.getId());
-                        medicamento.setNombre(doc.getString("nombre"));
-                        medicamento.setDosis(doc.getString("dosis"));
-                        medicamento.setFrecuencia(doc.getString("frecuencia"));
-                        medicamento.setMedico(doc.getString("medico"));
-                        medicamento.setObservaciones(doc.getString("observaciones"));
-
-                        // Convertir timestamps a Date
-                        if (doc.getTimestamp("fechaInicio") != null) {
-                            medicamento.setFechaInicio(doc.getTimestamp("fechaInicio").toDate());
-                        }
-                        if (doc.getTimestamp("fechaFin") != null) {
-                            medicamento.setFechaFin(doc.getTimestamp("fechaFin").toDate());
-                        }
-
-                        // Determinar si está activo (dentro del rango de fechas)
-                        Date fechaInicio = medicamento.getFechaInicio();
-                        Date fechaFin = medicamento.getFechaFin();
-                        if (fechaInicio != null && fechaFin != null) {
-                            boolean activo = (ahora.compareTo(fechaInicio) >= 0) && (ahora.compareTo(fechaFin) <= 0);
-                            medicamento.setActivo(activo);
-                        } else {
-                            medicamento.setActivo(false);
-                        }
-
-                        medicamentos.add(medicamento);
+                    ChangeSet<Medicamento> cambios = modelo.confirmar();
+                    if (!desdeCache && !cancelado.get()) {
+                        localDb.guardarMedicamentos(email, cambios.getItems());
+                    }
+                    if (cambios.isVacio()) {
+                        // Solo cambió la metadata (p.ej. caché -> servidor)
+                        return;
                     }
 
-                    callback.onResult(medicamentos);
+                    remotoEntregado.set(true);
+                    HilosListeners.entregar(cancelado, () -> {
+                        ClinicaStore.getInstance().ponerMedicamentos(cambios);
+                        emisor.emitir(cambios);
+                    });
                 });
+        return () -> {
+            cancelado.set(true);
+            listener.remove();
+        };
+    }
+
+    private Medicamento mapearMedicamento(DocumentSnapshot doc, Date ahora) {
+        Medicamento medicamento = codec.decodificar(doc.getId(), doc.getData());
+
+        // Determinar si está activo (dentro del rango de fechas)
+        medicamento.setActivo(MedicamentosUtils.estaActivo(medicamento.getFechaInicio(), medicamento.getFechaFin(), ahora));
+        return medicamento;
     }
 
     /**
-     * Detiene el listener de medicamentos
+     * Detiene los listeners de medicamentos de todos los suscriptores (p.ej. al cerrar sesión)
      */
-    public void detenerListener() {
-        if (medicamentosListener != null) {
-            medicamentosListener.remove();
-            medicamentosListener = null;
-        }
+    public void detenerListeners() {
+        listenersMedicamentos.cerrarTodas();
     }
 
     public interface MedicamentosCallback {
         void onResult(List<Medicamento> medicamentos);
+
+        /**
+         * Cambios incrementales del listener; por defecto entrega la lista completa
+         */
+        default void onCambios(ChangeSet<Medicamento> cambios) {
+            onResult(cambios.getItems());
+        }
     }
 }
 
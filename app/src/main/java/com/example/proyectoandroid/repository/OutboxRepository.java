@@ -0,0 +1,431 @@
+package com.example.proyectoandroid.repository;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.proyectoandroid.model.OperacionPendiente;
+import com.example.proyectoandroid.repository.local.LocalDatabase;
+import com.example.proyectoandroid.util.AtencionCodec;
+import com.example.proyectoandroid.util.CitaCodec;
+import com.example.proyectoandroid.util.NetworkUtils;
+import com.example.proyectoandroid.util.Tracer;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bandeja de salida persistente para citas y atenciones creadas sin conexión.
+ *
+ * - La operación se guarda en disco al instante, con el id del documento ya generado en el
+ *   dispositivo: reenviarla escribe el mismo documento y nunca lo duplica.
+ * - Al volver la conexión se envían en lotes (un WriteBatch por lote), resolviendo antes el
+ *   email de cada paciente desde rut_index.
+ * - Una operación cuyo paciente no se encontró no vuelve a enviarse en la misma ráfaga:
+ *   espera a que venza la caché negativa de {@link RutResolver} (el paciente puede estar
+ *   registrándose en otro equipo). Si la consulta falló, espera a la próxima conexión.
+ * - Si Firestore rechaza un lote se divide hasta aislar la operación culpable; tras
+ *   {@link #MAX_INTENTOS_RECHAZADA} rechazos queda con error.
+ * - Las que quedan con error no se reintentan solas: se muestran en los formularios para
+ *   reintentarlas o descartarlas. El estado de cada operación se publica como LiveData.
+ *
+ * Todos los métodos públicos deben llamarse desde el hilo principal.
+ */
+public class OutboxRepository {
+    private static final String TAG = "OutboxRepository";
+    // Operaciones por WriteBatch (Firestore admite hasta 500 escrituras por lote)
+    static final int TAMANO_LOTE = 50;
+    // Reintentos antes de dar por perdido un RUT que no aparece en rut_index
+    static final int MAX_INTENTOS_SIN_PACIENTE = 5;
+    // Rechazos de Firestore (permiso, datos inválidos) antes de dejar la operación con error
+    static final int MAX_INTENTOS_RECHAZADA = 3;
+    // Espera antes de volver a buscar un paciente no encontrado: lo que dura la caché negativa
+    static final long ESPERA_SIN_PACIENTE_MS = RutResolver.TTL_NO_ENCONTRADO_MS + 5_000;
+    // Espera si la consulta a rut_index falló y la conexión no vuelve a cambiar
+    static final long ESPERA_CONSULTA_FALLIDA_MS = 30_000;
+
+    private static OutboxRepository instance;
+    private final Context context;
+    private final FirebaseFirestore db;
+    private final LocalDatabase localDb;
+    private final PacienteRepository pacienteRepository;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final MutableLiveData<List<OperacionPendiente>> operaciones = new MutableLiveData<>(new ArrayList<>());
+    private boolean enviando;
+    // Operaciones que no se envían antes de este instante (id → epoch ms), solo en memoria
+    private final Map<String, Long> esperaHasta = new HashMap<>();
+    // De ellas, las que esperan por una consulta fallida: las libera el próximo cambio de red
+    private final Set<String> esperandoConexion = new HashSet<>();
+    private final Runnable reintento = this::reintentar;
+
+    private OutboxRepository(Context context) {
+        this.context = context;
+        db = FirebaseFirestore.getInstance();
+        localDb = LocalDatabase.get();
+        pacienteRepository = PacienteRepository.getInstance();
+        escucharConexion();
+        // Lo que quedó pendiente de una sesión anterior se envía apenas haya conexión
+        enviarPendientes();
+    }
+
+    public static synchronized OutboxRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new OutboxRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Operaciones aún no confirmadas por Firestore, de la más antigua a la más nueva
+     */
+    public LiveData<List<OperacionPendiente>> getOperaciones() {
+        return operaciones;
+    }
+
+    /**
+     * Id para una cita nueva (generado en el dispositivo, no requiere conexión)
+     */
+    public String nuevoIdCita() {
+        return db.collection("citas").document().getId();
+    }
+
+    /**
+     * Id para una atención nueva (generado en el dispositivo, no requiere conexión)
+     */
+    public String nuevoIdAtencion() {
+        return db.collection("atenciones").document().getId();
+    }
+
+    /**
+     * Guarda la operación en la bandeja de salida. El callback confirma que quedó en disco;
+     * el envío a Firestore ocurre después, cuando haya conexión.
+     */
+    public void encolar(OperacionPendiente op, PacienteRepository.RegistroCallback callback) {
+        localDb.guardarOperacion(op, guardada -> {
+            if (!guardada) {
+                callback.onError("No se pudo guardar la operación en el dispositivo");
+                return;
+            }
+            mostrarEnPanel(op);
+            callback.onSuccess();
+            enviarPendientes();
+        });
+    }
+
+    /**
+     * Si la operación es del propio paciente se agrega ya a {@link ClinicaStore}; al enviarse
+     * se escribe con el mismo id, así que el listener la reemplaza sin duplicarla
+     */
+    private void mostrarEnPanel(OperacionPendiente op) {
+        ClinicaStore store = ClinicaStore.getInstance();
+        if (!store.esDelPacienteActual(null, op.getRutPaciente())) return;
+        if (op.esCita()) {
+            store.ponerCita(PacienteRepository.citaLocal(op.getId(), op.getFecha(), op.getHora(),
+                    op.getMotivo(), op.getMedico(), op.getTipoCita()));
+        } else {
+            store.ponerAtencion(PacienteRepository.atencionLocal(op.getId(), op.getFecha(),
+                    op.getMotivo(), op.getMedico(), op.getDiagnostico(), op.getObservaciones()));
+        }
+    }
+
+    /**
+     * Envía las operaciones pendientes, un lote tras otro, si hay conexión.
+     * Sin conexión solo refresca el estado publicado.
+     */
+    public void enviarPendientes() {
+        if (enviando) {
+            return;
+        }
+        enviando = true;
+        localDb.leerOperaciones(todas -> {
+            operaciones.setValue(todas);
+            if (!NetworkUtils.isNetworkAvailable(context)) {
+                enviando = false;
+                return;
+            }
+
+            // Las que quedaron "enviando" por un cierre de la app se reintentan (el id es el mismo)
+            List<OperacionPendiente> lote = new ArrayList<>();
+            long ahora = System.currentTimeMillis();
+            for (OperacionPendiente op : todas) {
+                if (!OperacionPendiente.ESTADO_ERROR.equals(op.getEstado()) && !enEspera(op, ahora)) {
+                    lote.add(op);
+                    if (lote.size() == TAMANO_LOTE) break;
+                }
+            }
+            if (lote.isEmpty()) {
+                enviando = false;
+                return;
+            }
+
+            for (OperacionPendiente op : lote) {
+                op.setEstado(OperacionPendiente.ESTADO_ENVIANDO);
+            }
+            localDb.actualizarOperaciones(lote);
+            operaciones.setValue(todas);
+
+            List<String> ruts = new ArrayList<>();
+            for (OperacionPendiente op : lote) {
+                ruts.add(op.getRutPaciente());
+            }
+            pacienteRepository.resolverEmails(ruts, (emails, sinConsultar) -> enviarLote(lote, emails, sinConsultar));
+        });
+    }
+
+    private void reintentar() {
+        if (enviando) {
+            // Un envío en curso que termina sin error no vuelve a revisar la bandeja
+            main.postDelayed(reintento, ESPERA_CONSULTA_FALLIDA_MS);
+            return;
+        }
+        enviarPendientes();
+    }
+
+    private boolean enEspera(OperacionPendiente op, long ahora) {
+        Long hasta = esperaHasta.get(op.getId());
+        if (hasta == null) return false;
+        if (hasta > ahora) return true;
+        esperaHasta.remove(op.getId());
+        esperandoConexion.remove(op.getId());
+        return false;
+    }
+
+    /**
+     * Saca la operación de los envíos hasta que pase la espera y programa el reintento
+     */
+    private void esperar(OperacionPendiente op, long esperaMs, boolean hastaConexion) {
+        long ahora = System.currentTimeMillis();
+        esperaHasta.put(op.getId(), ahora + esperaMs);
+        if (hastaConexion) {
+            esperandoConexion.add(op.getId());
+        }
+        // Un solo reintento programado, para la espera que vence primero
+        long proxima = Long.MAX_VALUE;
+        for (Iterator<Map.Entry<String, Long>> it = esperaHasta.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> e = it.next();
+            if (e.getValue() <= ahora) {
+                it.remove();
+                esperandoConexion.remove(e.getKey());
+            } else {
+                proxima = Math.min(proxima, e.getValue());
+            }
+        }
+        main.removeCallbacks(reintento);
+        main.postDelayed(reintento, proxima - ahora);
+    }
+
+    private void enviarLote(List<OperacionPendiente> lote, Map<String, String> emails,
+                            Set<String> sinConsultar) {
+        List<OperacionPendiente> enviadas = new ArrayList<>();
+        List<OperacionPendiente> sinPaciente = new ArrayList<>();
+        for (OperacionPendiente op : lote) {
+            String email = emails.get(op.getRutPaciente());
+            if (email == null || email.isEmpty()) {
+                op.setEstado(OperacionPendiente.ESTADO_PENDIENTE);
+                if (sinConsultar.contains(op.getRutPaciente())) {
+                    // Lectura fallida: no cuenta como intento, se reintenta con la conexión
+                    op.setError("No se pudo consultar el paciente");
+                    esperar(op, ESPERA_CONSULTA_FALLIDA_MS, true);
+                } else {
+                    // El RUT no está en rut_index (todavía): se reintenta unas veces, espaciadas
+                    op.setIntentos(op.getIntentos() + 1);
+                    op.setError("Paciente no encontrado");
+                    if (op.getIntentos() >= MAX_INTENTOS_SIN_PACIENTE) {
+                        op.setEstado(OperacionPendiente.ESTADO_ERROR);
+                    } else {
+                        esperar(op, ESPERA_SIN_PACIENTE_MS, false);
+                    }
+                }
+                sinPaciente.add(op);
+                continue;
+            }
+            enviadas.add(op);
+        }
+        if (!sinPaciente.isEmpty()) {
+            localDb.actualizarOperaciones(sinPaciente);
+        }
+        if (enviadas.isEmpty()) {
+            terminar();
+            return;
+        }
+
+        // Sigue con el próximo lote: las que fallaron quedan en espera o con error
+        confirmar(enviadas, emails, () -> {
+            enviando = false;
+            enviarPendientes();
+        });
+    }
+
+    /**
+     * Escribe las operaciones en un WriteBatch. Si Firestore lo rechaza por una de ellas, el
+     * lote se divide en mitades hasta aislarla, para que no bloquee a las demás.
+     */
+    private void confirmar(List<OperacionPendiente> ops, Map<String, String> emails, Runnable alTerminar) {
+        WriteBatch batch = db.batch();
+        for (OperacionPendiente op : ops) {
+            String email = emails.get(op.getRutPaciente());
+            if (op.esCita()) {
+                batch.set(db.collection("citas").document(op.getId()),
+                        CitaCodec.codificar(email, op.getRutPaciente(), op.getFecha(), op.getHora(),
+                                op.getMotivo(), op.getMedico(), op.getTipoCita()));
+            } else {
+                batch.set(db.collection("atenciones").document(op.getId()),
+                        AtencionCodec.codificar(email, op.getRutPaciente(), op.getFecha(), op.getMotivo(),
+                                op.getMedico(), op.getDiagnostico(), op.getObservaciones()));
+            }
+        }
+
+        Tracer.medir("bandeja.lote", batch.commit())
+                .addOnSuccessListener(unused -> {
+                    List<String> ids = new ArrayList<>();
+                    for (OperacionPendiente op : ops) {
+                        ids.add(op.getId());
+                        if (!op.esCita()) {
+                            pacienteRepository.atencionRegistrada(emails.get(op.getRutPaciente()));
+                        }
+                    }
+                    localDb.borrarOperaciones(ids);
+                    Log.d(TAG, "Lote enviado: " + ids.size() + " operaciones");
+                    alTerminar.run();
+                })
+                .addOnFailureListener(e -> {
+                    boolean transitorio = esTransitorio(e);
+                    if (!transitorio && ops.size() > 1) {
+                        Log.w(TAG, "Lote rechazado, se divide para aislar la operación: " + e.getMessage());
+                        int mitad = ops.size() / 2;
+                        List<OperacionPendiente> primera = new ArrayList<>(ops.subList(0, mitad));
+                        List<OperacionPendiente> segunda = new ArrayList<>(ops.subList(mitad, ops.size()));
+                        confirmar(primera, emails, () -> confirmar(segunda, emails, alTerminar));
+                        return;
+                    }
+
+                    Log.w(TAG, "Error enviando lote (" + (transitorio ? "transitorio" : "rechazado") + ")", e);
+                    for (OperacionPendiente op : ops) {
+                        op.setIntentos(op.getIntentos() + 1);
+                        op.setError(e.getMessage());
+                        if (!transitorio && op.getIntentos() >= MAX_INTENTOS_RECHAZADA) {
+                            // Firestore la rechaza siempre: queda a la vista para reintentar o descartar
+                            op.setEstado(OperacionPendiente.ESTADO_ERROR);
+                        } else {
+                            op.setEstado(OperacionPendiente.ESTADO_PENDIENTE);
+                            esperar(op, ESPERA_CONSULTA_FALLIDA_MS, true);
+                        }
+                    }
+                    localDb.actualizarOperaciones(ops);
+                    alTerminar.run();
+                });
+    }
+
+    /**
+     * true si el error puede resolverse solo al reintentar (red, cuota, servidor ocupado);
+     * false si Firestore rechazó el contenido o el permiso
+     */
+    static boolean esTransitorio(Exception e) {
+        if (!(e instanceof FirebaseFirestoreException)) {
+            return true;
+        }
+        switch (((FirebaseFirestoreException) e).getCode()) {
+            case PERMISSION_DENIED:
+            case UNAUTHENTICATED:
+            case INVALID_ARGUMENT:
+            case FAILED_PRECONDITION:
+            case NOT_FOUND:
+            case ALREADY_EXISTS:
+            case OUT_OF_RANGE:
+            case UNIMPLEMENTED:
+            case DATA_LOSS:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Vuelve a poner en cola una operación que quedó con error (p.ej. tras corregir el
+     * paciente en rut_index), con sus intentos en cero
+     */
+    public void reintentar(String id) {
+        localDb.leerOperaciones(todas -> {
+            for (OperacionPendiente op : todas) {
+                if (op.getId().equals(id)) {
+                    op.setEstado(OperacionPendiente.ESTADO_PENDIENTE);
+                    op.setIntentos(0);
+                    op.setError(null);
+                    esperaHasta.remove(id);
+                    esperandoConexion.remove(id);
+                    localDb.actualizarOperaciones(Collections.singletonList(op));
+                    break;
+                }
+            }
+            enviarPendientes();
+        });
+    }
+
+    /**
+     * Quita una operación de la bandeja sin enviarla (y del panel, si se estaba mostrando)
+     */
+    public void descartar(String id) {
+        esperaHasta.remove(id);
+        esperandoConexion.remove(id);
+        ClinicaStore store = ClinicaStore.getInstance();
+        store.quitarCita(id);
+        store.quitarAtencion(id);
+        localDb.borrarOperaciones(Collections.singletonList(id));
+        if (!enviando) {
+            terminar();
+        }
+    }
+
+    /**
+     * Publica el estado guardado sin intentar otro envío
+     */
+    private void terminar() {
+        localDb.leerOperaciones(todas -> {
+            operaciones.setValue(todas);
+            enviando = false;
+        });
+    }
+
+    /**
+     * Reintenta el envío cada vez que la red queda validada (con acceso real a internet)
+     */
+    private void escucharConexion() {
+        ConnectivityManager connectivityManager = (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return;
+        }
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+                if (capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED)) {
+                    main.post(() -> {
+                        // Las que esperaban por una consulta fallida se reintentan ya
+                        for (String id : esperandoConexion) {
+                            esperaHasta.remove(id);
+                        }
+                        esperandoConexion.clear();
+                        enviarPendientes();
+                    });
+                }
+            }
+        });
+    }
+}
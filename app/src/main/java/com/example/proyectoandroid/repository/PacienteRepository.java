@@ -6,33 +6,83 @@ import androidx.lifecycle.MutableLiveData;
 import com.example.proyectoandroid.model.Atencion;
 import com.example.proyectoandroid.model.Cita;
 import com.example.proyectoandroid.model.Paciente;
-import com.google.android.gms.tasks.Tasks;
+import com.example.proyectoandroid.model.RegistroAtencion;
+import com.example.proyectoandroid.repository.local.LocalDatabase;
+import com.example.proyectoandroid.util.AtencionCodec;
+import com.example.proyectoandroid.util.ChangeSet;
+import com.example.proyectoandroid.util.CitaCodec;
+import com.example.proyectoandroid.util.CitasUtils;
+import com.example.proyectoandroid.util.PacienteCodec;
+import com.example.proyectoandroid.util.ParallelChunkRunner;
+import com.example.proyectoandroid.util.RutUtils;
+import com.example.proyectoandroid.util.SnapshotListenerRegistry;
+import com.example.proyectoandroid.util.SortedListModel;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Repositorio para manejar datos del paciente desde Firebase
  */
 public class PacienteRepository {
+    static final String COLECCION_EMAIL_INDEX = "email_index";
+    // Carga masiva de atenciones: Firestore admite hasta 500 escrituras por WriteBatch
+    static final int TAMANO_LOTE_ATENCIONES = 500;
+    static final int LOTES_ATENCIONES_EN_VUELO = 4;
+    // Error de registrarPaciente cuando el RUT ya pertenece a otro paciente
+    public static final String ERROR_RUT_YA_REGISTRADO = "RUT ya registrado";
     private static PacienteRepository instance;
     private final FirebaseFirestore db;
     private final FirebaseAuth auth;
-    private ListenerRegistration atencionesListener;
-    private ListenerRegistration citasListener;
+    private final LocalDatabase localDb;
+    private final AtencionCodec atencionCodec = new AtencionCodec(CambiosSnapshot.FECHAS_FIRESTORE);
+    private final CitaCodec citaCodec = new CitaCodec(CambiosSnapshot.FECHAS_FIRESTORE);
+    // Un listener de Firestore por consulta, compartido por todos los que la piden.
+    // A un suscriptor nuevo se le repite la última lista como carga completa.
+    private final SnapshotListenerRegistry<ChangeSet<Atencion>> listenersAtenciones =
+            new SnapshotListenerRegistry<>(ultimo -> ChangeSet.completo(ultimo.getItems()));
+    private final SnapshotListenerRegistry<ChangeSet<Cita>> listenersCitas =
+            new SnapshotListenerRegistry<>(ultimo -> ChangeSet.completo(ultimo.getItems()));
+    // Historial paginado del usuario actual (conserva las páginas ya leídas entre pantallas)
+    private AtencionesPagingSource historialAtenciones;
+    // Pantallas esperando la primera versión del perfil (ver cargarPaciente)
+    private final List<PacienteCallback> esperandoPaciente = new ArrayList<>();
+    // Se desactiva si Firestore responde que falta el índice compuesto de citas
+    private static volatile boolean indiceCitasDisponible = true;
+
+    // Orden de las atenciones: más recientes primero, las que no tienen fecha al final
+    static final Comparator<Atencion> ATENCIONES_RECIENTES_PRIMERO = (a1, a2) -> {
+        if (a1.getFecha() == null && a2.getFecha() == null) return 0;
+        if (a1.getFecha() == null) return 1;
+        if (a2.getFecha() == null) return -1;
+        return a2.getFecha().compareTo(a1.getFecha());
+    };
 
     private PacienteRepository() {
         db = FirebaseFirestore.getInstance();
         auth = FirebaseAuth.getInstance();
+        localDb = LocalDatabase.get();
     }
 
     public static synchronized PacienteRepository getInstance() {
@@ -58,22 +108,43 @@ public class PacienteRepository {
                     Map<String, Object> rutIndex = new HashMap<>();
                     rutIndex.put("email", email);
 
+                    // Crear /email_index/{email} para cargar el perfil por clave
+                    Map<String, Object> emailIndex = new HashMap<>();
+                    emailIndex.put("rut", rutFinal);
+
                     // Crear /pacientes/{RUT}
-                    Map<String, Object> paciente = new HashMap<>();
-                    paciente.put("email", email);
-                    paciente.put("nombre", nombre);
-                    paciente.put("rut", rutFinal);
-                    paciente.put("telefono", telefono != null ? telefono : "");
-                    paciente.put("direccion", direccion != null ? direccion : "");
-
-                    // Ejecutar ambas escrituras en paralelo
-                    Tasks.whenAllComplete(
-                            db.collection("rut_index").document(rutFinal).set(rutIndex),
-                            db.collection("pacientes").document(rutFinal).set(paciente)
-                    ).addOnSuccessListener(list -> {
+                    Map<String, Object> paciente = PacienteCodec.codificar(email, nombre, rutFinal, telefono, direccion);
+
+                    DocumentReference rutRef = db.collection("rut_index").document(rutFinal);
+
+                    // Una sola transacción: o quedan los tres documentos o ninguno.
+                    // La unicidad del RUT se verifica dentro del mismo commit.
+                    ConsumoFirestore.escritura("PacienteRepository.registrarPaciente", 1, 3, db.runTransaction(transaction -> {
+                        if (transaction.get(rutRef).exists()) {
+                            throw new FirebaseFirestoreException(ERROR_RUT_YA_REGISTRADO,
+                                    FirebaseFirestoreException.Code.ALREADY_EXISTS);
+                        }
+                        transaction.set(rutRef, rutIndex);
+                        transaction.set(db.collection(COLECCION_EMAIL_INDEX).document(claveEmail(email)), emailIndex);
+                        transaction.set(db.collection("pacientes").document(rutFinal), paciente);
+                        return null;
+                    })).addOnSuccessListener(unused -> {
+                        // Reemplaza un posible "no encontrado" guardado para este RUT
+                        RutResolver.get().recordar(rutFinal, email);
                         callback.onSuccess();
                     }).addOnFailureListener(e -> {
-                        callback.onError("Error guardando datos: " + e.getMessage());
+                        // Sin perfil la cuenta quedaría huérfana: se elimina para poder reintentar
+                        FirebaseUser nuevo = result.getUser();
+                        if (nuevo != null) {
+                            nuevo.delete().addOnFailureListener(err ->
+                                    android.util.Log.w("PacienteRepository", "No se pudo eliminar el usuario sin perfil", err));
+                        }
+                        if (e instanceof FirebaseFirestoreException
+                                && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.ALREADY_EXISTS) {
+                            callback.onError(ERROR_RUT_YA_REGISTRADO);
+                        } else {
+                            callback.onError("Error guardando datos: " + e.getMessage());
+                        }
                     });
                 })
                 .addOnFailureListener(e -> {
@@ -82,7 +153,35 @@ public class PacienteRepository {
     }
 
     /**
-     * Obtiene los datos del paciente actual
+     * Deja el perfil del paciente en {@link ClinicaStore} si aún no está en memoria.
+     * Las pantallas que lo piden mientras la consulta sigue en curso comparten esa consulta;
+     * el callback recibe la primera versión disponible.
+     */
+    public void cargarPaciente(PacienteCallback callback) {
+        Paciente enMemoria = ClinicaStore.getInstance().getPaciente().getValue();
+        if (enMemoria != null) {
+            callback.onResult(enMemoria);
+            return;
+        }
+        esperandoPaciente.add(callback);
+        if (esperandoPaciente.size() > 1) {
+            return;
+        }
+        obtenerDatosPaciente(paciente -> {
+            // Llega primero la copia local y luego la remota: solo la primera responde a los que esperan
+            List<PacienteCallback> esperando = new ArrayList<>(esperandoPaciente);
+            esperandoPaciente.clear();
+            for (PacienteCallback cb : esperando) {
+                cb.onResult(paciente);
+            }
+        });
+    }
+
+    /**
+     * Obtiene los datos del paciente actual.
+     * Entrega primero la copia local (si existe) y luego la versión de Firestore,
+     * leída directamente por RUT (pacientes/{RUT}) en vez de consultar por email.
+     * Cada versión recibida también queda en {@link ClinicaStore}.
      */
     public void obtenerDatosPaciente(PacienteCallback callback) {
         FirebaseUser user = auth.getCurrentUser();
@@ -91,218 +190,443 @@ public class PacienteRepository {
             return;
         }
 
-        // Buscar paciente por email
-        db.collection("pacientes")
-                .whereEqualTo("email", user.getEmail())
+        String email = user.getEmail();
+        PacienteCallback entrega = paciente -> {
+            // Una respuesta tardía de un usuario que ya cerró sesión no queda en memoria
+            FirebaseUser actual = auth.getCurrentUser();
+            if (paciente != null && actual != null && email.equals(actual.getEmail())) {
+                ClinicaStore.getInstance().ponerPaciente(paciente);
+            }
+            callback.onResult(paciente);
+        };
+        AtomicBoolean remotoEntregado = new AtomicBoolean(false);
+
+        // Responder de inmediato desde disco; si ya conocemos el RUT nos ahorramos resolverlo
+        localDb.leerPaciente(email, local -> {
+            if (local != null && !remotoEntregado.get()) {
+                entrega.onResult(local);
+            }
+
+            if (local != null && local.getRut() != null && !local.getRut().isEmpty()) {
+                cargarPacientePorRut(user, local.getRut(), remotoEntregado, entrega);
+            } else {
+                resolverRutPorEmail(email, rut -> {
+                    if (rut != null) {
+                        cargarPacientePorRut(user, rut, remotoEntregado, entrega);
+                    } else {
+                        buscarPacientePorEmail(user, remotoEntregado, entrega);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Lee el perfil con una sola lectura por clave: pacientes/{RUT}
+     */
+    private void cargarPacientePorRut(FirebaseUser user, String rut, AtomicBoolean remotoEntregado,
+                                      PacienteCallback callback) {
+        ConsumoFirestore.documento("PacienteRepository.cargarPacientePorRut", db.collection("pacientes").document(rut).get())
+                .addOnSuccessListener(doc -> {
+                    if (doc.exists()) {
+                        remotoEntregado.set(true);
+                        Paciente paciente = mapearPaciente(doc);
+                        localDb.guardarPaciente(paciente);
+                        callback.onResult(paciente);
+                    } else {
+                        // El índice apunta a un RUT que ya no existe: usar la consulta por email
+                        buscarPacientePorEmail(user, remotoEntregado, callback);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    // Sin conexión: quedarse con la copia local (o null si nunca se guardó)
+                    remotoEntregado.set(true);
+                    localDb.leerPaciente(user.getEmail(), callback::onResult);
+                });
+    }
+
+    /**
+     * Resuelve el RUT del paciente a partir de email_index/{email} (null si no está indexado)
+     */
+    private void resolverRutPorEmail(String email, EmailCallback callback) {
+        ConsumoFirestore.documento("PacienteRepository.resolverRutPorEmail", db.collection(COLECCION_EMAIL_INDEX).document(claveEmail(email)).get())
+                .addOnSuccessListener(doc -> {
+                    String rut = doc.exists() ? doc.getString("rut") : null;
+                    callback.onResult(rut != null && !rut.isEmpty() ? rut : null);
+                })
+                .addOnFailureListener(e -> callback.onResult(null));
+    }
+
+    /**
+     * Búsqueda por email para pacientes que aún no están en email_index.
+     * Si lo encuentra, crea la entrada del índice para que la próxima carga sea por clave.
+     */
+    private void buscarPacientePorEmail(FirebaseUser user, AtomicBoolean remotoEntregado,
+                                        PacienteCallback callback) {
+        String email = user.getEmail();
+        ConsumoFirestore.consulta("PacienteRepository.buscarPacientePorEmail", db.collection("pacientes")
+                .whereEqualTo("email", email)
                 .limit(1)
-                .get()
+                .get())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
+                    remotoEntregado.set(true);
                     if (!queryDocumentSnapshots.isEmpty()) {
                         DocumentSnapshot doc = queryDocumentSnapshots.getDocuments().get(0);
-                        Paciente paciente = new Paciente();
-                        paciente.setNombre(doc.getString("nombre"));
-                        paciente.setRut(doc.getString("rut"));
-                        paciente.setEmail(doc.getString("email"));
-                        paciente.setTelefono(doc.getString("telefono"));
-                        paciente.setDireccion(doc.getString("direccion"));
+                        Paciente paciente = mapearPaciente(doc);
+                        indexarEmail(email, doc.getId());
+                        localDb.guardarPaciente(paciente);
                         callback.onResult(paciente);
                     } else {
                         // Si no se encuentra, crear un paciente básico con datos del usuario
                         Paciente paciente = new Paciente();
                         paciente.setNombre(user.getDisplayName() != null ? user.getDisplayName() : "Usuario");
-                        paciente.setEmail(user.getEmail());
+                        paciente.setEmail(email);
                         callback.onResult(paciente);
                     }
                 })
-                .addOnFailureListener(e -> callback.onResult(null));
+                .addOnFailureListener(e -> {
+                    // Sin conexión: quedarse con la copia local (o null si nunca se guardó)
+                    remotoEntregado.set(true);
+                    localDb.leerPaciente(email, callback::onResult);
+                });
     }
 
     /**
-     * Obtiene las últimas atenciones del paciente con actualización en tiempo real
+     * Crea (o actualiza) la entrada email_index/{email} -> RUT
      */
-    public void obtenerUltimasAtenciones(int limite, AtencionesCallback callback) {
+    void indexarEmail(String email, String rut) {
+        Map<String, Object> emailIndex = new HashMap<>();
+        emailIndex.put("rut", rut);
+        ConsumoFirestore.escritura("PacienteRepository.indexarEmail", 1,
+                db.collection(COLECCION_EMAIL_INDEX).document(claveEmail(email)).set(emailIndex))
+                .addOnFailureListener(e -> android.util.Log.w("PacienteRepository",
+                        "No se pudo indexar el email: " + e.getMessage()));
+    }
+
+    private Paciente mapearPaciente(DocumentSnapshot doc) {
+        return PacienteCodec.decodificar(doc.getId(), doc.getData());
+    }
+
+    /**
+     * Clave del documento en email_index (los emails no distinguen mayúsculas)
+     */
+    static String claveEmail(String email) {
+        return email != null ? email.trim().toLowerCase(java.util.Locale.ROOT) : "";
+    }
+
+    /**
+     * Obtiene las últimas atenciones del paciente con actualización en tiempo real.
+     * Entrega primero las guardadas en disco y luego se mantiene sincronizado con Firestore.
+     * Varias pantallas con la misma consulta comparten un solo listener; cancelar la
+     * suscripción devuelta cuando ya no se necesite.
+     */
+    public SnapshotListenerRegistry.Cancelable obtenerUltimasAtenciones(int limite, AtencionesCallback callback) {
         FirebaseUser user = auth.getCurrentUser();
         if (user == null || user.getEmail() == null) {
             callback.onResult(new ArrayList<>());
-            return;
+            return () -> { };
         }
 
-        // Remover listener anterior si existe
-        if (atencionesListener != null) {
-            atencionesListener.remove();
+        String email = user.getEmail();
+        SnapshotListenerRegistry<ChangeSet<Atencion>>.Suscripcion suscripcion = listenersAtenciones.suscribir(
+                "atenciones|" + email + "|" + limite,
+                emisor -> escucharAtenciones(email, limite, emisor),
+                callback::onCambios);
+
+        // Responder de inmediato desde disco (si el listener compartido aún no entregó nada)
+        if (!suscripcion.recibioValor()) {
+            localDb.leerAtenciones(email, limite, locales -> {
+                if (suscripcion.isActiva() && !suscripcion.recibioValor()) {
+                    ClinicaStore.getInstance().ponerAtenciones(ChangeSet.completo(locales));
+                    callback.onResult(locales);
+                }
+            });
         }
+        return suscripcion;
+    }
+
+    /**
+     * Abre el listener de Firestore de las últimas atenciones (uno por consulta).
+     * Los snapshots se procesan en segundo plano y los cambios se entregan en el hilo principal.
+     */
+    private SnapshotListenerRegistry.Cancelable escucharAtenciones(String email, int limite,
+                                                                   SnapshotListenerRegistry.Emisor<ChangeSet<Atencion>> emisor) {
+        AtomicBoolean remotoEntregado = new AtomicBoolean(false);
+        AtomicBoolean cancelado = new AtomicBoolean(false);
+
+        // Modelo ordenado que se actualiza solo con los documentos que cambian
+        SortedListModel<Atencion> modelo = new SortedListModel<>(ATENCIONES_RECIENTES_PRIMERO, Atencion::getId);
 
         // Crear listener en tiempo real
-        atencionesListener = db.collection("atenciones")
-                .whereEqualTo("emailPaciente", user.getEmail())
-                .orderBy("fecha", com.google.firebase.firestore.Query.Direction.DESCENDING)
+        ConsumoFirestore.Escucha escucha = ConsumoFirestore.escucha("PacienteRepository.ultimasAtenciones");
+        ListenerRegistration listener = db.collection("atenciones")
+                .whereEqualTo("emailPaciente", email)
+                .orderBy("fecha", Query.Direction.DESCENDING)
                 .limit(limite)
-                .addSnapshotListener((queryDocumentSnapshots, e) -> {
-                    if (e != null) {
-                        callback.onResult(new ArrayList<>());
+                .addSnapshotListener(HilosListeners.FONDO, (queryDocumentSnapshots, e) -> {
+                    escucha.snapshot(queryDocumentSnapshots, e);
+                    if (e != null || queryDocumentSnapshots == null) {
+                        // Mantener lo que ya se mostró desde disco
                         return;
                     }
 
-                    if (queryDocumentSnapshots == null) {
-                        callback.onResult(new ArrayList<>());
+                    boolean desdeCache = queryDocumentSnapshots.getMetadata().isFromCache();
+                    CambiosSnapshot.aplicar(queryDocumentSnapshots, modelo, this::mapearAtencion);
+                    if (desdeCache && modelo.size() == 0 && !remotoEntregado.get()) {
+                        // Caché de Firestore vacío (p.ej. sin conexión): no pisar los datos locales
                         return;
                     }
 
-                    List<Atencion> atenciones = new ArrayList<>();
-                    for (QueryDocumentSnapshot doc : queryDocumentSnapshots) {
-                        Atencion atencion = new Atencion();
-                        atencion.setId(doc.getId());
-                        atencion.setMotivo(doc.getString("motivo"));
-                        atencion.setMedico(doc.getString("medico"));
-                        atencion.setDiagnostico(doc.getString("diagnostico"));
-                        atencion.setObservaciones(doc.getString("observaciones"));
-                        
-                        // Convertir timestamp a Date
-                        if (doc.getTimestamp("fecha") != null) {
-                            atencion.setFecha(doc.getTimestamp("fecha").toDate());
-                        }
-                        
-                        atenciones.add(atencion);
+                    ChangeSet<Atencion> cambios = modelo.confirmar();
+                    if (!desdeCache && !cancelado.get()) {
+                        localDb.guardarAtenciones(email, cambios.getItems());
+                    }
+                    if (cambios.isVacio()) {
+                        // Solo cambió la metadata (p.ej. caché -> servidor)
+                        return;
                     }
-                    callback.onResult(atenciones);
+
+                    remotoEntregado.set(true);
+                    HilosListeners.entregar(cancelado, () -> {
+                        ClinicaStore.getInstance().ponerAtenciones(cambios);
+                        emisor.emitir(cambios);
+                    });
                 });
+        return () -> {
+            cancelado.set(true);
+            listener.remove();
+        };
+    }
+
+    private Atencion mapearAtencion(DocumentSnapshot doc) {
+        return atencionCodec.decodificar(doc.getId(), doc.getData());
+    }
+
+    /**
+     * Historial completo de atenciones del paciente actual, paginado bajo demanda
+     * (null si no hay sesión). Se reutiliza mientras no cambie el usuario.
+     */
+    public AtencionesPagingSource obtenerHistorialAtenciones() {
+        FirebaseUser user = auth.getCurrentUser();
+        if (user == null || user.getEmail() == null) {
+            return null;
+        }
+
+        String email = user.getEmail();
+        if (historialAtenciones == null || !historialAtenciones.getEmail().equals(email)) {
+            // Misma consulta (y mismo índice) que obtenerUltimasAtenciones, sin límite fijo.
+            // El desempate por id es el que Firestore ya aplica implícitamente (el índice
+            // termina en __name__ en la misma dirección); explícito, permite cursores (fecha, id)
+            Query consulta = db.collection("atenciones")
+                    .whereEqualTo("emailPaciente", email)
+                    .orderBy("fecha", Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+            historialAtenciones = new AtencionesPagingSource(email, consulta, "fecha", this::mapearAtencion,
+                    AtencionesPagingSource.TAMANO_PAGINA,
+                    AtencionesPagingSource.DISTANCIA_PREFETCH,
+                    AtencionesPagingSource.MAX_PAGINAS_EN_VENTANA,
+                    AtencionesPagingSource.MAX_PAGINAS_EN_CACHE);
+        }
+        return historialAtenciones;
     }
 
     /**
-     * Obtiene las próximas citas del paciente con actualización en tiempo real
+     * Obtiene las próximas citas del paciente con actualización en tiempo real.
+     * Entrega primero las guardadas en disco y luego se mantiene sincronizado con Firestore.
+     * El filtro (desde hoy, pendiente/confirmada), el orden y el límite se resuelven en el
+     * servidor; solo si falta el índice compuesto se vuelve a descargar el historial completo.
+     * Varias pantallas con la misma consulta comparten un solo listener; cancelar la
+     * suscripción devuelta cuando ya no se necesite.
      */
-    public void obtenerProximasCitas(int limite, CitasCallback callback) {
+    public SnapshotListenerRegistry.Cancelable obtenerProximasCitas(int limite, CitasCallback callback) {
         FirebaseUser user = auth.getCurrentUser();
         if (user == null || user.getEmail() == null) {
             callback.onResult(new ArrayList<>());
-            return;
+            return () -> { };
+        }
+
+        String email = user.getEmail();
+        SnapshotListenerRegistry<ChangeSet<Cita>>.Suscripcion suscripcion = listenersCitas.suscribir(
+                "citas|" + email + "|" + limite,
+                emisor -> escucharCitas(email, limite, emisor),
+                callback::onCambios);
+
+        // Responder de inmediato desde disco (si el listener compartido aún no entregó nada)
+        if (!suscripcion.recibioValor()) {
+            localDb.leerProximasCitas(email, limite, locales -> {
+                if (suscripcion.isActiva() && !suscripcion.recibioValor()) {
+                    ClinicaStore.getInstance().ponerCitas(ChangeSet.completo(locales));
+                    callback.onResult(locales);
+                }
+            });
         }
+        return suscripcion;
+    }
 
-        // Remover listener anterior si existe
-        if (citasListener != null) {
-            citasListener.remove();
+    /**
+     * Abre el listener de Firestore de las próximas citas (uno por consulta). Si falta el
+     * índice compuesto se reemplaza por el de respaldo, así que se cancela el que esté activo.
+     * Los snapshots se procesan en segundo plano y los cambios se entregan en el hilo principal.
+     */
+    private SnapshotListenerRegistry.Cancelable escucharCitas(String email, int limite,
+                                                              SnapshotListenerRegistry.Emisor<ChangeSet<Cita>> emisor) {
+        AtomicBoolean remotoEntregado = new AtomicBoolean(false);
+        AtomicBoolean cancelado = new AtomicBoolean(false);
+        AtomicReference<ListenerRegistration> actual = new AtomicReference<>();
+
+        if (indiceCitasDisponible) {
+            escucharProximasCitas(email, limite, remotoEntregado, cancelado, actual, emisor);
+        } else {
+            escucharHistorialCitas(email, limite, remotoEntregado, cancelado, actual, emisor);
         }
 
-        // Crear listener en tiempo real
-        // Nota: Si hay un índice compuesto en Firestore para (emailPaciente, fecha), usar orderBy
-        // Si no, obtener todas y filtrar localmente
-        citasListener = db.collection("citas")
-                .whereEqualTo("emailPaciente", user.getEmail())
-                .addSnapshotListener((queryDocumentSnapshots, e) -> {
+        return () -> {
+            cancelado.set(true);
+            ListenerRegistration listener = actual.getAndSet(null);
+            if (listener != null) {
+                listener.remove();
+            }
+        };
+    }
+
+    /**
+     * Consulta de próximas citas filtrada, ordenada y limitada en el servidor.
+     * Requiere el índice compuesto (emailPaciente, estado, fecha) de firestore.indexes.json.
+     */
+    static Query consultaProximasCitas(FirebaseFirestore db, String email, Date desde, int limite) {
+        return db.collection("citas")
+                .whereEqualTo("emailPaciente", email)
+                .whereIn("estado", CitasUtils.ESTADOS_VIGENTES)
+                .whereGreaterThanOrEqualTo("fecha", desde)
+                .orderBy("fecha", Query.Direction.ASCENDING)
+                .limit(limite);
+    }
+
+    /**
+     * Listener sobre la consulta del servidor: las lecturas crecen con el límite, no con el historial
+     */
+    private void escucharProximasCitas(String email, int limite, AtomicBoolean remotoEntregado,
+                                       AtomicBoolean cancelado, AtomicReference<ListenerRegistration> actual,
+                                       SnapshotListenerRegistry.Emisor<ChangeSet<Cita>> emisor) {
+        Date inicioDeHoy = CitasUtils.inicioDelDia(new Date());
+        SortedListModel<Cita> modelo = new SortedListModel<>(CitasUtils.POR_FECHA, Cita::getId);
+        ConsumoFirestore.Escucha escucha = ConsumoFirestore.escucha("PacienteRepository.proximasCitas");
+        actual.set(consultaProximasCitas(db, email, inicioDeHoy, limite)
+                .addSnapshotListener(HilosListeners.FONDO, (queryDocumentSnapshots, e) -> {
+                    escucha.snapshot(queryDocumentSnapshots, e);
                     if (e != null) {
-                        // Si hay error de índice, intentar sin orderBy
-                        android.util.Log.e("PacienteRepository", "Error obteniendo citas: " + e.getMessage());
-                        // Intentar obtener sin orderBy
-                        db.collection("citas")
-                                .whereEqualTo("emailPaciente", user.getEmail())
-                                .get()
-                                .addOnSuccessListener(querySnapshot -> {
-                                    procesarCitas(querySnapshot, limite, callback);
-                                })
-                                .addOnFailureListener(error -> {
-                                    android.util.Log.e("PacienteRepository", "Error obteniendo citas sin orderBy: " + error.getMessage());
-                                    callback.onResult(new ArrayList<>());
-                                });
+                        if (e.getCode() == FirebaseFirestoreException.Code.FAILED_PRECONDITION) {
+                            // Falta el índice compuesto: usar la consulta por email y filtrar localmente
+                            android.util.Log.w("PacienteRepository", "Índice de citas no disponible, usando historial completo: " + e.getMessage());
+                            indiceCitasDisponible = false;
+                            escucharHistorialCitas(email, limite, remotoEntregado, cancelado, actual, emisor);
+                        } else {
+                            // Mantener lo que ya se mostró desde disco
+                            android.util.Log.e("PacienteRepository", "Error obteniendo citas: " + e.getMessage());
+                        }
                         return;
                     }
 
                     if (queryDocumentSnapshots == null) {
-                        callback.onResult(new ArrayList<>());
                         return;
                     }
 
-                    procesarCitas(queryDocumentSnapshots, limite, callback);
-                });
+                    procesarCitas(queryDocumentSnapshots, modelo, email, limite, remotoEntregado, cancelado, emisor);
+                }));
     }
 
     /**
-     * Procesa los documentos de citas y los filtra
+     * Listener de respaldo sobre todas las citas del paciente (sin índice compuesto).
+     * Se abre desde el hilo de fondo, así que puede cruzarse con la cancelación.
      */
-    private void procesarCitas(com.google.firebase.firestore.QuerySnapshot queryDocumentSnapshots, int limite, CitasCallback callback) {
-        // Crear fecha actual cada vez que se procesa para comparación correcta
-        Date ahora = new Date();
-        
-        android.util.Log.d("PacienteRepository", "Procesando citas. Total documentos: " + queryDocumentSnapshots.size());
-        
-        List<Cita> citas = new ArrayList<>();
-        for (QueryDocumentSnapshot doc : queryDocumentSnapshots) {
-            android.util.Log.d("PacienteRepository", "Procesando cita ID: " + doc.getId() + ", email: " + doc.getString("emailPaciente"));
-            // Filtrar solo citas futuras y con estado válido
-            Date fechaCita = null;
-            if (doc.getTimestamp("fecha") != null) {
-                fechaCita = doc.getTimestamp("fecha").toDate();
-                // Comparar solo la fecha (sin hora) para no filtrar citas del mismo día
-                java.util.Calendar calCita = java.util.Calendar.getInstance();
-                calCita.setTime(fechaCita);
-                calCita.set(java.util.Calendar.HOUR_OF_DAY, 0);
-                calCita.set(java.util.Calendar.MINUTE, 0);
-                calCita.set(java.util.Calendar.SECOND, 0);
-                calCita.set(java.util.Calendar.MILLISECOND, 0);
-                
-                java.util.Calendar calAhora = java.util.Calendar.getInstance();
-                calAhora.setTime(ahora);
-                calAhora.set(java.util.Calendar.HOUR_OF_DAY, 0);
-                calAhora.set(java.util.Calendar.MINUTE, 0);
-                calAhora.set(java.util.Calendar.SECOND, 0);
-                calAhora.set(java.util.Calendar.MILLISECOND, 0);
-                
-                // Solo filtrar si la fecha es anterior a hoy (no incluir hoy)
-                if (calCita.getTime().before(calAhora.getTime())) {
-                    continue; // Saltar citas pasadas (anteriores a hoy)
-                }
-            }
+    private void escucharHistorialCitas(String email, int limite, AtomicBoolean remotoEntregado,
+                                        AtomicBoolean cancelado, AtomicReference<ListenerRegistration> actual,
+                                        SnapshotListenerRegistry.Emisor<ChangeSet<Cita>> emisor) {
+        if (cancelado.get()) return;
+        SortedListModel<Cita> modelo = new SortedListModel<>(CitasUtils.POR_FECHA, Cita::getId);
+        ConsumoFirestore.Escucha escucha = ConsumoFirestore.escucha("PacienteRepository.historialCitas");
+        actual.set(db.collection("citas")
+                .whereEqualTo("emailPaciente", email)
+                .addSnapshotListener(HilosListeners.FONDO, (queryDocumentSnapshots, e) -> {
+                    escucha.snapshot(queryDocumentSnapshots, e);
+                    if (e != null) {
+                        // Mantener lo que ya se mostró desde disco
+                        android.util.Log.e("PacienteRepository", "Error obteniendo citas: " + e.getMessage());
+                        return;
+                    }
 
-            String estado = doc.getString("estado");
-            if (estado == null || (!estado.equals("confirmada") && !estado.equals("pendiente"))) {
-                continue; // Saltar citas canceladas o con estado inválido
-            }
+                    if (queryDocumentSnapshots == null) {
+                        return;
+                    }
 
-            Cita cita = new Cita();
-            cita.setId(doc.getId());
-            cita.setHora(doc.getString("hora"));
-            cita.setMotivo(doc.getString("motivo"));
-            cita.setMedico(doc.getString("medico"));
-            cita.setEstado(estado);
-            cita.setTipo(doc.getString("tipo"));
-            
-            // Convertir timestamp a Date
-            if (fechaCita != null) {
-                cita.setFecha(fechaCita);
+                    procesarCitas(queryDocumentSnapshots, modelo, email, limite, remotoEntregado, cancelado, emisor);
+                }));
+        if (cancelado.get()) {
+            // Se canceló mientras se abría: cerrar el que acabamos de registrar
+            ListenerRegistration listener = actual.getAndSet(null);
+            if (listener != null) {
+                listener.remove();
             }
-            
-            citas.add(cita);
         }
-        
-        // Ordenar por fecha ascendente
-        citas.sort((c1, c2) -> {
-            if (c1.getFecha() == null && c2.getFecha() == null) return 0;
-            if (c1.getFecha() == null) return 1;
-            if (c2.getFecha() == null) return -1;
-            return c1.getFecha().compareTo(c2.getFecha());
+    }
+
+    /**
+     * Aplica los cambios del snapshot al modelo de citas y guarda el resultado en disco.
+     * Con la consulta del servidor el filtro es redundante, pero también cubre el cambio de día
+     * mientras el listener sigue activo y la consulta de respaldo sin índice.
+     * Corre en el hilo de fondo; solo la entrega pasa al hilo principal.
+     */
+    private void procesarCitas(QuerySnapshot queryDocumentSnapshots, SortedListModel<Cita> modelo,
+                               String email, int limite, AtomicBoolean remotoEntregado,
+                               AtomicBoolean cancelado,
+                               SnapshotListenerRegistry.Emisor<ChangeSet<Cita>> emisor) {
+        Date inicioDeHoy = CitasUtils.inicioDelDia(new Date());
+        CambiosSnapshot.aplicar(queryDocumentSnapshots, modelo, doc -> {
+            Cita cita = mapearCita(doc);
+            return CitasUtils.esProxima(cita, inicioDeHoy) ? cita : null;
         });
-        
-        // Limitar resultados
-        if (citas.size() > limite) {
-            citas = citas.subList(0, limite);
+
+        // Las citas que quedaron en el pasado están al inicio (orden por fecha ascendente)
+        while (modelo.size() > 0 && !CitasUtils.esProxima(modelo.get(0), inicioDeHoy)) {
+            modelo.eliminar(modelo.get(0).getId());
         }
-        
-        android.util.Log.d("PacienteRepository", "Citas procesadas: " + citas.size() + " de " + queryDocumentSnapshots.size() + " documentos");
-        
-        callback.onResult(citas);
+
+        boolean desdeCache = queryDocumentSnapshots.getMetadata().isFromCache();
+        if (desdeCache && modelo.size() == 0 && !remotoEntregado.get()) {
+            // Caché de Firestore vacío (p.ej. sin conexión): no pisar los datos locales
+            return;
+        }
+
+        // La consulta de respaldo trae todo el historial: se recorta al límite
+        ChangeSet<Cita> cambios = modelo.confirmar().primeros(limite);
+
+        android.util.Log.d("PacienteRepository", "Citas procesadas: " + cambios.getItems().size() + " (" + queryDocumentSnapshots.getDocumentChanges().size() + " cambios)");
+
+        if (!desdeCache && !cancelado.get()) {
+            localDb.guardarCitas(email, cambios.getItems());
+        }
+        if (cambios.isVacio()) {
+            // Solo cambió la metadata (p.ej. caché -> servidor)
+            return;
+        }
+
+        remotoEntregado.set(true);
+        HilosListeners.entregar(cancelado, () -> {
+            ClinicaStore.getInstance().ponerCitas(cambios);
+            emisor.emitir(cambios);
+        });
+    }
+
+    private Cita mapearCita(DocumentSnapshot doc) {
+        return citaCodec.decodificar(doc.getId(), doc.getData());
     }
 
     /**
-     * Detiene todos los listeners
+     * Detiene todos los listeners de todos los suscriptores (p.ej. al cerrar sesión)
      */
     public void detenerListeners() {
-        if (atencionesListener != null) {
-            atencionesListener.remove();
-            atencionesListener = null;
-        }
-        if (citasListener != null) {
-            citasListener.remove();
-            citasListener = null;
-        }
+        listenersAtenciones.cerrarTodas();
+        listenersCitas.cerrarTodas();
     }
 
     /**
@@ -311,22 +635,26 @@ public class PacienteRepository {
     public void registrarAtencion(String emailPaciente, String rutPaciente, Date fecha,
                                    String motivo, String medico, String diagnostico,
                                    String observaciones, RegistroCallback callback) {
-        Map<String, Object> atencion = new HashMap<>();
-        atencion.put("emailPaciente", emailPaciente);
-        atencion.put("rutPaciente", rutPaciente);
-        // Firestore acepta Date directamente, lo convierte automáticamente
-        atencion.put("fecha", fecha);
-        atencion.put("motivo", motivo);
-        atencion.put("medico", medico);
-        atencion.put("diagnostico", diagnostico != null ? diagnostico : "");
-        atencion.put("observaciones", observaciones != null ? observaciones : "");
-
-        db.collection("atenciones")
-                .add(atencion)
-                .addOnSuccessListener(documentReference -> {
+        Map<String, Object> atencion = AtencionCodec.codificar(emailPaciente, rutPaciente, fecha,
+                motivo, medico, diagnostico, observaciones);
+        DocumentReference ref = db.collection("atenciones").document();
+
+        // Si es del propio paciente se muestra de inmediato, sin esperar al servidor
+        ClinicaStore store = ClinicaStore.getInstance();
+        boolean propia = store.esDelPacienteActual(emailPaciente, rutPaciente);
+        if (propia) {
+            store.ponerAtencion(atencionLocal(ref.getId(), fecha, motivo, medico, diagnostico, observaciones));
+        }
+
+        ConsumoFirestore.escritura("PacienteRepository.registrarAtencion", 1, ref.set(atencion))
+                .addOnSuccessListener(unused -> {
+                    atencionRegistrada(emailPaciente);
                     callback.onSuccess();
                 })
                 .addOnFailureListener(e -> {
+                    if (propia) {
+                        store.quitarAtencion(ref.getId());
+                    }
                     callback.onError("Error registrando atención: " + e.getMessage());
                 });
     }
@@ -337,54 +665,195 @@ public class PacienteRepository {
     public void agendarCita(String emailPaciente, String rutPaciente, Date fecha,
                             String hora, String motivo, String medico, String tipo,
                             RegistroCallback callback) {
-        Map<String, Object> cita = new HashMap<>();
-        cita.put("emailPaciente", emailPaciente);
-        cita.put("rutPaciente", rutPaciente);
-        // Firestore acepta Date directamente, lo convierte automáticamente
-        cita.put("fecha", fecha);
-        cita.put("hora", hora);
-        cita.put("motivo", motivo);
-        cita.put("medico", medico);
-        cita.put("tipo", tipo != null ? tipo : "consulta");
-        cita.put("estado", "pendiente");
-
-        db.collection("citas")
-                .add(cita)
-                .addOnSuccessListener(documentReference -> {
+        Map<String, Object> cita = CitaCodec.codificar(emailPaciente, rutPaciente, fecha, hora, motivo, medico, tipo);
+        DocumentReference ref = db.collection("citas").document();
+
+        // Si es del propio paciente se muestra de inmediato, sin esperar al servidor
+        ClinicaStore store = ClinicaStore.getInstance();
+        boolean propia = store.esDelPacienteActual(emailPaciente, rutPaciente);
+        if (propia) {
+            store.ponerCita(citaLocal(ref.getId(), fecha, hora, motivo, medico, tipo));
+        }
+
+        ConsumoFirestore.escritura("PacienteRepository.agendarCita", 1, ref.set(cita))
+                .addOnSuccessListener(unused -> {
                     callback.onSuccess();
                 })
                 .addOnFailureListener(e -> {
+                    if (propia) {
+                        store.quitarCita(ref.getId());
+                    }
                     callback.onError("Error agendando cita: " + e.getMessage());
                 });
     }
 
     /**
-     * Obtiene el email de un paciente por su RUT
+     * Carga muchas atenciones de una vez (p.ej. migración de fichas antiguas).
+     *
+     * - Se validan todas antes de enviar; las inválidas y las de RUT desconocido se rechazan
+     *   con su motivo (índice en la lista original) sin detener al resto.
+     * - Cada RUT distinto se resuelve una sola vez.
+     * - Se escriben en WriteBatches de hasta {@link #TAMANO_LOTE_ATENCIONES} documentos, con
+     *   {@link #LOTES_ATENCIONES_EN_VUELO} lotes en paralelo.
+     * - El id de cada documento se genera antes de enviar y queda en el registro: reintentar
+     *   los de un lote fallido escribe los mismos documentos, sin duplicarlos.
+     */
+    public void registrarAtencionesBatch(List<RegistroAtencion> registros, AtencionesBatchCallback callback) {
+        Map<Integer, String> rechazadas = new TreeMap<>();
+        List<Integer> validas = new ArrayList<>();
+        Set<String> ruts = new HashSet<>();
+        for (int i = 0; i < registros.size(); i++) {
+            RegistroAtencion r = registros.get(i);
+            String rut = r != null ? RutUtils.normalizarRut(r.getRutPaciente()) : "";
+            if (r == null || !RutUtils.esRutValidoSinGuion(rut)) {
+                rechazadas.put(i, "RUT inválido");
+            } else if (r.getFecha() == null) {
+                rechazadas.put(i, "Fecha obligatoria");
+            } else if (r.getMedico() == null || r.getMedico().trim().isEmpty()) {
+                rechazadas.put(i, "Médico obligatorio");
+            } else if (r.getMotivo() == null || r.getMotivo().trim().isEmpty()) {
+                rechazadas.put(i, "Motivo obligatorio");
+            } else {
+                validas.add(i);
+                ruts.add(rut);
+            }
+        }
+
+        resolverEmails(ruts, (emails, sinConsultar) -> {
+            // Documentos listos para escribir, con el id ya generado
+            List<AtencionPorEscribir> documentos = new ArrayList<>();
+            Set<String> emailsAfectados = new HashSet<>();
+            for (int i : validas) {
+                RegistroAtencion r = registros.get(i);
+                String rut = RutUtils.normalizarRut(r.getRutPaciente());
+                String email = emails.get(rut);
+                if (email == null || email.isEmpty()) {
+                    rechazadas.put(i, sinConsultar.contains(rut)
+                            ? "No se pudo consultar el paciente" : "Paciente no encontrado");
+                    continue;
+                }
+                emailsAfectados.add(email);
+                if (r.getId() == null || r.getId().isEmpty()) {
+                    r.setId(db.collection("atenciones").document().getId());
+                }
+                documentos.add(new AtencionPorEscribir(i, r.getId(), AtencionCodec.codificar(email, rut,
+                        r.getFecha(), r.getMotivo().trim(), r.getMedico().trim(),
+                        r.getDiagnostico() != null ? r.getDiagnostico().trim() : "",
+                        r.getObservaciones() != null ? r.getObservaciones().trim() : "")));
+            }
+
+            int total = documentos.size();
+            Map<Integer, String> fallidas = new TreeMap<>();
+            new ParallelChunkRunner<AtencionPorEscribir>(TAMANO_LOTE_ATENCIONES, LOTES_ATENCIONES_EN_VUELO).ejecutar(
+                    documentos,
+                    (lote, resultado) -> {
+                        WriteBatch batch = db.batch();
+                        for (AtencionPorEscribir atencion : lote) {
+                            batch.set(db.collection("atenciones").document(atencion.id), atencion.datos);
+                        }
+                        ConsumoFirestore.escritura("PacienteRepository.registrarAtencionesLote", lote.size(), batch.commit())
+                                .addOnSuccessListener(unused -> resultado.exito())
+                                .addOnFailureListener(e -> resultado.error(e.getMessage()));
+                    },
+                    new ParallelChunkRunner.Listener<AtencionPorEscribir>() {
+                        private int procesadas;
+
+                        @Override
+                        public void onLoteTerminado(List<AtencionPorEscribir> lote, String error,
+                                                    int lotesTerminados, int lotesTotales) {
+                            procesadas += lote.size();
+                            if (error != null) {
+                                android.util.Log.w("PacienteRepository", "Lote de " + lote.size() + " atenciones falló: " + error);
+                                Map<Integer, String> delLote = new TreeMap<>();
+                                for (AtencionPorEscribir atencion : lote) {
+                                    delLote.put(atencion.indice, atencion.id);
+                                }
+                                fallidas.putAll(delLote);
+                                callback.onLoteFallido(delLote, error);
+                            }
+                            callback.onProgreso(procesadas, total);
+                        }
+
+                        @Override
+                        public void onTerminado(int itemsEnviados, int lotesFallidos) {
+                            for (String email : emailsAfectados) {
+                                atencionRegistrada(email);
+                            }
+                            callback.onTerminado(itemsEnviados, rechazadas, fallidas);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Atención validada de una carga en bloque: su posición en la lista original, el id del
+     * documento y los campos a escribir
+     */
+    private static final class AtencionPorEscribir {
+        final int indice;
+        final String id;
+        final Map<String, Object> datos;
+
+        AtencionPorEscribir(int indice, String id, Map<String, Object> datos) {
+            this.indice = indice;
+            this.id = id;
+            this.datos = datos;
+        }
+    }
+
+    /**
+     * Resuelve el email de muchos RUT (ya normalizados) en pocas consultas, ver
+     * {@link RutResolver#resolverVarios}. El mapa trae null para los RUT no encontrados
+     * o que no se pudieron consultar.
+     */
+    public void resolverEmails(Collection<String> ruts, RutResolver.EmailsCallback callback) {
+        RutResolver.get().resolverVarios(ruts, callback);
+    }
+
+    /**
+     * Atención recién registrada en el dispositivo, tal como la mostrará el listener
+     */
+    static Atencion atencionLocal(String id, Date fecha, String motivo, String medico,
+                                  String diagnostico, String observaciones) {
+        Atencion atencion = new Atencion();
+        atencion.setId(id);
+        atencion.setFecha(fecha);
+        atencion.setMotivo(motivo);
+        atencion.setMedico(medico);
+        atencion.setDiagnostico(diagnostico != null ? diagnostico : "");
+        atencion.setObservaciones(observaciones != null ? observaciones : "");
+        return atencion;
+    }
+
+    /**
+     * Cita recién agendada en el dispositivo, tal como la mostrará el listener
+     */
+    static Cita citaLocal(String id, Date fecha, String hora, String motivo, String medico, String tipo) {
+        Cita cita = new Cita();
+        cita.setId(id);
+        cita.setFecha(fecha);
+        cita.setHora(hora);
+        cita.setMotivo(motivo);
+        cita.setMedico(medico);
+        cita.setTipo(tipo != null ? tipo : "consulta");
+        cita.setEstado("pendiente");
+        return cita;
+    }
+
+    /**
+     * Las páginas en memoria ya no reflejan el historial de ese paciente
+     */
+    void atencionRegistrada(String emailPaciente) {
+        if (historialAtenciones != null && historialAtenciones.getEmail().equals(emailPaciente)) {
+            historialAtenciones.invalidar();
+        }
+    }
+
+    /**
+     * Obtiene el email de un paciente por su RUT (con caché compartida, ver {@link RutResolver})
      */
     public void obtenerEmailPorRut(String rutNormalizado, EmailCallback callback) {
-        db.collection("rut_index")
-                .document(rutNormalizado)
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    if (documentSnapshot.exists()) {
-                        String email = documentSnapshot.getString("email");
-                        callback.onResult(email);
-                    } else {
-                        // Intentar en minúsculas
-                        db.collection("rut_index")
-                                .document(rutNormalizado.toLowerCase())
-                                .get()
-                                .addOnSuccessListener(doc -> {
-                                    if (doc.exists()) {
-                                        callback.onResult(doc.getString("email"));
-                                    } else {
-                                        callback.onResult(null);
-                                    }
-                                })
-                                .addOnFailureListener(e -> callback.onResult(null));
-                    }
-                })
-                .addOnFailureListener(e -> callback.onResult(null));
+        RutResolver.get().resolver(rutNormalizado, callback::onResult);
     }
 
     // Interfaces
@@ -394,10 +863,24 @@ public class PacienteRepository {
 
     public interface AtencionesCallback {
         void onResult(List<Atencion> atenciones);
+
+        /**
+         * Cambios incrementales del listener; por defecto entrega la lista completa
+         */
+        default void onCambios(ChangeSet<Atencion> cambios) {
+            onResult(cambios.getItems());
+        }
     }
 
     public interface CitasCallback {
         void onResult(List<Cita> citas);
+
+        /**
+         * Cambios incrementales del listener; por defecto entrega la lista completa
+         */
+        default void onCambios(ChangeSet<Cita> cambios) {
+            onResult(cambios.getItems());
+        }
     }
 
     public interface RegistroCallback {
@@ -408,4 +891,23 @@ public class PacienteRepository {
     public interface EmailCallback {
         void onResult(String email);
     }
+
+    public interface AtencionesBatchCallback {
+        /**
+         * Tras cada lote (enviado o fallido): atenciones procesadas de las que se iban a escribir
+         */
+        void onProgreso(int procesadas, int total);
+
+        /**
+         * Un lote completo no se pudo escribir (Firestore lo descarta entero): sus atenciones
+         * como índice en la lista original → id del documento
+         */
+        void onLoteFallido(Map<Integer, String> atenciones, String error);
+
+        /**
+         * Fin de la carga: atenciones escritas, las rechazadas antes de enviar (índice → motivo)
+         * y las de lotes fallidos (índice → id del documento, que se puede volver a enviar)
+         */
+        void onTerminado(int escritas, Map<Integer, String> rechazadas, Map<Integer, String> fallidas);
+    }
 }
@@ -0,0 +1,337 @@
+package com.example.proyectoandroid.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.proyectoandroid.util.TtlLruCache;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolución RUT → email compartida por login, citas y atenciones.
+ *
+ * - Caché en memoria (LRU con vencimiento) respaldada en SharedPreferences, así que un
+ *   paciente ya buscado no cuesta lecturas de rut_index ni tras reiniciar la app. En disco
+ *   quedan solo las entradas que siguen en la LRU, escritas con un editor por búsqueda.
+ *   Se borra al cerrar sesión.
+ * - También recuerda por un rato los RUT que no existen (caché negativa).
+ * - Varias búsquedas simultáneas del mismo RUT comparten una sola lectura.
+ * - Muchos RUT a la vez se resuelven con consultas whereIn sobre el id del documento
+ *   (hasta 30 ids por consulta, con ambas variantes de mayúsculas en la misma consulta).
+ *
+ * Debe usarse desde el hilo principal (los callbacks de Firestore llegan ahí).
+ */
+public class RutResolver {
+    private static final String PREFS_NAME = "rut_resolver_cache";
+    private static final int CAPACIDAD = 500;
+    static final long TTL_ENCONTRADO_MS = 24L * 60 * 60 * 1000;
+    static final long TTL_NO_ENCONTRADO_MS = 5L * 60 * 1000;
+    // Máximo de valores que Firestore admite en un filtro whereIn
+    static final int MAX_IDS_POR_CONSULTA = 30;
+    // Centinela para "el RUT no existe" (la caché no admite null)
+    private static final String SIN_EMAIL = "";
+
+    private static volatile RutResolver INSTANCE;
+    private static Context appContext;
+
+    /**
+     * Solo guarda el contexto: la instancia (Firestore y lectura de la caché en disco) se
+     * crea con el primer get(), que MyApp adelanta en segundo plano
+     */
+    public static synchronized void init(Context context) {
+        if (appContext == null) {
+            appContext = context.getApplicationContext();
+        }
+    }
+
+    public static RutResolver get() {
+        RutResolver instancia = INSTANCE;
+        if (instancia != null) return instancia;
+        synchronized (RutResolver.class) {
+            if (INSTANCE == null) {
+                if (appContext == null) throw new IllegalStateException("RutResolver no inicializado (llama a MyApp.onCreate)");
+                INSTANCE = new RutResolver(appContext);
+            }
+            return INSTANCE;
+        }
+    }
+
+    public interface EmailCallback {
+        void onResult(String email);
+    }
+
+    public interface EmailsCallback {
+        /**
+         * RUT (en mayúsculas) → email, con null para los que no existen o no se pudieron
+         * consultar; {@code sinConsultar} son los RUT cuya consulta falló (p.ej. sin red)
+         */
+        void onResult(Map<String, String> emails, Set<String> sinConsultar);
+    }
+
+    private final FirebaseFirestore db;
+    private final SharedPreferences prefs;
+    private final TtlLruCache<String, String> cache = new TtlLruCache<>(CAPACIDAD);
+    // Búsquedas en curso: los que piden el mismo RUT esperan la misma lectura
+    private final Map<String, List<EmailCallback>> enCurso = new HashMap<>();
+
+    private RutResolver(Context context) {
+        db = FirebaseFirestore.getInstance();
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        restaurar();
+    }
+
+    /**
+     * Entrega el email del RUT, o null si no existe o no se pudo consultar
+     */
+    public void resolver(String rut, EmailCallback callback) {
+        String clave = rut != null ? rut.toUpperCase() : "";
+        if (clave.isEmpty()) {
+            callback.onResult(null);
+            return;
+        }
+
+        String enCache = cache.get(clave);
+        if (enCache != null) {
+            callback.onResult(enCache.isEmpty() ? null : enCache);
+            return;
+        }
+
+        List<EmailCallback> esperando = enCurso.get(clave);
+        if (esperando != null) {
+            esperando.add(callback);
+            return;
+        }
+        esperando = new ArrayList<>();
+        esperando.add(callback);
+        enCurso.put(clave, esperando);
+
+        // Primero en mayúsculas y, si no está, en minúsculas (registros antiguos)
+        ConsumoFirestore.documento("RutResolver.resolver", db.collection("rut_index").document(clave).get())
+                .addOnSuccessListener(doc -> {
+                    String email = emailDe(doc);
+                    if (email != null || clave.equals(clave.toLowerCase())) {
+                        terminar(clave, email, true);
+                        return;
+                    }
+                    ConsumoFirestore.documento("RutResolver.resolver", db.collection("rut_index").document(clave.toLowerCase()).get())
+                            .addOnSuccessListener(doc2 -> terminar(clave, emailDe(doc2), true))
+                            .addOnFailureListener(e -> terminar(clave, null, false));
+                })
+                .addOnFailureListener(e -> terminar(clave, null, false));
+    }
+
+    /**
+     * Resuelve muchos RUT de una vez: los que están en caché no cuestan nada y el resto se
+     * consulta con whereIn(documentId) en grupos de hasta {@link #MAX_IDS_POR_CONSULTA} ids,
+     * así que N búsquedas cuestan unas N/30 consultas (N/15 si todos terminan en K).
+     */
+    public void resolverVarios(Collection<String> ruts, EmailsCallback callback) {
+        Map<String, String> emails = new HashMap<>();
+        List<String> faltantes = new ArrayList<>();
+        for (String rut : new LinkedHashSet<>(ruts)) {
+            String clave = rut != null ? rut.toUpperCase() : "";
+            if (clave.isEmpty() || emails.containsKey(clave)) continue;
+            String enCache = cache.get(clave);
+            if (enCache != null) {
+                emails.put(clave, enCache.isEmpty() ? null : enCache);
+            } else {
+                emails.put(clave, null);
+                faltantes.add(clave);
+            }
+        }
+        Set<String> sinConsultar = new HashSet<>();
+        if (faltantes.isEmpty()) {
+            callback.onResult(emails, sinConsultar);
+            return;
+        }
+
+        // Las dos variantes de un RUT van siempre en la misma consulta
+        List<List<String>> grupos = new ArrayList<>();
+        List<String> grupo = new ArrayList<>();
+        int idsEnGrupo = 0;
+        for (String clave : faltantes) {
+            int ids = clave.equals(clave.toLowerCase()) ? 1 : 2;
+            if (idsEnGrupo + ids > MAX_IDS_POR_CONSULTA) {
+                grupos.add(grupo);
+                grupo = new ArrayList<>();
+                idsEnGrupo = 0;
+            }
+            grupo.add(clave);
+            idsEnGrupo += ids;
+        }
+        grupos.add(grupo);
+
+        int[] pendientes = {grupos.size()};
+        // Todo lo resuelto se escribe en disco de una vez, al terminar
+        Map<String, String> porGuardar = new HashMap<>();
+        for (List<String> claves : grupos) {
+            List<String> ids = new ArrayList<>();
+            for (String clave : claves) {
+                ids.add(clave);
+                if (!clave.equals(clave.toLowerCase())) {
+                    ids.add(clave.toLowerCase());
+                }
+            }
+            ConsumoFirestore.consulta("RutResolver.resolverVarios", db.collection("rut_index").whereIn(FieldPath.documentId(), ids).get())
+                    .addOnSuccessListener(snapshot -> {
+                        Map<String, String> porId = new HashMap<>();
+                        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                            String email = emailDe(doc);
+                            if (email != null) {
+                                porId.put(doc.getId(), email);
+                            }
+                        }
+                        for (String clave : claves) {
+                            String email = porId.get(clave);
+                            if (email == null) {
+                                email = porId.get(clave.toLowerCase());
+                            }
+                            guardar(clave, email != null ? email : SIN_EMAIL,
+                                    email != null ? TTL_ENCONTRADO_MS : TTL_NO_ENCONTRADO_MS, porGuardar);
+                            emails.put(clave, email);
+                        }
+                        if (--pendientes[0] == 0) terminarVarios(porGuardar, emails, sinConsultar, callback);
+                    })
+                    .addOnFailureListener(e -> {
+                        // Sin caché: la próxima búsqueda de estos RUT vuelve a consultar
+                        sinConsultar.addAll(claves);
+                        if (--pendientes[0] == 0) terminarVarios(porGuardar, emails, sinConsultar, callback);
+                    });
+        }
+    }
+
+    /**
+     * Registra una asociación conocida (p.ej. recién creado el paciente), reemplazando
+     * cualquier resultado negativo guardado
+     */
+    public void recordar(String rut, String email) {
+        if (rut == null || rut.isEmpty() || email == null || email.isEmpty()) return;
+        Map<String, String> porGuardar = new HashMap<>();
+        guardar(rut.toUpperCase(), email.trim(), TTL_ENCONTRADO_MS, porGuardar);
+        persistir(porGuardar);
+    }
+
+    /**
+     * Olvida todo lo guardado, en memoria y en disco (p.ej. al cerrar sesión)
+     */
+    public void limpiar() {
+        cache.clear();
+        prefs.edit().clear().apply();
+    }
+
+    /**
+     * Búsquedas respondidas desde la caché (sin red)
+     */
+    public long getAciertos() {
+        return cache.getAciertos();
+    }
+
+    /**
+     * Búsquedas que no estaban en caché
+     */
+    public long getFallos() {
+        return cache.getFallos();
+    }
+
+    private void terminar(String clave, String email, boolean consultaOk) {
+        // Un error de red no se recuerda: la próxima búsqueda vuelve a consultar
+        if (consultaOk) {
+            Map<String, String> porGuardar = new HashMap<>();
+            guardar(clave, email != null ? email : SIN_EMAIL,
+                    email != null ? TTL_ENCONTRADO_MS : TTL_NO_ENCONTRADO_MS, porGuardar);
+            persistir(porGuardar);
+        }
+        List<EmailCallback> esperando = enCurso.remove(clave);
+        if (esperando != null) {
+            for (EmailCallback cb : esperando) {
+                cb.onResult(email);
+            }
+        }
+    }
+
+    private void terminarVarios(Map<String, String> porGuardar, Map<String, String> emails,
+                                Set<String> sinConsultar, EmailsCallback callback) {
+        persistir(porGuardar);
+        callback.onResult(emails, sinConsultar);
+    }
+
+    /**
+     * Guarda en memoria y anota la entrada para escribirla en disco con {@link #persistir}
+     */
+    private void guardar(String clave, String email, long ttlMs, Map<String, String> porGuardar) {
+        long expira = System.currentTimeMillis() + ttlMs;
+        cache.putHasta(clave, email, expira);
+        porGuardar.put(clave, expira + "|" + email);
+    }
+
+    /**
+     * Escribe las entradas anotadas con un solo editor. En disco quedan solo las claves que
+     * siguen en la LRU, así que nunca hay más de {@link #CAPACIDAD} entradas.
+     */
+    private void persistir(Map<String, String> porGuardar) {
+        if (porGuardar.isEmpty()) return;
+        Set<String> vigentes = cache.claves();
+        SharedPreferences.Editor editor = prefs.edit();
+        for (String clave : prefs.getAll().keySet()) {
+            if (!vigentes.contains(clave)) {
+                editor.remove(clave);
+            }
+        }
+        for (Map.Entry<String, String> e : porGuardar.entrySet()) {
+            // Una búsqueda de más de CAPACIDAD RUT ya desalojó sus primeras entradas
+            if (vigentes.contains(e.getKey())) {
+                editor.putString(e.getKey(), e.getValue());
+            }
+        }
+        editor.apply();
+    }
+
+    /**
+     * Carga lo guardado en disco y borra lo vencido y lo que no cabe en la LRU
+     */
+    private void restaurar() {
+        long ahora = System.currentTimeMillis();
+        SharedPreferences.Editor vencidas = prefs.edit();
+        for (Map.Entry<String, ?> e : prefs.getAll().entrySet()) {
+            Object valor = e.getValue();
+            int separador = valor instanceof String ? ((String) valor).indexOf('|') : -1;
+            long expira = 0;
+            if (separador > 0) {
+                try {
+                    expira = Long.parseLong(((String) valor).substring(0, separador));
+                } catch (NumberFormatException ignored) {
+                    // Entrada corrupta: se descarta
+                }
+            }
+            if (expira > ahora) {
+                cache.putHasta(e.getKey(), ((String) valor).substring(separador + 1), expira);
+            } else {
+                vencidas.remove(e.getKey());
+            }
+        }
+        // Archivos escritos antes de limitar el disco a la capacidad de la LRU
+        Set<String> vigentes = cache.claves();
+        for (String clave : prefs.getAll().keySet()) {
+            if (!vigentes.contains(clave)) {
+                vencidas.remove(clave);
+            }
+        }
+        vencidas.apply();
+    }
+
+    private static String emailDe(DocumentSnapshot doc) {
+        if (doc == null || !doc.exists()) return null;
+        String email = doc.getString("email");
+        return email != null && !email.trim().isEmpty() ? email.trim() : null;
+    }
+}
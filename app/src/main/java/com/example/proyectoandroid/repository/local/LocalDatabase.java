@@ -0,0 +1,515 @@
+package com.example.proyectoandroid.repository.local;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.model.OperacionPendiente;
+import com.example.proyectoandroid.model.Paciente;
+import com.example.proyectoandroid.util.MedicamentosUtils;
+import com.example.proyectoandroid.util.Tracer;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Base de datos local (SQLite) que replica los datos del paciente descargados de Firestore.
+ * Permite que las pantallas se pinten desde disco al instante, incluso sin conexión.
+ * Todas las lecturas/escrituras corren en un hilo de IO y los resultados se entregan en el hilo principal.
+ *
+ * Además guarda la bandeja de salida (citas y atenciones creadas sin conexión). A diferencia
+ * del resto, esa tabla no es un caché: se conserva al cambiar el esquema.
+ */
+public class LocalDatabase extends SQLiteOpenHelper {
+    private static final String TAG = "LocalDatabase";
+    private static final String DB_NAME = "mont_clinic.db";
+    private static final int DB_VERSION = 2;
+
+    private static final String T_PACIENTES = "pacientes";
+    private static final String T_ATENCIONES = "atenciones";
+    private static final String T_CITAS = "citas";
+    private static final String T_MEDICAMENTOS = "medicamentos";
+    private static final String T_OUTBOX = "outbox";
+
+    private static LocalDatabase INSTANCE;
+
+    public static void init(Context appContext) {
+        if (INSTANCE == null) {
+            INSTANCE = new LocalDatabase(appContext.getApplicationContext());
+        }
+    }
+
+    public static LocalDatabase get() {
+        if (INSTANCE == null) throw new IllegalStateException("LocalDatabase no inicializada (llama a MyApp.onCreate)");
+        return INSTANCE;
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor();
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    private LocalDatabase(Context ctx) {
+        super(ctx, DB_NAME, null, DB_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        crearTablasCache(db);
+        crearTablaOutbox(db);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // El caché se recrea y se vuelve a llenar desde Firestore; la bandeja de salida se conserva
+        db.execSQL("DROP TABLE IF EXISTS " + T_PACIENTES);
+        db.execSQL("DROP TABLE IF EXISTS " + T_ATENCIONES);
+        db.execSQL("DROP TABLE IF EXISTS " + T_CITAS);
+        db.execSQL("DROP TABLE IF EXISTS " + T_MEDICAMENTOS);
+        crearTablasCache(db);
+        crearTablaOutbox(db);
+    }
+
+    private static void crearTablasCache(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + T_PACIENTES + " ("
+                + "rut TEXT PRIMARY KEY, email TEXT NOT NULL, nombre TEXT, telefono TEXT, direccion TEXT)");
+        db.execSQL("CREATE INDEX idx_pacientes_email ON " + T_PACIENTES + "(email)");
+
+        db.execSQL("CREATE TABLE " + T_ATENCIONES + " ("
+                + "id TEXT PRIMARY KEY, email_paciente TEXT NOT NULL, fecha INTEGER, motivo TEXT, "
+                + "medico TEXT, diagnostico TEXT, observaciones TEXT)");
+        db.execSQL("CREATE INDEX idx_atenciones_email_fecha ON " + T_ATENCIONES + "(email_paciente, fecha)");
+
+        db.execSQL("CREATE TABLE " + T_CITAS + " ("
+                + "id TEXT PRIMARY KEY, email_paciente TEXT NOT NULL, fecha INTEGER, hora TEXT, motivo TEXT, "
+                + "medico TEXT, estado TEXT, tipo TEXT)");
+        db.execSQL("CREATE INDEX idx_citas_email_fecha ON " + T_CITAS + "(email_paciente, fecha)");
+
+        db.execSQL("CREATE TABLE " + T_MEDICAMENTOS + " ("
+                + "id TEXT PRIMARY KEY, email_paciente TEXT NOT NULL, nombre TEXT, dosis TEXT, frecuencia TEXT, "
+                + "fecha_inicio INTEGER, fecha_fin INTEGER, medico TEXT, observaciones TEXT)");
+        db.execSQL("CREATE INDEX idx_medicamentos_email ON " + T_MEDICAMENTOS + "(email_paciente, fecha_inicio)");
+    }
+
+    private static void crearTablaOutbox(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + T_OUTBOX + " ("
+                + "id TEXT PRIMARY KEY, tipo TEXT NOT NULL, estado TEXT NOT NULL, intentos INTEGER NOT NULL DEFAULT 0, "
+                + "error TEXT, creada INTEGER NOT NULL, rut_paciente TEXT NOT NULL, fecha INTEGER, hora TEXT, "
+                + "motivo TEXT, medico TEXT, tipo_cita TEXT, diagnostico TEXT, observaciones TEXT)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_outbox_creada ON " + T_OUTBOX + "(creada)");
+    }
+
+    // ---------------- Paciente ----------------
+
+    /**
+     * Lee el perfil guardado del paciente con el email indicado (null si no existe)
+     */
+    public void leerPaciente(String email, Callback<Paciente> callback) {
+        Tracer.Span span = Tracer.iniciar(Tracer.SQLITE, "leerPaciente");
+        io.execute(() -> {
+            Paciente paciente = null;
+            try (Cursor c = getReadableDatabase().query(T_PACIENTES, null, "email = ?",
+                    new String[]{email}, null, null, null, "1")) {
+                if (c.moveToFirst()) {
+                    paciente = new Paciente(
+                            c.getString(c.getColumnIndexOrThrow("nombre")),
+                            c.getString(c.getColumnIndexOrThrow("rut")),
+                            c.getString(c.getColumnIndexOrThrow("email")),
+                            c.getString(c.getColumnIndexOrThrow("telefono")),
+                            c.getString(c.getColumnIndexOrThrow("direccion")));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error leyendo paciente local", e);
+            }
+            entregar(span, callback, paciente);
+        });
+    }
+
+    /**
+     * Guarda (o reemplaza) el perfil del paciente
+     */
+    public void guardarPaciente(Paciente paciente) {
+        if (paciente == null || paciente.getRut() == null || paciente.getEmail() == null) return;
+        io.execute(() -> {
+            ContentValues v = new ContentValues();
+            v.put("rut", paciente.getRut());
+            v.put("email", paciente.getEmail());
+            v.put("nombre", paciente.getNombre());
+            v.put("telefono", paciente.getTelefono());
+            v.put("direccion", paciente.getDireccion());
+            try {
+                getWritableDatabase().insertWithOnConflict(T_PACIENTES, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+            } catch (Exception e) {
+                Log.e(TAG, "Error guardando paciente local", e);
+            }
+        });
+    }
+
+    // ---------------- Atenciones ----------------
+
+    /**
+     * Lee las últimas atenciones guardadas del paciente, ordenadas por fecha descendente
+     */
+    public void leerAtenciones(String email, int limite, Callback<List<Atencion>> callback) {
+        Tracer.Span span = Tracer.iniciar(Tracer.SQLITE, "leerAtenciones");
+        io.execute(() -> {
+            List<Atencion> atenciones = new ArrayList<>();
+            try (Cursor c = getReadableDatabase().query(T_ATENCIONES, null, "email_paciente = ?",
+                    new String[]{email}, null, null, "fecha DESC", String.valueOf(limite))) {
+                while (c.moveToNext()) {
+                    atenciones.add(new Atencion(
+                            c.getString(c.getColumnIndexOrThrow("id")),
+                            leerFecha(c, "fecha"),
+                            c.getString(c.getColumnIndexOrThrow("motivo")),
+                            c.getString(c.getColumnIndexOrThrow("medico")),
+                            c.getString(c.getColumnIndexOrThrow("diagnostico")),
+                            c.getString(c.getColumnIndexOrThrow("observaciones"))));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error leyendo atenciones locales", e);
+            }
+            entregar(span, callback, atenciones);
+        });
+    }
+
+    /**
+     * Reemplaza las atenciones guardadas del paciente por las recibidas desde Firestore
+     */
+    public void guardarAtenciones(String email, List<Atencion> atenciones) {
+        io.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(T_ATENCIONES, "email_paciente = ?", new String[]{email});
+                for (Atencion a : atenciones) {
+                    ContentValues v = new ContentValues();
+                    v.put("id", a.getId());
+                    v.put("email_paciente", email);
+                    ponerFecha(v, "fecha", a.getFecha());
+                    v.put("motivo", a.getMotivo());
+                    v.put("medico", a.getMedico());
+                    v.put("diagnostico", a.getDiagnostico());
+                    v.put("observaciones", a.getObservaciones());
+                    db.insertWithOnConflict(T_ATENCIONES, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error guardando atenciones locales", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    // ---------------- Citas ----------------
+
+    /**
+     * Lee las próximas citas guardadas (desde hoy, pendientes o confirmadas), ordenadas por fecha
+     */
+    public void leerProximasCitas(String email, int limite, Callback<List<Cita>> callback) {
+        Tracer.Span span = Tracer.iniciar(Tracer.SQLITE, "leerProximasCitas");
+        io.execute(() -> {
+            List<Cita> citas = new ArrayList<>();
+            // Las citas sin fecha no son próximas (igual que en CitasUtils.esProxima y en Firestore)
+            String seleccion = "email_paciente = ? AND fecha >= ? "
+                    + "AND estado IN ('pendiente', 'confirmada')";
+            String[] args = {email, String.valueOf(inicioDeHoy())};
+            try (Cursor c = getReadableDatabase().query(T_CITAS, null, seleccion, args,
+                    null, null, "fecha ASC", String.valueOf(limite))) {
+                while (c.moveToNext()) {
+                    citas.add(new Cita(
+                            c.getString(c.getColumnIndexOrThrow("id")),
+                            leerFecha(c, "fecha"),
+                            c.getString(c.getColumnIndexOrThrow("hora")),
+                            c.getString(c.getColumnIndexOrThrow("motivo")),
+                            c.getString(c.getColumnIndexOrThrow("medico")),
+                            c.getString(c.getColumnIndexOrThrow("estado")),
+                            c.getString(c.getColumnIndexOrThrow("tipo"))));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error leyendo citas locales", e);
+            }
+            entregar(span, callback, citas);
+        });
+    }
+
+    /**
+     * Reemplaza las citas guardadas del paciente por las recibidas desde Firestore
+     */
+    public void guardarCitas(String email, List<Cita> citas) {
+        io.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(T_CITAS, "email_paciente = ?", new String[]{email});
+                for (Cita cita : citas) {
+                    ContentValues v = new ContentValues();
+                    v.put("id", cita.getId());
+                    v.put("email_paciente", email);
+                    ponerFecha(v, "fecha", cita.getFecha());
+                    v.put("hora", cita.getHora());
+                    v.put("motivo", cita.getMotivo());
+                    v.put("medico", cita.getMedico());
+                    v.put("estado", cita.getEstado());
+                    v.put("tipo", cita.getTipo());
+                    db.insertWithOnConflict(T_CITAS, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error guardando citas locales", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    // ---------------- Medicamentos ----------------
+
+    /**
+     * Lee los medicamentos guardados del paciente, recalculando si están activos a la fecha actual
+     */
+    public void leerMedicamentos(String email, Callback<List<Medicamento>> callback) {
+        Tracer.Span span = Tracer.iniciar(Tracer.SQLITE, "leerMedicamentos");
+        io.execute(() -> {
+            List<Medicamento> medicamentos = new ArrayList<>();
+            Date ahora = new Date();
+            try (Cursor c = getReadableDatabase().query(T_MEDICAMENTOS, null, "email_paciente = ?",
+                    new String[]{email}, null, null, "fecha_inicio DESC")) {
+                while (c.moveToNext()) {
+                    Medicamento m = new Medicamento();
+                    m.setId(c.getString(c.getColumnIndexOrThrow("id")));
+                    m.setNombre(c.getString(c.getColumnIndexOrThrow("nombre")));
+                    m.setDosis(c.getString(c.getColumnIndexOrThrow("dosis")));
+                    m.setFrecuencia(c.getString(c.getColumnIndexOrThrow("frecuencia")));
+                    m.setFechaInicio(leerFecha(c, "fecha_inicio"));
+                    m.setFechaFin(leerFecha(c, "fecha_fin"));
+                    m.setMedico(c.getString(c.getColumnIndexOrThrow("medico")));
+                    m.setObservaciones(c.getString(c.getColumnIndexOrThrow("observaciones")));
+                    m.setActivo(MedicamentosUtils.estaActivo(m.getFechaInicio(), m.getFechaFin(), ahora));
+                    medicamentos.add(m);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error leyendo medicamentos locales", e);
+            }
+            entregar(span, callback, medicamentos);
+        });
+    }
+
+    /**
+     * Reemplaza los medicamentos guardados del paciente por los recibidos desde Firestore
+     */
+    public void guardarMedicamentos(String email, List<Medicamento> medicamentos) {
+        io.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(T_MEDICAMENTOS, "email_paciente = ?", new String[]{email});
+                for (Medicamento m : medicamentos) {
+                    ContentValues v = new ContentValues();
+                    v.put("id", m.getId());
+                    v.put("email_paciente", email);
+                    v.put("nombre", m.getNombre());
+                    v.put("dosis", m.getDosis());
+                    v.put("frecuencia", m.getFrecuencia());
+                    ponerFecha(v, "fecha_inicio", m.getFechaInicio());
+                    ponerFecha(v, "fecha_fin", m.getFechaFin());
+                    v.put("medico", m.getMedico());
+                    v.put("observaciones", m.getObservaciones());
+                    db.insertWithOnConflict(T_MEDICAMENTOS, null, v, SQLiteDatabase.CONFLICT_REPLACE);
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error guardando medicamentos locales", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    /**
+     * Borra los datos del paciente guardados en disco (perfil, atenciones, citas y medicamentos)
+     * al cerrar sesión, para que no queden en un equipo compartido. La bandeja de salida se
+     * conserva: son operaciones que el médico aún no ha podido enviar.
+     */
+    public void borrarCache() {
+        io.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(T_PACIENTES, null, null);
+                db.delete(T_ATENCIONES, null, null);
+                db.delete(T_CITAS, null, null);
+                db.delete(T_MEDICAMENTOS, null, null);
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error borrando caché local", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    // ---------------- Bandeja de salida ----------------
+
+    /**
+     * Guarda una operación en la bandeja de salida. Entrega true solo si quedó escrita en disco.
+     */
+    public void guardarOperacion(OperacionPendiente op, Callback<Boolean> callback) {
+        Tracer.Span span = Tracer.iniciar(Tracer.SQLITE, "guardarOperacion");
+        io.execute(() -> {
+            boolean guardada = false;
+            try {
+                guardada = getWritableDatabase().insertWithOnConflict(T_OUTBOX, null, valores(op),
+                        SQLiteDatabase.CONFLICT_REPLACE) != -1;
+            } catch (Exception e) {
+                Log.e(TAG, "Error guardando operación pendiente", e);
+            }
+            entregar(span, callback, guardada);
+        });
+    }
+
+    /**
+     * Lee todas las operaciones de la bandeja de salida, de la más antigua a la más nueva
+     */
+    public void leerOperaciones(Callback<List<OperacionPendiente>> callback) {
+        Tracer.Span span = Tracer.iniciar(Tracer.SQLITE, "leerOperaciones");
+        io.execute(() -> {
+            List<OperacionPendiente> operaciones = new ArrayList<>();
+            try (Cursor c = getReadableDatabase().query(T_OUTBOX, null, null, null,
+                    null, null, "creada ASC")) {
+                while (c.moveToNext()) {
+                    OperacionPendiente op = new OperacionPendiente();
+                    op.setId(c.getString(c.getColumnIndexOrThrow("id")));
+                    op.setTipo(c.getString(c.getColumnIndexOrThrow("tipo")));
+                    op.setEstado(c.getString(c.getColumnIndexOrThrow("estado")));
+                    op.setIntentos(c.getInt(c.getColumnIndexOrThrow("intentos")));
+                    op.setError(c.getString(c.getColumnIndexOrThrow("error")));
+                    op.setCreada(c.getLong(c.getColumnIndexOrThrow("creada")));
+                    op.setRutPaciente(c.getString(c.getColumnIndexOrThrow("rut_paciente")));
+                    op.setFecha(leerFecha(c, "fecha"));
+                    op.setHora(c.getString(c.getColumnIndexOrThrow("hora")));
+                    op.setMotivo(c.getString(c.getColumnIndexOrThrow("motivo")));
+                    op.setMedico(c.getString(c.getColumnIndexOrThrow("medico")));
+                    op.setTipoCita(c.getString(c.getColumnIndexOrThrow("tipo_cita")));
+                    op.setDiagnostico(c.getString(c.getColumnIndexOrThrow("diagnostico")));
+                    op.setObservaciones(c.getString(c.getColumnIndexOrThrow("observaciones")));
+                    operaciones.add(op);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error leyendo bandeja de salida", e);
+            }
+            entregar(span, callback, operaciones);
+        });
+    }
+
+    /**
+     * Actualiza estado, intentos y error de las operaciones indicadas
+     */
+    public void actualizarOperaciones(List<OperacionPendiente> operaciones) {
+        io.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (OperacionPendiente op : operaciones) {
+                    ContentValues v = new ContentValues();
+                    v.put("estado", op.getEstado());
+                    v.put("intentos", op.getIntentos());
+                    v.put("error", op.getError());
+                    db.update(T_OUTBOX, v, "id = ?", new String[]{op.getId()});
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error actualizando bandeja de salida", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    /**
+     * Quita de la bandeja de salida las operaciones ya confirmadas por Firestore
+     */
+    public void borrarOperaciones(List<String> ids) {
+        io.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (String id : ids) {
+                    db.delete(T_OUTBOX, "id = ?", new String[]{id});
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e(TAG, "Error borrando bandeja de salida", e);
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    private static ContentValues valores(OperacionPendiente op) {
+        ContentValues v = new ContentValues();
+        v.put("id", op.getId());
+        v.put("tipo", op.getTipo());
+        v.put("estado", op.getEstado());
+        v.put("intentos", op.getIntentos());
+        v.put("error", op.getError());
+        v.put("creada", op.getCreada());
+        v.put("rut_paciente", op.getRutPaciente());
+        ponerFecha(v, "fecha", op.getFecha());
+        v.put("hora", op.getHora());
+        v.put("motivo", op.getMotivo());
+        v.put("medico", op.getMedico());
+        v.put("tipo_cita", op.getTipoCita());
+        v.put("diagnostico", op.getDiagnostico());
+        v.put("observaciones", op.getObservaciones());
+        return v;
+    }
+
+    // ---------------- Helpers ----------------
+
+    /**
+     * Entrega en el hilo principal; el tramo cubre la espera en la cola, la consulta y la entrega
+     */
+    private <T> void entregar(Tracer.Span span, Callback<T> callback, T result) {
+        main.post(() -> {
+            span.terminar();
+            callback.onResult(result);
+        });
+    }
+
+    private static Date leerFecha(Cursor c, String columna) {
+        int idx = c.getColumnIndexOrThrow(columna);
+        return c.isNull(idx) ? null : new Date(c.getLong(idx));
+    }
+
+    private static void ponerFecha(ContentValues v, String columna, Date fecha) {
+        if (fecha != null) {
+            v.put(columna, fecha.getTime());
+        } else {
+            v.putNull(columna);
+        }
+    }
+
+    private static long inicioDeHoy() {
+        Calendar cal = Calendar.getInstance();
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Atencion;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Lectura y escritura de documentos de la colección "atenciones" sin reflexión:
+ * se recorre getData() una sola vez en vez de pedir cada campo por separado.
+ */
+public final class AtencionCodec {
+    private static final String[] CLAVES = {
+            "emailPaciente", "rutPaciente", "fecha", "motivo", "medico", "diagnostico", "observaciones"
+    };
+
+    private final Codecs.ConversorFecha fechas;
+
+    public AtencionCodec(Codecs.ConversorFecha fechas) {
+        this.fechas = fechas;
+    }
+
+    /**
+     * Convierte los datos del documento (getData(), puede ser null) en una atención nueva
+     */
+    public Atencion decodificar(String id, Map<String, Object> datos) {
+        Atencion atencion = new Atencion();
+        atencion.setId(id);
+        if (datos == null) return atencion;
+
+        for (Map.Entry<String, Object> campo : datos.entrySet()) {
+            Object valor = campo.getValue();
+            switch (campo.getKey()) {
+                case "fecha":
+                    atencion.setFecha(fechas.aFecha(valor));
+                    break;
+                case "motivo":
+                    atencion.setMotivo(Codecs.texto(valor));
+                    break;
+                case "medico":
+                    atencion.setMedico(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "diagnostico":
+                    atencion.setDiagnostico(Codecs.texto(valor));
+                    break;
+                case "observaciones":
+                    atencion.setObservaciones(Codecs.texto(valor));
+                    break;
+                default:
+                    // emailPaciente, rutPaciente: solo sirven para las consultas
+                    break;
+            }
+        }
+        return atencion;
+    }
+
+    /**
+     * Campos del documento de una atención nueva
+     */
+    public static Map<String, Object> codificar(String emailPaciente, String rutPaciente, Date fecha,
+                                                String motivo, String medico, String diagnostico,
+                                                String observaciones) {
+        return new CamposDocumento(CLAVES, emailPaciente, rutPaciente, fecha, motivo, medico,
+                diagnostico != null ? diagnostico : "",
+                observaciones != null ? observaciones : "");
+    }
+}
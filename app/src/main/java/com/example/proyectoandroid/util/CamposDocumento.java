@@ -0,0 +1,86 @@
+package com.example.proyectoandroid.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Campos de un documento a escribir en Firestore, con un esquema fijo: las claves son un
+ * arreglo compartido por todos los documentos del mismo tipo y los valores un arreglo
+ * paralelo. Ocupa mucho menos que un HashMap (sin tabla ni nodos por campo) y Firestore
+ * solo lo recorre con entrySet().
+ *
+ * Es de solo lectura.
+ */
+public final class CamposDocumento extends AbstractMap<String, Object> {
+    private final String[] claves;
+    private final Object[] valores;
+
+    /**
+     * @param claves  claves del esquema (no se copia: debe ser una constante)
+     * @param valores un valor por clave, en el mismo orden
+     */
+    public CamposDocumento(String[] claves, Object... valores) {
+        if (claves.length != valores.length) {
+            throw new IllegalArgumentException("Se esperaban " + claves.length + " valores y llegaron " + valores.length);
+        }
+        this.claves = claves;
+        this.valores = valores;
+    }
+
+    @Override
+    public int size() {
+        return claves.length;
+    }
+
+    @Override
+    public boolean containsKey(Object clave) {
+        return indiceDe(clave) >= 0;
+    }
+
+    @Override
+    public Object get(Object clave) {
+        int i = indiceDe(clave);
+        return i >= 0 ? valores[i] : null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public int size() {
+                return claves.length;
+            }
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int i;
+
+                    @Override
+                    public boolean hasNext() {
+                        return i < claves.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (i >= claves.length) throw new NoSuchElementException();
+                        Entry<String, Object> campo = new SimpleImmutableEntry<>(claves[i], valores[i]);
+                        i++;
+                        return campo;
+                    }
+                };
+            }
+        };
+    }
+
+    private int indiceDe(Object clave) {
+        // Pocos campos: la búsqueda lineal es más rápida que calcular un hash
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i].equals(clave)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.proyectoandroid.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de aplicar cambios a un {@link SortedListModel}: la lista completa ya ordenada
+ * y los cambios individuales (en el orden en que se aplicaron, con posiciones al estilo
+ * de notifyItemInserted/Moved/Removed de RecyclerView).
+ */
+public final class ChangeSet<T> {
+
+    public enum Tipo { INSERTADO, MODIFICADO, ELIMINADO }
+
+    /**
+     * Un cambio individual. Para MODIFICADO "desde" y "hasta" pueden diferir si el elemento se movió.
+     */
+    public static final class Cambio<T> {
+        private final Tipo tipo;
+        private final String id;
+        private final T item;
+        private final int desde;
+        private final int hasta;
+
+        Cambio(Tipo tipo, String id, T item, int desde, int hasta) {
+            this.tipo = tipo;
+            this.id = id;
+            this.item = item;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        public Tipo getTipo() {
+            return tipo;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /** Elemento nuevo (null si fue eliminado) */
+        public T getItem() {
+            return item;
+        }
+
+        /** Posición anterior (-1 si fue insertado) */
+        public int getDesde() {
+            return desde;
+        }
+
+        /** Posición nueva (-1 si fue eliminado) */
+        public int getHasta() {
+            return hasta;
+        }
+    }
+
+    private final List<T> items;
+    private final List<Cambio<T>> cambios;
+    private final boolean completo;
+
+    ChangeSet(List<T> items, List<Cambio<T>> cambios, boolean completo) {
+        this.items = Collections.unmodifiableList(items);
+        this.cambios = Collections.unmodifiableList(cambios);
+        this.completo = completo;
+    }
+
+    /**
+     * Crea un ChangeSet que reemplaza la lista completa (sin cambios individuales)
+     */
+    public static <T> ChangeSet<T> completo(List<T> items) {
+        return new ChangeSet<>(items, Collections.emptyList(), true);
+    }
+
+    /**
+     * Lista resultante, ya ordenada
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Cambios individuales aplicados (vacío si es una carga completa)
+     */
+    public List<Cambio<T>> getCambios() {
+        return cambios;
+    }
+
+    /**
+     * true si la lista debe tratarse como un reemplazo completo (primera carga o recorte)
+     */
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    /**
+     * true si no hay nada que actualizar
+     */
+    public boolean isVacio() {
+        return !completo && cambios.isEmpty();
+    }
+
+    /**
+     * Limita la lista a los primeros elementos. Si hay que recortar, el resultado es una carga completa.
+     */
+    public ChangeSet<T> primeros(int limite) {
+        if (items.size() <= limite) {
+            return this;
+        }
+        return completo(new java.util.ArrayList<>(items.subList(0, limite)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Cita;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Lectura y escritura de documentos de la colección "citas" sin reflexión:
+ * se recorre getData() una sola vez en vez de pedir cada campo por separado.
+ */
+public final class CitaCodec {
+    private static final String[] CLAVES = {
+            "emailPaciente", "rutPaciente", "fecha", "hora", "motivo", "medico", "tipo", "estado"
+    };
+
+    private final Codecs.ConversorFecha fechas;
+
+    public CitaCodec(Codecs.ConversorFecha fechas) {
+        this.fechas = fechas;
+    }
+
+    /**
+     * Convierte los datos del documento (getData(), puede ser null) en una cita nueva
+     */
+    public Cita decodificar(String id, Map<String, Object> datos) {
+        Cita cita = new Cita();
+        cita.setId(id);
+        if (datos == null) return cita;
+
+        for (Map.Entry<String, Object> campo : datos.entrySet()) {
+            Object valor = campo.getValue();
+            switch (campo.getKey()) {
+                case "fecha":
+                    cita.setFecha(fechas.aFecha(valor));
+                    break;
+                case "hora":
+                    cita.setHora(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "motivo":
+                    cita.setMotivo(Codecs.texto(valor));
+                    break;
+                case "medico":
+                    cita.setMedico(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "estado":
+                    cita.setEstado(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "tipo":
+                    cita.setTipo(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                default:
+                    // emailPaciente, rutPaciente: solo sirven para las consultas
+                    break;
+            }
+        }
+        return cita;
+    }
+
+    /**
+     * Campos del documento de una cita nueva (queda pendiente)
+     */
+    public static Map<String, Object> codificar(String emailPaciente, String rutPaciente, Date fecha,
+                                                String hora, String motivo, String medico, String tipo) {
+        return new CamposDocumento(CLAVES, emailPaciente, rutPaciente, fecha, hora, motivo, medico,
+                tipo != null ? tipo : "consulta", "pendiente");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Cita;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Utilidades para filtrar y ordenar citas
+ */
+public class CitasUtils {
+
+    // Estados que se consideran "próximas citas" (las canceladas se omiten)
+    public static final List<String> ESTADOS_VIGENTES =
+            Collections.unmodifiableList(Arrays.asList("pendiente", "confirmada"));
+
+    // Orden por fecha ascendente, las citas sin fecha al final
+    public static final Comparator<Cita> POR_FECHA = (c1, c2) -> {
+        if (c1.getFecha() == null && c2.getFecha() == null) return 0;
+        if (c1.getFecha() == null) return 1;
+        if (c2.getFecha() == null) return -1;
+        return c1.getFecha().compareTo(c2.getFecha());
+    };
+
+    /**
+     * Obtiene el inicio del día (00:00:00.000) de la fecha indicada
+     */
+    public static Date inicioDelDia(Date fecha) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(fecha);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTime();
+    }
+
+    /**
+     * Indica si la cita es de hoy en adelante y está pendiente o confirmada. Una cita sin fecha
+     * no es próxima: la consulta de Firestore (fecha >= hoy) tampoco la devuelve, y así disco,
+     * servidor y la consulta de respaldo muestran lo mismo.
+     */
+    public static boolean esProxima(Cita cita, Date inicioDeHoy) {
+        // Comparar solo la fecha (sin hora) para no filtrar citas del mismo día
+        if (cita.getFecha() == null || cita.getFecha().before(inicioDeHoy)) {
+            return false;
+        }
+        return cita.getEstado() != null && ESTADOS_VIGENTES.contains(cita.getEstado());
+    }
+
+    /**
+     * Filtra las próximas citas, las ordena por fecha y limita la cantidad de resultados
+     */
+    public static List<Cita> filtrarProximas(List<Cita> citas, Date ahora, int limite) {
+        Date inicioDeHoy = inicioDelDia(ahora);
+        List<Cita> proximas = new ArrayList<>();
+        for (Cita cita : citas) {
+            if (esProxima(cita, inicioDeHoy)) {
+                proximas.add(cita);
+            }
+        }
+
+        proximas.sort(POR_FECHA);
+
+        if (proximas.size() > limite) {
+            proximas = new ArrayList<>(proximas.subList(0, limite));
+        }
+        return proximas;
+    }
+}
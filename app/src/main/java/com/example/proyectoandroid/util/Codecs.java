@@ -0,0 +1,54 @@
+package com.example.proyectoandroid.util;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Piezas comunes de los codecs de documentos (AtencionCodec, CitaCodec, MedicamentoCodec,
+ * PacienteCodec): conversión de valores de getData() y canonicalización de textos repetidos.
+ *
+ * Sin dependencias de Android ni de Firebase, para poder probarlos y medirlos en la JVM.
+ */
+public final class Codecs {
+
+    /**
+     * Convierte el valor de un campo de fecha al Date del modelo (null si no es una fecha).
+     * Firestore entrega Timestamp; en la JVM se usan Date directamente.
+     */
+    public interface ConversorFecha {
+        Date aFecha(Object valor);
+    }
+
+    /**
+     * Conversor para valores que ya son Date
+     */
+    public static final ConversorFecha FECHAS_JAVA = valor -> valor instanceof Date ? (Date) valor : null;
+
+    // Los valores de poca variedad (médicos, estados, tipos) caben de sobra; si se llena,
+    // los valores nuevos simplemente no se canonicalizan
+    static final int MAX_INTERNADOS = 1024;
+    private static final ConcurrentHashMap<String, String> internados = new ConcurrentHashMap<>();
+
+    private Codecs() {
+    }
+
+    /**
+     * El valor si es texto, o null (getString lanzaría una excepción con otro tipo)
+     */
+    public static String texto(Object valor) {
+        return valor instanceof String ? (String) valor : null;
+    }
+
+    /**
+     * Devuelve siempre la misma instancia para textos iguales, así miles de citas con el
+     * mismo médico o estado comparten un solo String en memoria
+     */
+    public static String internar(String valor) {
+        if (valor == null) return null;
+        String existente = internados.get(valor);
+        if (existente != null) return existente;
+        if (internados.size() >= MAX_INTERNADOS) return valor;
+        existente = internados.putIfAbsent(valor, valor);
+        return existente != null ? existente : valor;
+    }
+}
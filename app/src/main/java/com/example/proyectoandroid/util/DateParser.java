@@ -0,0 +1,237 @@
+package com.example.proyectoandroid.util;
+
+import java.util.TimeZone;
+
+/**
+ * Parser de fechas (dd/MM/yyyy o yyyy-MM-dd) y horas (HH:mm) escrito a mano:
+ * recorre el texto sin asignar memoria y sin usar excepciones.
+ * Devuelve valores primitivos (milisegundos epoch / minutos) o un código de error.
+ *
+ * Conserva lo que la versión basada en SimpleDateFormat toleraba en textos reales:
+ * espacios antes de cada número, signo negativo, desbordes (31/02 pasa a marzo) y texto
+ * sobrante al final. Usa siempre el calendario gregoriano y rechaza fechas fuera de los
+ * años 1583-9999, números de más de 9 dígitos y la notación científica ("2E3").
+ */
+public final class DateParser {
+
+    /** Resultado de {@link #parsearFecha} cuando el texto no es una fecha válida */
+    public static final long FECHA_INVALIDA = Long.MIN_VALUE;
+
+    /** Resultado de {@link #parsearHora} cuando el texto no es una hora válida */
+    public static final int HORA_INVALIDA = Integer.MIN_VALUE;
+
+    private static final long MILLIS_POR_DIA = 24L * 60 * 60 * 1000;
+    private static final long MILLIS_POR_MINUTO = 60L * 1000;
+    private static final int ANIO_MINIMO = 1583;
+    private static final int ANIO_MAXIMO = 9999;
+    // Como máximo 9 dígitos por número, para que nunca desborde un int
+    private static final int MAX_DIGITOS = 9;
+
+    private static final long DIA_MINIMO = diaEpoch(ANIO_MINIMO, 1, 1);
+    private static final long DIA_MAXIMO = diaEpoch(ANIO_MAXIMO, 12, 31);
+
+    private static volatile TimeZone zona = TimeZone.getDefault();
+
+    private DateParser() {
+    }
+
+    /**
+     * Parsea una fecha en formato display (dd/MM/yyyy) o storage (yyyy-MM-dd).
+     * El formato se decide por el primer separador encontrado.
+     *
+     * @return milisegundos epoch de la medianoche local de esa fecha, o {@link #FECHA_INVALIDA}
+     */
+    public static long parsearFecha(CharSequence texto) {
+        if (texto == null) return FECHA_INVALIDA;
+        int fin = finSinEspacios(texto);
+        int inicio = inicioSinEspacios(texto, fin);
+        if (inicio >= fin) return FECHA_INVALIDA;
+
+        int finPrimero = finNumero(texto, inicio, fin);
+        if (finPrimero < 0 || finPrimero >= fin) return FECHA_INVALIDA;
+
+        char separador = texto.charAt(finPrimero);
+        if (separador != '/' && separador != '-') return FECHA_INVALIDA;
+        int finSegundo = finNumero(texto, finPrimero + 1, fin);
+        if (finSegundo < 0 || finSegundo >= fin || texto.charAt(finSegundo) != separador) {
+            return FECHA_INVALIDA;
+        }
+        int finTercero = finNumero(texto, finSegundo + 1, fin);
+        if (finTercero < 0) return FECHA_INVALIDA;
+        // Lo que venga después del último número se ignora (igual que SimpleDateFormat)
+
+        int primero = leerNumero(texto, inicio, finPrimero);
+        int segundo = leerNumero(texto, finPrimero + 1, finSegundo);
+        int tercero = leerNumero(texto, finSegundo + 1, finTercero);
+        return separador == '/'
+                ? medianocheLocal(tercero, segundo, primero)
+                : medianocheLocal(primero, segundo, tercero);
+    }
+
+    /**
+     * Parsea una hora "HH:mm" (tolerante: 25:00 pasa al día siguiente, admite signo).
+     *
+     * @return minutos desde la medianoche, o {@link #HORA_INVALIDA}
+     */
+    public static int parsearHora(CharSequence texto) {
+        if (texto == null) return HORA_INVALIDA;
+        int fin = finSinEspacios(texto);
+        int inicio = inicioSinEspacios(texto, fin);
+
+        int dosPuntos = -1;
+        for (int i = inicio; i < fin; i++) {
+            if (texto.charAt(i) == ':') {
+                dosPuntos = i;
+                break;
+            }
+        }
+        if (dosPuntos < 0) return HORA_INVALIDA;
+
+        int finMinutos = dosPuntos + 1;
+        while (finMinutos < fin && texto.charAt(finMinutos) != ':') {
+            finMinutos++;
+        }
+        // Solo se toleran ':' sobrantes al final ("10:30:")
+        for (int i = finMinutos; i < fin; i++) {
+            if (texto.charAt(i) != ':') return HORA_INVALIDA;
+        }
+
+        long horas = leerEntero(texto, inicio, dosPuntos);
+        long minutos = leerEntero(texto, dosPuntos + 1, finMinutos);
+        if (horas == Long.MIN_VALUE || minutos == Long.MIN_VALUE) return HORA_INVALIDA;
+
+        long total = horas * 60 + minutos;
+        if (total <= Integer.MIN_VALUE || total > Integer.MAX_VALUE) return HORA_INVALIDA;
+        return (int) total;
+    }
+
+    /**
+     * Combina el día (en hora local) de una fecha con una hora en minutos desde la medianoche
+     */
+    public static long combinar(long fecha, int minutos) {
+        TimeZone tz = zona;
+        long diaLocal = Math.floorDiv(fecha + tz.getOffset(fecha), MILLIS_POR_DIA);
+        return aUtc(tz, diaLocal * MILLIS_POR_DIA + minutos * MILLIS_POR_MINUTO);
+    }
+
+    /**
+     * Vuelve a leer la zona horaria del sistema (llamado desde DateUtils.reiniciarCache)
+     */
+    static void reiniciarZona() {
+        zona = TimeZone.getDefault();
+    }
+
+    private static long medianocheLocal(int anio, int mes, int dia) {
+        // Desborde de mes hacia los años (mes 13 = enero del año siguiente, mes 0 = diciembre anterior)
+        int anioNormalizado = anio + Math.floorDiv(mes - 1, 12);
+        int mesNormalizado = Math.floorMod(mes - 1, 12) + 1;
+
+        // Desborde de días a partir del día 1 del mes
+        long diaEpoch = diaEpoch(anioNormalizado, mesNormalizado, 1) + (dia - 1);
+        if (diaEpoch < DIA_MINIMO || diaEpoch > DIA_MAXIMO) {
+            return FECHA_INVALIDA;
+        }
+        return aUtc(zona, diaEpoch * MILLIS_POR_DIA);
+    }
+
+    /**
+     * Convierte una hora local en milisegundos UTC con el desfase vigente en ese momento
+     * (no el actual). Si la hora no existe por un cambio de horario, usa el menor de los
+     * dos desfases, igual que Calendar (exacto desde 1950; antes puede diferir en horas
+     * repetidas de zonas con cambios históricos a medianoche)
+     */
+    private static long aUtc(TimeZone tz, long local) {
+        int aproximado = tz.getOffset(local - tz.getRawOffset());
+        int desfase = tz.getOffset(local - aproximado);
+        int comprobacion = tz.getOffset(local - desfase);
+        return local - Math.min(desfase, comprobacion);
+    }
+
+    /**
+     * Días desde 1970-01-01 de una fecha del calendario gregoriano
+     */
+    private static long diaEpoch(long anio, int mes, int dia) {
+        long y = mes <= 2 ? anio - 1 : anio;
+        long era = Math.floorDiv(y, 400);
+        long anioDeEra = y - era * 400;
+        long diaDelAnio = (153L * (mes + (mes > 2 ? -3 : 9)) + 2) / 5 + dia - 1;
+        long diaDeEra = anioDeEra * 365 + anioDeEra / 4 - anioDeEra / 100 + diaDelAnio;
+        return era * 146097 + diaDeEra - 719468;
+    }
+
+    /**
+     * Posición siguiente al número que empieza en "desde", como lo leía SimpleDateFormat:
+     * espacios o tabs opcionales, signo '-' opcional y de 1 a 9 dígitos. Devuelve -1 si no hay
+     * número o si es demasiado largo.
+     */
+    private static int finNumero(CharSequence texto, int desde, int fin) {
+        int i = desde;
+        while (i < fin && (texto.charAt(i) == ' ' || texto.charAt(i) == '\t')) {
+            i++;
+        }
+        if (i < fin && texto.charAt(i) == '-') {
+            i++;
+        }
+        int inicioDigitos = i;
+        while (i < fin && Character.digit(texto.charAt(i), 10) >= 0) {
+            i++;
+        }
+        int digitos = i - inicioDigitos;
+        return digitos == 0 || digitos > MAX_DIGITOS ? -1 : i;
+    }
+
+    /**
+     * Valor del número en [desde, hasta), ya delimitado por {@link #finNumero}
+     */
+    private static int leerNumero(CharSequence texto, int desde, int hasta) {
+        int i = desde;
+        while (texto.charAt(i) == ' ' || texto.charAt(i) == '\t') {
+            i++;
+        }
+        boolean negativo = texto.charAt(i) == '-';
+        if (negativo) i++;
+
+        int valor = 0;
+        for (; i < hasta; i++) {
+            valor = valor * 10 + Character.digit(texto.charAt(i), 10);
+        }
+        return negativo ? -valor : valor;
+    }
+
+    /**
+     * Lee un entero que ocupa todo el rango [inicio, fin) como Integer.parseInt
+     * (signo '+' o '-' opcional). Devuelve Long.MIN_VALUE si no es válido.
+     */
+    private static long leerEntero(CharSequence texto, int inicio, int fin) {
+        int i = inicio;
+        boolean negativo = false;
+        if (i < fin && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+            negativo = texto.charAt(i) == '-';
+            i++;
+        }
+        if (i >= fin) return Long.MIN_VALUE;
+
+        long valor = 0;
+        for (; i < fin; i++) {
+            int d = Character.digit(texto.charAt(i), 10);
+            if (d < 0) return Long.MIN_VALUE;
+            valor = valor * 10 + d;
+            if (valor > (long) Integer.MAX_VALUE + 1) return Long.MIN_VALUE;
+        }
+        valor = negativo ? -valor : valor;
+        if (valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) return Long.MIN_VALUE;
+        return valor;
+    }
+
+    private static int inicioSinEspacios(CharSequence texto, int fin) {
+        int i = 0;
+        while (i < fin && texto.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int finSinEspacios(CharSequence texto) {
+        int fin = texto.length();
+        while (fin > 0 && texto.charAt(fin - 1) <= ' ') fin--;
+        return fin;
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.proyectoandroid.util;
 
-import java.text.SimpleDateFormat;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 
 /**
- * Utilidades para manejo de fechas y formatos
+ * Utilidades para manejo de fechas y formatos.
+ *
+ * Usa formateadores inmutables de java.time (thread-safe, se crean una sola vez) y una pequeña
+ * caché de textos ya formateados por día (fechas) o minuto del día (horas), porque las listas
+ * formatean muchas veces las mismas fechas. Si cambia la zona horaria o el idioma del sistema
+ * hay que llamar a {@link #reiniciarCache()}.
  */
 public class DateUtils {
 
@@ -17,13 +29,19 @@ public class DateUtils {
     public static final String FORMAT_DATETIME_DISPLAY = "dd/MM/yyyy HH:mm";
     public static final String FORMAT_DATETIME_STORAGE = "yyyy-MM-dd HH:mm";
 
+    private static final long MILLIS_POR_DIA = 24L * 60 * 60 * 1000;
+    private static final long MILLIS_POR_MINUTO = 60L * 1000;
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
+    private static volatile Formatos formatos = new Formatos();
+
     /**
      * Formatea una fecha para mostrar al usuario (dd/MM/yyyy)
      */
     public static String formatDateForDisplay(Date date) {
         if (date == null) return "";
-        SimpleDateFormat sdf = new SimpleDateFormat(FORMAT_DISPLAY, Locale.getDefault());
-        return sdf.format(date);
+        Formatos f = formatos;
+        return f.display.obtener(f.epochDay(date.getTime()));
     }
 
     /**
@@ -31,8 +49,8 @@ public class DateUtils {
      */
     public static String formatDateForStorage(Date date) {
         if (date == null) return "";
-        SimpleDateFormat sdf = new SimpleDateFormat(FORMAT_STORAGE, Locale.getDefault());
-        return sdf.format(date);
+        Formatos f = formatos;
+        return f.storage.obtener(f.epochDay(date.getTime()));
     }
 
     /**
@@ -40,8 +58,8 @@ public class DateUtils {
      */
     public static String formatTime(Date date) {
         if (date == null) return "";
-        SimpleDateFormat sdf = new SimpleDateFormat(FORMAT_TIME, Locale.getDefault());
-        return sdf.format(date);
+        Formatos f = formatos;
+        return f.hora.obtener(f.minutoDelDia(date.getTime()));
     }
 
     /**
@@ -49,12 +67,7 @@ public class DateUtils {
      */
     public static Date parseDateFromDisplay(String dateStr) {
         if (dateStr == null || dateStr.trim().isEmpty()) return null;
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(FORMAT_DISPLAY, Locale.getDefault());
-            return sdf.parse(dateStr.trim());
-        } catch (Exception e) {
-            return null;
-        }
+        return parsear(formatos.parserDisplay, dateStr.trim());
     }
 
     /**
@@ -62,12 +75,7 @@ public class DateUtils {
      */
     public static Date parseDateFromStorage(String dateStr) {
         if (dateStr == null || dateStr.trim().isEmpty()) return null;
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(FORMAT_STORAGE, Locale.getDefault());
-            return sdf.parse(dateStr.trim());
-        } catch (Exception e) {
-            return null;
-        }
+        return parsear(formatos.parserStorage, dateStr.trim());
     }
 
     /**
@@ -75,17 +83,17 @@ public class DateUtils {
      */
     public static Date parseDate(String dateStr) {
         if (dateStr == null || dateStr.trim().isEmpty()) return null;
-        
+
         // Intentar formato display primero (dd/MM/yyyy)
         if (dateStr.contains("/")) {
             Date date = parseDateFromDisplay(dateStr);
             if (date != null) return date;
         }
-        
+
         // Intentar formato storage (yyyy-MM-dd)
         Date date = parseDateFromStorage(dateStr);
         if (date != null) return date;
-        
+
         return null;
     }
 
@@ -112,10 +120,10 @@ public class DateUtils {
      */
     public static Date combineDateAndTime(Date date, String timeStr) {
         if (date == null) return null;
-        
+
         Calendar cal = Calendar.getInstance();
         cal.setTime(date);
-        
+
         if (timeStr != null && !timeStr.trim().isEmpty()) {
             String[] partes = timeStr.trim().split(":");
             if (partes.length == 2) {
@@ -131,7 +139,7 @@ public class DateUtils {
                 }
             }
         }
-        
+
         return cal.getTime();
     }
 
@@ -155,5 +163,118 @@ public class DateUtils {
     public static String getCurrentTime() {
         return formatTime(getCurrentDate());
     }
-}
 
+    /**
+     * Vuelve a leer la zona horaria e idioma del sistema y descarta los textos en caché.
+     * Llamar cuando cambie la configuración del dispositivo.
+     */
+    public static void reiniciarCache() {
+        formatos = new Formatos();
+        DateParser.reiniciarZona();
+    }
+
+    /**
+     * Parsea como lo hacía SimpleDateFormat: tolerante (31/02 pasa a marzo) y sin exigir
+     * que el texto termine justo después de la fecha. Los campos se resuelven con un
+     * Calendar tolerante para mantener exactamente el mismo resultado.
+     */
+    private static Date parsear(DateTimeFormatter parser, String texto) {
+        TemporalAccessor campos = parser.parseUnresolved(texto, new ParsePosition(0));
+        if (campos == null
+                || !campos.isSupported(ChronoField.YEAR)
+                || !campos.isSupported(ChronoField.MONTH_OF_YEAR)
+                || !campos.isSupported(ChronoField.DAY_OF_MONTH)) {
+            return null;
+        }
+        long anio = campos.getLong(ChronoField.YEAR);
+        long mes = campos.getLong(ChronoField.MONTH_OF_YEAR);
+        long dia = campos.getLong(ChronoField.DAY_OF_MONTH);
+        if (anio > Integer.MAX_VALUE || mes > Integer.MAX_VALUE || dia > Integer.MAX_VALUE) {
+            return null;
+        }
+
+        Calendar cal = Calendar.getInstance(formatos.timeZone, formatos.locale);
+        cal.clear();
+        cal.set((int) anio, (int) mes - 1, (int) dia);
+        return cal.getTime();
+    }
+
+    /**
+     * Formateadores y cachés para una zona horaria e idioma concretos.
+     * Se reemplaza completo en {@link #reiniciarCache()}, nunca se modifica.
+     */
+    private static final class Formatos {
+        final TimeZone timeZone = TimeZone.getDefault();
+        final Locale locale = Locale.getDefault();
+
+        final DateTimeFormatter parserDisplay = parser("d/M/u");
+        final DateTimeFormatter parserStorage = parser("u-M-d");
+
+        final CacheTextos display = new CacheTextos(512,
+                DateTimeFormatter.ofPattern(FORMAT_DISPLAY, locale), true);
+        final CacheTextos storage = new CacheTextos(512,
+                DateTimeFormatter.ofPattern(FORMAT_STORAGE, locale), true);
+        // Solo hay 1440 minutos en un día: la caché nunca tiene colisiones
+        final CacheTextos hora = new CacheTextos(2048,
+                DateTimeFormatter.ofPattern(FORMAT_TIME, locale), false);
+
+        private DateTimeFormatter parser(String patron) {
+            return new DateTimeFormatterBuilder()
+                    .parseLenient()
+                    .appendPattern(patron)
+                    .toFormatter(locale);
+        }
+
+        long epochDay(long millis) {
+            // TimeZone.getOffset(long) no crea objetos, a diferencia de ZoneRules.getOffset(Instant)
+            return Math.floorDiv(millis + timeZone.getOffset(millis), MILLIS_POR_DIA);
+        }
+
+        long minutoDelDia(long millis) {
+            long minuto = Math.floorDiv(millis + timeZone.getOffset(millis), MILLIS_POR_MINUTO);
+            return Math.floorMod(minuto, MINUTOS_POR_DIA);
+        }
+    }
+
+    /**
+     * Caché de acceso directo (clave -> posición fija) de textos formateados.
+     * Las entradas son inmutables, así que las carreras entre hilos solo pueden causar
+     * que un texto se formatee dos veces, nunca un resultado incorrecto.
+     */
+    private static final class CacheTextos {
+        private final Entrada[] entradas;
+        private final int mascara;
+        private final DateTimeFormatter formatter;
+        private final boolean esDia;
+
+        CacheTextos(int tamano, DateTimeFormatter formatter, boolean esDia) {
+            this.entradas = new Entrada[tamano];
+            this.mascara = tamano - 1;
+            this.formatter = formatter;
+            this.esDia = esDia;
+        }
+
+        String obtener(long clave) {
+            int posicion = (int) (clave & mascara);
+            Entrada entrada = entradas[posicion];
+            if (entrada != null && entrada.clave == clave) {
+                return entrada.texto;
+            }
+            String texto = esDia
+                    ? formatter.format(LocalDate.ofEpochDay(clave))
+                    : formatter.format(LocalTime.ofSecondOfDay(clave * 60));
+            entradas[posicion] = new Entrada(clave, texto);
+            return texto;
+        }
+    }
+
+    private static final class Entrada {
+        final long clave;
+        final String texto;
+
+        Entrada(long clave, String texto) {
+            this.clave = clave;
+            this.texto = texto;
+        }
+    }
+}
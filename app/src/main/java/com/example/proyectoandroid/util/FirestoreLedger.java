@@ -0,0 +1,302 @@
+package com.example.proyectoandroid.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Libro de consumo de Firestore: por pantalla y operación cuenta llamadas, documentos leídos
+ * (caché / servidor), lecturas facturadas estimadas, escrituras, tamaño de los snapshots y un
+ * histograma de latencias.
+ *
+ * Las lecturas facturadas siguen las reglas de Firestore: lo que llega del caché local no se
+ * cobra, una consulta al servidor cobra al menos un documento aunque venga vacía y un listener
+ * cobra el resultado completo en su primer snapshot del servidor y después solo los documentos
+ * que cambian.
+ *
+ * La pantalla se fija al iniciar cada medición, así que un listener queda a nombre de la
+ * pantalla que lo abrió aunque sus snapshots lleguen después. Se puede usar desde cualquier hilo.
+ */
+public class FirestoreLedger {
+
+    // Límites superiores (ms) de cada tramo del histograma; el último tramo es "más que eso"
+    public static final long[] LIMITES_MS = {50, 100, 250, 500, 1000, 2500};
+    static final String SIN_PANTALLA = "-";
+
+    public interface Reloj {
+        long ahoraMs();
+    }
+
+    private static FirestoreLedger instance;
+
+    public static synchronized FirestoreLedger getInstance() {
+        if (instance == null) {
+            instance = new FirestoreLedger(() -> System.nanoTime() / 1_000_000);
+        }
+        return instance;
+    }
+
+    /**
+     * Acumulado de una operación en una pantalla (copia inmutable en {@link #getEntradas()})
+     */
+    public static final class Entrada {
+        public final String pantalla;
+        public final String operacion;
+        long llamadas;
+        long errores;
+        long snapshots;
+        long snapshotsDesdeCache;
+        long docsServidor;
+        long docsCache;
+        long lecturasFacturadas;
+        long escrituras;
+        long docsEnSnapshots;
+        long maxSnapshot;
+        long latenciaTotalMs;
+        final long[] histograma = new long[LIMITES_MS.length + 1];
+
+        Entrada(String pantalla, String operacion) {
+            this.pantalla = pantalla;
+            this.operacion = operacion;
+        }
+
+        Entrada copia() {
+            Entrada copia = new Entrada(pantalla, operacion);
+            copia.llamadas = llamadas;
+            copia.errores = errores;
+            copia.snapshots = snapshots;
+            copia.snapshotsDesdeCache = snapshotsDesdeCache;
+            copia.docsServidor = docsServidor;
+            copia.docsCache = docsCache;
+            copia.lecturasFacturadas = lecturasFacturadas;
+            copia.escrituras = escrituras;
+            copia.docsEnSnapshots = docsEnSnapshots;
+            copia.maxSnapshot = maxSnapshot;
+            copia.latenciaTotalMs = latenciaTotalMs;
+            System.arraycopy(histograma, 0, copia.histograma, 0, histograma.length);
+            return copia;
+        }
+
+        public long getLlamadas() { return llamadas; }
+        public long getErrores() { return errores; }
+        public long getSnapshots() { return snapshots; }
+        public long getSnapshotsDesdeCache() { return snapshotsDesdeCache; }
+        public long getDocsServidor() { return docsServidor; }
+        public long getDocsCache() { return docsCache; }
+        public long getLecturasFacturadas() { return lecturasFacturadas; }
+        public long getEscrituras() { return escrituras; }
+        public long getMaxSnapshot() { return maxSnapshot; }
+
+        public long[] getHistograma() {
+            return histograma.clone();
+        }
+
+        public long getMuestrasLatencia() {
+            long total = 0;
+            for (long n : histograma) total += n;
+            return total;
+        }
+
+        /**
+         * Promedio de documentos por snapshot (0 si no hubo)
+         */
+        public double getPromedioSnapshot() {
+            return snapshots == 0 ? 0 : (double) docsEnSnapshots / snapshots;
+        }
+
+        public long getLatenciaPromedioMs() {
+            long muestras = getMuestrasLatencia();
+            return muestras == 0 ? 0 : latenciaTotalMs / muestras;
+        }
+
+        /**
+         * Límite superior del tramo del histograma que contiene el percentil
+         * ({@link Long#MAX_VALUE} si cae en el último tramo, -1 si no hay muestras)
+         */
+        public long getPercentilMs(double percentil) {
+            long muestras = getMuestrasLatencia();
+            if (muestras == 0) return -1;
+            long objetivo = (long) Math.ceil(muestras * percentil);
+            long acumulado = 0;
+            for (int i = 0; i < histograma.length; i++) {
+                acumulado += histograma[i];
+                if (acumulado >= objetivo) {
+                    return i < LIMITES_MS.length ? LIMITES_MS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Una llamada en curso (consulta, escritura o listener). La latencia se toma en el primer
+     * resultado; para un listener es el tiempo hasta su primer snapshot.
+     */
+    public final class Medicion {
+        private final Entrada entrada;
+        private final long inicioMs;
+        private boolean latenciaRegistrada;
+        private boolean servidorVisto;
+
+        private Medicion(Entrada entrada, long inicioMs) {
+            this.entrada = entrada;
+            this.inicioMs = inicioMs;
+        }
+
+        /**
+         * Lectura puntual (get) que devolvió {@code documentos} documentos
+         */
+        public void lectura(int documentos, boolean desdeCache) {
+            synchronized (FirestoreLedger.this) {
+                registrarLatencia();
+                if (desdeCache) {
+                    entrada.docsCache += documentos;
+                } else {
+                    entrada.docsServidor += documentos;
+                    entrada.lecturasFacturadas += Math.max(1, documentos);
+                }
+            }
+        }
+
+        /**
+         * Snapshot de un listener con {@code tamano} documentos, de los cuales cambiaron {@code cambiados}
+         */
+        public void snapshot(int tamano, int cambiados, boolean desdeCache) {
+            synchronized (FirestoreLedger.this) {
+                registrarLatencia();
+                entrada.snapshots++;
+                entrada.docsEnSnapshots += tamano;
+                entrada.maxSnapshot = Math.max(entrada.maxSnapshot, tamano);
+                if (desdeCache) {
+                    entrada.snapshotsDesdeCache++;
+                    entrada.docsCache += cambiados;
+                } else if (!servidorVisto) {
+                    servidorVisto = true;
+                    entrada.docsServidor += tamano;
+                    entrada.lecturasFacturadas += Math.max(1, tamano);
+                } else {
+                    entrada.docsServidor += cambiados;
+                    entrada.lecturasFacturadas += cambiados;
+                }
+            }
+        }
+
+        public void escritura(int documentos) {
+            synchronized (FirestoreLedger.this) {
+                registrarLatencia();
+                entrada.escrituras += documentos;
+            }
+        }
+
+        public void error() {
+            synchronized (FirestoreLedger.this) {
+                registrarLatencia();
+                entrada.errores++;
+            }
+        }
+
+        private void registrarLatencia() {
+            if (latenciaRegistrada) return;
+            latenciaRegistrada = true;
+            long ms = Math.max(0, reloj.ahoraMs() - inicioMs);
+            entrada.latenciaTotalMs += ms;
+            entrada.histograma[tramo(ms)]++;
+        }
+    }
+
+    private final Reloj reloj;
+    private final Map<String, Entrada> entradas = new LinkedHashMap<>();
+    private volatile String pantallaActual = SIN_PANTALLA;
+
+    FirestoreLedger(Reloj reloj) {
+        this.reloj = reloj;
+    }
+
+    /**
+     * Pantalla a la que se atribuyen las mediciones que empiecen desde ahora
+     */
+    public void setPantallaActual(String pantalla) {
+        pantallaActual = pantalla != null ? pantalla : SIN_PANTALLA;
+    }
+
+    public String getPantallaActual() {
+        return pantallaActual;
+    }
+
+    public synchronized Medicion iniciar(String operacion) {
+        String pantalla = pantallaActual;
+        String clave = pantalla + "\u0000" + operacion;
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            entrada = new Entrada(pantalla, operacion);
+            entradas.put(clave, entrada);
+        }
+        entrada.llamadas++;
+        return new Medicion(entrada, reloj.ahoraMs());
+    }
+
+    /**
+     * Copia de lo acumulado, de la operación con más lecturas facturadas a la con menos
+     */
+    public synchronized List<Entrada> getEntradas() {
+        List<Entrada> copia = new ArrayList<>(entradas.size());
+        for (Entrada entrada : entradas.values()) {
+            copia.add(entrada.copia());
+        }
+        copia.sort((a, b) -> Long.compare(b.lecturasFacturadas, a.lecturasFacturadas));
+        return copia;
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    /**
+     * Exporta el libro como CSV (una fila por pantalla y operación)
+     */
+    public void exportarCsv(Writer salida) throws IOException {
+        StringBuilder encabezado = new StringBuilder(
+                "pantalla,operacion,llamadas,errores,snapshots,snapshots_cache,docs_servidor,docs_cache,"
+                        + "lecturas_facturadas,escrituras,snapshot_promedio,snapshot_max,latencia_promedio_ms");
+        for (long limite : LIMITES_MS) {
+            encabezado.append(",lat_le_").append(limite).append("ms");
+        }
+        encabezado.append(",lat_gt_").append(LIMITES_MS[LIMITES_MS.length - 1]).append("ms\n");
+        salida.write(encabezado.toString());
+
+        for (Entrada e : getEntradas()) {
+            StringBuilder fila = new StringBuilder();
+            fila.append(csv(e.pantalla)).append(',').append(csv(e.operacion)).append(',')
+                    .append(e.llamadas).append(',').append(e.errores).append(',')
+                    .append(e.snapshots).append(',').append(e.snapshotsDesdeCache).append(',')
+                    .append(e.docsServidor).append(',').append(e.docsCache).append(',')
+                    .append(e.lecturasFacturadas).append(',').append(e.escrituras).append(',')
+                    .append(String.format(Locale.US, "%.1f", e.getPromedioSnapshot())).append(',')
+                    .append(e.maxSnapshot).append(',').append(e.getLatenciaPromedioMs());
+            for (long n : e.histograma) {
+                fila.append(',').append(n);
+            }
+            fila.append('\n');
+            salida.write(fila.toString());
+        }
+        salida.flush();
+    }
+
+    static int tramo(long ms) {
+        for (int i = 0; i < LIMITES_MS.length; i++) {
+            if (ms <= LIMITES_MS[i]) return i;
+        }
+        return LIMITES_MS.length;
+    }
+
+    private static String csv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
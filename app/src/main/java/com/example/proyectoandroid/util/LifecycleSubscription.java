@@ -0,0 +1,165 @@
+package com.example.proyectoandroid.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * Suscripción a un listener que sigue el ciclo de vida de la pantalla: se abre al volver a
+ * estar visible (ON_START) y se pausa si la pantalla deja de verse (ON_STOP) por más de un
+ * período de gracia. Así una rotación o un cambio rápido de app no cierra el listener, pero
+ * una pantalla que queda en segundo plano deja de recibir datos de Firestore.
+ *
+ * Al reanudar se vuelve a suscribir: si otra pantalla mantiene abierto el listener compartido
+ * se repite su último valor, y si no, el repositorio entrega primero la copia en disco.
+ *
+ * Vive en el ViewModel (sobrevive a la rotación); cada Activity nueva se vincula con
+ * {@link #vincular(LifecycleOwner)}. Debe usarse desde el hilo principal.
+ */
+public class LifecycleSubscription implements DefaultLifecycleObserver {
+
+    public static final long GRACIA_POR_DEFECTO_MS = 30_000;
+
+    /**
+     * Abre la suscripción real (p.ej. {@code repo.obtenerMedicamentos(callback)})
+     */
+    public interface Suscriptor {
+        SnapshotListenerRegistry.Cancelable suscribir();
+    }
+
+    /**
+     * Programa tareas diferidas (en la app, un Handler del hilo principal)
+     */
+    public interface Temporizador {
+        void programar(Runnable tarea, long retrasoMs);
+
+        void cancelar(Runnable tarea);
+    }
+
+    private final Suscriptor suscriptor;
+    private final long graciaMs;
+    private final Temporizador temporizador;
+    private final Runnable pausar = this::pausar;
+
+    private SnapshotListenerRegistry.Cancelable actual;
+    private LifecycleOwner owner;
+    private boolean pausaProgramada;
+    private boolean cancelada;
+
+    public LifecycleSubscription(Suscriptor suscriptor) {
+        this(suscriptor, GRACIA_POR_DEFECTO_MS);
+    }
+
+    public LifecycleSubscription(Suscriptor suscriptor, long graciaMs) {
+        this(suscriptor, graciaMs, new TemporizadorPrincipal());
+    }
+
+    public LifecycleSubscription(Suscriptor suscriptor, long graciaMs, Temporizador temporizador) {
+        this.suscriptor = suscriptor;
+        this.graciaMs = graciaMs;
+        this.temporizador = temporizador;
+    }
+
+    /**
+     * Sigue el ciclo de vida de {@code owner} (dejando de seguir al anterior, si había).
+     * Si ya está visible, la suscripción se abre de inmediato.
+     */
+    public void vincular(@NonNull LifecycleOwner owner) {
+        if (cancelada || this.owner == owner) {
+            return;
+        }
+        desvincular();
+        this.owner = owner;
+        owner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * true mientras el listener esté abierto (incluido el período de gracia)
+     */
+    public boolean isActiva() {
+        return actual != null;
+    }
+
+    /**
+     * Cierra la suscripción definitivamente (p.ej. en onCleared del ViewModel)
+     */
+    public void cancelar() {
+        cancelada = true;
+        desvincular();
+        cancelarPausa();
+        cerrar();
+    }
+
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        if (cancelada) {
+            return;
+        }
+        cancelarPausa();
+        if (actual == null) {
+            actual = suscriptor.suscribir();
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        if (cancelada || actual == null) {
+            return;
+        }
+        cancelarPausa();
+        pausaProgramada = true;
+        temporizador.programar(pausar, graciaMs);
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        // Solo se deja de observar: si es una rotación, la Activity nueva se vincula
+        // antes de que termine la gracia y el listener sigue abierto
+        if (this.owner == owner) {
+            desvincular();
+        }
+    }
+
+    private void pausar() {
+        pausaProgramada = false;
+        cerrar();
+    }
+
+    private void cerrar() {
+        if (actual != null) {
+            actual.cancelar();
+            actual = null;
+        }
+    }
+
+    private void cancelarPausa() {
+        if (pausaProgramada) {
+            temporizador.cancelar(pausar);
+            pausaProgramada = false;
+        }
+    }
+
+    private void desvincular() {
+        if (owner != null) {
+            owner.getLifecycle().removeObserver(this);
+            owner = null;
+        }
+    }
+
+    private static final class TemporizadorPrincipal implements Temporizador {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void programar(Runnable tarea, long retrasoMs) {
+            handler.postDelayed(tarea, retrasoMs);
+        }
+
+        @Override
+        public void cancelar(Runnable tarea) {
+            handler.removeCallbacks(tarea);
+        }
+    }
+}
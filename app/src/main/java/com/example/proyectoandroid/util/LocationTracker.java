@@ -31,17 +31,29 @@ import java.util.concurrent.Executors;
  */
 public class LocationTracker {
 
-    private static LocationTracker INSTANCE;
-
-    public static void init(Context appContext) {
-        if (INSTANCE == null) {
-            INSTANCE = new LocationTracker(appContext.getApplicationContext());
+    private static volatile LocationTracker INSTANCE;
+    private static Context contextoApp;
+
+    /**
+     * Solo guarda el contexto: el cliente de ubicación se crea con el primer get(),
+     * fuera del camino hacia la primera pantalla
+     */
+    public static synchronized void init(Context appContext) {
+        if (contextoApp == null) {
+            contextoApp = appContext.getApplicationContext();
         }
     }
 
     public static LocationTracker get() {
-        if (INSTANCE == null) throw new IllegalStateException("LocationTracker no inicializado (llama a MyApp.onCreate)");
-        return INSTANCE;
+        LocationTracker instancia = INSTANCE;
+        if (instancia != null) return instancia;
+        synchronized (LocationTracker.class) {
+            if (INSTANCE == null) {
+                if (contextoApp == null) throw new IllegalStateException("LocationTracker no inicializado (llama a MyApp.onCreate)");
+                INSTANCE = new LocationTracker(contextoApp);
+            }
+            return INSTANCE;
+        }
     }
 
     // ---- implementación ----
@@ -0,0 +1,57 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Medicamento;
+
+import java.util.Map;
+
+/**
+ * Lectura de documentos de la colección "medicamentos" sin reflexión:
+ * se recorre getData() una sola vez en vez de pedir cada campo por separado.
+ * "activo" no está en el documento; lo calcula el repositorio con las fechas.
+ */
+public final class MedicamentoCodec {
+    private final Codecs.ConversorFecha fechas;
+
+    public MedicamentoCodec(Codecs.ConversorFecha fechas) {
+        this.fechas = fechas;
+    }
+
+    /**
+     * Convierte los datos del documento (getData(), puede ser null) en un medicamento nuevo
+     */
+    public Medicamento decodificar(String id, Map<String, Object> datos) {
+        Medicamento medicamento = new Medicamento();
+        medicamento.setId(id);
+        if (datos == null) return medicamento;
+
+        for (Map.Entry<String, Object> campo : datos.entrySet()) {
+            Object valor = campo.getValue();
+            switch (campo.getKey()) {
+                case "nombre":
+                    medicamento.setNombre(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "dosis":
+                    medicamento.setDosis(Codecs.texto(valor));
+                    break;
+                case "frecuencia":
+                    medicamento.setFrecuencia(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "fechaInicio":
+                    medicamento.setFechaInicio(fechas.aFecha(valor));
+                    break;
+                case "fechaFin":
+                    medicamento.setFechaFin(fechas.aFecha(valor));
+                    break;
+                case "medico":
+                    medicamento.setMedico(Codecs.internar(Codecs.texto(valor)));
+                    break;
+                case "observaciones":
+                    medicamento.setObservaciones(Codecs.texto(valor));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return medicamento;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.proyectoandroid.util;
+
+import java.util.Date;
+
+/**
+ * Utilidades para medicamentos
+ */
+public class MedicamentosUtils {
+
+    /**
+     * Indica si un medicamento está activo (la fecha actual está dentro del rango de fechas)
+     */
+    public static boolean estaActivo(Date fechaInicio, Date fechaFin, Date ahora) {
+        if (fechaInicio == null || fechaFin == null) {
+            return false;
+        }
+        return (ahora.compareTo(fechaInicio) >= 0) && (ahora.compareTo(fechaFin) <= 0);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Paciente;
+
+import java.util.Map;
+
+/**
+ * Lectura y escritura de documentos de la colección "pacientes" sin reflexión:
+ * se recorre getData() una sola vez en vez de pedir cada campo por separado.
+ */
+public final class PacienteCodec {
+    private static final String[] CLAVES = {"email", "nombre", "rut", "telefono", "direccion"};
+
+    private PacienteCodec() {
+    }
+
+    /**
+     * Convierte los datos de pacientes/{RUT} (getData(), puede ser null) en un paciente nuevo.
+     * Si el documento no tiene "rut" se usa el id.
+     */
+    public static Paciente decodificar(String id, Map<String, Object> datos) {
+        Paciente paciente = new Paciente();
+        if (datos != null) {
+            for (Map.Entry<String, Object> campo : datos.entrySet()) {
+                Object valor = campo.getValue();
+                switch (campo.getKey()) {
+                    case "nombre":
+                        paciente.setNombre(Codecs.texto(valor));
+                        break;
+                    case "rut":
+                        paciente.setRut(Codecs.texto(valor));
+                        break;
+                    case "email":
+                        paciente.setEmail(Codecs.texto(valor));
+                        break;
+                    case "telefono":
+                        paciente.setTelefono(Codecs.texto(valor));
+                        break;
+                    case "direccion":
+                        paciente.setDireccion(Codecs.texto(valor));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        if (paciente.getRut() == null) {
+            paciente.setRut(id);
+        }
+        return paciente;
+    }
+
+    /**
+     * Campos del documento de un paciente nuevo
+     */
+    public static Map<String, Object> codificar(String email, String nombre, String rut,
+                                                String telefono, String direccion) {
+        return new CamposDocumento(CLAVES, email, nombre, rut,
+                telefono != null ? telefono : "",
+                direccion != null ? direccion : "");
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.proyectoandroid.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Envía una lista larga en lotes de tamaño fijo, con un máximo de lotes en vuelo a la vez
+ * (p.ej. WriteBatches de Firestore, que admiten hasta 500 escrituras cada uno).
+ *
+ * Cada lote termina con éxito o con error por separado: un lote fallido no detiene a los
+ * demás. El progreso se informa al terminar cada lote y al final se entrega un resumen.
+ *
+ * Los callbacks se llaman en el hilo que completa cada lote, fuera del lock.
+ */
+public class ParallelChunkRunner<T> {
+
+    /**
+     * Envía un lote y debe llamar una sola vez a {@link Resultado#exito()} o {@link Resultado#error(String)}
+     */
+    public interface Enviador<T> {
+        void enviar(List<T> lote, Resultado resultado);
+    }
+
+    public interface Resultado {
+        void exito();
+
+        void error(String mensaje);
+    }
+
+    public interface Listener<T> {
+        /**
+         * Un lote terminó; {@code error} es null si se envió bien
+         */
+        void onLoteTerminado(List<T> lote, String error, int lotesTerminados, int lotesTotales);
+
+        /**
+         * Terminaron todos los lotes
+         */
+        void onTerminado(int itemsEnviados, int lotesFallidos);
+    }
+
+    private final int tamanoLote;
+    private final int maxEnVuelo;
+
+    public ParallelChunkRunner(int tamanoLote, int maxEnVuelo) {
+        if (tamanoLote <= 0 || maxEnVuelo <= 0) {
+            throw new IllegalArgumentException("tamanoLote y maxEnVuelo deben ser positivos");
+        }
+        this.tamanoLote = tamanoLote;
+        this.maxEnVuelo = maxEnVuelo;
+    }
+
+    /**
+     * Divide la lista en sublistas consecutivas de a lo más {@code tamano} elementos
+     */
+    public static <T> List<List<T>> dividir(List<T> items, int tamano) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<T>> lotes = new ArrayList<>((items.size() + tamano - 1) / tamano);
+        for (int desde = 0; desde < items.size(); desde += tamano) {
+            lotes.add(new ArrayList<>(items.subList(desde, Math.min(desde + tamano, items.size()))));
+        }
+        return lotes;
+    }
+
+    public void ejecutar(List<T> items, Enviador<T> enviador, Listener<T> listener) {
+        List<List<T>> lotes = dividir(items, tamanoLote);
+        if (lotes.isEmpty()) {
+            listener.onTerminado(0, 0);
+            return;
+        }
+        Ejecucion ejecucion = new Ejecucion(lotes, enviador, listener);
+        for (int i = 0; i < Math.min(maxEnVuelo, lotes.size()); i++) {
+            ejecucion.enviarSiguiente();
+        }
+    }
+
+    private final class Ejecucion {
+        private final Object lock = new Object();
+        private final List<List<T>> lotes;
+        private final Enviador<T> enviador;
+        private final Listener<T> listener;
+        private int siguiente;
+        private int terminados;
+        private int enviados;
+        private int fallidos;
+
+        Ejecucion(List<List<T>> lotes, Enviador<T> enviador, Listener<T> listener) {
+            this.lotes = lotes;
+            this.enviador = enviador;
+            this.listener = listener;
+        }
+
+        void enviarSiguiente() {
+            List<T> lote;
+            synchronized (lock) {
+                if (siguiente >= lotes.size()) {
+                    return;
+                }
+                lote = lotes.get(siguiente++);
+            }
+            enviador.enviar(lote, new Resultado() {
+                private boolean respondido;
+
+                @Override
+                public void exito() {
+                    terminar(null);
+                }
+
+                @Override
+                public void error(String mensaje) {
+                    terminar(mensaje != null ? mensaje : "Error desconocido");
+                }
+
+                private void terminar(String error) {
+                    synchronized (lock) {
+                        if (respondido) {
+                            return;
+                        }
+                        respondido = true;
+                    }
+                    loteTerminado(lote, error);
+                }
+            });
+        }
+
+        private void loteTerminado(List<T> lote, String error) {
+            int terminadosAhora;
+            boolean fin;
+            synchronized (lock) {
+                terminados++;
+                if (error == null) {
+                    enviados += lote.size();
+                } else {
+                    fallidos++;
+                }
+                terminadosAhora = terminados;
+                fin = terminados == lotes.size();
+            }
+            listener.onLoteTerminado(lote, error, terminadosAhora, lotes.size());
+            if (fin) {
+                int enviadosTotal;
+                int fallidosTotal;
+                synchronized (lock) {
+                    enviadosTotal = enviados;
+                    fallidosTotal = fallidos;
+                }
+                listener.onTerminado(enviadosTotal, fallidosTotal);
+            } else {
+                // Libera un cupo: entra el próximo lote de la cola
+                enviarSiguiente();
+            }
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.example.proyectoandroid.util;
 
-import android.text.TextUtils;
-
 /**
  * Utilidades para validación y normalización de RUT
  */
@@ -0,0 +1,125 @@
+package com.example.proyectoandroid.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.biometric.BiometricManager;
+
+import com.google.firebase.auth.FirebaseUser;
+
+/**
+ * Reanudación rápida de sesión: si el usuario lo pidió al iniciar sesión, al abrir la app se
+ * reutiliza la sesión de FirebaseAuth guardada tras un desbloqueo local (huella, PIN o patrón
+ * del dispositivo), sin leer rut_index ni volver a llamar a signInWithEmailAndPassword.
+ *
+ * También mide el tiempo hasta el panel (primer perfil mostrado en InformacionActivity) de
+ * cada camino, para comparar la reanudación con el login completo.
+ */
+public class SessionResumeManager {
+    private static final String TAG = "SessionResumeManager";
+    private static final String PREFS_NAME = "session_resume_prefs";
+    private static final String KEY_EMAIL = "email_reanudable";
+    private static final String KEY_MS_LOGIN = "ms_panel_login";
+    private static final String KEY_MS_REANUDAR = "ms_panel_reanudar";
+
+    // Autenticadores aceptados para desbloquear (huella/rostro o credencial del dispositivo)
+    public static final int AUTENTICADORES =
+            BiometricManager.Authenticators.BIOMETRIC_WEAK | BiometricManager.Authenticators.DEVICE_CREDENTIAL;
+
+    public static final String CAMINO_LOGIN = "login";
+    public static final String CAMINO_REANUDAR = "reanudar";
+
+    private static SessionResumeManager instance;
+    private final Context context;
+    private final SharedPreferences prefs;
+    private String caminoMedido;
+    private long inicioMedicion;
+    private Tracer.Span tramoPanel;
+
+    private SessionResumeManager(Context context) {
+        this.context = context;
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized SessionResumeManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new SessionResumeManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * true si el dispositivo tiene huella o bloqueo de pantalla configurado
+     */
+    public boolean dispositivoPermiteDesbloqueo() {
+        return BiometricManager.from(context).canAuthenticate(AUTENTICADORES) == BiometricManager.BIOMETRIC_SUCCESS;
+    }
+
+    /**
+     * Habilita la reanudación para el usuario que acaba de iniciar sesión
+     */
+    public void activar(FirebaseUser user) {
+        if (user == null || user.getEmail() == null) return;
+        prefs.edit().putString(KEY_EMAIL, user.getEmail()).apply();
+    }
+
+    public void desactivar() {
+        prefs.edit().remove(KEY_EMAIL).apply();
+    }
+
+    /**
+     * true si hay una sesión guardada del mismo usuario que habilitó la reanudación
+     * y el dispositivo todavía puede desbloquear
+     */
+    public boolean puedeReanudar(FirebaseUser user) {
+        if (user == null || user.getEmail() == null) return false;
+        return user.getEmail().equals(prefs.getString(KEY_EMAIL, null)) && dispositivoPermiteDesbloqueo();
+    }
+
+    // ---------------- Tiempo hasta el panel ----------------
+
+    /**
+     * Empieza a medir un camino ({@link #CAMINO_LOGIN} o {@link #CAMINO_REANUDAR})
+     */
+    public void iniciarMedicion(String camino) {
+        caminoMedido = camino;
+        inicioMedicion = SystemClock.elapsedRealtime();
+        if (tramoPanel != null) tramoPanel.terminar("cancelado");
+        tramoPanel = Tracer.iniciar(Tracer.LOGIN, "hastaPanel:" + camino);
+    }
+
+    public void cancelarMedicion() {
+        caminoMedido = null;
+        if (tramoPanel != null) {
+            tramoPanel.terminar("cancelado");
+            tramoPanel = null;
+        }
+    }
+
+    /**
+     * Llamar cuando el panel muestra el perfil del paciente; cierra la medición en curso
+     */
+    public void panelListo() {
+        if (caminoMedido == null) return;
+        long ms = SystemClock.elapsedRealtime() - inicioMedicion;
+        String clave = CAMINO_REANUDAR.equals(caminoMedido) ? KEY_MS_REANUDAR : KEY_MS_LOGIN;
+        prefs.edit().putLong(clave, ms).apply();
+        Log.i(TAG, "Tiempo hasta el panel (" + caminoMedido + "): " + ms + " ms"
+                + " | último login: " + prefs.getLong(KEY_MS_LOGIN, -1) + " ms"
+                + " | última reanudación: " + prefs.getLong(KEY_MS_REANUDAR, -1) + " ms");
+        caminoMedido = null;
+        // Fin del recorrido "Ingresar" -> panel: guardar la traza para analizarla después
+        tramoPanel.terminar();
+        tramoPanel = null;
+        Tracer.volcarEnSegundoPlano(context);
+    }
+
+    /**
+     * Último tiempo hasta el panel del camino indicado, en ms (-1 si nunca se midió)
+     */
+    public long getUltimoTiempoPanel(String camino) {
+        return prefs.getLong(CAMINO_REANUDAR.equals(camino) ? KEY_MS_REANUDAR : KEY_MS_LOGIN, -1);
+    }
+}
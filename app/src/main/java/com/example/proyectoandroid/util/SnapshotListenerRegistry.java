@@ -0,0 +1,233 @@
+package com.example.proyectoandroid.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de listeners compartidos con conteo de referencias: una sola fuente (p.ej. un
+ * listener de Firestore) por clave de consulta, sin importar cuántos suscriptores la pidan.
+ *
+ * - La fuente se abre con el primer suscriptor y se cierra cuando se va el último.
+ * - Cada valor emitido se reparte a todos los suscriptores de esa clave.
+ * - Un suscriptor que llega tarde recibe de inmediato el último valor emitido.
+ *
+ * Es thread-safe. Los valores se entregan fuera del lock, en el hilo que emite (o en el que
+ * se suscribe, para la repetición del último valor), así que un suscriptor puede cancelarse
+ * desde su propio callback.
+ */
+public class SnapshotListenerRegistry<V> {
+
+    /**
+     * Abre la fuente real. Debe entregar cada valor nuevo al emisor.
+     */
+    public interface Fuente<V> {
+        Cancelable abrir(Emisor<V> emisor);
+    }
+
+    public interface Emisor<V> {
+        void emitir(V valor);
+    }
+
+    public interface Suscriptor<V> {
+        void onValor(V valor);
+    }
+
+    public interface Cancelable {
+        void cancelar();
+    }
+
+    /**
+     * Adapta el último valor antes de repetirlo a un suscriptor nuevo
+     * (p.ej. convertir cambios incrementales en una carga completa)
+     */
+    public interface Repeticion<V> {
+        V paraNuevoSuscriptor(V ultimo);
+    }
+
+    private final Object lock = new Object();
+    private final Map<String, Entrada<V>> entradas = new HashMap<>();
+    private final Repeticion<V> repeticion;
+
+    public SnapshotListenerRegistry() {
+        this(ultimo -> ultimo);
+    }
+
+    public SnapshotListenerRegistry(Repeticion<V> repeticion) {
+        this.repeticion = repeticion;
+    }
+
+    /**
+     * Suscribe a la consulta identificada por la clave. Si no hay una fuente abierta para
+     * esa clave, se abre con {@code fuente}; si ya existe, se reutiliza (y {@code fuente} se ignora).
+     */
+    public Suscripcion suscribir(String clave, Fuente<V> fuente, Suscriptor<V> suscriptor) {
+        Entrada<V> entrada;
+        Suscripcion suscripcion;
+        boolean abrir;
+        V ultimo;
+        synchronized (lock) {
+            entrada = entradas.get(clave);
+            abrir = entrada == null;
+            if (abrir) {
+                entrada = new Entrada<>(clave);
+                entradas.put(clave, entrada);
+            }
+            suscripcion = new Suscripcion(entrada, suscriptor);
+            entrada.suscripciones.add(suscripcion);
+            ultimo = entrada.tieneValor ? entrada.ultimo : null;
+        }
+
+        if (abrir) {
+            // La fuente se abre fuera del lock: puede emitir de forma síncrona
+            Entrada<V> abierta = entrada;
+            Cancelable cancelable = fuente.abrir(valor -> emitir(abierta, valor));
+            boolean cerrarYa;
+            synchronized (lock) {
+                abierta.cancelable = cancelable;
+                cerrarYa = abierta.cerrada;
+            }
+            if (cerrarYa && cancelable != null) {
+                // Todos los suscriptores se fueron mientras se abría
+                cancelable.cancelar();
+            }
+        } else if (ultimo != null) {
+            suscripcion.entregar(repeticion.paraNuevoSuscriptor(ultimo));
+        }
+        return suscripcion;
+    }
+
+    /**
+     * Cantidad de fuentes abiertas (una por clave con al menos un suscriptor)
+     */
+    public int fuentesAbiertas() {
+        synchronized (lock) {
+            return entradas.size();
+        }
+    }
+
+    /**
+     * Cantidad de suscriptores de la clave (0 si no hay fuente abierta)
+     */
+    public int suscriptores(String clave) {
+        synchronized (lock) {
+            Entrada<V> entrada = entradas.get(clave);
+            return entrada != null ? entrada.suscripciones.size() : 0;
+        }
+    }
+
+    /**
+     * Cierra todas las fuentes y descarta a sus suscriptores (p.ej. al cerrar sesión)
+     */
+    public void cerrarTodas() {
+        List<Entrada<V>> cerradas;
+        synchronized (lock) {
+            cerradas = new ArrayList<>(entradas.values());
+            entradas.clear();
+            for (Entrada<V> entrada : cerradas) {
+                for (Suscripcion s : entrada.suscripciones) {
+                    s.activa = false;
+                }
+                entrada.suscripciones.clear();
+                entrada.cerrada = true;
+            }
+        }
+        for (Entrada<V> entrada : cerradas) {
+            if (entrada.cancelable != null) {
+                entrada.cancelable.cancelar();
+            }
+        }
+    }
+
+    private void emitir(Entrada<V> entrada, V valor) {
+        List<Suscripcion> destinatarios;
+        synchronized (lock) {
+            if (entrada.cerrada) {
+                return;
+            }
+            entrada.ultimo = valor;
+            entrada.tieneValor = true;
+            destinatarios = new ArrayList<>(entrada.suscripciones);
+        }
+        for (Suscripcion s : destinatarios) {
+            s.entregar(valor);
+        }
+    }
+
+    private void cancelar(Suscripcion suscripcion) {
+        Cancelable cerrar = null;
+        synchronized (lock) {
+            if (!suscripcion.activa) {
+                return;
+            }
+            suscripcion.activa = false;
+            Entrada<V> entrada = suscripcion.entrada;
+            entrada.suscripciones.remove(suscripcion);
+            if (entrada.suscripciones.isEmpty()) {
+                entrada.cerrada = true;
+                entradas.remove(entrada.clave);
+                // Si la fuente aún se está abriendo, se cancela al terminar de abrirla
+                cerrar = entrada.cancelable;
+            }
+        }
+        if (cerrar != null) {
+            cerrar.cancelar();
+        }
+    }
+
+    private static final class Entrada<V> {
+        final String clave;
+        final List<SnapshotListenerRegistry<V>.Suscripcion> suscripciones = new ArrayList<>();
+        Cancelable cancelable;
+        V ultimo;
+        boolean tieneValor;
+        boolean cerrada;
+
+        Entrada(String clave) {
+            this.clave = clave;
+        }
+    }
+
+    /**
+     * Suscripción de un solo suscriptor. Cancelarla más de una vez no tiene efecto.
+     */
+    public final class Suscripcion implements Cancelable {
+        private final Entrada<V> entrada;
+        private final Suscriptor<V> suscriptor;
+        private volatile boolean activa = true;
+        private volatile boolean recibioValor;
+
+        Suscripcion(Entrada<V> entrada, Suscriptor<V> suscriptor) {
+            this.entrada = entrada;
+            this.suscriptor = suscriptor;
+        }
+
+        /**
+         * false una vez cancelada (o cerrada con {@link #cerrarTodas()})
+         */
+        public boolean isActiva() {
+            return activa;
+        }
+
+        /**
+         * true si este suscriptor ya recibió al menos un valor (en vivo o repetido)
+         */
+        public boolean recibioValor() {
+            return recibioValor;
+        }
+
+        @Override
+        public void cancelar() {
+            SnapshotListenerRegistry.this.cancelar(this);
+        }
+
+        void entregar(V valor) {
+            if (!activa) {
+                return;
+            }
+            recibioValor = true;
+            suscriptor.onValor(valor);
+        }
+    }
+}
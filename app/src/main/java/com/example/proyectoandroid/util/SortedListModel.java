@@ -0,0 +1,138 @@
+package com.example.proyectoandroid.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lista ordenada que se mantiene con cambios individuales (insertar/actualizar/eliminar por id)
+ * en vez de reconstruirse y reordenarse completa en cada snapshot.
+ * La posición de cada elemento se busca por búsqueda binaria (O(log n)).
+ *
+ * No es thread-safe: debe usarse desde un solo hilo (el del listener).
+ */
+public class SortedListModel<T> {
+
+    public interface Identificador<T> {
+        String idDe(T item);
+    }
+
+    private final Comparator<T> orden;
+    private final Identificador<T> identificador;
+    private final List<T> items = new ArrayList<>();
+    private final Map<String, T> porId = new HashMap<>();
+    private List<ChangeSet.Cambio<T>> pendientes = new ArrayList<>();
+    private boolean primeraEntrega = true;
+
+    public SortedListModel(Comparator<T> orden, Identificador<T> identificador) {
+        this.identificador = identificador;
+        // Desempatar por id para que el orden sea total y la búsqueda binaria sea exacta
+        this.orden = orden.thenComparing(identificador::idDe);
+    }
+
+    /**
+     * Inserta el elemento o reemplaza el existente con el mismo id, manteniendo el orden
+     */
+    public void insertarOActualizar(T item) {
+        String id = identificador.idDe(item);
+        T anterior = porId.put(id, item);
+        if (anterior == null) {
+            int hasta = posicionDeInsercion(item);
+            items.add(hasta, item);
+            pendientes.add(new ChangeSet.Cambio<>(ChangeSet.Tipo.INSERTADO, id, item, -1, hasta));
+            return;
+        }
+
+        int desde = Collections.binarySearch(items, anterior, orden);
+        if (orden.compare(anterior, item) == 0) {
+            // Misma posición: reemplazo directo
+            items.set(desde, item);
+            pendientes.add(new ChangeSet.Cambio<>(ChangeSet.Tipo.MODIFICADO, id, item, desde, desde));
+            return;
+        }
+
+        items.remove(desde);
+        int hasta = posicionDeInsercion(item);
+        items.add(hasta, item);
+        pendientes.add(new ChangeSet.Cambio<>(ChangeSet.Tipo.MODIFICADO, id, item, desde, hasta));
+    }
+
+    /**
+     * Elimina el elemento con el id indicado (si existe)
+     */
+    public void eliminar(String id) {
+        T anterior = porId.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        int desde = Collections.binarySearch(items, anterior, orden);
+        items.remove(desde);
+        pendientes.add(new ChangeSet.Cambio<>(ChangeSet.Tipo.ELIMINADO, id, null, desde, -1));
+    }
+
+    /**
+     * Deja en la lista exactamente los elementos indicados: elimina los que no vienen (salvo
+     * los ids de {@code conservar}) e inserta o actualiza el resto
+     */
+    public void reemplazar(List<T> nuevos, Set<String> conservar) {
+        Set<String> ids = new HashSet<>();
+        for (T item : nuevos) {
+            ids.add(identificador.idDe(item));
+        }
+        // De atrás hacia adelante: quitar un elemento no desplaza los que faltan por revisar
+        for (int i = items.size() - 1; i >= 0; i--) {
+            String id = identificador.idDe(items.get(i));
+            if (!ids.contains(id) && !conservar.contains(id)) {
+                eliminar(id);
+            }
+        }
+        for (T item : nuevos) {
+            insertarOActualizar(item);
+        }
+    }
+
+    /**
+     * Devuelve el elemento con el id indicado, o null
+     */
+    public T obtener(String id) {
+        return porId.get(id);
+    }
+
+    /**
+     * Devuelve el elemento en la posición indicada
+     */
+    public T get(int posicion) {
+        return items.get(posicion);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Confirma los cambios acumulados y devuelve una copia de la lista con los cambios aplicados.
+     * La primera confirmación se marca como carga completa.
+     */
+    public ChangeSet<T> confirmar() {
+        ChangeSet<T> resultado;
+        if (primeraEntrega) {
+            resultado = ChangeSet.completo(new ArrayList<>(items));
+            primeraEntrega = false;
+        } else {
+            resultado = new ChangeSet<>(new ArrayList<>(items), pendientes, false);
+        }
+        pendientes = new ArrayList<>();
+        return resultado;
+    }
+
+    private int posicionDeInsercion(T item) {
+        int pos = Collections.binarySearch(items, item, orden);
+        // El id es único, así que nunca se encuentra: binarySearch devuelve (-(insercion) - 1)
+        return pos < 0 ? -(pos + 1) : pos;
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.proyectoandroid.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Grafo de inicialización de la app: cada dependencia se declara con su modo y las que
+ * necesita antes, y se ejecuta apenas estas terminan.
+ *
+ * - {@link Modo#INMEDIATO}: en el mismo hilo, dentro de {@link #iniciar()} (solo lo
+ *   imprescindible antes de la primera pantalla; solo puede depender de otros inmediatos).
+ * - {@link Modo#FONDO}: en el executor de fondo, en paralelo con la primera pantalla.
+ * - {@link Modo#DIFERIDO}: en el executor principal, recién después de
+ *   {@link #liberarDiferidos()} (p.ej. al dibujarse el primer frame).
+ *
+ * También registra hitos del arranque (ms según el reloj, p.ej. desde que nació el proceso).
+ * Si un inicializador falla, el error queda en {@link #getErrores()} y sus dependientes
+ * siguen adelante.
+ */
+public class StartupGraph {
+
+    public enum Modo { INMEDIATO, FONDO, DIFERIDO }
+
+    public interface Inicializador {
+        void iniciar();
+    }
+
+    public interface Reloj {
+        long ahora();
+    }
+
+    private static final class Nodo {
+        final String nombre;
+        final Modo modo;
+        final Inicializador inicializador;
+        final String[] dependencias;
+        final List<Nodo> dependientes = new ArrayList<>();
+        final List<Runnable> alTerminar = new ArrayList<>();
+        int pendientes;
+        boolean lanzado;
+        boolean listo;
+
+        Nodo(String nombre, Modo modo, Inicializador inicializador, String[] dependencias) {
+            this.nombre = nombre;
+            this.modo = modo;
+            this.inicializador = inicializador;
+            this.dependencias = dependencias;
+        }
+    }
+
+    private final Executor principal;
+    private final Executor fondo;
+    private final Reloj reloj;
+    private final Map<String, Nodo> nodos = new LinkedHashMap<>();
+    private final Map<String, Long> hitos = new LinkedHashMap<>();
+    private final Map<String, Throwable> errores = new LinkedHashMap<>();
+    private boolean iniciado;
+    private boolean diferidosLiberados;
+
+    public StartupGraph(Executor principal, Executor fondo, Reloj reloj) {
+        this.principal = principal;
+        this.fondo = fondo;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Declara una dependencia; las nombradas en {@code dependencias} deben declararse también
+     */
+    public synchronized StartupGraph agregar(String nombre, Modo modo, Inicializador inicializador,
+                                             String... dependencias) {
+        if (iniciado) throw new IllegalStateException("El grafo ya se inició");
+        if (nodos.containsKey(nombre)) throw new IllegalArgumentException("Inicializador repetido: " + nombre);
+        nodos.put(nombre, new Nodo(nombre, modo, inicializador, dependencias));
+        return this;
+    }
+
+    /**
+     * Valida el grafo, ejecuta los inmediatos y lanza los de fondo que no esperan a nadie
+     */
+    public void iniciar() {
+        List<Nodo> listos = new ArrayList<>();
+        synchronized (this) {
+            if (iniciado) return;
+            iniciado = true;
+            for (Nodo nodo : nodos.values()) {
+                for (String nombre : nodo.dependencias) {
+                    Nodo dependencia = nodos.get(nombre);
+                    if (dependencia == null) {
+                        throw new IllegalStateException(nodo.nombre + " depende de " + nombre + ", que no está declarado");
+                    }
+                    if (nodo.modo == Modo.INMEDIATO && dependencia.modo != Modo.INMEDIATO) {
+                        throw new IllegalStateException(nodo.nombre + " es inmediato y no puede esperar a " + nombre);
+                    }
+                    dependencia.dependientes.add(nodo);
+                    nodo.pendientes++;
+                }
+            }
+            verificarCiclos();
+            for (Nodo nodo : nodos.values()) {
+                if (nodo.pendientes == 0) listos.add(nodo);
+            }
+        }
+        lanzar(listos);
+    }
+
+    /**
+     * Permite correr los inicializadores diferidos (los que ya no esperan a nadie parten ahora)
+     */
+    public void liberarDiferidos() {
+        List<Nodo> listos = new ArrayList<>();
+        synchronized (this) {
+            if (diferidosLiberados) return;
+            diferidosLiberados = true;
+            for (Nodo nodo : nodos.values()) {
+                if (nodo.modo == Modo.DIFERIDO && nodo.pendientes == 0) listos.add(nodo);
+            }
+        }
+        lanzar(listos);
+    }
+
+    /**
+     * Ejecuta {@code accion} en el executor principal cuando el inicializador haya terminado
+     * (de inmediato si ya terminó)
+     */
+    public void cuandoEsteListo(String nombre, Runnable accion) {
+        synchronized (this) {
+            Nodo nodo = nodos.get(nombre);
+            if (nodo == null) throw new IllegalArgumentException("Inicializador desconocido: " + nombre);
+            if (!nodo.listo) {
+                nodo.alTerminar.add(accion);
+                return;
+            }
+        }
+        principal.execute(accion);
+    }
+
+    public synchronized boolean estaListo(String nombre) {
+        Nodo nodo = nodos.get(nombre);
+        return nodo != null && nodo.listo;
+    }
+
+    /**
+     * Registra un hito del arranque (solo la primera vez que se marca)
+     */
+    public synchronized void marcar(String hito) {
+        if (!hitos.containsKey(hito)) {
+            hitos.put(hito, reloj.ahora());
+        }
+    }
+
+    /**
+     * Hitos en el orden en que ocurrieron; cada inicializador agrega "nombre" al terminar
+     */
+    public synchronized Map<String, Long> getHitos() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(hitos));
+    }
+
+    public synchronized Map<String, Throwable> getErrores() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(errores));
+    }
+
+    private void lanzar(List<Nodo> candidatos) {
+        for (Nodo nodo : candidatos) {
+            synchronized (this) {
+                if (nodo.lanzado || (nodo.modo == Modo.DIFERIDO && !diferidosLiberados)) continue;
+                nodo.lanzado = true;
+            }
+            switch (nodo.modo) {
+                case INMEDIATO:
+                    ejecutar(nodo);
+                    break;
+                case FONDO:
+                    fondo.execute(() -> ejecutar(nodo));
+                    break;
+                case DIFERIDO:
+                    principal.execute(() -> ejecutar(nodo));
+                    break;
+            }
+        }
+    }
+
+    private void ejecutar(Nodo nodo) {
+        Throwable error = null;
+        try {
+            nodo.inicializador.iniciar();
+        } catch (RuntimeException e) {
+            error = e;
+        }
+
+        List<Nodo> listos = new ArrayList<>();
+        List<Runnable> acciones;
+        synchronized (this) {
+            if (error != null) errores.put(nodo.nombre, error);
+            nodo.listo = true;
+            marcar(nodo.nombre);
+            for (Nodo dependiente : nodo.dependientes) {
+                if (--dependiente.pendientes == 0) listos.add(dependiente);
+            }
+            acciones = new ArrayList<>(nodo.alTerminar);
+            nodo.alTerminar.clear();
+        }
+        lanzar(listos);
+        for (Runnable accion : acciones) {
+            principal.execute(accion);
+        }
+    }
+
+    /**
+     * Un ciclo dejaría esos inicializadores esperando para siempre
+     */
+    private void verificarCiclos() {
+        Map<Nodo, Integer> restantes = new HashMap<>();
+        List<Nodo> sinPendientes = new ArrayList<>();
+        for (Nodo nodo : nodos.values()) {
+            restantes.put(nodo, nodo.pendientes);
+            if (nodo.pendientes == 0) sinPendientes.add(nodo);
+        }
+        int visitados = 0;
+        while (!sinPendientes.isEmpty()) {
+            Nodo nodo = sinPendientes.remove(sinPendientes.size() - 1);
+            visitados++;
+            for (Nodo dependiente : nodo.dependientes) {
+                int quedan = restantes.get(dependiente) - 1;
+                restantes.put(dependiente, quedan);
+                if (quedan == 0) sinPendientes.add(dependiente);
+            }
+        }
+        if (visitados < nodos.size()) {
+            throw new IllegalStateException("Dependencias circulares en el arranque");
+        }
+    }
+}
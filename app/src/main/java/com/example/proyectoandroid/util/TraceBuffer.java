@@ -0,0 +1,183 @@
+package com.example.proyectoandroid.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anillo de tramos de tiempo ya terminados (los últimos {@code capacidad}; los más antiguos
+ * se descartan) que se puede volcar en formato Chrome Trace (JSON), legible en
+ * chrome://tracing o ui.perfetto.dev.
+ *
+ * Cada tramo se escribe como evento asíncrono ("b"/"e") con su propio id, porque la mayoría
+ * empieza en un hilo y termina en un callback que no anida con los demás.
+ */
+public class TraceBuffer {
+
+    /**
+     * Un tramo terminado; tiempos en microsegundos de un reloj monótono
+     */
+    public static final class Tramo {
+        public final long id;
+        public final String categoria;
+        public final String nombre;
+        public final long inicioMicros;
+        public final long duracionMicros;
+        public final long hilo;
+        public final String nombreHilo;
+        // Opcional (p.ej. "error", "cancelado")
+        public final String resultado;
+
+        public Tramo(long id, String categoria, String nombre, long inicioMicros, long duracionMicros,
+                     long hilo, String nombreHilo, String resultado) {
+            this.id = id;
+            this.categoria = categoria;
+            this.nombre = nombre;
+            this.inicioMicros = inicioMicros;
+            this.duracionMicros = duracionMicros;
+            this.hilo = hilo;
+            this.nombreHilo = nombreHilo;
+            this.resultado = resultado;
+        }
+    }
+
+    private final Tramo[] anillo;
+    private int siguiente;
+    private int cantidad;
+    private long descartados;
+
+    public TraceBuffer(int capacidad) {
+        if (capacidad <= 0) throw new IllegalArgumentException("capacidad debe ser > 0");
+        anillo = new Tramo[capacidad];
+    }
+
+    public synchronized void agregar(Tramo tramo) {
+        if (cantidad == anillo.length) {
+            descartados++;
+        } else {
+            cantidad++;
+        }
+        anillo[siguiente] = tramo;
+        siguiente = (siguiente + 1) % anillo.length;
+    }
+
+    /**
+     * Tramos guardados, del más antiguo al más reciente
+     */
+    public synchronized List<Tramo> getTramos() {
+        List<Tramo> tramos = new ArrayList<>(cantidad);
+        int primero = (siguiente - cantidad + anillo.length) % anillo.length;
+        for (int i = 0; i < cantidad; i++) {
+            tramos.add(anillo[(primero + i) % anillo.length]);
+        }
+        return tramos;
+    }
+
+    /**
+     * Tramos que ya no caben y se perdieron desde la última limpieza
+     */
+    public synchronized long getDescartados() {
+        return descartados;
+    }
+
+    public synchronized void limpiar() {
+        Arrays.fill(anillo, null);
+        siguiente = 0;
+        cantidad = 0;
+        descartados = 0;
+    }
+
+    /**
+     * Escribe los tramos como Chrome Trace: {"traceEvents":[...]} con el nombre de cada hilo
+     */
+    public void escribirChromeTrace(Writer salida, long pid) throws IOException {
+        List<Tramo> tramos = getTramos();
+        long perdidos = getDescartados();
+
+        salida.write("{\"displayTimeUnit\":\"ms\",\"otherData\":{\"descartados\":");
+        salida.write(Long.toString(perdidos));
+        salida.write("},\"traceEvents\":[");
+
+        boolean primero = true;
+        Map<Long, String> hilos = new LinkedHashMap<>();
+        for (Tramo tramo : tramos) {
+            if (!hilos.containsKey(tramo.hilo)) hilos.put(tramo.hilo, tramo.nombreHilo);
+        }
+        for (Map.Entry<Long, String> hilo : hilos.entrySet()) {
+            primero = separar(salida, primero);
+            salida.write("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":");
+            salida.write(Long.toString(pid));
+            salida.write(",\"tid\":");
+            salida.write(Long.toString(hilo.getKey()));
+            salida.write(",\"args\":{\"name\":");
+            escribirTexto(salida, hilo.getValue());
+            salida.write("}}");
+        }
+        for (Tramo tramo : tramos) {
+            primero = separar(salida, primero);
+            escribirEvento(salida, tramo, pid, "b", tramo.inicioMicros);
+            salida.write(',');
+            escribirEvento(salida, tramo, pid, "e", tramo.inicioMicros + tramo.duracionMicros);
+        }
+        salida.write("]}");
+        salida.flush();
+    }
+
+    private static boolean separar(Writer salida, boolean primero) throws IOException {
+        if (!primero) salida.write(',');
+        return false;
+    }
+
+    private static void escribirEvento(Writer salida, Tramo tramo, long pid, String fase, long ts)
+            throws IOException {
+        salida.write("{\"ph\":\"");
+        salida.write(fase);
+        salida.write("\",\"cat\":");
+        escribirTexto(salida, tramo.categoria);
+        salida.write(",\"name\":");
+        escribirTexto(salida, tramo.nombre);
+        salida.write(",\"id\":");
+        salida.write(Long.toString(tramo.id));
+        salida.write(",\"pid\":");
+        salida.write(Long.toString(pid));
+        salida.write(",\"tid\":");
+        salida.write(Long.toString(tramo.hilo));
+        salida.write(",\"ts\":");
+        salida.write(Long.toString(ts));
+        if (fase.equals("e") && tramo.resultado != null) {
+            salida.write(",\"args\":{\"resultado\":");
+            escribirTexto(salida, tramo.resultado);
+            salida.write('}');
+        }
+        salida.write('}');
+    }
+
+    static void escribirTexto(Writer salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.write("null");
+            return;
+        }
+        salida.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': salida.write("\\\""); break;
+                case '\\': salida.write("\\\\"); break;
+                case '\n': salida.write("\\n"); break;
+                case '\r': salida.write("\\r"); break;
+                case '\t': salida.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        salida.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        salida.write(c);
+                    }
+            }
+        }
+        salida.write('"');
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.proyectoandroid.util;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Process;
+import android.os.Trace;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Medición de tramos (login, pantallas, consultas) para saber dónde se va el tiempo.
+ *
+ * Cada tramo se publica como sección asíncrona de android.os.Trace (visible en Perfetto y
+ * systrace, Android 10+) y al terminar queda en un anillo en memoria que se vuelca como
+ * Chrome Trace con {@link #volcar(File)}, sin necesidad de conectar un perfilador.
+ *
+ * Se puede usar desde cualquier hilo; un tramo puede terminar en otro hilo que el que lo inició.
+ */
+public final class Tracer {
+    private static final String TAG = "Tracer";
+
+    // Categorías
+    public static final String UI = "ui";
+    public static final String LOGIN = "login";
+    public static final String FIRESTORE = "firestore";
+    public static final String SQLITE = "sqlite";
+
+    private static final int CAPACIDAD = 2048;
+    // android.os.Trace no admite nombres de más de 127 caracteres
+    private static final int MAX_NOMBRE_SECCION = 127;
+    private static final String ARCHIVO = "traza.json";
+
+    private static final TraceBuffer buffer = new TraceBuffer(CAPACIDAD);
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    private Tracer() {}
+
+    /**
+     * Tramo en curso; terminar() lo registra (solo la primera vez)
+     */
+    public static final class Span {
+        private final int id;
+        private final String categoria;
+        private final String nombre;
+        private final String seccion;
+        private final long inicioNanos;
+        private final long hilo;
+        private final String nombreHilo;
+        private final AtomicBoolean terminado = new AtomicBoolean();
+
+        private Span(String categoria, String nombre) {
+            this.id = ids.incrementAndGet();
+            this.categoria = categoria;
+            this.nombre = nombre;
+            String completo = categoria + ":" + nombre;
+            this.seccion = completo.length() > MAX_NOMBRE_SECCION
+                    ? completo.substring(0, MAX_NOMBRE_SECCION) : completo;
+            Thread actual = Thread.currentThread();
+            this.hilo = actual.getId();
+            this.nombreHilo = actual.getName();
+            this.inicioNanos = System.nanoTime();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.beginAsyncSection(seccion, id);
+            }
+        }
+
+        public void terminar() {
+            terminar(null);
+        }
+
+        /**
+         * @param resultado opcional, p.ej. "error" o "cancelado"
+         */
+        public void terminar(String resultado) {
+            if (!terminado.compareAndSet(false, true)) return;
+            long duracion = System.nanoTime() - inicioNanos;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(seccion, id);
+            }
+            buffer.agregar(new TraceBuffer.Tramo(id, categoria, nombre, inicioNanos / 1000,
+                    duracion / 1000, hilo, nombreHilo, resultado));
+        }
+    }
+
+    public static Span iniciar(String categoria, String nombre) {
+        return new Span(categoria, nombre);
+    }
+
+    /**
+     * Mide una tarea de Firestore/Auth desde ahora hasta que se completa; devuelve la misma tarea
+     */
+    public static <T> Task<T> medir(String categoria, String nombre, Task<T> tarea) {
+        Span span = iniciar(categoria, nombre);
+        tarea.addOnCompleteListener(t -> span.terminar(
+                t.isCanceled() ? "cancelado" : t.isSuccessful() ? null : "error"));
+        return tarea;
+    }
+
+    public static <T> Task<T> medir(String nombre, Task<T> tarea) {
+        return medir(FIRESTORE, nombre, tarea);
+    }
+
+    public static TraceBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Escribe los tramos guardados en {@code directorio}/traza.json (reemplaza el anterior).
+     * Hace E/S: no llamar desde el hilo principal.
+     */
+    public static File volcar(File directorio) throws IOException {
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            throw new IOException("No se pudo crear " + directorio);
+        }
+        File temporal = new File(directorio, ARCHIVO + ".tmp");
+        try (Writer salida = new OutputStreamWriter(new FileOutputStream(temporal), StandardCharsets.UTF_8)) {
+            buffer.escribirChromeTrace(salida, Process.myPid());
+        }
+        File destino = new File(directorio, ARCHIVO);
+        if (!temporal.renameTo(destino)) {
+            throw new IOException("No se pudo reemplazar " + destino);
+        }
+        return destino;
+    }
+
+    /**
+     * Vuelca la traza en files/trazas/ en un hilo aparte
+     */
+    public static void volcarEnSegundoPlano(Context context) {
+        File directorio = new File(context.getApplicationContext().getFilesDir(), "trazas");
+        new Thread(() -> {
+            try {
+                File archivo = volcar(directorio);
+                Log.i(TAG, "Traza guardada en " + archivo.getAbsolutePath());
+            } catch (IOException e) {
+                Log.w(TAG, "No se pudo guardar la traza", e);
+            }
+        }, "volcado-traza").start();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.proyectoandroid.util;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caché en memoria con capacidad máxima (descarta el menos usado) y vencimiento por entrada.
+ * Cuenta aciertos y fallos de {@link #get(Object)}.
+ *
+ * Los valores no pueden ser null: null en {@link #get(Object)} significa que no está o venció.
+ * Para recordar un resultado negativo, usa un valor centinela.
+ *
+ * Es thread-safe.
+ */
+public class TtlLruCache<K, V> {
+
+    /**
+     * Fuente de la hora actual en milisegundos (inyectable en tests)
+     */
+    public interface Reloj {
+        long ahora();
+    }
+
+    private final int capacidad;
+    private final Reloj reloj;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    private long aciertos;
+    private long fallos;
+
+    public TtlLruCache(int capacidad) {
+        this(capacidad, System::currentTimeMillis);
+    }
+
+    public TtlLruCache(int capacidad, Reloj reloj) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("capacidad debe ser positiva");
+        }
+        this.capacidad = capacidad;
+        this.reloj = reloj;
+        // accessOrder = true: cada get mueve la entrada al final (la más reciente)
+        this.entradas = new LinkedHashMap<K, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                return size() > TtlLruCache.this.capacidad;
+            }
+        };
+    }
+
+    /**
+     * Valor vigente de la clave, o null si no está o ya venció
+     */
+    public synchronized V get(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada != null && entrada.expira > reloj.ahora()) {
+            aciertos++;
+            return entrada.valor;
+        }
+        if (entrada != null) {
+            entradas.remove(clave);
+        }
+        fallos++;
+        return null;
+    }
+
+    /**
+     * Guarda el valor por {@code ttlMs} milisegundos desde ahora
+     */
+    public void put(K clave, V valor, long ttlMs) {
+        putHasta(clave, valor, reloj.ahora() + ttlMs);
+    }
+
+    /**
+     * Guarda el valor hasta el instante absoluto {@code expira} (p.ej. al restaurar desde disco)
+     */
+    public synchronized void putHasta(K clave, V valor, long expira) {
+        if (valor == null) {
+            throw new IllegalArgumentException("valor no puede ser null");
+        }
+        if (expira <= reloj.ahora()) {
+            entradas.remove(clave);
+            return;
+        }
+        entradas.put(clave, new Entrada<>(valor, expira));
+    }
+
+    public synchronized void remove(K clave) {
+        entradas.remove(clave);
+    }
+
+    public synchronized void clear() {
+        entradas.clear();
+    }
+
+    /**
+     * Quita las entradas vencidas y devuelve cuántas quedan
+     */
+    public synchronized int purgar() {
+        long ahora = reloj.ahora();
+        Iterator<Entrada<V>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expira <= ahora) {
+                it.remove();
+            }
+        }
+        return entradas.size();
+    }
+
+    /**
+     * Claves presentes (vigentes o no), sin contar aciertos ni cambiar el orden de uso
+     */
+    public synchronized Set<K> claves() {
+        return new HashSet<>(entradas.keySet());
+    }
+
+    public synchronized int size() {
+        return entradas.size();
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    private static final class Entrada<V> {
+        final V valor;
+        final long expira;
+
+        Entrada(V valor, long expira) {
+            this.valor = valor;
+            this.expira = expira;
+        }
+    }
+}
@@ -242,6 +242,16 @@ public class AgendarCitaActivity extends BaseActivity {
                 finish();
             }
         });
+
+        // Sin conexión: quedó guardado en el dispositivo y se enviará al reconectar
+        viewModel.getBandejaSalida().getGuardadoSinConexion().observe(this, guardado -> {
+            if (guardado != null && guardado) {
+                mostrarExito(getString(R.string.cita_guardada_sin_conexion));
+                finish();
+            }
+        });
+
+        // Lo que sigue en la bandeja de salida (y lo que quedó con error) a la vista
+        BandejaSalidaPanel.enlazar(this, findViewById(R.id.btnBandejaSalida), viewModel.getBandejaSalida());
     }
 }
-
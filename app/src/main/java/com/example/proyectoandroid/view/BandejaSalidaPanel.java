@@ -0,0 +1,78 @@
+package com.example.proyectoandroid.view;
+
+import android.view.View;
+import android.widget.Button;
+
+import androidx.appcompat.app.AlertDialog;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.OperacionPendiente;
+import com.example.proyectoandroid.util.DateUtils;
+import com.example.proyectoandroid.viewmodel.BandejaSalida;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aviso de la bandeja de salida en los formularios: cuántos registros guardados sin conexión
+ * faltan por enviar y cuántos quedaron con error. Al tocarlo se listan, y cada uno se puede
+ * reintentar o descartar.
+ */
+final class BandejaSalidaPanel {
+
+    private BandejaSalidaPanel() {}
+
+    static void enlazar(BaseActivity activity, Button boton, BandejaSalida bandeja) {
+        if (boton == null) return;
+        bandeja.getOperaciones().observe(activity, operaciones -> {
+            if (operaciones == null || operaciones.isEmpty()) {
+                boton.setVisibility(View.GONE);
+                return;
+            }
+            int conError = 0;
+            for (OperacionPendiente op : operaciones) {
+                if (OperacionPendiente.ESTADO_ERROR.equals(op.getEstado())) conError++;
+            }
+            boton.setText(conError == 0
+                    ? activity.getString(R.string.bandeja_por_enviar, operaciones.size())
+                    : activity.getString(R.string.bandeja_por_enviar_con_error, operaciones.size(), conError));
+            boton.setVisibility(View.VISIBLE);
+            boton.setOnClickListener(v -> mostrarLista(activity, operaciones, bandeja));
+        });
+    }
+
+    private static void mostrarLista(BaseActivity activity, List<OperacionPendiente> operaciones,
+                                     BandejaSalida bandeja) {
+        List<OperacionPendiente> copia = new ArrayList<>(operaciones);
+        String[] textos = new String[copia.size()];
+        for (int i = 0; i < copia.size(); i++) {
+            textos[i] = describir(activity, copia.get(i));
+        }
+        new AlertDialog.Builder(activity)
+                .setTitle(R.string.bandeja_titulo)
+                .setItems(textos, (dialog, which) -> mostrarAcciones(activity, copia.get(which), bandeja))
+                .setNegativeButton(R.string.btn_cerrar, null)
+                .show();
+    }
+
+    private static void mostrarAcciones(BaseActivity activity, OperacionPendiente op, BandejaSalida bandeja) {
+        new AlertDialog.Builder(activity)
+                .setTitle(describir(activity, op))
+                .setMessage(op.getError() != null ? op.getError() : activity.getString(R.string.bandeja_sin_error))
+                .setPositiveButton(R.string.bandeja_reintentar, (dialog, which) -> bandeja.reintentar(op.getId()))
+                .setNegativeButton(R.string.bandeja_descartar, (dialog, which) ->
+                        activity.mostrarConfirmacion(activity.getString(R.string.bandeja_descartar),
+                                activity.getString(R.string.bandeja_confirmar_descartar),
+                                () -> bandeja.descartar(op.getId()), null))
+                .setNeutralButton(R.string.btn_cancelar, null)
+                .show();
+    }
+
+    private static String describir(BaseActivity activity, OperacionPendiente op) {
+        String tipo = activity.getString(op.esCita() ? R.string.bandeja_tipo_cita : R.string.bandeja_tipo_atencion);
+        String estado = activity.getString(OperacionPendiente.ESTADO_ERROR.equals(op.getEstado())
+                ? R.string.bandeja_estado_error : R.string.bandeja_estado_pendiente);
+        return activity.getString(R.string.bandeja_item, tipo, op.getRutPaciente(),
+                DateUtils.formatDateForDisplay(op.getFecha()), estado);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.proyectoandroid.view;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.ProgressBar;
 import android.widget.Toast;
 
@@ -10,16 +12,25 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Observer;
 
+import com.example.proyectoandroid.MyApp;
 import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.util.BrightnessManager;
+import com.example.proyectoandroid.util.FirestoreLedger;
+import com.example.proyectoandroid.util.StartupGraph;
+import com.example.proyectoandroid.util.Tracer;
 import com.google.android.material.snackbar.Snackbar;
 
 /**
  * Clase base para Activities con funcionalidades comunes
  */
 public abstract class BaseActivity extends AppCompatActivity {
+    private static final String TAG = "BaseActivity";
+    // Solo el primer frame dibujado del proceso cuenta como fin del arranque en frío
+    // (una pantalla recreada antes de dibujar, p.ej. por rotación, no lo consume)
+    private static boolean primerFrameMedido;
     
     protected BrightnessManager brightnessManager;
+    private Tracer.Span tramoOnCreate;
 
     /**
      * Observa errores de un ViewModel y los muestra al usuario
@@ -133,11 +144,64 @@ public abstract class BaseActivity extends AppCompatActivity {
         // Inicializar gestor de brillo
         brightnessManager = BrightnessManager.getInstance();
         brightnessManager.initialize(this);
+        medirPrimerFrame();
+    }
+
+    /**
+     * Tramos "onCreate" y "primer frame" de cada pantalla. Para la primera del proceso además
+     * marca el hito de arranque y recién ahí libera los inicializadores diferidos,
+     * para que no compitan con la primera pantalla
+     */
+    private void medirPrimerFrame() {
+        String pantalla = getClass().getSimpleName();
+        tramoOnCreate = Tracer.iniciar(Tracer.UI, pantalla + ".onCreate");
+        Tracer.Span tramoPrimerFrame = Tracer.iniciar(Tracer.UI, pantalla + ".primerFrame");
+
+        StartupGraph arranque = MyApp.arranque();
+        if (!primerFrameMedido && arranque != null) {
+            arranque.marcar("onCreate:" + pantalla);
+        }
+
+        View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (decor.getViewTreeObserver().isAlive()) {
+                    decor.getViewTreeObserver().removeOnPreDrawListener(this);
+                }
+                // Lo publicado durante el pre-draw corre después de que el frame se dibuja
+                decor.post(() -> {
+                    tramoPrimerFrame.terminar();
+                    if (!primerFrameMedido && arranque != null) {
+                        primerFrameMedido = true;
+                        arranque.marcar("primer_frame:" + pantalla);
+                        arranque.liberarDiferidos();
+                        Log.i(TAG, "Arranque en frío (ms desde el inicio del proceso): " + arranque.getHitos());
+                        if (!arranque.getErrores().isEmpty()) {
+                            Log.w(TAG, "Inicializadores con error: " + arranque.getErrores());
+                        }
+                    }
+                });
+                return true;
+            }
+        });
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Los onCreate de las subclases ya terminaron
+        if (tramoOnCreate != null) {
+            tramoOnCreate.terminar();
+            tramoOnCreate = null;
+        }
     }
     
     @Override
     protected void onResume() {
         super.onResume();
+        // Las consultas a Firestore que empiecen desde ahora se atribuyen a esta pantalla
+        FirestoreLedger.getInstance().setPantallaActual(getClass().getSimpleName());
         // Habilitar ajuste automático de brillo si está disponible y el usuario lo permite
         if (brightnessManager != null && brightnessManager.isSensorAvailable() && brightnessManager.getUserPreference()) {
             brightnessManager.enableAutoBrightness();
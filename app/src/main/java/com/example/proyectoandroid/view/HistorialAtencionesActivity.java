@@ -0,0 +1,123 @@
+package com.example.proyectoandroid.view;
+
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.Button;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatDelegate;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.view.adapter.AtencionAdapter;
+import com.example.proyectoandroid.viewmodel.HistorialAtencionesViewModel;
+import com.google.android.material.button.MaterialButton;
+
+/**
+ * Historial completo de atenciones con scroll infinito: las páginas se piden a medida
+ * que la lista se acerca al final
+ */
+public class HistorialAtencionesActivity extends BaseActivity {
+    private Button btnVolver;
+    private MaterialButton btnModoNoche;
+    private RecyclerView rvHistorial;
+    private TextView tvSinAtenciones;
+    private ProgressBar progressHistorial;
+    private AtencionAdapter adapter;
+    private LinearLayoutManager layoutManager;
+    private HistorialAtencionesViewModel viewModel;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_historial_atenciones);
+
+        // Inicializar ViewModel
+        viewModel = new ViewModelProvider(this).get(HistorialAtencionesViewModel.class);
+
+        // Inicializar UI
+        btnVolver = findViewById(R.id.volver_1);
+        btnModoNoche = findViewById(R.id.btnModoNoche);
+        rvHistorial = findViewById(R.id.rvHistorialAtenciones);
+        tvSinAtenciones = findViewById(R.id.tvSinAtenciones);
+        progressHistorial = findViewById(R.id.progressHistorial);
+
+        // Configurar RecyclerView
+        adapter = new AtencionAdapter();
+        layoutManager = new LinearLayoutManager(this);
+        rvHistorial.setLayoutManager(layoutManager);
+        rvHistorial.setAdapter(adapter);
+
+        // También se llama tras cada layout, así que una primera página corta pide la siguiente.
+        // Al avanzar se descartan páginas del inicio; al volver hacia arriba se piden de nuevo
+        rvHistorial.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int primera = layoutManager.findFirstVisibleItemPosition();
+                int ultima = layoutManager.findLastVisibleItemPosition();
+                if (ultima != RecyclerView.NO_POSITION) {
+                    viewModel.alMostrarRango(primera, ultima);
+                }
+            }
+        });
+
+        // Botón volver
+        if (btnVolver != null) {
+            btnVolver.setOnClickListener(v -> finish());
+        }
+
+        // Botón modo noche
+        if (btnModoNoche != null) {
+            int currentNightMode = getResources().getConfiguration().uiMode & Configuration.UI_MODE_NIGHT_MASK;
+            boolean isNightMode = currentNightMode == Configuration.UI_MODE_NIGHT_YES;
+            btnModoNoche.setText(isNightMode ? getString(R.string.modo_dia_icon) : getString(R.string.modo_noche_icon));
+
+            btnModoNoche.setOnClickListener(v -> {
+                int nightMode = AppCompatDelegate.getDefaultNightMode();
+                if (nightMode == AppCompatDelegate.MODE_NIGHT_YES) {
+                    AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_NO);
+                    btnModoNoche.setText(getString(R.string.modo_noche_icon));
+                } else {
+                    AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_YES);
+                    btnModoNoche.setText(getString(R.string.modo_dia_icon));
+                }
+            });
+        }
+
+        // Vincular GPS footer
+        TextView tvGps = findViewById(R.id.tvGpsEstado);
+        if (tvGps != null) {
+            com.example.proyectoandroid.util.LocationTracker.get().bindTextView(tvGps);
+        }
+
+        // Observar ViewModel
+        observarViewModel();
+
+        // Primera página (o las que ya estaban en memoria)
+        viewModel.cargarHistorial();
+    }
+
+    private void observarViewModel() {
+        viewModel.getAtenciones().observe(this, atenciones -> {
+            // El adapter calcula las diferencias con la lista anterior en segundo plano
+            adapter.setAtenciones(atenciones);
+            if (atenciones != null && !atenciones.isEmpty()) {
+                tvSinAtenciones.setVisibility(View.GONE);
+                rvHistorial.setVisibility(View.VISIBLE);
+            } else {
+                tvSinAtenciones.setVisibility(View.VISIBLE);
+                rvHistorial.setVisibility(View.GONE);
+            }
+        });
+
+        observarCarga(viewModel.getIsLoading(), progressHistorial);
+
+        // Observar errores usando BaseActivity
+        observarErrores(viewModel.getErrorMessage());
+    }
+}
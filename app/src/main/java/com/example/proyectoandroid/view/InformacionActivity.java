@@ -13,6 +13,7 @@ import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.model.Atencion;
 import com.example.proyectoandroid.model.Cita;
 import com.example.proyectoandroid.model.Paciente;
+import com.example.proyectoandroid.util.SessionResumeManager;
 import com.example.proyectoandroid.view.adapter.AtencionAdapter;
 import com.example.proyectoandroid.view.adapter.CitaAdapter;
 import com.example.proyectoandroid.viewmodel.InformacionViewModel;
@@ -141,7 +142,7 @@ public class InformacionActivity extends BaseActivity {
         observarViewModel();
 
         // Cargar datos del paciente
-        viewModel.cargarDatosPaciente();
+        viewModel.cargarDatosPaciente(this);
     }
 
     /**
@@ -150,6 +151,13 @@ public class InformacionActivity extends BaseActivity {
     private void inicializarUI() {
         tvBienvenida = findViewById(R.id.tvBienvenida);
         tvNombrePaciente = findViewById(R.id.tvNombrePaciente);
+        // Depuración: mantener presionado el nombre abre el consumo de Firestore
+        if (LedgerActivity.estaDisponible(this)) {
+            tvNombrePaciente.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, LedgerActivity.class));
+                return true;
+            });
+        }
         tvRutPaciente = findViewById(R.id.tvRutPaciente);
         tvCorreoPaciente = findViewById(R.id.tvCorreoPaciente);
         rvUltimasAtenciones = findViewById(R.id.rvUltimasAtenciones);
@@ -165,6 +173,13 @@ public class InformacionActivity extends BaseActivity {
         citaAdapter = new CitaAdapter();
         rvProximasCitas.setLayoutManager(new LinearLayoutManager(this));
         rvProximasCitas.setAdapter(citaAdapter);
+
+        // Historial completo (paginado) de atenciones
+        MaterialButton btnVerHistorial = findViewById(R.id.btnVerHistorial);
+        if (btnVerHistorial != null) {
+            btnVerHistorial.setOnClickListener(v ->
+                    startActivity(new Intent(this, HistorialAtencionesActivity.class)));
+        }
     }
 
     /**
@@ -183,13 +198,16 @@ public class InformacionActivity extends BaseActivity {
                     tvNombrePaciente.setText(paciente.getNombre() != null ? paciente.getNombre() : getString(R.string.na));
                     tvRutPaciente.setText(paciente.getRut() != null ? paciente.getRut() : getString(R.string.na));
                     tvCorreoPaciente.setText(paciente.getEmail() != null ? paciente.getEmail() : getString(R.string.na));
+                    // Cierra la medición de tiempo hasta el panel (login o reanudación)
+                    SessionResumeManager.getInstance(this).panelListo();
                 }
             });
 
         // Observar atenciones
         viewModel.getAtenciones().observe(this, atenciones -> {
+            // El adapter calcula las diferencias con la lista anterior en segundo plano
+            atencionAdapter.setAtenciones(atenciones);
             if (atenciones != null && !atenciones.isEmpty()) {
-                atencionAdapter.setAtenciones(atenciones);
                 tvSinAtenciones.setVisibility(android.view.View.GONE);
                 rvUltimasAtenciones.setVisibility(android.view.View.VISIBLE);
             } else {
@@ -200,8 +218,9 @@ public class InformacionActivity extends BaseActivity {
 
         // Observar citas
         viewModel.getCitas().observe(this, citas -> {
+            // El adapter calcula las diferencias con la lista anterior en segundo plano
+            citaAdapter.setCitas(citas);
             if (citas != null && !citas.isEmpty()) {
-                citaAdapter.setCitas(citas);
                 tvSinCitas.setVisibility(android.view.View.GONE);
                 rvProximasCitas.setVisibility(android.view.View.VISIBLE);
             } else {
@@ -0,0 +1,139 @@
+package com.example.proyectoandroid.view;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.util.FirestoreLedger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Pantalla de depuración con el consumo de Firestore por pantalla y operación
+ * (ver {@link FirestoreLedger}). Solo se abre en builds depurables.
+ */
+public class LedgerActivity extends BaseActivity {
+
+    private TextView tvTotales;
+    private TextView tvDetalle;
+
+    /**
+     * True si la app es depurable (builds de desarrollo)
+     */
+    public static boolean estaDisponible(Context context) {
+        return (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_ledger);
+
+        tvTotales = findViewById(R.id.tvTotalesLedger);
+        tvDetalle = findViewById(R.id.tvDetalleLedger);
+
+        Button btnVolver = findViewById(R.id.btnVolverLedger);
+        btnVolver.setOnClickListener(v -> finish());
+
+        Button btnActualizar = findViewById(R.id.btnActualizarLedger);
+        btnActualizar.setOnClickListener(v -> mostrar());
+
+        Button btnExportar = findViewById(R.id.btnExportarLedger);
+        btnExportar.setOnClickListener(v -> exportar());
+
+        Button btnReiniciar = findViewById(R.id.btnReiniciarLedger);
+        btnReiniciar.setOnClickListener(v -> mostrarConfirmacion(getString(R.string.ledger_reiniciar_titulo),
+                getString(R.string.ledger_reiniciar_mensaje),
+                () -> {
+                    FirestoreLedger.getInstance().limpiar();
+                    mostrar();
+                }, null));
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        mostrar();
+    }
+
+    private void mostrar() {
+        List<FirestoreLedger.Entrada> entradas = FirestoreLedger.getInstance().getEntradas();
+
+        long facturadas = 0, servidor = 0, cache = 0, escrituras = 0;
+        for (FirestoreLedger.Entrada e : entradas) {
+            facturadas += e.getLecturasFacturadas();
+            servidor += e.getDocsServidor();
+            cache += e.getDocsCache();
+            escrituras += e.getEscrituras();
+        }
+        tvTotales.setText(getString(R.string.ledger_totales, facturadas, servidor, cache, escrituras));
+
+        if (entradas.isEmpty()) {
+            tvDetalle.setText(R.string.ledger_sin_consultas);
+            return;
+        }
+        StringBuilder texto = new StringBuilder();
+        for (FirestoreLedger.Entrada e : entradas) {
+            texto.append(e.pantalla).append(" · ").append(e.operacion).append('\n');
+            texto.append("  ").append(getString(R.string.ledger_llamadas,
+                    e.getLlamadas(), e.getErrores(), e.getLecturasFacturadas(),
+                    e.getDocsServidor(), e.getDocsCache(), e.getEscrituras())).append('\n');
+            if (e.getSnapshots() > 0) {
+                texto.append("  ").append(getString(R.string.ledger_snapshots,
+                        e.getSnapshots(), e.getSnapshotsDesdeCache(),
+                        e.getPromedioSnapshot(), e.getMaxSnapshot())).append('\n');
+            }
+            if (e.getMuestrasLatencia() > 0) {
+                texto.append("  ").append(getString(R.string.ledger_latencia,
+                        e.getLatenciaPromedioMs(), tramo(e.getPercentilMs(0.5)), tramo(e.getPercentilMs(0.95))))
+                        .append('\n');
+                texto.append("  ").append(histograma(e.getHistograma())).append('\n');
+            }
+            texto.append('\n');
+        }
+        tvDetalle.setText(texto.toString());
+    }
+
+    private String tramo(long limiteMs) {
+        long ultimo = FirestoreLedger.LIMITES_MS[FirestoreLedger.LIMITES_MS.length - 1];
+        return limiteMs == Long.MAX_VALUE
+                ? getString(R.string.ledger_mas_de_ms, ultimo)
+                : getString(R.string.ledger_hasta_ms, limiteMs);
+    }
+
+    private static String histograma(long[] conteos) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < conteos.length; i++) {
+            if (i > 0) texto.append("  ");
+            texto.append(i < FirestoreLedger.LIMITES_MS.length
+                    ? "≤" + FirestoreLedger.LIMITES_MS[i]
+                    : ">" + FirestoreLedger.LIMITES_MS[FirestoreLedger.LIMITES_MS.length - 1]);
+            texto.append(':').append(conteos[i]);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Comparte el libro como CSV (correo, Drive, etc.)
+     */
+    private void exportar() {
+        StringWriter csv = new StringWriter();
+        try {
+            FirestoreLedger.getInstance().exportarCsv(csv);
+        } catch (IOException e) {
+            mostrarError(getString(R.string.ledger_error_exportar, e.getMessage()));
+            return;
+        }
+        Intent enviar = new Intent(Intent.ACTION_SEND);
+        enviar.setType("text/csv");
+        enviar.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.ledger_exportar_asunto));
+        enviar.putExtra(Intent.EXTRA_TEXT, csv.toString());
+        startActivity(Intent.createChooser(enviar, getString(R.string.ledger_exportar_titulo)));
+    }
+}
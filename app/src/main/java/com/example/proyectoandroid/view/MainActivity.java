@@ -9,7 +9,9 @@ import android.text.Editable;
 import android.text.InputFilter;
 import android.text.Spanned;
 import android.text.TextWatcher;
+import android.view.View;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -17,15 +19,17 @@ import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatDelegate;
+import androidx.biometric.BiometricPrompt;
 import androidx.core.content.ContextCompat;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.example.proyectoandroid.MyApp;
 import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.model.RutValidation;
+import com.example.proyectoandroid.repository.DashboardPrefetcher;
 import com.example.proyectoandroid.util.LocationTracker;
+import com.example.proyectoandroid.util.SessionResumeManager;
 import com.example.proyectoandroid.viewmodel.LoginViewModel;
-import com.google.firebase.FirebaseApp;
-import com.google.firebase.auth.FirebaseUser;
 
 public class MainActivity extends BaseActivity {
 
@@ -34,10 +38,14 @@ public class MainActivity extends BaseActivity {
     private Button btnIngresar;
     private Button btnRegistrarse;
     private Button btnModoNoche;
+    private CheckBox cbMantenerSesion;
 
     // ViewModel
     private LoginViewModel viewModel;
 
+    // Reanudación de sesión con desbloqueo local
+    private SessionResumeManager sessionResume;
+
     // Permisos de ubicación (para LocationTracker global)
     private ActivityResultLauncher<String[]> permisosUbicacionLauncher;
 
@@ -45,7 +53,8 @@ public class MainActivity extends BaseActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        FirebaseApp.initializeApp(this);
+        // FirebaseApp ya lo inicializa su ContentProvider antes de MyApp; Auth y Firestore
+        // se calientan en segundo plano (MyApp)
 
         // Inicializar ViewModel
         viewModel = new ViewModelProvider(this).get(LoginViewModel.class);
@@ -57,10 +66,23 @@ public class MainActivity extends BaseActivity {
         btnIngresar = findViewById(R.id.btnIngresar);
         btnRegistrarse = findViewById(R.id.btnRegistrarse);
         btnModoNoche = findViewById(R.id.btnModoNoche);
+        cbMantenerSesion = findViewById(R.id.cbMantenerSesion);
+
+        sessionResume = SessionResumeManager.getInstance(this);
+        // Sin huella ni bloqueo de pantalla no hay cómo proteger la sesión guardada
+        if (cbMantenerSesion != null && !sessionResume.dispositivoPermiteDesbloqueo()) {
+            cbMantenerSesion.setVisibility(View.GONE);
+        }
 
         // Observar cambios del ViewModel
         observarViewModel();
 
+        // Sesión guardada: desbloqueo local y directo al panel, sin rut_index ni signIn.
+        // Tras una rotación el propio BiometricPrompt restaura el diálogo.
+        if (savedInstanceState == null && sessionResume.puedeReanudar(viewModel.getCurrentUser())) {
+            desbloquear();
+        }
+
         // -------- GPS global: pedir permisos al entrar y arrancar el tracker --------
         permisosUbicacionLauncher =
                 registerForActivityResult(new ActivityResultContracts.RequestMultiplePermissions(), result -> {
@@ -74,17 +96,8 @@ public class MainActivity extends BaseActivity {
                     }
                 });
 
-        if (tienePermisosUbicacion()) {
-            LocationTracker.get().start();
-        } else {
-            permisosUbicacionLauncher.launch(new String[]{
-                    Manifest.permission.ACCESS_FINE_LOCATION,
-                    Manifest.permission.ACCESS_COARSE_LOCATION
-            });
-        }
-        // Vincula el footer si existe en este layout (no rompe si no está)
-        TextView tvFooter = findViewById(R.id.tvGpsEstado);
-        if (tvFooter != null) LocationTracker.get().bindTextView(tvFooter);
+        // El tracker se crea después del primer frame (inicializador diferido de MyApp)
+        MyApp.arranque().cuandoEsteListo(MyApp.UBICACION, this::iniciarUbicacion);
 
         // --------- RUT: filtro de entrada (solo dígitos + K/k) y mayúsculas automáticas ---------
         InputFilter soloRutChars = new InputFilter() {
@@ -128,6 +141,7 @@ public class MainActivity extends BaseActivity {
             }
 
             // Iniciar sesión a través del ViewModel
+            sessionResume.iniciarMedicion(SessionResumeManager.CAMINO_LOGIN);
             viewModel.iniciarSesion(rut, pass);
         });
 
@@ -181,26 +195,68 @@ public class MainActivity extends BaseActivity {
         // Observar éxito de login
         viewModel.getLoginSuccess().observe(this, success -> {
             if (success != null && success) {
+                if (cbMantenerSesion != null && cbMantenerSesion.isChecked()
+                        && cbMantenerSesion.getVisibility() == View.VISIBLE) {
+                    sessionResume.activar(viewModel.getCurrentUser());
+                } else {
+                    sessionResume.desactivar();
+                }
                 mostrarExito(getString(R.string.login_success));
                 irAInformacion();
             }
         });
     }
 
-    // Comentado: Ya no redirige automáticamente si hay usuario autenticado
-    // El usuario debe iniciar sesión manualmente cada vez
-    // @Override
-    // protected void onStart() {
-    //     super.onStart();
-    //     FirebaseUser current = viewModel.getCurrentUser();
-    //     if (current != null) irAInformacion();
-    // }
+    // No se redirige automáticamente con la sesión de FirebaseAuth: solo si el usuario
+    // habilitó "Mantener sesión", y siempre tras el desbloqueo local (ver desbloquear())
+
+    /**
+     * Pide huella o credencial del dispositivo; si se cancela queda el login normal
+     */
+    private void desbloquear() {
+        BiometricPrompt prompt = new BiometricPrompt(this, ContextCompat.getMainExecutor(this),
+                new BiometricPrompt.AuthenticationCallback() {
+                    @Override
+                    public void onAuthenticationSucceeded(BiometricPrompt.AuthenticationResult result) {
+                        // Se mide desde el desbloqueo, como el login desde "Ingresar": el tiempo
+                        // que la persona tarda en poner la huella no cuenta en la comparación
+                        sessionResume.iniciarMedicion(SessionResumeManager.CAMINO_REANUDAR);
+                        DashboardPrefetcher.getInstance().iniciar();
+                        irAInformacion();
+                    }
+
+                    @Override
+                    public void onAuthenticationError(int errorCode, CharSequence errString) {
+                        sessionResume.cancelarMedicion();
+                    }
+                });
+        prompt.authenticate(new BiometricPrompt.PromptInfo.Builder()
+                .setTitle(getString(R.string.desbloquear_titulo))
+                .setSubtitle(getString(R.string.desbloquear_subtitulo))
+                .setAllowedAuthenticators(SessionResumeManager.AUTENTICADORES)
+                .build());
+    }
 
     private void irAInformacion() {
         startActivity(new Intent(MainActivity.this, InformacionActivity.class));
         finish(); // no volver al login con back
     }
 
+    private void iniciarUbicacion() {
+        if (isFinishing() || isDestroyed()) return;
+        if (tienePermisosUbicacion()) {
+            LocationTracker.get().start();
+        } else {
+            permisosUbicacionLauncher.launch(new String[]{
+                    Manifest.permission.ACCESS_FINE_LOCATION,
+                    Manifest.permission.ACCESS_COARSE_LOCATION
+            });
+        }
+        // Vincula el footer si existe en este layout (no rompe si no está)
+        TextView tvFooter = findViewById(R.id.tvGpsEstado);
+        if (tvFooter != null) LocationTracker.get().bindTextView(tvFooter);
+    }
+
     // ----------------- Permisos ubicación helper -----------------
     private boolean tienePermisosUbicacion() {
         int fine   = ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION);
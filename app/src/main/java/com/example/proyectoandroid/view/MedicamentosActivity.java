@@ -79,13 +79,14 @@ public class MedicamentosActivity extends BaseActivity {
         observarViewModel();
 
         // Cargar medicamentos (con actualización en tiempo real)
-        viewModel.cargarMedicamentos();
+        viewModel.cargarMedicamentos(this);
     }
 
     private void observarViewModel() {
         viewModel.getMedicamentos().observe(this, medicamentos -> {
+            // El adapter calcula las diferencias con la lista anterior en segundo plano
+            adapter.setMedicamentos(medicamentos);
             if (medicamentos != null && !medicamentos.isEmpty()) {
-                adapter.setMedicamentos(medicamentos);
                 tvSinMedicamentos.setVisibility(View.GONE);
                 rvMedicamentos.setVisibility(View.VISIBLE);
             } else {
@@ -145,6 +145,16 @@ public class RegistrarAtencionActivity extends BaseActivity {
                 finish();
             }
         });
+
+        // Sin conexión: quedó guardado en el dispositivo y se enviará al reconectar
+        viewModel.getBandejaSalida().getGuardadoSinConexion().observe(this, guardado -> {
+            if (guardado != null && guardado) {
+                mostrarExito(getString(R.string.atencion_guardada_sin_conexion));
+                finish();
+            }
+        });
+
+        // Lo que sigue en la bandeja de salida (y lo que quedó con error) a la vista
+        BandejaSalidaPanel.enlazar(this, findViewById(R.id.btnBandejaSalida), viewModel.getBandejaSalida());
     }
 }
-
@@ -1,48 +1,75 @@
 package com.example.proyectoandroid.view.adapter;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.model.Atencion;
-import com.example.proyectoandroid.util.DateUtils;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class AtencionAdapter extends RecyclerView.Adapter<AtencionAdapter.AtencionViewHolder> {
-    private List<Atencion> atenciones = new ArrayList<>();
+/**
+ * Adapter de atenciones: las filas se preparan y las diferencias entre listas se calculan
+ * en segundo plano (DiffUtil); solo se vuelven a dibujar las filas que cambiaron
+ */
+public class AtencionAdapter extends RenderedListAdapter<Atencion, AtencionRow, AtencionAdapter.AtencionViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Atencion> DIFF = new DiffUtil.ItemCallback<Atencion>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Atencion a, @NonNull Atencion b) {
+            return Objects.equals(a.getId(), b.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Atencion a, @NonNull Atencion b) {
+            return Objects.equals(a.getFecha(), b.getFecha())
+                    && Objects.equals(a.getMotivo(), b.getMotivo())
+                    && Objects.equals(a.getMedico(), b.getMedico())
+                    && Objects.equals(a.getDiagnostico(), b.getDiagnostico())
+                    && Objects.equals(a.getObservaciones(), b.getObservaciones());
+        }
+    };
+
+    public AtencionAdapter() {
+        super(DIFF);
+    }
+
+    @Override
+    protected AtencionRow renderizar(Atencion atencion, Context context,
+                                     @Nullable PrecomputedTextCompat.Params params) {
+        return AtencionRow.desde(atencion, context, params);
+    }
 
     @NonNull
     @Override
     public AtencionViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_atencion, parent, false);
-        return new AtencionViewHolder(view);
+        AtencionViewHolder holder = new AtencionViewHolder(view);
+        capturarParams(holder.tvDiagnosticoAtencion);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull AtencionViewHolder holder, int position) {
-        Atencion atencion = atenciones.get(position);
-        holder.bind(atencion);
-    }
-
-    @Override
-    public int getItemCount() {
-        return atenciones.size();
+        holder.bind(getItem(position));
     }
 
     public void setAtenciones(List<Atencion> atenciones) {
-        this.atenciones = atenciones != null ? atenciones : new ArrayList<>();
-        notifyDataSetChanged();
+        enviar(atenciones);
     }
 
-    class AtencionViewHolder extends RecyclerView.ViewHolder {
+    static class AtencionViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvFechaAtencion;
         private final TextView tvMedicoAtencion;
         private final TextView tvMotivoAtencion;
@@ -56,19 +83,11 @@ public class AtencionAdapter extends RecyclerView.Adapter<AtencionAdapter.Atenci
             tvDiagnosticoAtencion = itemView.findViewById(R.id.tvDiagnosticoAtencion);
         }
 
-        public void bind(Atencion atencion) {
-            String na = itemView.getContext().getString(R.string.na);
-            
-            if (atencion.getFecha() != null) {
-                tvFechaAtencion.setText(DateUtils.formatDateForDisplay(atencion.getFecha()));
-            } else {
-                tvFechaAtencion.setText(na);
-            }
-            
-            tvMedicoAtencion.setText(atencion.getMedico() != null ? atencion.getMedico() : na);
-            tvMotivoAtencion.setText(atencion.getMotivo() != null ? atencion.getMotivo() : na);
-            tvDiagnosticoAtencion.setText(atencion.getDiagnostico() != null ? atencion.getDiagnostico() : na);
+        public void bind(AtencionRow fila) {
+            tvFechaAtencion.setText(fila.fecha);
+            tvMedicoAtencion.setText(fila.medico);
+            tvMotivoAtencion.setText(fila.motivo);
+            setTextoLargo(tvDiagnosticoAtencion, fila.diagnostico);
         }
     }
 }
-
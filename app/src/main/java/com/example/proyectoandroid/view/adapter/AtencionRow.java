@@ -0,0 +1,38 @@
+package com.example.proyectoandroid.view.adapter;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.util.DateUtils;
+
+/**
+ * Fila de atención lista para mostrar
+ */
+final class AtencionRow extends RenderedRow<Atencion> {
+    final String fecha;
+    final String medico;
+    final String motivo;
+    final CharSequence diagnostico;
+
+    private AtencionRow(Atencion atencion, String fecha, String medico, String motivo, CharSequence diagnostico) {
+        super(atencion, atencion.getId());
+        this.fecha = fecha;
+        this.medico = medico;
+        this.motivo = motivo;
+        this.diagnostico = diagnostico;
+    }
+
+    static AtencionRow desde(Atencion atencion, Context context, @Nullable PrecomputedTextCompat.Params params) {
+        String na = context.getString(R.string.na);
+        String fecha = atencion.getFecha() != null ? DateUtils.formatDateForDisplay(atencion.getFecha()) : na;
+        String diagnostico = atencion.getDiagnostico() != null ? atencion.getDiagnostico() : na;
+        return new AtencionRow(atencion, fecha,
+                atencion.getMedico() != null ? atencion.getMedico() : na,
+                atencion.getMotivo() != null ? atencion.getMotivo() : na,
+                RenderedListAdapter.precalcular(diagnostico, params));
+    }
+}
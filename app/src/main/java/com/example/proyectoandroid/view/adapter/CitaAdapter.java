@@ -1,22 +1,66 @@
 package com.example.proyectoandroid.view.adapter;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.model.Cita;
-import com.example.proyectoandroid.util.DateUtils;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class CitaAdapter extends RecyclerView.Adapter<CitaAdapter.CitaViewHolder> {
-    private List<Cita> citas = new ArrayList<>();
+/**
+ * Adapter de citas: las filas se preparan y las diferencias entre listas se calculan
+ * en segundo plano (DiffUtil). Si solo cambió el estado, se actualiza únicamente
+ * la etiqueta de estado de la fila.
+ */
+public class CitaAdapter extends RenderedListAdapter<Cita, CitaRow, CitaAdapter.CitaViewHolder> {
+    // Payload para cambios que solo afectan al estado de la cita
+    static final Object PAYLOAD_ESTADO = new Object();
+
+    private static final DiffUtil.ItemCallback<Cita> DIFF = new DiffUtil.ItemCallback<Cita>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Cita a, @NonNull Cita b) {
+            return Objects.equals(a.getId(), b.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Cita a, @NonNull Cita b) {
+            return mismosDatosSalvoEstado(a, b) && Objects.equals(a.getEstado(), b.getEstado());
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull Cita a, @NonNull Cita b) {
+            return mismosDatosSalvoEstado(a, b) ? PAYLOAD_ESTADO : null;
+        }
+    };
+
+    private static boolean mismosDatosSalvoEstado(Cita a, Cita b) {
+        return Objects.equals(a.getFecha(), b.getFecha())
+                && Objects.equals(a.getHora(), b.getHora())
+                && Objects.equals(a.getMotivo(), b.getMotivo())
+                && Objects.equals(a.getMedico(), b.getMedico())
+                && Objects.equals(a.getTipo(), b.getTipo());
+    }
+
+    public CitaAdapter() {
+        super(DIFF);
+    }
+
+    @Override
+    protected CitaRow renderizar(Cita cita, Context context, @Nullable PrecomputedTextCompat.Params params) {
+        return CitaRow.desde(cita, context);
+    }
 
     @NonNull
     @Override
@@ -28,21 +72,32 @@ public class CitaAdapter extends RecyclerView.Adapter<CitaAdapter.CitaViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull CitaViewHolder holder, int position) {
-        Cita cita = citas.get(position);
-        holder.bind(cita);
+        holder.bind(getItem(position));
     }
 
     @Override
-    public int getItemCount() {
-        return citas.size();
+    public void onBindViewHolder(@NonNull CitaViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && soloEstado(payloads)) {
+            holder.bindEstado(getItem(position));
+        } else {
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+
+    private static boolean soloEstado(List<Object> payloads) {
+        for (Object payload : payloads) {
+            if (payload != PAYLOAD_ESTADO) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public void setCitas(List<Cita> citas) {
-        this.citas = citas != null ? citas : new ArrayList<>();
-        notifyDataSetChanged();
+        enviar(citas);
     }
 
-    class CitaViewHolder extends RecyclerView.ViewHolder {
+    static class CitaViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvFechaCita;
         private final TextView tvHoraCita;
         private final TextView tvMotivoCita;
@@ -58,37 +113,20 @@ public class CitaAdapter extends RecyclerView.Adapter<CitaAdapter.CitaViewHolder
             tvEstadoCita = itemView.findViewById(R.id.tvEstadoCita);
         }
 
-        public void bind(Cita cita) {
-            String na = itemView.getContext().getString(R.string.na);
-            
-            if (cita.getFecha() != null) {
-                tvFechaCita.setText(DateUtils.formatDateForDisplay(cita.getFecha()));
-            } else {
-                tvFechaCita.setText(na);
-            }
-            
-            tvHoraCita.setText(cita.getHora() != null ? cita.getHora() : "--:--");
-            tvMotivoCita.setText(cita.getMotivo() != null ? cita.getMotivo() : na);
-            tvMedicoCita.setText(cita.getMedico() != null ? cita.getMedico() : na);
-            
-            String estado = cita.getEstado() != null ? cita.getEstado() : "pendiente";
-            String estadoTexto;
-            int colorRes;
-            
-            if ("confirmada".equalsIgnoreCase(estado)) {
-                estadoTexto = itemView.getContext().getString(R.string.estado_confirmada);
-                colorRes = R.color.success;
-            } else if ("pendiente".equalsIgnoreCase(estado)) {
-                estadoTexto = itemView.getContext().getString(R.string.estado_pendiente_cita);
-                colorRes = R.color.warning;
-            } else {
-                estadoTexto = itemView.getContext().getString(R.string.estado_cancelada);
-                colorRes = R.color.error;
-            }
-            
-            tvEstadoCita.setText(estadoTexto);
-            tvEstadoCita.setTextColor(itemView.getContext().getColor(colorRes));
+        public void bind(CitaRow fila) {
+            tvFechaCita.setText(fila.fecha);
+            tvHoraCita.setText(fila.hora);
+            tvMotivoCita.setText(fila.motivo);
+            tvMedicoCita.setText(fila.medico);
+            bindEstado(fila);
+        }
+
+        /**
+         * Actualiza solo la etiqueta de estado (usado por el payload de cambio de estado)
+         */
+        void bindEstado(CitaRow fila) {
+            tvEstadoCita.setText(fila.estadoTexto);
+            tvEstadoCita.setTextColor(fila.estadoColor);
         }
     }
 }
-
@@ -0,0 +1,59 @@
+package com.example.proyectoandroid.view.adapter;
+
+import android.content.Context;
+
+import androidx.core.content.ContextCompat;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.util.DateUtils;
+
+/**
+ * Fila de cita lista para mostrar (incluye el texto y color del estado ya resueltos)
+ */
+final class CitaRow extends RenderedRow<Cita> {
+    final String fecha;
+    final String hora;
+    final String motivo;
+    final String medico;
+    final String estadoTexto;
+    final int estadoColor;
+
+    private CitaRow(Cita cita, String fecha, String hora, String motivo, String medico,
+                    String estadoTexto, int estadoColor) {
+        super(cita, cita.getId());
+        this.fecha = fecha;
+        this.hora = hora;
+        this.motivo = motivo;
+        this.medico = medico;
+        this.estadoTexto = estadoTexto;
+        this.estadoColor = estadoColor;
+    }
+
+    static CitaRow desde(Cita cita, Context context) {
+        String na = context.getString(R.string.na);
+
+        String estado = cita.getEstado() != null ? cita.getEstado() : "pendiente";
+        String estadoTexto;
+        int colorRes;
+
+        if ("confirmada".equalsIgnoreCase(estado)) {
+            estadoTexto = context.getString(R.string.estado_confirmada);
+            colorRes = R.color.success;
+        } else if ("pendiente".equalsIgnoreCase(estado)) {
+            estadoTexto = context.getString(R.string.estado_pendiente_cita);
+            colorRes = R.color.warning;
+        } else {
+            estadoTexto = context.getString(R.string.estado_cancelada);
+            colorRes = R.color.error;
+        }
+
+        return new CitaRow(cita,
+                cita.getFecha() != null ? DateUtils.formatDateForDisplay(cita.getFecha()) : na,
+                cita.getHora() != null ? cita.getHora() : "--:--",
+                cita.getMotivo() != null ? cita.getMotivo() : na,
+                cita.getMedico() != null ? cita.getMedico() : na,
+                estadoTexto,
+                ContextCompat.getColor(context, colorRes));
+    }
+}
@@ -1,52 +1,78 @@
 package com.example.proyectoandroid.view.adapter;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.model.Medicamento;
-import com.example.proyectoandroid.util.DateUtils;
 
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * Adapter para mostrar la lista de medicamentos
+ * Adapter para mostrar la lista de medicamentos.
+ * Las filas se preparan y las diferencias entre listas se calculan en segundo plano (DiffUtil).
  */
-public class MedicamentoAdapter extends RecyclerView.Adapter<MedicamentoAdapter.MedicamentoViewHolder> {
-    private List<Medicamento> medicamentos = new ArrayList<>();
+public class MedicamentoAdapter extends RenderedListAdapter<Medicamento, MedicamentoRow, MedicamentoAdapter.MedicamentoViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Medicamento> DIFF = new DiffUtil.ItemCallback<Medicamento>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Medicamento a, @NonNull Medicamento b) {
+            return Objects.equals(a.getId(), b.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Medicamento a, @NonNull Medicamento b) {
+            return Objects.equals(a.getNombre(), b.getNombre())
+                    && Objects.equals(a.getDosis(), b.getDosis())
+                    && Objects.equals(a.getFrecuencia(), b.getFrecuencia())
+                    && Objects.equals(a.getFechaInicio(), b.getFechaInicio())
+                    && Objects.equals(a.getFechaFin(), b.getFechaFin())
+                    && Objects.equals(a.getMedico(), b.getMedico())
+                    && Objects.equals(a.getObservaciones(), b.getObservaciones())
+                    && a.isActivo() == b.isActivo();
+        }
+    };
+
+    public MedicamentoAdapter() {
+        super(DIFF);
+    }
+
+    @Override
+    protected MedicamentoRow renderizar(Medicamento medicamento, Context context,
+                                        @Nullable PrecomputedTextCompat.Params params) {
+        return MedicamentoRow.desde(medicamento, context, params);
+    }
 
     @NonNull
     @Override
     public MedicamentoViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_medicamento, parent, false);
-        return new MedicamentoViewHolder(view);
+        MedicamentoViewHolder holder = new MedicamentoViewHolder(view);
+        capturarParams(holder.tvObservaciones);
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull MedicamentoViewHolder holder, int position) {
-        Medicamento medicamento = medicamentos.get(position);
-        holder.bind(medicamento);
-    }
-
-    @Override
-    public int getItemCount() {
-        return medicamentos.size();
+        holder.bind(getItem(position));
     }
 
     public void setMedicamentos(List<Medicamento> medicamentos) {
-        this.medicamentos = medicamentos != null ? medicamentos : new ArrayList<>();
-        notifyDataSetChanged();
+        enviar(medicamentos);
     }
 
-    class MedicamentoViewHolder extends RecyclerView.ViewHolder {
+    static class MedicamentoViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvNombre;
         private final TextView tvDosis;
         private final TextView tvFrecuencia;
@@ -68,53 +94,24 @@ public class MedicamentoAdapter extends RecyclerView.Adapter<MedicamentoAdapter.
             tvObservaciones = itemView.findViewById(R.id.tvObservaciones);
         }
 
-        public void bind(Medicamento medicamento) {
-            String na = itemView.getContext().getString(R.string.na);
-            tvNombre.setText(medicamento.getNombre() != null ? medicamento.getNombre() : na);
-            tvDosis.setText(medicamento.getDosis() != null ? medicamento.getDosis() : na);
-            tvFrecuencia.setText(medicamento.getFrecuencia() != null ? medicamento.getFrecuencia() : na);
-            tvMedico.setText(medicamento.getMedico() != null ? medicamento.getMedico() : na);
-
-            // Formatear fechas usando DateUtils
-            if (medicamento.getFechaInicio() != null) {
-                tvFechaInicio.setText(itemView.getContext().getString(R.string.label_desde, 
-                        DateUtils.formatDateForDisplay(medicamento.getFechaInicio())));
-            } else {
-                tvFechaInicio.setText(itemView.getContext().getString(R.string.label_desde, na));
-            }
-
-            if (medicamento.getFechaFin() != null) {
-                tvFechaFin.setText(itemView.getContext().getString(R.string.label_hasta, 
-                        DateUtils.formatDateForDisplay(medicamento.getFechaFin())));
-            } else {
-                tvFechaFin.setText(itemView.getContext().getString(R.string.label_hasta, na));
-            }
+        public void bind(MedicamentoRow fila) {
+            tvNombre.setText(fila.nombre);
+            tvDosis.setText(fila.dosis);
+            tvFrecuencia.setText(fila.frecuencia);
+            tvMedico.setText(fila.medico);
+            tvFechaInicio.setText(fila.fechaInicio);
+            tvFechaFin.setText(fila.fechaFin);
 
             // Mostrar observaciones si existen
-            if (medicamento.getObservaciones() != null && !medicamento.getObservaciones().trim().isEmpty()) {
-                tvObservaciones.setText(itemView.getContext().getString(R.string.label_observaciones, 
-                        medicamento.getObservaciones()));
+            if (fila.observaciones != null) {
+                setTextoLargo(tvObservaciones, fila.observaciones);
                 tvObservaciones.setVisibility(View.VISIBLE);
             } else {
                 tvObservaciones.setVisibility(View.GONE);
             }
 
-            // Mostrar estado (activo/inactivo)
-            Date ahora = new Date();
-            Date fechaFin = medicamento.getFechaFin();
-            Date fechaInicio = medicamento.getFechaInicio();
-            
-            if (fechaFin != null && ahora.after(fechaFin)) {
-                tvEstado.setText(itemView.getContext().getString(R.string.estado_finalizado));
-                tvEstado.setTextColor(itemView.getContext().getColor(R.color.text_secondary));
-            } else if (fechaInicio != null && ahora.before(fechaInicio)) {
-                tvEstado.setText(itemView.getContext().getString(R.string.estado_pendiente));
-                tvEstado.setTextColor(itemView.getContext().getColor(R.color.warning));
-            } else {
-                tvEstado.setText(itemView.getContext().getString(R.string.estado_activo));
-                tvEstado.setTextColor(itemView.getContext().getColor(R.color.success));
-            }
+            tvEstado.setText(fila.estadoTexto);
+            tvEstado.setTextColor(fila.estadoColor);
         }
     }
 }
-
@@ -0,0 +1,83 @@
+package com.example.proyectoandroid.view.adapter;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.text.PrecomputedTextCompat;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.util.DateUtils;
+
+import java.util.Date;
+
+/**
+ * Fila de medicamento lista para mostrar
+ */
+final class MedicamentoRow extends RenderedRow<Medicamento> {
+    final String nombre;
+    final String dosis;
+    final String frecuencia;
+    final String medico;
+    final String fechaInicio;
+    final String fechaFin;
+    // null si no hay observaciones (la vista se oculta)
+    final CharSequence observaciones;
+    final String estadoTexto;
+    final int estadoColor;
+
+    private MedicamentoRow(Medicamento medicamento, String nombre, String dosis, String frecuencia,
+                           String medico, String fechaInicio, String fechaFin,
+                           CharSequence observaciones, String estadoTexto, int estadoColor) {
+        super(medicamento, medicamento.getId());
+        this.nombre = nombre;
+        this.dosis = dosis;
+        this.frecuencia = frecuencia;
+        this.medico = medico;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.observaciones = observaciones;
+        this.estadoTexto = estadoTexto;
+        this.estadoColor = estadoColor;
+    }
+
+    static MedicamentoRow desde(Medicamento medicamento, Context context,
+                                @Nullable PrecomputedTextCompat.Params params) {
+        String na = context.getString(R.string.na);
+
+        String fechaInicio = context.getString(R.string.label_desde, medicamento.getFechaInicio() != null
+                ? DateUtils.formatDateForDisplay(medicamento.getFechaInicio()) : na);
+        String fechaFin = context.getString(R.string.label_hasta, medicamento.getFechaFin() != null
+                ? DateUtils.formatDateForDisplay(medicamento.getFechaFin()) : na);
+
+        CharSequence observaciones = null;
+        if (medicamento.getObservaciones() != null && !medicamento.getObservaciones().trim().isEmpty()) {
+            observaciones = RenderedListAdapter.precalcular(
+                    context.getString(R.string.label_observaciones, medicamento.getObservaciones()), params);
+        }
+
+        // Estado (activo/finalizado/pendiente) según la fecha actual
+        Date ahora = new Date();
+        String estadoTexto;
+        int colorRes;
+        if (medicamento.getFechaFin() != null && ahora.after(medicamento.getFechaFin())) {
+            estadoTexto = context.getString(R.string.estado_finalizado);
+            colorRes = R.color.text_secondary;
+        } else if (medicamento.getFechaInicio() != null && ahora.before(medicamento.getFechaInicio())) {
+            estadoTexto = context.getString(R.string.estado_pendiente);
+            colorRes = R.color.warning;
+        } else {
+            estadoTexto = context.getString(R.string.estado_activo);
+            colorRes = R.color.success;
+        }
+
+        return new MedicamentoRow(medicamento,
+                medicamento.getNombre() != null ? medicamento.getNombre() : na,
+                medicamento.getDosis() != null ? medicamento.getDosis() : na,
+                medicamento.getFrecuencia() != null ? medicamento.getFrecuencia() : na,
+                medicamento.getMedico() != null ? medicamento.getMedico() : na,
+                fechaInicio, fechaFin, observaciones, estadoTexto,
+                ContextCompat.getColor(context, colorRes));
+    }
+}
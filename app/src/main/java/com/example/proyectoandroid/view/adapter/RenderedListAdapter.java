@@ -0,0 +1,174 @@
+package com.example.proyectoandroid.view.adapter;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Base de los adapters de listas: convierte los objetos de dominio en filas listas para mostrar
+ * (fechas formateadas, textos y colores resueltos, texto largo precalculado) en un hilo de fondo,
+ * de modo que onBindViewHolder solo asigna valores.
+ *
+ * Si llegan varias listas seguidas, solo se entrega la última (contador de generación).
+ */
+abstract class RenderedListAdapter<T, R extends RenderedRow<T>, VH extends RecyclerView.ViewHolder>
+        extends ListAdapter<R, VH> {
+
+    // Compartido por todos los adapters: el trabajo es corto y no debe competir con el hilo principal
+    private static final ExecutorService RENDER = Executors.newSingleThreadExecutor();
+
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private Context context;
+    private List<T> pendiente;
+    private boolean hayPendiente;
+    // Solo se modifica en el hilo principal
+    private int generacion;
+    // Parámetros de medición del TextView de texto largo, para precalcular su layout en segundo plano
+    private volatile PrecomputedTextCompat.Params paramsTextoLargo;
+
+    protected RenderedListAdapter(DiffUtil.ItemCallback<T> diffFuente) {
+        super(new RowDiff<>(diffFuente));
+        setHasStableIds(true);
+    }
+
+    /**
+     * Envía una nueva lista. Debe llamarse desde el hilo principal.
+     */
+    public void enviar(List<T> items) {
+        int gen = ++generacion;
+        if (context == null) {
+            // Aún no está asociado a un RecyclerView: se renderiza al asociarse
+            pendiente = items;
+            hayPendiente = true;
+            return;
+        }
+
+        if (items == null || items.isEmpty()) {
+            submitList(new ArrayList<>());
+            return;
+        }
+
+        Context ctx = context;
+        List<T> copia = new ArrayList<>(items);
+        PrecomputedTextCompat.Params params = paramsTextoLargo;
+        RENDER.execute(() -> {
+            List<R> filas = new ArrayList<>(copia.size());
+            for (T item : copia) {
+                filas.add(renderizar(item, ctx, params));
+            }
+            main.post(() -> {
+                // Descartar si mientras tanto llegó una lista más nueva
+                if (gen == generacion) {
+                    submitList(filas);
+                }
+            });
+        });
+    }
+
+    /**
+     * Construye la fila para un elemento. Se ejecuta en un hilo de fondo.
+     *
+     * @param params parámetros para precalcular texto largo, o null si aún no se conocen
+     */
+    protected abstract R renderizar(T item, Context context, @Nullable PrecomputedTextCompat.Params params);
+
+    /**
+     * Registra el TextView de texto largo la primera vez que se crea un ViewHolder
+     */
+    protected void capturarParams(TextView textView) {
+        if (paramsTextoLargo == null) {
+            paramsTextoLargo = TextViewCompat.getTextMetricsParams(textView);
+        }
+    }
+
+    /**
+     * Precalcula el layout del texto en el hilo de fondo si se conocen los parámetros
+     */
+    protected static CharSequence precalcular(String texto, @Nullable PrecomputedTextCompat.Params params) {
+        if (texto == null || params == null) {
+            return texto;
+        }
+        return PrecomputedTextCompat.create(texto, params);
+    }
+
+    /**
+     * Asigna un texto posiblemente precalculado; si los parámetros del TextView cambiaron
+     * (p.ej. tamaño de fuente) se asigna como texto normal
+     */
+    protected static void setTextoLargo(TextView textView, CharSequence texto) {
+        if (texto instanceof PrecomputedTextCompat) {
+            PrecomputedTextCompat precalculado = (PrecomputedTextCompat) texto;
+            if (precalculado.getParams().equals(TextViewCompat.getTextMetricsParams(textView))) {
+                TextViewCompat.setPrecomputedText(textView, precalculado);
+                return;
+            }
+            textView.setText(texto.toString());
+            return;
+        }
+        textView.setText(texto);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.de(getItem(position).getId());
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        context = recyclerView.getContext();
+        if (hayPendiente) {
+            List<T> items = pendiente;
+            pendiente = null;
+            hayPendiente = false;
+            enviar(items);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        context = null;
+    }
+
+    /**
+     * Compara filas usando el objeto de dominio del que provienen
+     */
+    private static final class RowDiff<T, R extends RenderedRow<T>> extends DiffUtil.ItemCallback<R> {
+        private final DiffUtil.ItemCallback<T> fuente;
+
+        RowDiff(DiffUtil.ItemCallback<T> fuente) {
+            this.fuente = fuente;
+        }
+
+        @Override
+        public boolean areItemsTheSame(@NonNull R a, @NonNull R b) {
+            return fuente.areItemsTheSame(a.getFuente(), b.getFuente());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull R a, @NonNull R b) {
+            return fuente.areContentsTheSame(a.getFuente(), b.getFuente());
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull R a, @NonNull R b) {
+            return fuente.getChangePayload(a.getFuente(), b.getFuente());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.proyectoandroid.view.adapter;
+
+/**
+ * Fila ya preparada para mostrarse: textos formateados y colores resueltos,
+ * junto con el objeto de dominio del que proviene (usado para comparar con DiffUtil)
+ */
+abstract class RenderedRow<T> {
+    private final T fuente;
+    private final String id;
+
+    RenderedRow(T fuente, String id) {
+        this.fuente = fuente;
+        this.id = id;
+    }
+
+    T getFuente() {
+        return fuente;
+    }
+
+    String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.proyectoandroid.view.adapter;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * IDs estables para los adapters a partir del id del documento de Firestore.
+ * Usa un hash de 64 bits (FNV-1a) para que las colisiones sean prácticamente imposibles,
+ * a diferencia de String.hashCode() que solo tiene 32 bits.
+ */
+final class StableIds {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StableIds() {
+    }
+
+    static long de(String documentId) {
+        if (documentId == null) {
+            return RecyclerView.NO_ID;
+        }
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < documentId.length(); i++) {
+            hash ^= documentId.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // NO_ID (-1) está reservado por RecyclerView
+        return hash == RecyclerView.NO_ID ? 0 : hash;
+    }
+}
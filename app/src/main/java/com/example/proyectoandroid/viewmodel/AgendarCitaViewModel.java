@@ -8,8 +8,10 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.OperacionPendiente;
+import com.example.proyectoandroid.repository.OutboxRepository;
 import com.example.proyectoandroid.repository.PacienteRepository;
-import com.example.proyectoandroid.util.DateUtils;
+import com.example.proyectoandroid.util.DateParser;
 import com.example.proyectoandroid.util.ErrorHandler;
 import com.example.proyectoandroid.util.NetworkUtils;
 import com.example.proyectoandroid.util.RutUtils;
@@ -22,6 +24,7 @@ import java.util.Date;
  */
 public class AgendarCitaViewModel extends AndroidViewModel {
     private final PacienteRepository pacienteRepository;
+    private final BandejaSalida bandejaSalida;
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private final MutableLiveData<Boolean> registroExitoso = new MutableLiveData<>();
@@ -29,6 +32,7 @@ public class AgendarCitaViewModel extends AndroidViewModel {
     public AgendarCitaViewModel(@NonNull Application application) {
         super(application);
         pacienteRepository = PacienteRepository.getInstance();
+        bandejaSalida = new BandejaSalida(OutboxRepository.getInstance(application), isLoading, errorMessage);
     }
 
     /**
@@ -57,20 +61,24 @@ public class AgendarCitaViewModel extends AndroidViewModel {
             return;
         }
 
-        // Parsear fecha usando DateUtils
+        // Parsear fecha usando DateParser
         if (fechaStr == null || fechaStr.trim().isEmpty()) {
             errorMessage.setValue(getApplication().getString(R.string.error_fecha_obligatoria));
             return;
         }
         
-        Date fecha = DateUtils.parseDateFromStorage(fechaStr);
-        if (fecha == null) {
+        long millis = DateParser.parsearFecha(fechaStr);
+        if (millis == DateParser.FECHA_INVALIDA) {
             errorMessage.setValue(getApplication().getString(R.string.error_fecha_invalida));
             return;
         }
         
-        // Combinar fecha y hora usando DateUtils
-        fecha = DateUtils.combineDateAndTime(fecha, hora);
+        // Combinar fecha y hora (si la hora no es válida se usa solo la fecha)
+        int minutos = DateParser.parsearHora(hora);
+        if (minutos != DateParser.HORA_INVALIDA) {
+            millis = DateParser.combinar(millis, minutos);
+        }
+        Date fecha = new Date(millis);
         
             // Validar que la fecha sea futura
             if (!ValidationUtils.esFechaFuturaOIgual(fecha)) {
@@ -78,9 +86,10 @@ public class AgendarCitaViewModel extends AndroidViewModel {
                 return;
             }
 
-        // Verificar conexión a internet
+        // Sin conexión la cita queda en la bandeja de salida y se envía al reconectar
         if (!NetworkUtils.isNetworkAvailable(getApplication())) {
-            errorMessage.setValue(getApplication().getString(R.string.error_sin_conexion));
+            bandejaSalida.encolar(OperacionPendiente.cita(bandejaSalida.nuevoIdCita(), rutNormalizado, fecha,
+                    hora.trim(), motivo.trim(), medico.trim(), tipo != null ? tipo.trim() : "consulta"));
             return;
         }
 
@@ -141,5 +150,11 @@ public class AgendarCitaViewModel extends AndroidViewModel {
     public LiveData<Boolean> getRegistroExitoso() {
         return registroExitoso;
     }
-}
 
+    /**
+     * Registros guardados sin conexión: aviso de guardado y estado de la bandeja de salida
+     */
+    public BandejaSalida getBandejaSalida() {
+        return bandejaSalida;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.proyectoandroid.viewmodel;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.proyectoandroid.model.OperacionPendiente;
+import com.example.proyectoandroid.repository.OutboxRepository;
+import com.example.proyectoandroid.repository.PacienteRepository;
+
+import java.util.List;
+
+/**
+ * Parte común de los formularios que guardan sin conexión (agendar cita, registrar atención):
+ * encolar en la bandeja de salida y exponer su estado para mostrarlo en pantalla, con las
+ * acciones de reintentar y descartar
+ */
+public class BandejaSalida {
+    private final OutboxRepository outboxRepository;
+    private final MutableLiveData<Boolean> isLoading;
+    private final MutableLiveData<String> errorMessage;
+    private final MutableLiveData<Boolean> guardadoSinConexion = new MutableLiveData<>();
+
+    BandejaSalida(OutboxRepository outboxRepository, MutableLiveData<Boolean> isLoading,
+                  MutableLiveData<String> errorMessage) {
+        this.outboxRepository = outboxRepository;
+        this.isLoading = isLoading;
+        this.errorMessage = errorMessage;
+    }
+
+    String nuevoIdCita() {
+        return outboxRepository.nuevoIdCita();
+    }
+
+    String nuevoIdAtencion() {
+        return outboxRepository.nuevoIdAtencion();
+    }
+
+    /**
+     * Guarda la operación en el dispositivo; avisa por {@link #getGuardadoSinConexion()}
+     */
+    void encolar(OperacionPendiente operacion) {
+        isLoading.setValue(true);
+        errorMessage.setValue(null);
+        outboxRepository.encolar(operacion, new PacienteRepository.RegistroCallback() {
+            @Override
+            public void onSuccess() {
+                isLoading.setValue(false);
+                guardadoSinConexion.setValue(true);
+            }
+
+            @Override
+            public void onError(String error) {
+                isLoading.setValue(false);
+                errorMessage.setValue(error);
+            }
+        });
+    }
+
+    /**
+     * true cuando el registro quedó guardado en el dispositivo para enviarse al reconectar
+     */
+    public LiveData<Boolean> getGuardadoSinConexion() {
+        return guardadoSinConexion;
+    }
+
+    /**
+     * Operaciones de la bandeja de salida aún no enviadas, con su estado
+     */
+    public LiveData<List<OperacionPendiente>> getOperaciones() {
+        return outboxRepository.getOperaciones();
+    }
+
+    public void reintentar(String id) {
+        outboxRepository.reintentar(id);
+    }
+
+    public void descartar(String id) {
+        outboxRepository.descartar(id);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.proyectoandroid.viewmodel;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.repository.AtencionesPagingSource;
+import com.example.proyectoandroid.repository.PacienteRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ViewModel para el historial completo de atenciones (scroll infinito por páginas)
+ */
+public class HistorialAtencionesViewModel extends AndroidViewModel {
+    private final AtencionesPagingSource paginas;
+    private final MutableLiveData<List<Atencion>> atenciones = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
+    private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+
+    private final AtencionesPagingSource.PaginasCallback callback = new AtencionesPagingSource.PaginasCallback() {
+        @Override
+        public void onResult(List<Atencion> cargadas, boolean hayMas) {
+            atenciones.setValue(cargadas);
+            isLoading.setValue(false);
+        }
+
+        @Override
+        public void onError(String error) {
+            isLoading.setValue(false);
+            errorMessage.setValue(getApplication().getString(R.string.error_cargar_historial));
+        }
+    };
+
+    public HistorialAtencionesViewModel(@NonNull Application application) {
+        super(application);
+        paginas = PacienteRepository.getInstance().obtenerHistorialAtenciones();
+    }
+
+    /**
+     * Muestra las páginas que ya estaban en memoria o pide la primera
+     */
+    public void cargarHistorial() {
+        if (paginas == null) {
+            atenciones.setValue(new ArrayList<>());
+            return;
+        }
+
+        if (!paginas.getCargadas().isEmpty() || !paginas.hayMas()) {
+            atenciones.setValue(paginas.getCargadas());
+            return;
+        }
+        pedirSiguiente();
+    }
+
+    /**
+     * La lista muestra este rango de posiciones: pide la página siguiente si está cerca del
+     * final de la ventana, o vuelve a pedir la anterior si está cerca del inicio
+     */
+    public void alMostrarRango(int primera, int ultima) {
+        if (paginas == null) {
+            return;
+        }
+        if (paginas.debePrecargar(ultima)) {
+            pedirSiguiente();
+        } else if (paginas.debePrecargarAnterior(primera)) {
+            isLoading.setValue(true);
+            errorMessage.setValue(null);
+            paginas.cargarAnterior(callback);
+        }
+    }
+
+    private void pedirSiguiente() {
+        isLoading.setValue(true);
+        errorMessage.setValue(null);
+        paginas.cargarSiguiente(callback);
+    }
+
+    /**
+     * Recorta las páginas en memoria al salir de la pantalla (mientras está abierta, la
+     * ventana de AtencionesPagingSource ya limita cuántas hay)
+     */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        if (paginas != null) {
+            paginas.recortar();
+        }
+    }
+
+    // Getters para LiveData
+    public LiveData<List<Atencion>> getAtenciones() {
+        return atenciones;
+    }
+
+    public LiveData<Boolean> getIsLoading() {
+        return isLoading;
+    }
+
+    public LiveData<String> getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -5,6 +5,7 @@ import android.location.Location;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Observer;
@@ -14,9 +15,16 @@ import com.example.proyectoandroid.model.Cita;
 import com.example.proyectoandroid.model.LocationState;
 import com.example.proyectoandroid.model.Paciente;
 import com.example.proyectoandroid.repository.AuthRepository;
+import com.example.proyectoandroid.repository.ClinicaStore;
+import com.example.proyectoandroid.repository.DashboardPrefetcher;
 import com.example.proyectoandroid.repository.LocationRepository;
 import com.example.proyectoandroid.repository.PacienteRepository;
+import com.example.proyectoandroid.repository.MedicamentoRepository;
+import com.example.proyectoandroid.repository.RutResolver;
+import com.example.proyectoandroid.repository.local.LocalDatabase;
 import com.example.proyectoandroid.util.NetworkUtils;
+import com.example.proyectoandroid.util.SessionResumeManager;
+import com.example.proyectoandroid.util.LifecycleSubscription;
 import com.google.firebase.auth.FirebaseUser;
 
 import java.util.List;
@@ -29,47 +37,63 @@ public class InformacionViewModel extends AndroidViewModel {
     private final LocationRepository locationRepository;
     private final PacienteRepository pacienteRepository;
     private final MutableLiveData<LocationState> locationState = new MutableLiveData<>(new LocationState());
-    private final MutableLiveData<Paciente> paciente = new MutableLiveData<>();
-    private final MutableLiveData<List<Atencion>> atenciones = new MutableLiveData<>();
-    private final MutableLiveData<List<Cita>> citas = new MutableLiveData<>();
+    private final ClinicaStore store;
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
+    private LifecycleSubscription suscripcionAtenciones;
+    private LifecycleSubscription suscripcionCitas;
 
     public InformacionViewModel(@NonNull Application application) {
         super(application);
         authRepository = AuthRepository.getInstance();
         locationRepository = LocationRepository.getInstance(application);
         pacienteRepository = PacienteRepository.getInstance();
+        store = ClinicaStore.getInstance();
     }
 
     /**
-     * Carga todos los datos del paciente
+     * Carga todos los datos del paciente en {@link ClinicaStore}, de donde los leen esta y
+     * las demás pantallas. Sin conexión se muestran los datos guardados en el dispositivo.
+     *
+     * Los listeners de atenciones y citas siguen el ciclo de vida de {@code owner}: se pausan
+     * si la pantalla queda en segundo plano más allá del período de gracia y se reanudan al
+     * volver. Al rotar, la pantalla nueva se vincula a las mismas suscripciones.
      */
-    public void cargarDatosPaciente() {
-        // Verificar conexión a internet
-        if (!NetworkUtils.isNetworkAvailable(getApplication())) {
-            android.util.Log.w("InformacionViewModel", "Sin conexión a internet");
-            // No mostrar error, solo no cargar datos
-            return;
-        }
+    public void cargarDatosPaciente(LifecycleOwner owner) {
+        if (suscripcionAtenciones == null) {
+            if (!NetworkUtils.isNetworkAvailable(getApplication())) {
+                android.util.Log.w("InformacionViewModel", "Sin conexión a internet, usando datos locales");
+            }
 
-        isLoading.setValue(true);
-        
-        // Cargar datos del paciente
-        pacienteRepository.obtenerDatosPaciente(pacienteData -> {
-            paciente.setValue(pacienteData);
-            isLoading.setValue(false);
-        });
+            isLoading.setValue(true);
 
-        // Cargar últimas atenciones
-        pacienteRepository.obtenerUltimasAtenciones(5, atencionesList -> {
-            atenciones.setValue(atencionesList);
-        });
+            // Cargar datos del paciente (normalmente ya pedidos al autenticarse, ver DashboardPrefetcher)
+            pacienteRepository.cargarPaciente(pacienteData -> isLoading.setValue(false));
 
-        // Cargar próximas citas
-        pacienteRepository.obtenerProximasCitas(5, citasList -> {
-            android.util.Log.d("InformacionViewModel", "Citas recibidas: " + (citasList != null ? citasList.size() : 0));
-            citas.setValue(citasList);
-        });
+            // Cargar últimas atenciones
+            suscripcionAtenciones = new LifecycleSubscription(() ->
+                    pacienteRepository.obtenerUltimasAtenciones(DashboardPrefetcher.LIMITE_ATENCIONES, atencionesList -> {
+                        // El repositorio ya las dejó en el store
+                    }));
+
+            // Cargar próximas citas
+            suscripcionCitas = new LifecycleSubscription(() ->
+                    pacienteRepository.obtenerProximasCitas(DashboardPrefetcher.LIMITE_CITAS, citasList -> {
+                        android.util.Log.d("InformacionViewModel", "Citas recibidas: " + (citasList != null ? citasList.size() : 0));
+                    }));
+        }
+        suscripcionAtenciones.vincular(owner);
+        suscripcionCitas.vincular(owner);
+    }
+
+    private void cancelarSuscripciones() {
+        if (suscripcionAtenciones != null) {
+            suscripcionAtenciones.cancelar();
+            suscripcionAtenciones = null;
+        }
+        if (suscripcionCitas != null) {
+            suscripcionCitas.cancelar();
+            suscripcionCitas = null;
+        }
     }
 
     /**
@@ -145,7 +169,19 @@ public class InformacionViewModel extends AndroidViewModel {
      * Cierra sesión
      */
     public void cerrarSesion() {
+        // Ningún listener debe seguir leyendo datos del usuario que sale
+        cancelarSuscripciones();
+        DashboardPrefetcher.getInstance().liberar();
+        pacienteRepository.detenerListeners();
+        MedicamentoRepository.getInstance().detenerListeners();
+        // La próxima apertura debe pedir RUT y contraseña
+        SessionResumeManager.getInstance(getApplication()).desactivar();
         authRepository.cerrarSesion();
+        store.limpiar();
+        // Sin datos clínicos del paciente en disco (la bandeja de salida se conserva)
+        LocalDatabase.get().borrarCache();
+        // Ni pares RUT → email de los pacientes consultados
+        RutResolver.get().limpiar();
     }
 
     /**
@@ -163,12 +199,13 @@ public class InformacionViewModel extends AndroidViewModel {
     }
 
     /**
-     * Detiene los listeners cuando el ViewModel se destruye
+     * Suelta las suscripciones cuando el ViewModel se destruye
+     * (cada listener se cierra si nadie más lo usa)
      */
     @Override
     protected void onCleared() {
         super.onCleared();
-        pacienteRepository.detenerListeners();
+        cancelarSuscripciones();
     }
 
     // Getters para LiveData
@@ -177,15 +214,15 @@ public class InformacionViewModel extends AndroidViewModel {
     }
 
     public LiveData<Paciente> getPaciente() {
-        return paciente;
+        return store.getPaciente();
     }
 
     public LiveData<List<Atencion>> getAtenciones() {
-        return atenciones;
+        return store.getUltimasAtenciones(DashboardPrefetcher.LIMITE_ATENCIONES);
     }
 
     public LiveData<List<Cita>> getCitas() {
-        return citas;
+        return store.getProximasCitas(DashboardPrefetcher.LIMITE_CITAS);
     }
 
     public LiveData<Boolean> getIsLoading() {
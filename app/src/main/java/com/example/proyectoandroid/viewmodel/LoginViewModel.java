@@ -10,9 +10,11 @@ import androidx.lifecycle.MutableLiveData;
 import com.example.proyectoandroid.R;
 import com.example.proyectoandroid.model.RutValidation;
 import com.example.proyectoandroid.repository.AuthRepository;
+import com.example.proyectoandroid.repository.DashboardPrefetcher;
 import com.example.proyectoandroid.util.ErrorHandler;
 import com.example.proyectoandroid.util.NetworkUtils;
 import com.example.proyectoandroid.util.RutUtils;
+import com.example.proyectoandroid.util.Tracer;
 import com.example.proyectoandroid.util.ValidationUtils;
 import com.google.firebase.auth.FirebaseUser;
 
@@ -84,6 +86,8 @@ public class LoginViewModel extends AndroidViewModel {
 
         isLoading.setValue(true);
         errorMessage.setValue(null);
+        // Desde el toque en "Ingresar" hasta el resultado (RUT -> email -> Firebase Auth)
+        Tracer.Span span = Tracer.iniciar(Tracer.LOGIN, "LoginViewModel.iniciarSesion");
 
         // Asegurar que el RUT esté normalizado y en mayúsculas
         String rutBuscar = rutNormalizado.toUpperCase();
@@ -94,7 +98,10 @@ public class LoginViewModel extends AndroidViewModel {
                 // Email encontrado, intentar login
                 authRepository.iniciarSesion(email.trim(), password, authResult -> {
                     isLoading.setValue(false);
+                    span.terminar(authResult.isSuccess() ? null : "error");
                     if (authResult.isSuccess()) {
+                        // Pedir los datos del panel mientras se abre InformacionActivity
+                        DashboardPrefetcher.getInstance().iniciar();
                         loginSuccess.setValue(true);
                     } else {
                         String error = authResult.getError();
@@ -104,6 +111,7 @@ public class LoginViewModel extends AndroidViewModel {
                 });
             } else {
                 isLoading.setValue(false);
+                span.terminar("rut_no_encontrado");
                 errorMessage.setValue(getApplication().getString(R.string.error_rut_no_encontrado));
             }
         });
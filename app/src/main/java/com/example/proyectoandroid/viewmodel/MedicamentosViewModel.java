@@ -4,12 +4,15 @@ import android.app.Application;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.repository.ClinicaStore;
 import com.example.proyectoandroid.repository.MedicamentoRepository;
 import com.example.proyectoandroid.util.NetworkUtils;
+import com.example.proyectoandroid.util.LifecycleSubscription;
 
 import java.util.List;
 
@@ -18,9 +21,9 @@ import java.util.List;
  */
 public class MedicamentosViewModel extends AndroidViewModel {
     private final MedicamentoRepository medicamentoRepository;
-    private final MutableLiveData<List<Medicamento>> medicamentos = new MutableLiveData<>();
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private LifecycleSubscription suscripcion;
 
     public MedicamentosViewModel(@NonNull Application application) {
         super(application);
@@ -28,37 +31,47 @@ public class MedicamentosViewModel extends AndroidViewModel {
     }
 
     /**
-     * Carga los medicamentos del paciente con actualización en tiempo real
+     * Carga los medicamentos del paciente con actualización en tiempo real en
+     * {@link ClinicaStore}, de donde los leen esta y las demás pantallas.
+     * Sin conexión se muestran los datos guardados en el dispositivo.
+     *
+     * El listener sigue el ciclo de vida de {@code owner}: se pausa si la pantalla queda
+     * en segundo plano más allá del período de gracia y se reanuda al volver. Al rotar,
+     * la pantalla nueva se vincula a la misma suscripción sin reabrir el listener.
      */
-    public void cargarMedicamentos() {
-        // Verificar conexión a internet
-        if (!NetworkUtils.isNetworkAvailable(getApplication())) {
-            android.util.Log.w("MedicamentosViewModel", "Sin conexión a internet");
-            // No mostrar error, solo no cargar datos
-            return;
-        }
+    public void cargarMedicamentos(LifecycleOwner owner) {
+        if (suscripcion == null) {
+            if (!NetworkUtils.isNetworkAvailable(getApplication())) {
+                android.util.Log.w("MedicamentosViewModel", "Sin conexión a internet, usando datos locales");
+            }
 
-        isLoading.setValue(true);
-        errorMessage.setValue(null);
+            isLoading.setValue(true);
+            errorMessage.setValue(null);
 
-        medicamentoRepository.obtenerMedicamentos(medicamentosList -> {
-            medicamentos.setValue(medicamentosList);
-            isLoading.setValue(false);
-        });
+            suscripcion = new LifecycleSubscription(() ->
+                    medicamentoRepository.obtenerMedicamentos(medicamentosList -> {
+                        // El repositorio ya los dejó en el store
+                        isLoading.setValue(false);
+                    }));
+        }
+        suscripcion.vincular(owner);
     }
 
     /**
-     * Detiene el listener cuando el ViewModel se destruye
+     * Suelta la suscripción cuando el ViewModel se destruye (el listener se cierra si nadie más lo usa)
      */
     @Override
     protected void onCleared() {
         super.onCleared();
-        medicamentoRepository.detenerListener();
+        if (suscripcion != null) {
+            suscripcion.cancelar();
+            suscripcion = null;
+        }
     }
 
     // Getters para LiveData
     public LiveData<List<Medicamento>> getMedicamentos() {
-        return medicamentos;
+        return ClinicaStore.getInstance().getMedicamentos();
     }
 
     public LiveData<Boolean> getIsLoading() {
@@ -8,7 +8,10 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.proyectoandroid.R;
+import com.example.proyectoandroid.model.OperacionPendiente;
+import com.example.proyectoandroid.repository.OutboxRepository;
 import com.example.proyectoandroid.repository.PacienteRepository;
+import com.example.proyectoandroid.util.DateParser;
 import com.example.proyectoandroid.util.DateUtils;
 import com.example.proyectoandroid.util.ErrorHandler;
 import com.example.proyectoandroid.util.NetworkUtils;
@@ -21,6 +24,7 @@ import java.util.Date;
  */
 public class RegistrarAtencionViewModel extends AndroidViewModel {
     private final PacienteRepository pacienteRepository;
+    private final BandejaSalida bandejaSalida;
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
     private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private final MutableLiveData<Boolean> registroExitoso = new MutableLiveData<>();
@@ -28,6 +32,7 @@ public class RegistrarAtencionViewModel extends AndroidViewModel {
     public RegistrarAtencionViewModel(@NonNull Application application) {
         super(application);
         pacienteRepository = PacienteRepository.getInstance();
+        bandejaSalida = new BandejaSalida(OutboxRepository.getInstance(application), isLoading, errorMessage);
     }
 
     /**
@@ -52,21 +57,24 @@ public class RegistrarAtencionViewModel extends AndroidViewModel {
             return;
         }
 
-        // Parsear fecha usando DateUtils
+        // Parsear fecha usando DateParser
         Date fecha;
         if (fechaStr == null || fechaStr.trim().isEmpty()) {
             fecha = DateUtils.getCurrentDate(); // Usar fecha actual si no se especifica
         } else {
-            fecha = DateUtils.parseDate(fechaStr);
-            if (fecha == null) {
+            long millis = DateParser.parsearFecha(fechaStr);
+            if (millis == DateParser.FECHA_INVALIDA) {
                 errorMessage.setValue(getApplication().getString(R.string.error_fecha_invalida));
                 return;
             }
+            fecha = new Date(millis);
         }
 
-        // Verificar conexión a internet
+        // Sin conexión la atención queda en la bandeja de salida y se envía al reconectar
         if (!NetworkUtils.isNetworkAvailable(getApplication())) {
-            errorMessage.setValue(getApplication().getString(R.string.error_sin_conexion));
+            bandejaSalida.encolar(OperacionPendiente.atencion(bandejaSalida.nuevoIdAtencion(), rutNormalizado, fecha,
+                    motivo.trim(), medico.trim(), diagnostico != null ? diagnostico.trim() : "",
+                    observaciones != null ? observaciones.trim() : ""));
             return;
         }
 
@@ -127,5 +135,11 @@ public class RegistrarAtencionViewModel extends AndroidViewModel {
     public LiveData<Boolean> getRegistroExitoso() {
         return registroExitoso;
     }
-}
 
+    /**
+     * Registros guardados sin conexión: aviso de guardado y estado de la bandeja de salida
+     */
+    public BandejaSalida getBandejaSalida() {
+        return bandejaSalida;
+    }
+}
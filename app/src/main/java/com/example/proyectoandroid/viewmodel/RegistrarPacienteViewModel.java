@@ -97,6 +97,10 @@ public class RegistrarPacienteViewModel extends AndroidViewModel {
                     @Override
                     public void onError(String error) {
                         isLoading.setValue(false);
+                        if (PacienteRepository.ERROR_RUT_YA_REGISTRADO.equals(error)) {
+                            errorMessage.setValue(getApplication().getString(R.string.error_rut_ya_registrado));
+                            return;
+                        }
                         // Usar ErrorHandler para mensajes más amigables
                         errorMessage.setValue(ErrorHandler.getFriendlyMessage(new Exception(error)));
                     }
@@ -0,0 +1,72 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Cita;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para CitasUtils
+ */
+public class CitasUtilsTest {
+
+    private static Date diasDesdeHoy(int dias, int hora) {
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_YEAR, dias);
+        cal.set(Calendar.HOUR_OF_DAY, hora);
+        cal.set(Calendar.MINUTE, 0);
+        return cal.getTime();
+    }
+
+    private static Cita cita(String id, Date fecha, String estado) {
+        return new Cita(id, fecha, "10:00", "motivo", "medico", estado, "consulta");
+    }
+
+    @Test
+    public void testFiltrarProximas_OmitePasadasYCanceladas() {
+        List<Cita> citas = new ArrayList<>();
+        citas.add(cita("ayer", diasDesdeHoy(-1, 10), "pendiente"));
+        citas.add(cita("cancelada", diasDesdeHoy(2, 10), "cancelada"));
+        citas.add(cita("sinEstado", diasDesdeHoy(2, 10), null));
+        citas.add(cita("manana", diasDesdeHoy(1, 10), "confirmada"));
+
+        List<Cita> proximas = CitasUtils.filtrarProximas(citas, new Date(), 5);
+        assertEquals(1, proximas.size());
+        assertEquals("manana", proximas.get(0).getId());
+    }
+
+    @Test
+    public void testFiltrarProximas_IncluyeCitasDeHoyYaPasadas() {
+        List<Cita> citas = new ArrayList<>();
+        citas.add(cita("hoyTemprano", diasDesdeHoy(0, 0), "pendiente"));
+
+        List<Cita> proximas = CitasUtils.filtrarProximas(citas, diasDesdeHoy(0, 23), 5);
+        assertEquals(1, proximas.size());
+    }
+
+    @Test
+    public void testFiltrarProximas_OrdenaYLimita() {
+        List<Cita> citas = new ArrayList<>();
+        citas.add(cita("sinFecha", null, "pendiente"));
+        for (int i = 10; i >= 1; i--) {
+            citas.add(cita("dia" + i, diasDesdeHoy(i, 9), "pendiente"));
+        }
+
+        List<Cita> proximas = CitasUtils.filtrarProximas(citas, new Date(), 3);
+        assertEquals(3, proximas.size());
+        assertEquals("dia1", proximas.get(0).getId());
+        assertEquals("dia2", proximas.get(1).getId());
+        assertEquals("dia3", proximas.get(2).getId());
+
+        // Las citas sin fecha no son próximas (la consulta de Firestore tampoco las devuelve)
+        List<Cita> todas = CitasUtils.filtrarProximas(citas, new Date(), 20);
+        assertEquals(10, todas.size());
+        assertEquals("dia10", todas.get(todas.size() - 1).getId());
+    }
+}
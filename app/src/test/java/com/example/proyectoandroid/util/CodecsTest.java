@@ -0,0 +1,150 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.model.Paciente;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para los codecs de documentos y CamposDocumento
+ */
+public class CodecsTest {
+
+    private final AtencionCodec atenciones = new AtencionCodec(Codecs.FECHAS_JAVA);
+    private final CitaCodec citas = new CitaCodec(Codecs.FECHAS_JAVA);
+    private final MedicamentoCodec medicamentos = new MedicamentoCodec(Codecs.FECHAS_JAVA);
+
+    @Test
+    public void testAtencion_DecodificaTodosLosCampos() {
+        Date fecha = new Date(1_700_000_000_000L);
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("emailPaciente", "a@b.cl");
+        datos.put("fecha", fecha);
+        datos.put("motivo", "Control");
+        datos.put("medico", "Dra. Pérez");
+        datos.put("diagnostico", "Sano");
+        datos.put("observaciones", "Nada");
+
+        Atencion atencion = atenciones.decodificar("a1", datos);
+
+        assertEquals("a1", atencion.getId());
+        assertEquals(fecha, atencion.getFecha());
+        assertEquals("Control", atencion.getMotivo());
+        assertEquals("Dra. Pérez", atencion.getMedico());
+        assertEquals("Sano", atencion.getDiagnostico());
+        assertEquals("Nada", atencion.getObservaciones());
+    }
+
+    @Test
+    public void testAtencion_TiposInesperados_QuedanNull() {
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("fecha", "2024-01-01");
+        datos.put("motivo", 42L);
+
+        Atencion atencion = atenciones.decodificar("a1", datos);
+
+        assertNull(atencion.getFecha());
+        assertNull(atencion.getMotivo());
+    }
+
+    @Test
+    public void testDatosNull_SoloId() {
+        assertEquals("c1", citas.decodificar("c1", null).getId());
+        assertNull(citas.decodificar("c1", null).getFecha());
+        assertEquals("m1", medicamentos.decodificar("m1", null).getId());
+    }
+
+    @Test
+    public void testCita_ValoresRepetidosCompartenInstancia() {
+        Map<String, Object> datos1 = new HashMap<>();
+        datos1.put("estado", new String("pendiente"));
+        datos1.put("medico", new String("Dr. Soto"));
+        Map<String, Object> datos2 = new HashMap<>();
+        datos2.put("estado", new String("pendiente"));
+        datos2.put("medico", new String("Dr. Soto"));
+
+        Cita c1 = citas.decodificar("c1", datos1);
+        Cita c2 = citas.decodificar("c2", datos2);
+
+        assertSame(c1.getEstado(), c2.getEstado());
+        assertSame(c1.getMedico(), c2.getMedico());
+    }
+
+    @Test
+    public void testMedicamento_DecodificaFechas() {
+        Date inicio = new Date(1_000);
+        Date fin = new Date(2_000);
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("nombre", "Paracetamol");
+        datos.put("fechaInicio", inicio);
+        datos.put("fechaFin", fin);
+
+        Medicamento medicamento = medicamentos.decodificar("m1", datos);
+
+        assertEquals("Paracetamol", medicamento.getNombre());
+        assertEquals(inicio, medicamento.getFechaInicio());
+        assertEquals(fin, medicamento.getFechaFin());
+        assertFalse(medicamento.isActivo());
+    }
+
+    @Test
+    public void testPaciente_SinRut_UsaElId() {
+        Map<String, Object> datos = new HashMap<>();
+        datos.put("nombre", "Ana");
+        datos.put("email", "ana@b.cl");
+
+        Paciente paciente = PacienteCodec.decodificar("12345678K", datos);
+
+        assertEquals("12345678K", paciente.getRut());
+        assertEquals("Ana", paciente.getNombre());
+        assertEquals("ana@b.cl", paciente.getEmail());
+    }
+
+    @Test
+    public void testCodificarAtencion_MismoContenidoQueUnHashMap() {
+        Date fecha = new Date(5_000);
+        Map<String, Object> esperado = new HashMap<>();
+        esperado.put("emailPaciente", "a@b.cl");
+        esperado.put("rutPaciente", "12345678K");
+        esperado.put("fecha", fecha);
+        esperado.put("motivo", "Control");
+        esperado.put("medico", "Dr. Soto");
+        esperado.put("diagnostico", "");
+        esperado.put("observaciones", "");
+
+        Map<String, Object> campos = AtencionCodec.codificar("a@b.cl", "12345678K", fecha,
+                "Control", "Dr. Soto", null, null);
+
+        assertEquals(esperado, campos);
+        assertEquals(esperado, new HashMap<>(campos));
+    }
+
+    @Test
+    public void testCodificarCita_PendienteYTipoPorDefecto() {
+        Map<String, Object> campos = CitaCodec.codificar("a@b.cl", "12345678K", new Date(),
+                "10:00", "Control", "Dr. Soto", null);
+
+        assertEquals("pendiente", campos.get("estado"));
+        assertEquals("consulta", campos.get("tipo"));
+        assertEquals(8, campos.size());
+        assertFalse(campos.containsKey("diagnostico"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCamposDocumento_SoloLectura() {
+        PacienteCodec.codificar("a@b.cl", "Ana", "12345678K", null, null).put("nombre", "Otra");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCamposDocumento_CantidadDeValoresDistinta() {
+        new CamposDocumento(new String[]{"a", "b"}, "1");
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para DateParser, incluyendo fuzzing contra la implementación anterior
+ * basada en SimpleDateFormat
+ */
+public class DateParserTest {
+
+    private static final String[] ZONAS = {"UTC", "America/Santiago", "Asia/Kolkata", "Europe/Madrid"};
+    // Sin 'E': la notación científica que aceptaba SimpleDateFormat ya no se reproduce
+    private static final String ALFABETO = "0123456789/-: \t+.x";
+
+    private final TimeZone zonaOriginal = TimeZone.getDefault();
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(zonaOriginal);
+        DateParser.reiniciarZona();
+    }
+
+    // ---------- Implementación anterior (referencia) ----------
+
+    private static Date parseAnterior(String dateStr, String formato) {
+        try {
+            SimpleDateFormat sdf = new SimpleDateFormat(formato, Locale.getDefault());
+            // DateParser usa siempre el calendario gregoriano, también con años escritos antes
+            // de 1582 que llegan al rango por desborde del mes
+            GregorianCalendar gregoriano = new GregorianCalendar();
+            gregoriano.setGregorianChange(new Date(Long.MIN_VALUE));
+            sdf.setCalendar(gregoriano);
+            return sdf.parse(dateStr.trim());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Date parseDateAnterior(String dateStr) {
+        if (dateStr == null || dateStr.trim().isEmpty()) return null;
+        if (dateStr.contains("/")) {
+            Date date = parseAnterior(dateStr, "dd/MM/yyyy");
+            if (date != null) return date;
+        }
+        return parseAnterior(dateStr, "yyyy-MM-dd");
+    }
+
+    private static Date combinarAnterior(Date date, String timeStr) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        if (timeStr != null && !timeStr.trim().isEmpty()) {
+            String[] partes = timeStr.trim().split(":");
+            if (partes.length == 2) {
+                try {
+                    // La versión anterior asignaba la hora antes de parsear los minutos, así que
+                    // "10:3a" dejaba la hora a medias; DateParser lo trata como hora inválida
+                    int horas = Integer.parseInt(partes[0]);
+                    int minutos = Integer.parseInt(partes[1]);
+                    cal.set(Calendar.HOUR_OF_DAY, horas);
+                    cal.set(Calendar.MINUTE, minutos);
+                    cal.set(Calendar.SECOND, 0);
+                    cal.set(Calendar.MILLISECOND, 0);
+                } catch (NumberFormatException e) {
+                    // Sin cambios
+                }
+            }
+        }
+        return cal.getTime();
+    }
+
+    private static int anio(Date date) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        return cal.get(Calendar.YEAR);
+    }
+
+    private static boolean dentroDelRango(Date date) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        return cal.get(Calendar.ERA) == GregorianCalendar.AD
+                && cal.get(Calendar.YEAR) >= 1583 && cal.get(Calendar.YEAR) <= 9999;
+    }
+
+    // ---------- Generación de entradas ----------
+
+    private static String numero(Random random, int maxDigitos) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextInt(10) == 0) sb.append(' ');
+        if (random.nextInt(15) == 0) sb.append('-');
+        int digitos = 1 + random.nextInt(maxDigitos);
+        for (int i = 0; i < digitos; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static String fechaAleatoria(Random random) {
+        String dia = random.nextBoolean() ? String.valueOf(1 + random.nextInt(31)) : numero(random, 3);
+        String mes = random.nextBoolean() ? String.valueOf(1 + random.nextInt(12)) : numero(random, 3);
+        String anio = random.nextInt(4) > 0 ? String.valueOf(1900 + random.nextInt(200)) : numero(random, 5);
+        String texto = random.nextBoolean()
+                ? dia + "/" + mes + "/" + anio
+                : anio + "-" + mes + "-" + dia;
+        return mutar(random, texto);
+    }
+
+    private static String horaAleatoria(Random random) {
+        String texto = random.nextInt(4) > 0
+                ? random.nextInt(24) + ":" + random.nextInt(60)
+                : numero(random, 4) + ":" + numero(random, 4);
+        return mutar(random, texto);
+    }
+
+    private static String mutar(Random random, String texto) {
+        StringBuilder sb = new StringBuilder(texto);
+        int mutaciones = random.nextInt(3) == 0 ? 1 + random.nextInt(3) : 0;
+        for (int i = 0; i < mutaciones; i++) {
+            int pos = random.nextInt(sb.length() + 1);
+            char c = ALFABETO.charAt(random.nextInt(ALFABETO.length()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.insert(pos, c);
+                    break;
+                case 1:
+                    if (pos < sb.length()) sb.deleteCharAt(pos);
+                    break;
+                default:
+                    if (pos < sb.length()) sb.setCharAt(pos, c);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void usarZona(String id) {
+        TimeZone.setDefault(TimeZone.getTimeZone(id));
+        DateParser.reiniciarZona();
+    }
+
+    // ---------- Tests ----------
+
+    @Test
+    public void testParsearFecha_AmbosFormatos() {
+        usarZona("UTC");
+        long esperado = 1706745600000L; // 2024-02-01T00:00Z
+        assertEquals(esperado, DateParser.parsearFecha("01/02/2024"));
+        assertEquals(esperado, DateParser.parsearFecha("2024-02-01"));
+        assertEquals(esperado, DateParser.parsearFecha(" 1/2/2024 "));
+        assertEquals(esperado, DateParser.parsearFecha("2024-02-01 10:00"));
+    }
+
+    @Test
+    public void testParsearFecha_Tolerante() {
+        usarZona("UTC");
+        assertEquals(DateParser.parsearFecha("02/03/2024"), DateParser.parsearFecha("31/02/2024"));
+        assertEquals(DateParser.parsearFecha("2025-01-01"), DateParser.parsearFecha("2024-13-01"));
+        assertEquals(DateParser.parsearFecha("31/12/2023"), DateParser.parsearFecha("00/01/2024"));
+    }
+
+    @Test
+    public void testParsearFecha_Invalidas() {
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha(null));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha(""));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("abc"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("1//2024"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("1 /2/2024"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("+1/2/2024"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("01-02/2024"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("2E3-02-01"));
+        // Fuera del rango soportado
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("1/2/24"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("1/2/20245"));
+        assertEquals(DateParser.FECHA_INVALIDA, DateParser.parsearFecha("1/2/1234567890"));
+    }
+
+    @Test
+    public void testParsearHora() {
+        assertEquals(10 * 60 + 30, DateParser.parsearHora("10:30"));
+        assertEquals(9 * 60 + 5, DateParser.parsearHora(" 9:5 "));
+        assertEquals(25 * 60, DateParser.parsearHora("25:00"));
+        assertEquals(10 * 60 + 30, DateParser.parsearHora("10:30:"));
+        assertEquals(DateParser.HORA_INVALIDA, DateParser.parsearHora("10:30:45"));
+        assertEquals(DateParser.HORA_INVALIDA, DateParser.parsearHora(":30"));
+        assertEquals(DateParser.HORA_INVALIDA, DateParser.parsearHora("10:"));
+        assertEquals(DateParser.HORA_INVALIDA, DateParser.parsearHora("10 :30"));
+        assertEquals(DateParser.HORA_INVALIDA, DateParser.parsearHora(null));
+    }
+
+    @Test
+    public void testFuzz_FechasEquivalentesALaImplementacionAnterior() {
+        Random random = new Random(20240201);
+        for (String zona : ZONAS) {
+            usarZona(zona);
+            for (int i = 0; i < 20000; i++) {
+                String texto = fechaAleatoria(random);
+                Date anterior = parseDateAnterior(texto);
+                long actual = DateParser.parsearFecha(texto);
+
+                if (anterior == null || !dentroDelRango(anterior)) {
+                    assertEquals(zona + " [" + texto + "]", DateParser.FECHA_INVALIDA, actual);
+                } else if (anio(anterior) >= 1950) {
+                    assertEquals(zona + " [" + texto + "]", anterior.getTime(), actual);
+                } else {
+                    // Antes de 1950 algunas zonas cambiaban de horario a medianoche y el tiempo
+                    // local medio (LMT) no es una hora exacta: se tolera la diferencia de desfase
+                    assertTrue(zona + " [" + texto + "]", Math.abs(anterior.getTime() - actual) <= 2 * 3600000L);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFuzz_HorasEquivalentesALaImplementacionAnterior() {
+        Random random = new Random(1030);
+        for (String zona : ZONAS) {
+            usarZona(zona);
+            for (int i = 0; i < 20000; i++) {
+                long fecha = DateParser.parsearFecha((1 + random.nextInt(28)) + "/"
+                        + (1 + random.nextInt(12)) + "/" + (1990 + random.nextInt(60)));
+                String hora = horaAleatoria(random);
+
+                Date anterior = combinarAnterior(new Date(fecha), hora);
+                int minutos = DateParser.parsearHora(hora);
+                long actual = minutos == DateParser.HORA_INVALIDA ? fecha : DateParser.combinar(fecha, minutos);
+
+                assertEquals(zona + " [" + hora + "]", anterior.getTime(), actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para FirestoreLedger
+ */
+public class FirestoreLedgerTest {
+
+    private long ahora;
+    private FirestoreLedger ledger;
+
+    @Before
+    public void setUp() {
+        ahora = 0;
+        ledger = new FirestoreLedger(() -> ahora);
+    }
+
+    private FirestoreLedger.Entrada unica() {
+        List<FirestoreLedger.Entrada> entradas = ledger.getEntradas();
+        assertEquals(1, entradas.size());
+        return entradas.get(0);
+    }
+
+    @Test
+    public void testConsultaVaciaDelServidorCobraUnaLectura() {
+        ledger.iniciar("PacienteRepository.buscarPacientePorEmail").lectura(0, false);
+
+        FirestoreLedger.Entrada entrada = unica();
+        assertEquals(1, entrada.getLlamadas());
+        assertEquals(0, entrada.getDocsServidor());
+        assertEquals(1, entrada.getLecturasFacturadas());
+    }
+
+    @Test
+    public void testLecturaDesdeCacheNoSeCobra() {
+        ledger.iniciar("op").lectura(3, true);
+
+        FirestoreLedger.Entrada entrada = unica();
+        assertEquals(3, entrada.getDocsCache());
+        assertEquals(0, entrada.getLecturasFacturadas());
+    }
+
+    @Test
+    public void testListenerCobraTodoAlInicioYLuegoSoloCambios() {
+        FirestoreLedger.Medicion medicion = ledger.iniciar("PacienteRepository.historialCitas");
+        medicion.snapshot(40, 40, true);   // caché local: gratis
+        medicion.snapshot(42, 2, false);   // primer snapshot del servidor: resultado completo
+        medicion.snapshot(42, 1, false);   // después solo lo que cambió
+
+        FirestoreLedger.Entrada entrada = unica();
+        assertEquals(3, entrada.getSnapshots());
+        assertEquals(1, entrada.getSnapshotsDesdeCache());
+        assertEquals(40, entrada.getDocsCache());
+        assertEquals(43, entrada.getDocsServidor());
+        assertEquals(43, entrada.getLecturasFacturadas());
+        assertEquals(42, entrada.getMaxSnapshot());
+        assertEquals(124 / 3.0, entrada.getPromedioSnapshot(), 0.001);
+    }
+
+    @Test
+    public void testEscriturasYErrores() {
+        ledger.iniciar("PacienteRepository.registrarPaciente").escritura(3);
+        ledger.iniciar("PacienteRepository.registrarPaciente").error();
+
+        FirestoreLedger.Entrada entrada = unica();
+        assertEquals(2, entrada.getLlamadas());
+        assertEquals(3, entrada.getEscrituras());
+        assertEquals(1, entrada.getErrores());
+    }
+
+    @Test
+    public void testAtribuyeALaPantallaQueInicioLaMedicion() {
+        ledger.setPantallaActual("InformacionActivity");
+        FirestoreLedger.Medicion medicion = ledger.iniciar("MedicamentoRepository.medicamentos");
+        ledger.setPantallaActual("MedicamentosActivity");
+        medicion.snapshot(5, 5, false);
+        ledger.iniciar("MedicamentoRepository.medicamentos").lectura(1, false);
+
+        List<FirestoreLedger.Entrada> entradas = ledger.getEntradas();
+        assertEquals(2, entradas.size());
+        // Ordenadas por lecturas facturadas
+        assertEquals("InformacionActivity", entradas.get(0).pantalla);
+        assertEquals(5, entradas.get(0).getLecturasFacturadas());
+        assertEquals("MedicamentosActivity", entradas.get(1).pantalla);
+    }
+
+    @Test
+    public void testHistogramaSoloConLaPrimeraRespuesta() {
+        ahora = 1000;
+        FirestoreLedger.Medicion medicion = ledger.iniciar("op");
+        ahora = 1180;
+        medicion.snapshot(1, 1, false);
+        ahora = 9000;
+        medicion.snapshot(1, 1, false);
+
+        FirestoreLedger.Entrada entrada = unica();
+        assertEquals(1, entrada.getMuestrasLatencia());
+        assertEquals(1, entrada.getHistograma()[FirestoreLedger.tramo(180)]);
+        assertEquals(180, entrada.getLatenciaPromedioMs());
+        assertEquals(250, entrada.getPercentilMs(0.5));
+    }
+
+    @Test
+    public void testTramos() {
+        assertEquals(0, FirestoreLedger.tramo(0));
+        assertEquals(0, FirestoreLedger.tramo(50));
+        assertEquals(1, FirestoreLedger.tramo(51));
+        assertEquals(FirestoreLedger.LIMITES_MS.length, FirestoreLedger.tramo(10_000));
+    }
+
+    @Test
+    public void testPercentilSinMuestras() {
+        ledger.iniciar("op");
+        assertEquals(-1, unica().getPercentilMs(0.95));
+    }
+
+    @Test
+    public void testLimpiar() {
+        ledger.iniciar("op").lectura(1, false);
+        ledger.limpiar();
+        assertTrue(ledger.getEntradas().isEmpty());
+    }
+
+    @Test
+    public void testExportarCsv() throws IOException {
+        ledger.setPantallaActual("Pantalla, con coma");
+        ledger.iniciar("op").lectura(2, false);
+
+        StringWriter salida = new StringWriter();
+        ledger.exportarCsv(salida);
+        String[] lineas = salida.toString().split("\n");
+
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].startsWith("pantalla,operacion,llamadas,"));
+        assertTrue(lineas[0].endsWith(",lat_gt_2500ms"));
+        assertTrue(lineas[1].startsWith("\"Pantalla, con coma\",op,1,0,0,0,2,0,2,0,0.0,0,0,1,"));
+        assertEquals(lineas[0].split(",").length, lineas[1].split(",").length - 1);
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.proyectoandroid.util;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para LifecycleSubscription
+ */
+public class LifecycleSubscriptionTest {
+
+    private static final long GRACIA = 1000;
+
+    /**
+     * Temporizador manual: las tareas corren solo al avanzar el reloj
+     */
+    private static class TemporizadorFalso implements LifecycleSubscription.Temporizador {
+        final List<Runnable> tareas = new ArrayList<>();
+        final List<Long> vencimientos = new ArrayList<>();
+        long ahora;
+
+        @Override
+        public void programar(Runnable tarea, long retrasoMs) {
+            tareas.add(tarea);
+            vencimientos.add(ahora + retrasoMs);
+        }
+
+        @Override
+        public void cancelar(Runnable tarea) {
+            int i = tareas.indexOf(tarea);
+            while (i >= 0) {
+                tareas.remove(i);
+                vencimientos.remove(i);
+                i = tareas.indexOf(tarea);
+            }
+        }
+
+        void avanzar(long ms) {
+            ahora += ms;
+            for (int i = 0; i < tareas.size(); ) {
+                if (vencimientos.get(i) <= ahora) {
+                    Runnable tarea = tareas.remove(i);
+                    vencimientos.remove(i);
+                    tarea.run();
+                } else {
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ciclo de vida manual que reenvía los eventos a sus observadores
+     */
+    private static class PantallaFalsa extends Lifecycle implements LifecycleOwner {
+        final List<LifecycleObserver> observadores = new ArrayList<>();
+        State estado = State.CREATED;
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return this;
+        }
+
+        @Override
+        public void addObserver(@NonNull LifecycleObserver observador) {
+            observadores.add(observador);
+            if (estado.isAtLeast(State.STARTED)) {
+                ((LifecycleSubscription) observador).onStart(this);
+            }
+        }
+
+        @Override
+        public void removeObserver(@NonNull LifecycleObserver observador) {
+            observadores.remove(observador);
+        }
+
+        @NonNull
+        @Override
+        public State getCurrentState() {
+            return estado;
+        }
+
+        void iniciar() {
+            estado = State.STARTED;
+            for (LifecycleObserver o : new ArrayList<>(observadores)) {
+                ((LifecycleSubscription) o).onStart(this);
+            }
+        }
+
+        void detener() {
+            estado = State.CREATED;
+            for (LifecycleObserver o : new ArrayList<>(observadores)) {
+                ((LifecycleSubscription) o).onStop(this);
+            }
+        }
+
+        void destruir() {
+            estado = State.DESTROYED;
+            for (LifecycleObserver o : new ArrayList<>(observadores)) {
+                ((LifecycleSubscription) o).onDestroy(this);
+            }
+        }
+    }
+
+    private int aperturas;
+    private int cierres;
+    private TemporizadorFalso temporizador;
+    private LifecycleSubscription suscripcion;
+
+    @Before
+    public void setUp() {
+        aperturas = 0;
+        cierres = 0;
+        temporizador = new TemporizadorFalso();
+        suscripcion = new LifecycleSubscription(() -> {
+            aperturas++;
+            return () -> cierres++;
+        }, GRACIA, temporizador);
+    }
+
+    @Test
+    public void testSeAbreAlIniciar() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        suscripcion.vincular(pantalla);
+        assertEquals(0, aperturas);
+
+        pantalla.iniciar();
+
+        assertEquals(1, aperturas);
+        assertTrue(suscripcion.isActiva());
+    }
+
+    @Test
+    public void testVincularPantallaVisible_AbreDeInmediato() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        pantalla.iniciar();
+
+        suscripcion.vincular(pantalla);
+
+        assertEquals(1, aperturas);
+    }
+
+    @Test
+    public void testSePausaTrasLaGracia() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        suscripcion.vincular(pantalla);
+        pantalla.iniciar();
+        pantalla.detener();
+
+        temporizador.avanzar(GRACIA - 1);
+        assertEquals(0, cierres);
+        assertTrue(suscripcion.isActiva());
+
+        temporizador.avanzar(1);
+        assertEquals(1, cierres);
+        assertFalse(suscripcion.isActiva());
+    }
+
+    @Test
+    public void testVolverDentroDeLaGracia_NoReabre() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        suscripcion.vincular(pantalla);
+        pantalla.iniciar();
+        pantalla.detener();
+        temporizador.avanzar(GRACIA / 2);
+
+        pantalla.iniciar();
+        temporizador.avanzar(GRACIA * 10);
+
+        assertEquals(1, aperturas);
+        assertEquals(0, cierres);
+    }
+
+    @Test
+    public void testReanudarTrasPausa_VuelveASuscribir() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        suscripcion.vincular(pantalla);
+        pantalla.iniciar();
+        pantalla.detener();
+        temporizador.avanzar(GRACIA);
+
+        pantalla.iniciar();
+
+        assertEquals(2, aperturas);
+        assertEquals(1, cierres);
+        assertTrue(suscripcion.isActiva());
+    }
+
+    @Test
+    public void testRotacion_ConservaElListener() {
+        PantallaFalsa vieja = new PantallaFalsa();
+        suscripcion.vincular(vieja);
+        vieja.iniciar();
+        vieja.detener();
+        vieja.destruir();
+
+        PantallaFalsa nueva = new PantallaFalsa();
+        suscripcion.vincular(nueva);
+        nueva.iniciar();
+        temporizador.avanzar(GRACIA * 10);
+
+        assertEquals(1, aperturas);
+        assertEquals(0, cierres);
+        assertTrue(vieja.observadores.isEmpty());
+        assertEquals(1, nueva.observadores.size());
+    }
+
+    @Test
+    public void testDestruirSinNuevaPantalla_SePausaIgual() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        suscripcion.vincular(pantalla);
+        pantalla.iniciar();
+        pantalla.detener();
+        pantalla.destruir();
+
+        temporizador.avanzar(GRACIA);
+
+        assertEquals(1, cierres);
+        assertTrue(pantalla.observadores.isEmpty());
+    }
+
+    @Test
+    public void testCancelar_CierreDefinitivo() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        suscripcion.vincular(pantalla);
+        pantalla.iniciar();
+        pantalla.detener();
+
+        suscripcion.cancelar();
+        temporizador.avanzar(GRACIA);
+        suscripcion.vincular(pantalla);
+        pantalla.iniciar();
+
+        assertEquals(1, aperturas);
+        assertEquals(1, cierres);
+        assertTrue(temporizador.tareas.isEmpty());
+        assertTrue(pantalla.observadores.isEmpty());
+    }
+
+    @Test
+    public void testVincularDosVeces_UnSoloObservador() {
+        PantallaFalsa pantalla = new PantallaFalsa();
+        pantalla.iniciar();
+        suscripcion.vincular(pantalla);
+        suscripcion.vincular(pantalla);
+
+        assertEquals(1, pantalla.observadores.size());
+        assertEquals(1, aperturas);
+    }
+}
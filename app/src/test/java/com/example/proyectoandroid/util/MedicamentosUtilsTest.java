@@ -0,0 +1,43 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para MedicamentosUtils
+ */
+public class MedicamentosUtilsTest {
+
+    private static final Date AHORA = new Date(1_700_000_000_000L);
+    private static final long DIA = 24L * 60 * 60 * 1000;
+
+    private static Date dias(int n) {
+        return new Date(AHORA.getTime() + n * DIA);
+    }
+
+    @Test
+    public void testEstaActivo_DentroDelRango() {
+        assertTrue(MedicamentosUtils.estaActivo(dias(-5), dias(5), AHORA));
+    }
+
+    @Test
+    public void testEstaActivo_IncluyeLosBordes() {
+        assertTrue(MedicamentosUtils.estaActivo(AHORA, dias(5), AHORA));
+        assertTrue(MedicamentosUtils.estaActivo(dias(-5), AHORA, AHORA));
+    }
+
+    @Test
+    public void testEstaActivo_FueraDelRango() {
+        assertFalse(MedicamentosUtils.estaActivo(dias(1), dias(5), AHORA));
+        assertFalse(MedicamentosUtils.estaActivo(dias(-5), dias(-1), AHORA));
+    }
+
+    @Test
+    public void testEstaActivo_SinFechas() {
+        assertFalse(MedicamentosUtils.estaActivo(null, dias(5), AHORA));
+        assertFalse(MedicamentosUtils.estaActivo(dias(-5), null, AHORA));
+    }
+}
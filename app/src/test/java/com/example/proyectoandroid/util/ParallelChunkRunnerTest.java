@@ -0,0 +1,170 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para ParallelChunkRunner
+ */
+public class ParallelChunkRunnerTest {
+
+    /**
+     * Listener que guarda lo informado
+     */
+    private static class Registro implements ParallelChunkRunner.Listener<Integer> {
+        final List<String> errores = new ArrayList<>();
+        final List<Integer> progreso = new ArrayList<>();
+        int enviados = -1;
+        int fallidos = -1;
+        int finales;
+
+        @Override
+        public synchronized void onLoteTerminado(List<Integer> lote, String error, int lotesTerminados, int lotesTotales) {
+            if (error != null) {
+                errores.add(error);
+            }
+            progreso.add(lotesTerminados);
+        }
+
+        @Override
+        public synchronized void onTerminado(int itemsEnviados, int lotesFallidos) {
+            enviados = itemsEnviados;
+            fallidos = lotesFallidos;
+            finales++;
+        }
+    }
+
+    private static List<Integer> numeros(int cantidad) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+
+    @Test
+    public void testDividir() {
+        List<List<Integer>> lotes = ParallelChunkRunner.dividir(numeros(7), 3);
+
+        assertEquals(3, lotes.size());
+        assertEquals(Arrays.asList(0, 1, 2), lotes.get(0));
+        assertEquals(Arrays.asList(6), lotes.get(2));
+        assertTrue(ParallelChunkRunner.dividir(new ArrayList<Integer>(), 3).isEmpty());
+    }
+
+    @Test
+    public void testListaVacia_TerminaDeInmediato() {
+        Registro registro = new Registro();
+        new ParallelChunkRunner<Integer>(500, 4).ejecutar(new ArrayList<>(),
+                (lote, resultado) -> fail("no debe enviar"), registro);
+
+        assertEquals(1, registro.finales);
+        assertEquals(0, registro.enviados);
+    }
+
+    @Test
+    public void testEnviadorSincrono_EnviaTodo() {
+        Registro registro = new Registro();
+        List<Integer> recibidos = new ArrayList<>();
+        new ParallelChunkRunner<Integer>(500, 4).ejecutar(numeros(1234), (lote, resultado) -> {
+            recibidos.addAll(lote);
+            resultado.exito();
+        }, registro);
+
+        assertEquals(numeros(1234), recibidos);
+        assertEquals(1234, registro.enviados);
+        assertEquals(0, registro.fallidos);
+        assertEquals(Arrays.asList(1, 2, 3), registro.progreso);
+        assertEquals(1, registro.finales);
+    }
+
+    @Test
+    public void testRespetaMaximoEnVuelo() {
+        List<ParallelChunkRunner.Resultado> pendientes = new ArrayList<>();
+        Registro registro = new Registro();
+        new ParallelChunkRunner<Integer>(10, 3).ejecutar(numeros(100),
+                (lote, resultado) -> pendientes.add(resultado), registro);
+
+        assertEquals(3, pendientes.size());
+
+        // Cada lote que termina deja entrar exactamente uno nuevo
+        pendientes.remove(0).exito();
+        assertEquals(3, pendientes.size());
+
+        while (!pendientes.isEmpty()) {
+            assertTrue(pendientes.size() <= 3);
+            pendientes.remove(0).exito();
+        }
+        assertEquals(100, registro.enviados);
+        assertEquals(1, registro.finales);
+    }
+
+    @Test
+    public void testLoteFallido_NoDetieneLosDemas() {
+        Registro registro = new Registro();
+        new ParallelChunkRunner<Integer>(10, 2).ejecutar(numeros(50), (lote, resultado) -> {
+            if (lote.get(0) == 20) {
+                resultado.error("sin permiso");
+            } else {
+                resultado.exito();
+            }
+        }, registro);
+
+        assertEquals(40, registro.enviados);
+        assertEquals(1, registro.fallidos);
+        assertEquals(Arrays.asList("sin permiso"), registro.errores);
+    }
+
+    @Test
+    public void testResultadoDuplicado_SeIgnora() {
+        Registro registro = new Registro();
+        new ParallelChunkRunner<Integer>(10, 1).ejecutar(numeros(20), (lote, resultado) -> {
+            resultado.exito();
+            resultado.error("tarde");
+            resultado.exito();
+        }, registro);
+
+        assertEquals(20, registro.enviados);
+        assertEquals(0, registro.fallidos);
+        assertEquals(1, registro.finales);
+    }
+
+    @Test
+    public void testConcurrencia_CuentaTodosLosLotes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger enVuelo = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        CountDownLatch fin = new CountDownLatch(1);
+        Registro registro = new Registro() {
+            @Override
+            public synchronized void onTerminado(int itemsEnviados, int lotesFallidos) {
+                super.onTerminado(itemsEnviados, lotesFallidos);
+                fin.countDown();
+            }
+        };
+
+        new ParallelChunkRunner<Integer>(7, 4).ejecutar(numeros(5000), (lote, resultado) -> {
+            maximo.accumulateAndGet(enVuelo.incrementAndGet(), Math::max);
+            executor.execute(() -> {
+                enVuelo.decrementAndGet();
+                resultado.exito();
+            });
+        }, registro);
+
+        assertTrue(fin.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(5000, registro.enviados);
+        assertEquals(1, registro.finales);
+        assertTrue(maximo.get() <= 4);
+    }
+}
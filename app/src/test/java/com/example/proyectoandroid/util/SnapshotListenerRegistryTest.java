@@ -0,0 +1,231 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para SnapshotListenerRegistry
+ */
+public class SnapshotListenerRegistryTest {
+
+    /**
+     * Fuente falsa que cuenta aperturas y cierres y permite emitir a mano
+     */
+    private static class FuenteFalsa implements SnapshotListenerRegistry.Fuente<String> {
+        final AtomicInteger aperturas = new AtomicInteger();
+        final AtomicInteger cierres = new AtomicInteger();
+        volatile SnapshotListenerRegistry.Emisor<String> emisor;
+
+        @Override
+        public SnapshotListenerRegistry.Cancelable abrir(SnapshotListenerRegistry.Emisor<String> emisor) {
+            aperturas.incrementAndGet();
+            this.emisor = emisor;
+            return cierres::incrementAndGet;
+        }
+
+        void emitir(String valor) {
+            emisor.emitir(valor);
+        }
+    }
+
+    private SnapshotListenerRegistry<String> registro;
+    private FuenteFalsa fuente;
+
+    @Before
+    public void setUp() {
+        registro = new SnapshotListenerRegistry<>();
+        fuente = new FuenteFalsa();
+    }
+
+    @Test
+    public void testUnaFuentePorClave_RepartidaATodos() {
+        List<String> a = new ArrayList<>();
+        List<String> b = new ArrayList<>();
+        registro.suscribir("citas", fuente, a::add);
+        registro.suscribir("citas", fuente, b::add);
+
+        fuente.emitir("v1");
+
+        assertEquals(1, fuente.aperturas.get());
+        assertEquals(1, registro.fuentesAbiertas());
+        assertEquals(2, registro.suscriptores("citas"));
+        assertEquals(Arrays.asList("v1"), a);
+        assertEquals(Arrays.asList("v1"), b);
+    }
+
+    @Test
+    public void testClavesDistintas_FuentesDistintas() {
+        FuenteFalsa otra = new FuenteFalsa();
+        registro.suscribir("citas", fuente, v -> { });
+        registro.suscribir("atenciones", otra, v -> { });
+
+        assertEquals(1, fuente.aperturas.get());
+        assertEquals(1, otra.aperturas.get());
+        assertEquals(2, registro.fuentesAbiertas());
+    }
+
+    @Test
+    public void testSuscriptorTardio_RecibeUltimoValor() {
+        registro.suscribir("citas", fuente, v -> { });
+        fuente.emitir("v1");
+        fuente.emitir("v2");
+
+        List<String> tardio = new ArrayList<>();
+        SnapshotListenerRegistry<String>.Suscripcion s = registro.suscribir("citas", fuente, tardio::add);
+
+        assertEquals(Arrays.asList("v2"), tardio);
+        assertTrue(s.recibioValor());
+        assertEquals(1, fuente.aperturas.get());
+    }
+
+    @Test
+    public void testRepeticion_AdaptaElUltimoValor() {
+        registro = new SnapshotListenerRegistry<>(ultimo -> "completo:" + ultimo);
+        registro.suscribir("citas", fuente, v -> { });
+        fuente.emitir("v1");
+
+        List<String> tardio = new ArrayList<>();
+        registro.suscribir("citas", fuente, tardio::add);
+        fuente.emitir("v2");
+
+        assertEquals(Arrays.asList("completo:v1", "v2"), tardio);
+    }
+
+    @Test
+    public void testSinValorAun_NoRepite() {
+        registro.suscribir("citas", fuente, v -> { });
+        List<String> tardio = new ArrayList<>();
+        SnapshotListenerRegistry<String>.Suscripcion s = registro.suscribir("citas", fuente, tardio::add);
+
+        assertTrue(tardio.isEmpty());
+        assertFalse(s.recibioValor());
+    }
+
+    @Test
+    public void testSeCierraConElUltimoSuscriptor() {
+        SnapshotListenerRegistry<String>.Suscripcion s1 = registro.suscribir("citas", fuente, v -> { });
+        SnapshotListenerRegistry<String>.Suscripcion s2 = registro.suscribir("citas", fuente, v -> { });
+
+        s1.cancelar();
+        assertEquals(0, fuente.cierres.get());
+        assertEquals(1, registro.suscriptores("citas"));
+
+        s2.cancelar();
+        assertEquals(1, fuente.cierres.get());
+        assertEquals(0, registro.fuentesAbiertas());
+
+        // Cancelar de nuevo no tiene efecto
+        s1.cancelar();
+        s2.cancelar();
+        assertEquals(1, fuente.cierres.get());
+    }
+
+    @Test
+    public void testCancelado_NoRecibeMas() {
+        List<String> a = new ArrayList<>();
+        List<String> b = new ArrayList<>();
+        SnapshotListenerRegistry<String>.Suscripcion sa = registro.suscribir("citas", fuente, a::add);
+        registro.suscribir("citas", fuente, b::add);
+
+        fuente.emitir("v1");
+        sa.cancelar();
+        fuente.emitir("v2");
+
+        assertEquals(Arrays.asList("v1"), a);
+        assertEquals(Arrays.asList("v1", "v2"), b);
+    }
+
+    @Test
+    public void testVolverASuscribir_AbreFuenteNuevaSinValorAnterior() {
+        registro.suscribir("citas", fuente, v -> { }).cancelar();
+        SnapshotListenerRegistry.Emisor<String> emisorViejo = fuente.emisor;
+
+        List<String> nuevo = new ArrayList<>();
+        registro.suscribir("citas", fuente, nuevo::add);
+        // Un valor tardío de la fuente ya cerrada se descarta
+        emisorViejo.emitir("viejo");
+
+        assertEquals(2, fuente.aperturas.get());
+        assertTrue(nuevo.isEmpty());
+    }
+
+    @Test
+    public void testCancelarDesdeElPropioCallback() {
+        List<String> recibidos = new ArrayList<>();
+        registro.suscribir("citas", fuente, recibidos::add);
+        AtomicInteger llamadas = new AtomicInteger();
+        AtomicReference<SnapshotListenerRegistry<String>.Suscripcion> propia = new AtomicReference<>();
+        propia.set(registro.suscribir("citas", fuente, v -> {
+            llamadas.incrementAndGet();
+            propia.get().cancelar();
+        }));
+
+        fuente.emitir("v1");
+        fuente.emitir("v2");
+
+        assertEquals(1, llamadas.get());
+        assertEquals(Arrays.asList("v1", "v2"), recibidos);
+    }
+
+    @Test
+    public void testFuenteQueEmiteAlAbrir() {
+        SnapshotListenerRegistry.Fuente<String> sincrona = emisor -> {
+            emisor.emitir("inmediato");
+            return () -> { };
+        };
+        List<String> recibidos = new ArrayList<>();
+        registro.suscribir("citas", sincrona, recibidos::add);
+
+        assertEquals(Arrays.asList("inmediato"), recibidos);
+    }
+
+    @Test
+    public void testCerrarTodas() {
+        FuenteFalsa otra = new FuenteFalsa();
+        List<String> recibidos = new ArrayList<>();
+        registro.suscribir("citas", fuente, recibidos::add);
+        registro.suscribir("atenciones", otra, recibidos::add);
+
+        registro.cerrarTodas();
+        fuente.emitir("v1");
+
+        assertEquals(1, fuente.cierres.get());
+        assertEquals(1, otra.cierres.get());
+        assertEquals(0, registro.fuentesAbiertas());
+        assertTrue(recibidos.isEmpty());
+    }
+
+    @Test
+    public void testConcurrencia_ConteoDeReferencias() throws Exception {
+        int hilos = 8;
+        int vueltas = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch listo = new CountDownLatch(hilos);
+        for (int h = 0; h < hilos; h++) {
+            executor.execute(() -> {
+                for (int i = 0; i < vueltas; i++) {
+                    registro.suscribir("citas", fuente, v -> { }).cancelar();
+                }
+                listo.countDown();
+            });
+        }
+        assertTrue(listo.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Cada apertura se cerró exactamente una vez y no quedó nada abierto
+        assertEquals(0, registro.fuentesAbiertas());
+        assertEquals(fuente.aperturas.get(), fuente.cierres.get());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.model.Cita;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para SortedListModel y ChangeSet
+ */
+public class SortedListModelTest {
+
+    private SortedListModel<Cita> modelo;
+
+    @Before
+    public void setUp() {
+        modelo = new SortedListModel<>(CitasUtils.POR_FECHA, Cita::getId);
+    }
+
+    private static Cita cita(String id, long fecha, String estado) {
+        return new Cita(id, new Date(fecha), "10:00", "motivo", "medico", estado, "consulta");
+    }
+
+    private static List<String> ids(List<Cita> citas) {
+        List<String> ids = new ArrayList<>();
+        for (Cita c : citas) ids.add(c.getId());
+        return ids;
+    }
+
+    @Test
+    public void testPrimeraConfirmacion_EsCargaCompletaOrdenada() {
+        modelo.insertarOActualizar(cita("b", 200, "pendiente"));
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("c", 300, "pendiente"));
+
+        ChangeSet<Cita> cambios = modelo.confirmar();
+        assertTrue(cambios.isCompleto());
+        assertTrue(cambios.getCambios().isEmpty());
+        assertEquals(Arrays.asList("a", "b", "c"), ids(cambios.getItems()));
+    }
+
+    @Test
+    public void testModificarEstado_MismaPosicion() {
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("b", 200, "pendiente"));
+        modelo.confirmar();
+
+        modelo.insertarOActualizar(cita("b", 200, "confirmada"));
+        ChangeSet<Cita> cambios = modelo.confirmar();
+
+        assertFalse(cambios.isCompleto());
+        assertEquals(1, cambios.getCambios().size());
+        ChangeSet.Cambio<Cita> cambio = cambios.getCambios().get(0);
+        assertEquals(ChangeSet.Tipo.MODIFICADO, cambio.getTipo());
+        assertEquals(1, cambio.getDesde());
+        assertEquals(1, cambio.getHasta());
+        assertEquals("confirmada", cambios.getItems().get(1).getEstado());
+    }
+
+    @Test
+    public void testModificarFecha_MueveElElemento() {
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("b", 200, "pendiente"));
+        modelo.insertarOActualizar(cita("c", 300, "pendiente"));
+        modelo.confirmar();
+
+        modelo.insertarOActualizar(cita("a", 400, "pendiente"));
+        ChangeSet<Cita> cambios = modelo.confirmar();
+
+        ChangeSet.Cambio<Cita> cambio = cambios.getCambios().get(0);
+        assertEquals(0, cambio.getDesde());
+        assertEquals(2, cambio.getHasta());
+        assertEquals(Arrays.asList("b", "c", "a"), ids(cambios.getItems()));
+    }
+
+    @Test
+    public void testEliminar_RegistraPosicionEIgnoraIdsDesconocidos() {
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("b", 200, "pendiente"));
+        modelo.confirmar();
+
+        modelo.eliminar("b");
+        modelo.eliminar("noExiste");
+        ChangeSet<Cita> cambios = modelo.confirmar();
+
+        assertEquals(1, cambios.getCambios().size());
+        assertEquals(ChangeSet.Tipo.ELIMINADO, cambios.getCambios().get(0).getTipo());
+        assertEquals(1, cambios.getCambios().get(0).getDesde());
+        assertNull(modelo.obtener("b"));
+        assertEquals(Arrays.asList("a"), ids(cambios.getItems()));
+    }
+
+    @Test
+    public void testFechasIguales_DesempataPorId() {
+        modelo.insertarOActualizar(cita("z", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("m", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.eliminar("m");
+
+        assertEquals(Arrays.asList("a", "z"), ids(modelo.confirmar().getItems()));
+    }
+
+    @Test
+    public void testSinCambios_EsVacio() {
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.confirmar();
+
+        assertTrue(modelo.confirmar().isVacio());
+    }
+
+    @Test
+    public void testPrimeros_RecortaComoCargaCompleta() {
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.confirmar();
+        modelo.insertarOActualizar(cita("b", 200, "pendiente"));
+        modelo.insertarOActualizar(cita("c", 300, "pendiente"));
+
+        ChangeSet<Cita> cambios = modelo.confirmar();
+        assertSame(cambios, cambios.primeros(5));
+
+        ChangeSet<Cita> recortado = cambios.primeros(2);
+        assertTrue(recortado.isCompleto());
+        assertEquals(Arrays.asList("a", "b"), ids(recortado.getItems()));
+    }
+
+    @Test
+    public void testReemplazar_DiscoLuegoServidorSinLaCita_LaQuita() {
+        // Desde disco: "b" se canceló con la app cerrada, el servidor ya no la devuelve
+        modelo.reemplazar(Arrays.asList(cita("a", 100, "pendiente"), cita("b", 200, "pendiente")),
+                Collections.emptySet());
+        modelo.confirmar();
+
+        modelo.reemplazar(Arrays.asList(cita("a", 100, "confirmada"), cita("c", 300, "pendiente")),
+                Collections.emptySet());
+        ChangeSet<Cita> cambios = modelo.confirmar();
+
+        assertEquals(Arrays.asList("a", "c"), ids(cambios.getItems()));
+        assertNull(modelo.obtener("b"));
+        assertEquals("confirmada", modelo.obtener("a").getEstado());
+    }
+
+    @Test
+    public void testReemplazar_ConservaLosIdsIndicados() {
+        modelo.insertarOActualizar(cita("a", 100, "pendiente"));
+        modelo.insertarOActualizar(cita("local", 150, "pendiente"));
+        modelo.insertarOActualizar(cita("b", 200, "pendiente"));
+        modelo.confirmar();
+
+        modelo.reemplazar(Collections.singletonList(cita("c", 300, "pendiente")),
+                Collections.singleton("local"));
+        ChangeSet<Cita> cambios = modelo.confirmar();
+
+        assertEquals(Arrays.asList("local", "c"), ids(cambios.getItems()));
+        assertEquals(3, cambios.getCambios().size());
+    }
+
+    @Test
+    public void testCambiosAleatorios_CoincidenConOrdenCompleto() {
+        Random random = new Random(42);
+        List<Cita> referencia = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            String id = "c" + random.nextInt(200);
+            referencia.removeIf(c -> c.getId().equals(id));
+            if (random.nextInt(4) == 0) {
+                modelo.eliminar(id);
+            } else {
+                Cita nueva = cita(id, random.nextInt(50), "pendiente");
+                modelo.insertarOActualizar(nueva);
+                referencia.add(nueva);
+            }
+        }
+
+        referencia.sort(CitasUtils.POR_FECHA.thenComparing(Cita::getId));
+        assertEquals(ids(referencia), ids(modelo.confirmar().getItems()));
+    }
+}
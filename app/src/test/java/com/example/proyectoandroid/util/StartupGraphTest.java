@@ -0,0 +1,188 @@
+package com.example.proyectoandroid.util;
+
+import com.example.proyectoandroid.util.StartupGraph.Modo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para StartupGraph
+ */
+public class StartupGraphTest {
+
+    /**
+     * Executor manual: las tareas quedan en cola hasta que el test las corre
+     */
+    private static class ColaManual implements java.util.concurrent.Executor {
+        final Queue<Runnable> tareas = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable tarea) {
+            tareas.add(tarea);
+        }
+
+        void correrTodo() {
+            Runnable tarea;
+            while ((tarea = tareas.poll()) != null) {
+                tarea.run();
+            }
+        }
+    }
+
+    private ColaManual principal;
+    private ColaManual fondo;
+    private long tiempo;
+    private List<String> orden;
+    private StartupGraph grafo;
+
+    @Before
+    public void setUp() {
+        principal = new ColaManual();
+        fondo = new ColaManual();
+        tiempo = 0;
+        orden = Collections.synchronizedList(new ArrayList<>());
+        grafo = new StartupGraph(principal, fondo, () -> tiempo);
+    }
+
+    private StartupGraph.Inicializador registrar(String nombre) {
+        return () -> orden.add(nombre);
+    }
+
+    @Test
+    public void testInmediatosCorrenDentroDeIniciar() {
+        grafo.agregar("a", Modo.INMEDIATO, registrar("a"));
+        grafo.agregar("b", Modo.INMEDIATO, registrar("b"), "a");
+        grafo.agregar("c", Modo.FONDO, registrar("c"));
+
+        grafo.iniciar();
+
+        assertEquals(Arrays.asList("a", "b"), orden);
+        assertTrue(grafo.estaListo("b"));
+        assertFalse(grafo.estaListo("c"));
+        assertEquals(1, fondo.tareas.size());
+    }
+
+    @Test
+    public void testFondoEsperaSusDependencias() {
+        grafo.agregar("firebase", Modo.FONDO, registrar("firebase"));
+        grafo.agregar("registros", Modo.INMEDIATO, registrar("registros"));
+        grafo.agregar("rut", Modo.FONDO, registrar("rut"), "registros", "firebase");
+
+        grafo.iniciar();
+        // Solo firebase puede partir; rut espera a que termine
+        assertEquals(1, fondo.tareas.size());
+        fondo.correrTodo();
+
+        assertEquals(Arrays.asList("registros", "firebase", "rut"), orden);
+        assertTrue(grafo.estaListo("rut"));
+    }
+
+    @Test
+    public void testDiferidosEsperanLaLiberacion() {
+        grafo.agregar("base", Modo.INMEDIATO, registrar("base"));
+        grafo.agregar("bandeja", Modo.DIFERIDO, registrar("bandeja"), "base");
+
+        grafo.iniciar();
+        principal.correrTodo();
+        assertFalse(grafo.estaListo("bandeja"));
+
+        grafo.liberarDiferidos();
+        grafo.liberarDiferidos();
+        principal.correrTodo();
+
+        assertEquals(Arrays.asList("base", "bandeja"), orden);
+    }
+
+    @Test
+    public void testDiferidoLiberadoAntesQueSuDependenciaDeFondo() {
+        grafo.agregar("firebase", Modo.FONDO, registrar("firebase"));
+        grafo.agregar("bandeja", Modo.DIFERIDO, registrar("bandeja"), "firebase");
+
+        grafo.iniciar();
+        grafo.liberarDiferidos();
+        principal.correrTodo();
+        assertFalse(grafo.estaListo("bandeja"));
+
+        fondo.correrTodo();
+        principal.correrTodo();
+        assertEquals(Arrays.asList("firebase", "bandeja"), orden);
+    }
+
+    @Test
+    public void testCuandoEsteListoCorreEnElPrincipal() {
+        grafo.agregar("ubicacion", Modo.DIFERIDO, registrar("ubicacion"));
+        grafo.iniciar();
+
+        grafo.cuandoEsteListo("ubicacion", () -> orden.add("footer"));
+        grafo.liberarDiferidos();
+        principal.correrTodo();
+        assertEquals(Arrays.asList("ubicacion", "footer"), orden);
+
+        // Ya listo: igual pasa por el executor principal
+        grafo.cuandoEsteListo("ubicacion", () -> orden.add("otra"));
+        assertEquals(2, orden.size());
+        principal.correrTodo();
+        assertEquals("otra", orden.get(2));
+    }
+
+    @Test
+    public void testErrorNoBloqueaALosDependientes() {
+        grafo.agregar("firebase", Modo.INMEDIATO, () -> {
+            throw new IllegalStateException("sin google-services");
+        });
+        grafo.agregar("rut", Modo.INMEDIATO, registrar("rut"), "firebase");
+
+        grafo.iniciar();
+
+        assertEquals(Collections.singletonList("rut"), orden);
+        assertTrue(grafo.getErrores().get("firebase") instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testHitosEnOrdenConElReloj() {
+        grafo.agregar("a", Modo.FONDO, registrar("a"));
+        tiempo = 5;
+        grafo.marcar("application_onCreate");
+        grafo.iniciar();
+        tiempo = 40;
+        fondo.correrTodo();
+        tiempo = 90;
+        grafo.marcar("primer_frame");
+        tiempo = 120;
+        grafo.marcar("primer_frame");
+
+        assertEquals(Arrays.asList("application_onCreate", "a", "primer_frame"),
+                new ArrayList<>(grafo.getHitos().keySet()));
+        assertEquals(Long.valueOf(40), grafo.getHitos().get("a"));
+        assertEquals(Long.valueOf(90), grafo.getHitos().get("primer_frame"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDependenciaNoDeclarada() {
+        grafo.agregar("a", Modo.FONDO, registrar("a"), "fantasma");
+        grafo.iniciar();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCicloDetectado() {
+        grafo.agregar("a", Modo.FONDO, registrar("a"), "b");
+        grafo.agregar("b", Modo.FONDO, registrar("b"), "a");
+        grafo.iniciar();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInmediatoNoPuedeEsperarAFondo() {
+        grafo.agregar("firebase", Modo.FONDO, registrar("firebase"));
+        grafo.agregar("login", Modo.INMEDIATO, registrar("login"), "firebase");
+        grafo.iniciar();
+    }
+}
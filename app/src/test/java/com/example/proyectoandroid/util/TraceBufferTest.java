@@ -0,0 +1,94 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para TraceBuffer
+ */
+public class TraceBufferTest {
+
+    private static TraceBuffer.Tramo tramo(long id, String nombre, long inicio, long duracion) {
+        return new TraceBuffer.Tramo(id, "firestore", nombre, inicio, duracion, 1, "main", null);
+    }
+
+    @Test
+    public void testGuardaEnOrden() {
+        TraceBuffer buffer = new TraceBuffer(4);
+        buffer.agregar(tramo(1, "a", 0, 10));
+        buffer.agregar(tramo(2, "b", 5, 10));
+
+        List<TraceBuffer.Tramo> tramos = buffer.getTramos();
+        assertEquals(2, tramos.size());
+        assertEquals("a", tramos.get(0).nombre);
+        assertEquals("b", tramos.get(1).nombre);
+        assertEquals(0, buffer.getDescartados());
+    }
+
+    @Test
+    public void testAnilloDescartaLosMasAntiguos() {
+        TraceBuffer buffer = new TraceBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.agregar(tramo(i, "t" + i, i, 1));
+        }
+
+        List<TraceBuffer.Tramo> tramos = buffer.getTramos();
+        assertEquals(3, tramos.size());
+        assertEquals("t3", tramos.get(0).nombre);
+        assertEquals("t5", tramos.get(2).nombre);
+        assertEquals(2, buffer.getDescartados());
+    }
+
+    @Test
+    public void testLimpiar() {
+        TraceBuffer buffer = new TraceBuffer(2);
+        buffer.agregar(tramo(1, "a", 0, 1));
+        buffer.agregar(tramo(2, "b", 0, 1));
+        buffer.agregar(tramo(3, "c", 0, 1));
+        buffer.limpiar();
+
+        assertTrue(buffer.getTramos().isEmpty());
+        assertEquals(0, buffer.getDescartados());
+    }
+
+    @Test
+    public void testChromeTraceConEventosAsincronos() throws IOException {
+        TraceBuffer buffer = new TraceBuffer(4);
+        buffer.agregar(new TraceBuffer.Tramo(7, "login", "signIn", 1000, 250, 2, "main", "error"));
+
+        StringWriter salida = new StringWriter();
+        buffer.escribirChromeTrace(salida, 42);
+        String json = salida.toString();
+
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\""));
+        assertTrue(json.contains("{\"ph\":\"M\",\"name\":\"thread_name\",\"pid\":42,\"tid\":2,\"args\":{\"name\":\"main\"}}"));
+        assertTrue(json.contains("{\"ph\":\"b\",\"cat\":\"login\",\"name\":\"signIn\",\"id\":7,\"pid\":42,\"tid\":2,\"ts\":1000}"));
+        assertTrue(json.contains("{\"ph\":\"e\",\"cat\":\"login\",\"name\":\"signIn\",\"id\":7,\"pid\":42,\"tid\":2,\"ts\":1250,\"args\":{\"resultado\":\"error\"}}"));
+        assertTrue(json.endsWith("]}"));
+    }
+
+    @Test
+    public void testChromeTraceVacio() throws IOException {
+        StringWriter salida = new StringWriter();
+        new TraceBuffer(1).escribirChromeTrace(salida, 1);
+        assertEquals("{\"displayTimeUnit\":\"ms\",\"otherData\":{\"descartados\":0},\"traceEvents\":[]}",
+                salida.toString());
+    }
+
+    @Test
+    public void testEscapaTexto() throws IOException {
+        StringWriter salida = new StringWriter();
+        TraceBuffer.escribirTexto(salida, "a\"b\\c\nd\u0001");
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", salida.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacidadInvalida() {
+        new TraceBuffer(0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.proyectoandroid.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitarios para TtlLruCache
+ */
+public class TtlLruCacheTest {
+
+    private long ahora;
+    private TtlLruCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        ahora = 1_000;
+        cache = new TtlLruCache<>(3, () -> ahora);
+    }
+
+    @Test
+    public void testGet_DentroDelTtl() {
+        cache.put("12345678K", "a@b.cl", 100);
+        ahora += 99;
+
+        assertEquals("a@b.cl", cache.get("12345678K"));
+        assertEquals(1, cache.getAciertos());
+        assertEquals(0, cache.getFallos());
+    }
+
+    @Test
+    public void testGet_Vencido() {
+        cache.put("12345678K", "a@b.cl", 100);
+        ahora += 100;
+
+        assertNull(cache.get("12345678K"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    public void testGet_NoExiste_CuentaFallo() {
+        assertNull(cache.get("nada"));
+        assertEquals(0, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    public void testDescartaElMenosUsado() {
+        cache.put("a", "1", 1000);
+        cache.put("b", "2", 1000);
+        cache.put("c", "3", 1000);
+        // "a" pasa a ser la más reciente
+        cache.get("a");
+        cache.put("d", "4", 1000);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("4", cache.get("d"));
+    }
+
+    @Test
+    public void testPutReemplazaYRenuevaTtl() {
+        cache.put("a", "viejo", 10);
+        ahora += 5;
+        cache.put("a", "nuevo", 10);
+        ahora += 8;
+
+        assertEquals("nuevo", cache.get("a"));
+    }
+
+    @Test
+    public void testPutHasta_YaVencido_NoSeGuarda() {
+        cache.put("a", "1", 1000);
+        cache.putHasta("a", "2", ahora);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testPurgar() {
+        cache.put("a", "1", 10);
+        cache.put("b", "2", 100);
+        ahora += 50;
+
+        assertEquals(1, cache.purgar());
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    public void testRemoveYClear() {
+        cache.put("a", "1", 10);
+        cache.put("b", "2", 10);
+        cache.remove("a");
+        assertNull(cache.get("a"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testClaves_SoloLasQueQuedanEnLaCache() {
+        cache.put("a", "1", 10);
+        cache.put("b", "2", 10);
+        cache.put("c", "3", 10);
+        cache.put("d", "4", 10);
+
+        assertEquals(new HashSet<>(Arrays.asList("b", "c", "d")), cache.claves());
+        // No cuenta como acceso: "b" sigue siendo la menos usada
+        cache.put("e", "5", 10);
+        assertNull(cache.get("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValorNull_NoPermitido() {
+        cache.put("a", null, 10);
+    }
+}
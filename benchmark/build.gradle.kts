@@ -0,0 +1,52 @@
+// Microbenchmarks JMH (JVM) de las utilidades puras de la app.
+// Ejecutar con: ./gradlew :benchmark:jmh  (resultados en benchmark/build/results/jmh)
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            // Clases de la app sin dependencias de Android, compiladas tal cual
+            srcDir("../app/src/main/java")
+            include("com/example/proyectoandroid/util/DateUtils.java")
+            include("com/example/proyectoandroid/util/DateParser.java")
+            include("com/example/proyectoandroid/util/Codecs.java")
+            include("com/example/proyectoandroid/util/CamposDocumento.java")
+            include("com/example/proyectoandroid/util/AtencionCodec.java")
+            include("com/example/proyectoandroid/util/CitaCodec.java")
+            include("com/example/proyectoandroid/model/Atencion.java")
+            include("com/example/proyectoandroid/util/RutUtils.java")
+            include("com/example/proyectoandroid/util/ValidationUtils.java")
+            include("com/example/proyectoandroid/util/CitasUtils.java")
+            include("com/example/proyectoandroid/util/SortedListModel.java")
+            include("com/example/proyectoandroid/util/ChangeSet.java")
+            include("com/example/proyectoandroid/util/MedicamentosUtils.java")
+            include("com/example/proyectoandroid/model/Cita.java")
+            include("com/example/proyectoandroid/model/Medicamento.java")
+            // Copias de las implementaciones anteriores para comparar antes/después
+            include("com/example/proyectoandroid/benchmark/**")
+            // Sustitutos mínimos de clases de Android que usan las utilidades
+            include("android/util/**")
+        }
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Asignaciones por operación (gc.alloc.rate.norm)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
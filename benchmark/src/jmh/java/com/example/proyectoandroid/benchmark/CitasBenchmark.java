@@ -0,0 +1,91 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.util.ChangeSet;
+import com.example.proyectoandroid.util.CitasUtils;
+import com.example.proyectoandroid.util.SortedListModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtrado y orden de las próximas citas con historiales de 1, 100 y 10.000 citas
+ * (2 años hacia atrás, 2 meses hacia adelante).
+ *
+ * "procesarCitas*" reproduce el trabajo de PacienteRepository.procesarCitas sin Firestore:
+ * filtrar con esProxima, insertar en el SortedListModel, purgar las pasadas y recortar el
+ * ChangeSet al límite. "Inicial" es el primer snapshot (modelo vacío); "UnCambio" es un
+ * snapshot posterior con una sola cita modificada sobre el modelo ya cargado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CitasBenchmark {
+    private static final int LIMITE = 5;
+
+    @Param({"1", "100", "10000"})
+    public int tamano;
+
+    private Date ahora;
+    private List<Cita> citas;
+    private SortedListModel<Cita> cargado;
+    private Cita modificada;
+
+    @Setup
+    public void setUp() {
+        ahora = new Date();
+        citas = DatosSimulados.citas(tamano, ahora, new Random(42));
+        cargado = nuevoModelo();
+        aplicar(cargado, citas, CitasUtils.inicioDelDia(ahora));
+        cargado.confirmar();
+        Cita original = citas.get(citas.size() / 2);
+        modificada = new Cita(original.getId(), original.getFecha(), original.getHora(),
+                original.getMotivo(), original.getMedico(), "confirmada", original.getTipo());
+    }
+
+    private static SortedListModel<Cita> nuevoModelo() {
+        return new SortedListModel<>(CitasUtils.POR_FECHA, Cita::getId);
+    }
+
+    private static void aplicar(SortedListModel<Cita> modelo, List<Cita> cambios, Date inicioDeHoy) {
+        for (Cita cita : cambios) {
+            if (CitasUtils.esProxima(cita, inicioDeHoy)) {
+                modelo.insertarOActualizar(cita);
+            } else {
+                modelo.eliminar(cita.getId());
+            }
+        }
+        while (modelo.size() > 0 && !CitasUtils.esProxima(modelo.get(0), inicioDeHoy)) {
+            modelo.eliminar(modelo.get(0).getId());
+        }
+    }
+
+    @Benchmark
+    public List<Cita> filtrarProximas() {
+        return CitasUtils.filtrarProximas(citas, ahora, LIMITE);
+    }
+
+    @Benchmark
+    public ChangeSet<Cita> procesarCitasInicial() {
+        SortedListModel<Cita> modelo = nuevoModelo();
+        aplicar(modelo, citas, CitasUtils.inicioDelDia(ahora));
+        return modelo.confirmar().primeros(LIMITE);
+    }
+
+    @Benchmark
+    public ChangeSet<Cita> procesarCitasUnCambio() {
+        aplicar(cargado, List.of(modificada), CitasUtils.inicioDelDia(ahora));
+        return cargado.confirmar().primeros(LIMITE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.benchmark.legacy.LegacyDateUtils;
+import com.example.proyectoandroid.util.DateUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formateo y parseo de fechas: implementación anterior (SimpleDateFormat por llamada)
+ * frente a la actual (java.time + caché). Con el perfilador "gc" se obtienen también
+ * los bytes asignados por llamada (gc.alloc.rate.norm).
+ *
+ * "historial": fechas de los últimos 2 años (muchas repetidas por día, como en las listas).
+ * "dispersas": fechas repartidas en 200 años (casi siempre fallan en la caché).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DateUtilsBenchmark {
+    private static final int CANTIDAD = 4096;
+    private static final long MILLIS_POR_DIA = 24L * 60 * 60 * 1000;
+
+    @Param({"historial", "dispersas"})
+    public String distribucion;
+
+    private Date[] fechas;
+    private String[] textos;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long ahora = System.currentTimeMillis();
+        long rango = "historial".equals(distribucion) ? 730 * MILLIS_POR_DIA : 200 * 365 * MILLIS_POR_DIA;
+        fechas = new Date[CANTIDAD];
+        textos = new String[CANTIDAD];
+        for (int k = 0; k < CANTIDAD; k++) {
+            fechas[k] = new Date(ahora - (long) (random.nextDouble() * rango));
+            textos[k] = LegacyDateUtils.formatDateForDisplay(fechas[k]);
+        }
+    }
+
+    private int siguiente() {
+        i = (i + 1) & (CANTIDAD - 1);
+        return i;
+    }
+
+    @Benchmark
+    public String formatDisplayAnterior() {
+        return LegacyDateUtils.formatDateForDisplay(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public String formatDisplay() {
+        return DateUtils.formatDateForDisplay(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public String formatStorageAnterior() {
+        return LegacyDateUtils.formatDateForStorage(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public String formatStorage() {
+        return DateUtils.formatDateForStorage(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public String formatTimeAnterior() {
+        return LegacyDateUtils.formatTime(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public String formatTime() {
+        return DateUtils.formatTime(fechas[siguiente()]);
+    }
+
+    @Benchmark
+    public Date parseDateAnterior() {
+        return LegacyDateUtils.parseDate(textos[siguiente()]);
+    }
+
+    @Benchmark
+    public Date parseDate() {
+        return DateUtils.parseDate(textos[siguiente()]);
+    }
+}
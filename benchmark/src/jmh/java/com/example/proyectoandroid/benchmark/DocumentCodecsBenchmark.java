@@ -0,0 +1,132 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.benchmark.legacy.LegacyMapeo;
+import com.example.proyectoandroid.benchmark.legacy.MapeoReflexivo;
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.util.AtencionCodec;
+import com.example.proyectoandroid.util.CitaCodec;
+import com.example.proyectoandroid.util.Codecs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de documentos a modelos: getString/getTimestamp por campo (implementación anterior),
+ * reflexión al estilo toObject() y los codecs actuales (una pasada sobre getData()).
+ * También la escritura: HashMap nuevo por documento frente a CamposDocumento.
+ * Con el perfilador "gc" se obtienen los bytes asignados por documento (gc.alloc.rate.norm).
+ *
+ * Los documentos imitan los reales: pocos médicos, estados y tipos repetidos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DocumentCodecsBenchmark {
+    private static final int CANTIDAD = 1024;
+    private static final String[] MEDICOS = {"Dra. Pérez", "Dr. Soto", "Dra. Muñoz", "Dr. Rojas"};
+    private static final String[] ESTADOS = {"pendiente", "confirmada", "cancelada"};
+    private static final String[] TIPOS = {"consulta", "control", "examen"};
+
+    private final AtencionCodec atencionCodec = new AtencionCodec(Codecs.FECHAS_JAVA);
+    private final CitaCodec citaCodec = new CitaCodec(Codecs.FECHAS_JAVA);
+    private DocumentoSimulado[] atenciones;
+    private DocumentoSimulado[] citas;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        atenciones = new DocumentoSimulado[CANTIDAD];
+        citas = new DocumentoSimulado[CANTIDAD];
+        for (int k = 0; k < CANTIDAD; k++) {
+            Date fecha = new Date(1_700_000_000_000L + random.nextInt(1_000_000) * 60_000L);
+
+            Map<String, Object> atencion = new HashMap<>();
+            atencion.put("emailPaciente", "paciente" + k + "@correo.cl");
+            atencion.put("rutPaciente", (10_000_000 + k) + "K");
+            atencion.put("fecha", fecha);
+            atencion.put("motivo", "Control de rutina " + k);
+            // new String: en Firestore cada documento trae su propia copia del texto
+            atencion.put("medico", new String(MEDICOS[random.nextInt(MEDICOS.length)]));
+            atencion.put("diagnostico", "Sin hallazgos");
+            atencion.put("observaciones", "Volver en 6 meses");
+            atenciones[k] = new DocumentoSimulado("atencion" + k, atencion);
+
+            Map<String, Object> cita = new HashMap<>();
+            cita.put("emailPaciente", "paciente" + k + "@correo.cl");
+            cita.put("rutPaciente", (10_000_000 + k) + "K");
+            cita.put("fecha", fecha);
+            cita.put("hora", new String((8 + random.nextInt(10)) + ":00"));
+            cita.put("motivo", "Consulta " + k);
+            cita.put("medico", new String(MEDICOS[random.nextInt(MEDICOS.length)]));
+            cita.put("estado", new String(ESTADOS[random.nextInt(ESTADOS.length)]));
+            cita.put("tipo", new String(TIPOS[random.nextInt(TIPOS.length)]));
+            citas[k] = new DocumentoSimulado("cita" + k, cita);
+        }
+    }
+
+    private int siguiente() {
+        i = (i + 1) & (CANTIDAD - 1);
+        return i;
+    }
+
+    @Benchmark
+    public Atencion atencionAnterior() {
+        return LegacyMapeo.mapearAtencion(atenciones[siguiente()]);
+    }
+
+    @Benchmark
+    public Atencion atencionReflexion() {
+        DocumentoSimulado doc = atenciones[siguiente()];
+        return MapeoReflexivo.convertir(doc.getId(), doc.getData(), Atencion.class);
+    }
+
+    @Benchmark
+    public Atencion atencionCodec() {
+        DocumentoSimulado doc = atenciones[siguiente()];
+        return atencionCodec.decodificar(doc.getId(), doc.getData());
+    }
+
+    @Benchmark
+    public Cita citaAnterior() {
+        return LegacyMapeo.mapearCita(citas[siguiente()]);
+    }
+
+    @Benchmark
+    public Cita citaReflexion() {
+        DocumentoSimulado doc = citas[siguiente()];
+        return MapeoReflexivo.convertir(doc.getId(), doc.getData(), Cita.class);
+    }
+
+    @Benchmark
+    public Cita citaCodec() {
+        DocumentoSimulado doc = citas[siguiente()];
+        return citaCodec.decodificar(doc.getId(), doc.getData());
+    }
+
+    @Benchmark
+    public Map<String, Object> escrituraAnterior() {
+        int k = siguiente();
+        return LegacyMapeo.datosAtencion("paciente@correo.cl", "12345678K", new Date(k),
+                "Control", MEDICOS[k & 3], null, "Volver en 6 meses");
+    }
+
+    @Benchmark
+    public Map<String, Object> escrituraCodec() {
+        int k = siguiente();
+        return AtencionCodec.codificar("paciente@correo.cl", "12345678K", new Date(k),
+                "Control", MEDICOS[k & 3], null, "Volver en 6 meses");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.util.MedicamentosUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de "activo" al mapear medicamentos (MedicamentoRepository y LocalDatabase) sobre
+ * listas de 1, 100 y 10.000 tratamientos. Cada operación recorre la lista completa.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MedicamentosActivosBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int tamano;
+
+    private List<Medicamento> medicamentos;
+
+    @Setup
+    public void setUp() {
+        medicamentos = DatosSimulados.medicamentos(tamano, new Date(), new Random(42));
+    }
+
+    @Benchmark
+    public int contarActivos() {
+        // Una sola fecha "ahora" por lista, como al mapear un snapshot
+        Date ahora = new Date();
+        int activos = 0;
+        for (Medicamento medicamento : medicamentos) {
+            if (MedicamentosUtils.estaActivo(medicamento.getFechaInicio(), medicamento.getFechaFin(), ahora)) {
+                activos++;
+            }
+        }
+        return activos;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.util.RutUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalización y validación de RUT sobre lotes de 1, 100 y 10.000 RUT escritos a mano
+ * (con y sin puntos, DV en minúscula, ~10% inválidos). Cada operación procesa el lote
+ * completo, así que el throughput y gc.alloc.rate.norm son por lote.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RutUtilsBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int tamano;
+
+    private String[] ruts;
+    private String[] normalizados;
+    private String[] cuerpos;
+
+    @Setup
+    public void setUp() {
+        ruts = DatosSimulados.rutsConFormato(tamano, new Random(42));
+        normalizados = new String[tamano];
+        cuerpos = new String[tamano];
+        for (int k = 0; k < tamano; k++) {
+            normalizados[k] = RutUtils.normalizarRut(ruts[k]);
+            cuerpos[k] = normalizados[k].substring(0, normalizados[k].length() - 1);
+        }
+    }
+
+    @Benchmark
+    public void normalizar(Blackhole bh) {
+        for (String rut : ruts) {
+            bh.consume(RutUtils.normalizarRut(rut));
+        }
+    }
+
+    @Benchmark
+    public void validar(Blackhole bh) {
+        for (String rut : normalizados) {
+            bh.consume(RutUtils.esRutValidoConAlgoritmo(rut));
+        }
+    }
+
+    /**
+     * Lo que hace el login con el texto del usuario: normalizar y validar
+     */
+    @Benchmark
+    public void normalizarYValidar(Blackhole bh) {
+        for (String rut : ruts) {
+            bh.consume(RutUtils.esRutValidoConAlgoritmo(RutUtils.normalizarRut(rut)));
+        }
+    }
+
+    @Benchmark
+    public void calcularDV(Blackhole bh) {
+        for (String cuerpo : cuerpos) {
+            bh.consume(RutUtils.calcularDV(cuerpo));
+        }
+    }
+}
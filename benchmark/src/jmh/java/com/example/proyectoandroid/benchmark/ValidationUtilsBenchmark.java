@@ -0,0 +1,69 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.util.ValidationUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validaciones de los formularios de registro sobre lotes de 1, 100 y 10.000 valores.
+ * Cada operación procesa el lote completo (throughput y gc.alloc.rate.norm por lote).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationUtilsBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int tamano;
+
+    private String[] emails;
+    private String[] telefonos;
+    private String[] nombres;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        emails = DatosSimulados.emails(tamano, random);
+        telefonos = DatosSimulados.telefonos(tamano, random);
+        nombres = DatosSimulados.nombres(tamano, random);
+    }
+
+    @Benchmark
+    public void email(Blackhole bh) {
+        for (String email : emails) {
+            bh.consume(ValidationUtils.esEmailValido(email));
+        }
+    }
+
+    @Benchmark
+    public void telefono(Blackhole bh) {
+        for (String telefono : telefonos) {
+            bh.consume(ValidationUtils.esTelefonoValido(telefono));
+        }
+    }
+
+    @Benchmark
+    public void nombre(Blackhole bh) {
+        for (String nombre : nombres) {
+            bh.consume(ValidationUtils.esNombreValido(nombre));
+        }
+    }
+
+    @Benchmark
+    public void password(Blackhole bh) {
+        for (String email : emails) {
+            bh.consume(ValidationUtils.esPasswordValida(email, 6));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package android.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Sustituto de android.util.Patterns para compilar ValidationUtils en la JVM.
+ * EMAIL_ADDRESS es la misma expresión que usa Android.
+ */
+public final class Patterns {
+    public static final Pattern EMAIL_ADDRESS = Pattern.compile(
+            "[a-zA-Z0-9\\+\\.\\_\\%\\-\\+]{1,256}" +
+            "\\@" +
+            "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,64}" +
+            "(" +
+                "\\." +
+                "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,25}" +
+            ")+"
+    );
+
+    private Patterns() {}
+}
@@ -0,0 +1,98 @@
+package com.example.proyectoandroid.benchmark;
+
+import com.example.proyectoandroid.model.Cita;
+import com.example.proyectoandroid.model.Medicamento;
+import com.example.proyectoandroid.util.RutUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de prueba con la forma de los reales, generados con semilla fija para que cada
+ * ejecución mida lo mismo
+ */
+public final class DatosSimulados {
+    public static final long MILLIS_POR_DIA = 24L * 60 * 60 * 1000;
+
+    private static final String[] ESTADOS = {"pendiente", "confirmada", "cancelada"};
+    private static final String[] MEDICOS = {"Dra. Pérez", "Dr. Soto", "Dra. Muñoz", "Dr. Rojas"};
+    private static final String[] NOMBRES = {"María José", "Juan Pérez González", "Ñuñoa Ávila", "José", "Ana-María"};
+
+    private DatosSimulados() {}
+
+    /**
+     * RUT como los escribe la gente ("12.345.678-5", con y sin puntos); ~10% con DV incorrecto
+     */
+    public static String[] rutsConFormato(int cantidad, Random random) {
+        String[] ruts = new String[cantidad];
+        for (int k = 0; k < cantidad; k++) {
+            String cuerpo = Integer.toString(5_000_000 + random.nextInt(20_000_000));
+            String dv = random.nextInt(10) == 0 ? "1" : RutUtils.calcularDV(cuerpo);
+            if (random.nextBoolean()) {
+                int n = cuerpo.length();
+                cuerpo = cuerpo.substring(0, n - 6) + "." + cuerpo.substring(n - 6, n - 3) + "." + cuerpo.substring(n - 3);
+            }
+            ruts[k] = cuerpo + "-" + (random.nextBoolean() ? dv.toLowerCase() : dv);
+        }
+        return ruts;
+    }
+
+    public static String[] emails(int cantidad, Random random) {
+        String[] emails = new String[cantidad];
+        for (int k = 0; k < cantidad; k++) {
+            emails[k] = random.nextInt(10) == 0 ? "paciente" + k + "@correo" : "paciente." + k + "@correo.cl";
+        }
+        return emails;
+    }
+
+    public static String[] telefonos(int cantidad, Random random) {
+        String[] telefonos = new String[cantidad];
+        for (int k = 0; k < cantidad; k++) {
+            int numero = 10_000_000 + random.nextInt(90_000_000);
+            telefonos[k] = random.nextBoolean() ? "+56 9 " + numero : "9-" + numero;
+        }
+        return telefonos;
+    }
+
+    public static String[] nombres(int cantidad, Random random) {
+        String[] nombres = new String[cantidad];
+        for (int k = 0; k < cantidad; k++) {
+            nombres[k] = NOMBRES[random.nextInt(NOMBRES.length)];
+        }
+        return nombres;
+    }
+
+    /**
+     * Historial de citas de un paciente: 2 años hacia atrás y 2 meses hacia adelante
+     */
+    public static List<Cita> citas(int cantidad, Date ahora, Random random) {
+        List<Cita> citas = new ArrayList<>(cantidad);
+        for (int k = 0; k < cantidad; k++) {
+            long desplazamiento = (long) ((random.nextDouble() * 790 - 730) * MILLIS_POR_DIA);
+            citas.add(new Cita("cita" + k, new Date(ahora.getTime() + desplazamiento),
+                    (8 + random.nextInt(10)) + ":00", "Consulta " + k,
+                    MEDICOS[random.nextInt(MEDICOS.length)], ESTADOS[random.nextInt(ESTADOS.length)], "consulta"));
+        }
+        return citas;
+    }
+
+    /**
+     * Tratamientos de hasta 90 días repartidos en el último año (algunos sin fecha de término)
+     */
+    public static List<Medicamento> medicamentos(int cantidad, Date ahora, Random random) {
+        List<Medicamento> medicamentos = new ArrayList<>(cantidad);
+        for (int k = 0; k < cantidad; k++) {
+            Medicamento medicamento = new Medicamento();
+            medicamento.setId("med" + k);
+            long inicio = ahora.getTime() - (long) (random.nextDouble() * 365 * MILLIS_POR_DIA);
+            medicamento.setFechaInicio(new Date(inicio));
+            if (random.nextInt(20) != 0) {
+                medicamento.setFechaFin(new Date(inicio + (1 + random.nextInt(90)) * MILLIS_POR_DIA));
+            }
+            medicamentos.add(medicamento);
+        }
+        return medicamentos;
+    }
+}
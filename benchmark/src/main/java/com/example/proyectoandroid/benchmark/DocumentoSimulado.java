@@ -0,0 +1,68 @@
+package com.example.proyectoandroid.benchmark;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sustituto de DocumentSnapshot para los benchmarks (Firestore no corre en la JVM).
+ * Reproduce el costo de cada forma de acceso:
+ * - getString/getTimestamp: cada llamada interpreta la ruta del campo (como
+ *   FieldPath.fromDotSeparatedPath), busca el valor y verifica el tipo.
+ * - getData: una sola pasada que copia todos los campos a un HashMap nuevo.
+ * Las fechas se guardan como Date (en Firestore serían Timestamp).
+ */
+public class DocumentoSimulado {
+    private final String id;
+    private final Map<String, Object> campos;
+
+    public DocumentoSimulado(String id, Map<String, Object> campos) {
+        this.id = id;
+        this.campos = campos;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getString(String campo) {
+        Object valor = buscar(campo);
+        if (valor != null && !(valor instanceof String)) {
+            throw new RuntimeException("Field '" + campo + "' is not a java.lang.String");
+        }
+        return (String) valor;
+    }
+
+    public Date getTimestamp(String campo) {
+        Object valor = buscar(campo);
+        if (valor != null && !(valor instanceof Date)) {
+            throw new RuntimeException("Field '" + campo + "' is not a Timestamp");
+        }
+        return valor != null ? new Date(((Date) valor).getTime()) : null;
+    }
+
+    public Map<String, Object> getData() {
+        Map<String, Object> datos = new HashMap<>();
+        for (Map.Entry<String, Object> campo : campos.entrySet()) {
+            Object valor = campo.getValue();
+            datos.put(campo.getKey(), valor instanceof Date ? new Date(((Date) valor).getTime()) : valor);
+        }
+        return datos;
+    }
+
+    private Object buscar(String ruta) {
+        // Cada acceso por nombre vuelve a separar y validar la ruta
+        String[] segmentos = ruta.split("\\.", -1);
+        for (String segmento : segmentos) {
+            if (segmento.isEmpty()) {
+                throw new IllegalArgumentException("Invalid field path (" + ruta + ")");
+            }
+        }
+        Object valor = campos;
+        for (String segmento : segmentos) {
+            if (!(valor instanceof Map)) return null;
+            valor = ((Map<?, ?>) valor).get(segmento);
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.proyectoandroid.benchmark.legacy;
+
+import com.example.proyectoandroid.benchmark.DocumentoSimulado;
+import com.example.proyectoandroid.model.Atencion;
+import com.example.proyectoandroid.model.Cita;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copia del mapeo anterior de los repositorios (un getString/getTimestamp por campo y un
+ * HashMap nuevo por escritura), solo para comparar en los benchmarks
+ */
+public class LegacyMapeo {
+
+    public static Atencion mapearAtencion(DocumentoSimulado doc) {
+        Atencion atencion = new Atencion();
+        atencion.setId(doc.getId());
+        atencion.setMotivo(doc.getString("motivo"));
+        atencion.setMedico(doc.getString("medico"));
+        atencion.setDiagnostico(doc.getString("diagnostico"));
+        atencion.setObservaciones(doc.getString("observaciones"));
+
+        // Convertir timestamp a Date
+        Date fecha = doc.getTimestamp("fecha");
+        if (fecha != null) {
+            atencion.setFecha(fecha);
+        }
+        return atencion;
+    }
+
+    public static Cita mapearCita(DocumentoSimulado doc) {
+        Cita cita = new Cita();
+        cita.setId(doc.getId());
+        cita.setHora(doc.getString("hora"));
+        cita.setMotivo(doc.getString("motivo"));
+        cita.setMedico(doc.getString("medico"));
+        cita.setEstado(doc.getString("estado"));
+        cita.setTipo(doc.getString("tipo"));
+
+        // Convertir timestamp a Date
+        Date fecha = doc.getTimestamp("fecha");
+        if (fecha != null) {
+            cita.setFecha(fecha);
+        }
+        return cita;
+    }
+
+    public static Map<String, Object> datosAtencion(String emailPaciente, String rutPaciente, Date fecha,
+                                                    String motivo, String medico, String diagnostico,
+                                                    String observaciones) {
+        Map<String, Object> atencion = new HashMap<>();
+        atencion.put("emailPaciente", emailPaciente);
+        atencion.put("rutPaciente", rutPaciente);
+        atencion.put("fecha", fecha);
+        atencion.put("motivo", motivo);
+        atencion.put("medico", medico);
+        atencion.put("diagnostico", diagnostico != null ? diagnostico : "");
+        atencion.put("observaciones", observaciones != null ? observaciones : "");
+        return atencion;
+    }
+}
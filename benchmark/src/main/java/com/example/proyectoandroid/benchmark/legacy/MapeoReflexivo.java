@@ -0,0 +1,80 @@
+package com.example.proyectoandroid.benchmark.legacy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Equivalente a DocumentSnapshot.toObject() para los benchmarks: como el CustomClassMapper
+ * de Firestore, arma una vez por clase el mapa de setters y en cada documento crea la
+ * instancia y asigna cada campo por reflexión, convirtiendo el valor al tipo del setter.
+ */
+public class MapeoReflexivo {
+
+    private static final Map<Class<?>, Bean<?>> beans = new ConcurrentHashMap<>();
+
+    private static final class Bean<T> {
+        final Constructor<T> constructor;
+        // Nombre de la propiedad en minúsculas -> setter
+        final Map<String, Method> setters = new HashMap<>();
+
+        Bean(Class<T> clase) throws ReflectiveOperationException {
+            constructor = clase.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            for (Method metodo : clase.getMethods()) {
+                String nombre = metodo.getName();
+                if (nombre.startsWith("set") && nombre.length() > 3 && metodo.getParameterCount() == 1) {
+                    setters.put(nombre.substring(3).toLowerCase(Locale.US), metodo);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T convertir(String id, Map<String, Object> datos, Class<T> clase) {
+        try {
+            Bean<T> bean = (Bean<T>) beans.get(clase);
+            if (bean == null) {
+                bean = new Bean<>(clase);
+                beans.put(clase, bean);
+            }
+            T instancia = bean.constructor.newInstance();
+            for (Map.Entry<String, Object> campo : datos.entrySet()) {
+                Method setter = bean.setters.get(campo.getKey().toLowerCase(Locale.US));
+                if (setter == null) {
+                    // Firestore solo registra una advertencia por propiedad desconocida
+                    continue;
+                }
+                setter.invoke(instancia, convertirValor(campo.getValue(), setter.getParameterTypes()[0]));
+            }
+            // @DocumentId
+            Method setId = bean.setters.get("id");
+            if (setId != null) {
+                setId.invoke(instancia, id);
+            }
+            return instancia;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Object convertirValor(Object valor, Class<?> tipo) {
+        if (valor == null) return null;
+        if (tipo == String.class) {
+            if (valor instanceof String) return valor;
+            throw new RuntimeException("Failed to convert value of type " + valor.getClass().getName() + " to String");
+        }
+        if (tipo == Date.class) {
+            if (valor instanceof Date) return valor;
+            throw new RuntimeException("Failed to convert value of type " + valor.getClass().getName() + " to Date");
+        }
+        if (tipo == boolean.class || tipo == Boolean.class) {
+            return valor;
+        }
+        throw new RuntimeException("Tipo no soportado: " + tipo.getName());
+    }
+}